@@ -0,0 +1,253 @@
+package com.akylas.yolbiltest.background;
+
+import android.content.Context;
+
+import androidx.annotation.Nullable;
+import androidx.lifecycle.Lifecycle;
+import androidx.lifecycle.LifecycleEventObserver;
+import androidx.lifecycle.LifecycleOwner;
+
+import com.basarsoft.yolbil.location.Location;
+import com.basarsoft.yolbil.location.LocationListener;
+
+import java.lang.ref.WeakReference;
+import java.util.Arrays;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Süreç genelinde tek konum dağıtıcısı. {@link ServiceGPSLocationSource}'a yalnızca bir SDK listener'ı
+ * eklenir; ekranlar ve navigasyon bu veriyolundan abone olur. Böylece her rota veya fragment yeniden
+ * oluşturulmasında kaynağa yeni listener eklenip unutulmaz.
+ *
+ * <ul>
+ *     <li>Abonelik kapatılabilir, bir {@link LifecycleOwner}'a bağlanırsa ON_DESTROY'da kendiliğinden kapanır.</li>
+ *     <li>Veriyolu listener'ı zayıf tutar; sahibi toplanan abonelik bir sonraki yayında düşer. Listener'ı sahibi
+ *     bir alanda tutmalıdır.</li>
+ *     <li>Her abonenin tek bekleyen değeri vardır: yavaş abone araya giren fix'leri atlar ve her zaman en
+ *     günceli alır (birleştirilen sayısı izlenir). Aboneye teslim sıralı ve kendi yürütücüsündedir.</li>
+ *     <li>Yayın kilitsizdir ve abone başına sabit iş yapar; abone sayısı {@link #MAX_SUBSCRIBERS} ile
+ *     sınırlıdır. Yeni abone son değeri hemen alır.</li>
+ * </ul>
+ */
+public final class LocationBus<T> {
+
+    public static final int MAX_SUBSCRIBERS = 64;
+
+    private static volatile LocationBus<Location> shared;
+
+    /** Konum alıcısı; abonelikte verilen yürütücüde çağrılır. */
+    public interface Listener<T> {
+        void onLocation(T location);
+    }
+
+    /** Tek aboneliğin tutamacı; kapatıldıktan sonra teslim yapılmaz. */
+    public static final class Subscription<T> implements Runnable {
+        private final LocationBus<T> bus;
+        private final WeakReference<Listener<T>> listener;
+        private final Executor executor;
+        private final AtomicReference<T> pending = new AtomicReference<>();
+        private final AtomicBoolean drainScheduled = new AtomicBoolean();
+        private final AtomicLong delivered = new AtomicLong();
+        private final AtomicLong conflated = new AtomicLong();
+        private volatile boolean active = true;
+
+        private Subscription(LocationBus<T> bus, Listener<T> listener, Executor executor) {
+            this.bus = bus;
+            this.listener = new WeakReference<>(listener);
+            this.executor = executor;
+        }
+
+        /** Yayıncı thread'inde: bekleyen değeri yenisiyle değiştirir, gerekirse boşaltma planlar. */
+        private void offer(T location) {
+            if (pending.getAndSet(location) != null) {
+                conflated.incrementAndGet();
+            }
+            if (drainScheduled.compareAndSet(false, true)) {
+                try {
+                    executor.execute(this);
+                } catch (RuntimeException rejected) {
+                    // Yürütücü kapatıldı; abonelik kapanır, sahibi isActive() ile görebilir.
+                    drainScheduled.set(false);
+                    close();
+                }
+            }
+        }
+
+        /** Abonenin yürütücüsünde bekleyen değeri teslim eder. */
+        @Override
+        public void run() {
+            while (true) {
+                T location = pending.getAndSet(null);
+                if (location == null) {
+                    drainScheduled.set(false);
+                    // Bayrak bırakılırken gelen değer boşaltma planlayamamış olabilir; sahiplik geri alınır.
+                    if (pending.get() != null && drainScheduled.compareAndSet(false, true)) {
+                        continue;
+                    }
+                    return;
+                }
+                if (!active) {
+                    continue;
+                }
+                Listener<T> target = listener.get();
+                if (target == null) {
+                    close();
+                    continue;
+                }
+                target.onLocation(location);
+                delivered.incrementAndGet();
+            }
+        }
+
+        public void close() {
+            if (active) {
+                active = false;
+                pending.set(null);
+                bus.remove(this);
+            }
+        }
+
+        public boolean isActive() {
+            return active;
+        }
+
+        public long getDeliveredCount() {
+            return delivered.get();
+        }
+
+        /** Teslim edilmeden yenisiyle değiştirilen değer sayısı. */
+        public long getConflatedCount() {
+            return conflated.get();
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private final AtomicReference<Subscription<T>[]> subscriptions =
+            new AtomicReference<>((Subscription<T>[]) new Subscription[0]);
+    private final AtomicReference<T> latest = new AtomicReference<>();
+    private final AtomicLong published = new AtomicLong();
+    // SWIG listener'ı Java tarafında referans tutulmazsa toplanabilir.
+    @Nullable
+    private LocationListener sourceListener;
+
+    /** Uygulamanın tek veriyolu; ilk çağrıda ortak konum kaynağına bağlanır. */
+    public static LocationBus<Location> shared(Context context) {
+        if (shared == null) {
+            synchronized (LocationBus.class) {
+                if (shared == null) {
+                    LocationBus<Location> bus = new LocationBus<>();
+                    bus.sourceListener = new LocationListener() {
+                        @Override
+                        public void onLocationChange(Location location) {
+                            bus.publish(location);
+                        }
+                    };
+                    ServiceGPSLocationSource.getInstance(context).addListener(bus.sourceListener);
+                    shared = bus;
+                }
+            }
+        }
+        return shared;
+    }
+
+    /**
+     * Abonelik açar; listener zayıf tutulur. Sınır aşılırsa kapalı abonelik döner; loglama çağırana aittir.
+     *
+     * @param executor teslim yürütücüsü; yayıncı thread'inde teslim için {@code Runnable::run}
+     */
+    public Subscription<T> subscribe(Executor executor, Listener<T> listener) {
+        Subscription<T> subscription = new Subscription<>(this, listener, executor);
+        while (true) {
+            Subscription<T>[] current = subscriptions.get();
+            if (current.length >= MAX_SUBSCRIBERS) {
+                subscription.active = false;
+                return subscription;
+            }
+            Subscription<T>[] next = Arrays.copyOf(current, current.length + 1);
+            next[current.length] = subscription;
+            if (subscriptions.compareAndSet(current, next)) {
+                break;
+            }
+        }
+        T last = latest.get();
+        if (last != null) {
+            subscription.offer(last);
+        }
+        return subscription;
+    }
+
+    /**
+     * owner ON_DESTROY'a ulaşınca kapanan abonelik; ana thread'den çağrılmalıdır. owner zaten yok
+     * edildiyse kapalı abonelik döner.
+     */
+    public Subscription<T> subscribe(LifecycleOwner owner, Executor executor, Listener<T> listener) {
+        final Lifecycle lifecycle = owner.getLifecycle();
+        final Subscription<T> subscription = subscribe(executor, listener);
+        if (lifecycle.getCurrentState() == Lifecycle.State.DESTROYED) {
+            subscription.close();
+            return subscription;
+        }
+        lifecycle.addObserver(new LifecycleEventObserver() {
+            @Override
+            public void onStateChanged(LifecycleOwner source, Lifecycle.Event event) {
+                if (event == Lifecycle.Event.ON_DESTROY) {
+                    lifecycle.removeObserver(this);
+                    subscription.close();
+                }
+            }
+        });
+        return subscription;
+    }
+
+    /** Yeni değeri tüm abonelere bırakır; kilit almaz ve teslimi beklemez. */
+    public void publish(T location) {
+        if (location == null) {
+            return;
+        }
+        latest.set(location);
+        published.incrementAndGet();
+        for (Subscription<T> subscription : subscriptions.get()) {
+            if (subscription.active) {
+                subscription.offer(location);
+            }
+        }
+    }
+
+    /** Son yayınlanan değer; henüz yoksa null. */
+    @Nullable
+    public T getLatest() {
+        return latest.get();
+    }
+
+    public int getSubscriberCount() {
+        return subscriptions.get().length;
+    }
+
+    public long getPublishedCount() {
+        return published.get();
+    }
+
+    private void remove(Subscription<T> subscription) {
+        while (true) {
+            Subscription<T>[] current = subscriptions.get();
+            int index = -1;
+            for (int i = 0; i < current.length; i++) {
+                if (current[i] == subscription) {
+                    index = i;
+                    break;
+                }
+            }
+            if (index < 0) {
+                return;
+            }
+            Subscription<T>[] next = Arrays.copyOf(current, current.length - 1);
+            System.arraycopy(current, index + 1, next, index, current.length - index - 1);
+            if (subscriptions.compareAndSet(current, next)) {
+                return;
+            }
+        }
+    }
+}
@@ -12,7 +12,6 @@ import android.content.pm.PackageManager;
 import android.location.Location;
 import android.os.Build;
 import android.os.IBinder;
-import android.os.Looper;
 import android.util.Log;
 
 import androidx.annotation.Nullable;
@@ -21,12 +20,6 @@ import androidx.core.content.ContextCompat;
 
 import com.akylas.yolbiltest.MainActivity;
 import com.akylas.yolbiltest.R;
-import com.google.android.gms.location.FusedLocationProviderClient;
-import com.google.android.gms.location.LocationCallback;
-import com.google.android.gms.location.LocationRequest;
-import com.google.android.gms.location.LocationResult;
-import com.google.android.gms.location.LocationServices;
-import com.google.android.gms.location.Priority;
 
 import java.util.Locale;
 
@@ -35,29 +28,15 @@ public class LocationForegroundService extends Service {
     private static final String CHANNEL_ID = "location_tracking_channel";
     private static final int NOTIFICATION_ID = 1011;
 
-    private FusedLocationProviderClient fusedLocationClient;
-    private LocationCallback locationCallback;
-    private ServiceGPSLocationSource gpsLocationSource;
+    private LocationMultiplexer<Location> multiplexer;
+    @Nullable
+    private LocationMultiplexer<Location>.Lease locationLease;
 
     @Override
     public void onCreate() {
         super.onCreate();
-        gpsLocationSource = ServiceGPSLocationSource.getInstance(getApplicationContext());
-        fusedLocationClient = LocationServices.getFusedLocationProviderClient(getApplicationContext());
-        locationCallback = new LocationCallback() {
-            @Override
-            public void onLocationResult(LocationResult locationResult) {
-                if (locationResult == null) {
-                    return;
-                }
-                Location location = locationResult.getLastLocation();
-                if (location == null) {
-                    return;
-                }
-                gpsLocationSource.updateFromService(location);
-                updateNotification(location.getLatitude(), location.getLongitude());
-            }
-        };
+        // SDK kaynağı ve AppSession ekranlarla aynı fix'ten beslenir; servis yalnızca bildirimi günceller.
+        multiplexer = LocationMultiplexer.getInstance(getApplicationContext());
     }
 
     @Override
@@ -94,12 +73,13 @@ public class LocationForegroundService extends Service {
             return;
         }
 
+        if (locationLease != null && !locationLease.isReleased()) {
+            return;
+        }
         try {
-            LocationRequest locationRequest = new LocationRequest.Builder(Priority.PRIORITY_HIGH_ACCURACY, 2000)
-                    .setMinUpdateIntervalMillis(1000)
-                    .setWaitForAccurateLocation(false)
-                    .build();
-            fusedLocationClient.requestLocationUpdates(locationRequest, locationCallback, Looper.getMainLooper());
+            // Ekranlar ve navigasyon kendi kiralarıyla sıklaştırır; servis tek başına düşük güçte kalır.
+            locationLease = multiplexer.acquire(LocationRequestPolicy.IDLE_BACKGROUND,
+                    location -> updateNotification(location.getLatitude(), location.getLongitude()));
         } catch (Exception e) {
             Log.e(TAG, "Konum dinleme başlatılamadı", e);
             stopSelf();
@@ -107,12 +87,9 @@ public class LocationForegroundService extends Service {
     }
 
     private void stopLocationUpdates() {
-        try {
-            if (fusedLocationClient != null && locationCallback != null) {
-                fusedLocationClient.removeLocationUpdates(locationCallback);
-            }
-        } catch (Exception e) {
-            Log.w(TAG, "Konum dinleme durdurma hatası", e);
+        if (locationLease != null) {
+            locationLease.release();
+            locationLease = null;
         }
     }
 
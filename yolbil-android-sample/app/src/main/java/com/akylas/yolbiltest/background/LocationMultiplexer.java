@@ -0,0 +1,338 @@
+package com.akylas.yolbiltest.background;
+
+import android.annotation.SuppressLint;
+import android.content.Context;
+import android.location.Location;
+import android.os.Looper;
+import android.util.Log;
+
+import androidx.annotation.Nullable;
+
+import com.akylas.yolbiltest.application.AppSession;
+import com.basarsoft.yolbil.core.MapPos;
+import com.google.android.gms.location.FusedLocationProviderClient;
+import com.google.android.gms.location.LocationCallback;
+import com.google.android.gms.location.LocationRequest;
+import com.google.android.gms.location.LocationResult;
+import com.google.android.gms.location.LocationServices;
+import com.google.android.gms.location.Priority;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Süreçteki tek platform konum isteğinin sahibi. Ekranlar ve foreground servis kendi
+ * {@link FusedLocationProviderClient} isteğini açmak yerine bir {@link Lease} alır; tüm açık kiraların
+ * gereksinimleri birleştirilir (en kısa aralık, en doğru öncelik) ve platforma tek istek olarak verilir.
+ * Son kira bırakılınca istek kaldırılır.
+ *
+ * <p>Her fix önce {@link Sink}'e (AppSession ve SDK konum kaynağı) sonra kira dinleyicilerine aynı nesne
+ * olarak dağıtılır; böylece uygulamada tek GPS hattı vardır. Fix türü cihazda {@link Location}'dır; çoklayıcı
+ * fix'in içine bakmadığından testlerde sahte değerlerle çalışır. Platform hataları {@link FusedProvider}'da
+ * loglanır.
+ */
+public final class LocationMultiplexer<T> {
+
+    private static final String TAG = "LocationMultiplexer";
+
+    private static volatile LocationMultiplexer<Location> instance;
+
+    /**
+     * Bir istemcinin konum gereksinimi; öncelik {@link Priority} sabitleridir, küçük değer daha doğrudur.
+     * maxUpdateDelayMillis sıfırdan büyükse platform fix'leri bu süreye kadar biriktirip toplu teslim edebilir.
+     */
+    public static final class Requirement {
+        public static final Requirement DEFAULT =
+                new Requirement(2000, 1000, Priority.PRIORITY_HIGH_ACCURACY);
+
+        public final long intervalMillis;
+        public final long minIntervalMillis;
+        public final int priority;
+        public final long maxUpdateDelayMillis;
+
+        public Requirement(long intervalMillis, long minIntervalMillis, int priority) {
+            this(intervalMillis, minIntervalMillis, priority, 0);
+        }
+
+        public Requirement(long intervalMillis, long minIntervalMillis, int priority, long maxUpdateDelayMillis) {
+            this.intervalMillis = intervalMillis;
+            this.minIntervalMillis = Math.min(minIntervalMillis, intervalMillis);
+            this.priority = priority;
+            // Aralıktan kısa biriktirme anlamsızdır; biriktirme yok sayılır.
+            this.maxUpdateDelayMillis = maxUpdateDelayMillis > intervalMillis ? maxUpdateDelayMillis : 0;
+        }
+
+        /** İki gereksinimi de karşılayan en gevşek gereksinim. */
+        Requirement merge(Requirement other) {
+            return new Requirement(Math.min(intervalMillis, other.intervalMillis),
+                    Math.min(minIntervalMillis, other.minIntervalMillis),
+                    Math.min(priority, other.priority),
+                    Math.min(maxUpdateDelayMillis, other.maxUpdateDelayMillis));
+        }
+
+        /** Herhangi bir boyutta other'dan daha sık, daha doğru veya daha az biriktirmeli mi. */
+        boolean isTighterThan(Requirement other) {
+            return intervalMillis < other.intervalMillis || minIntervalMillis < other.minIntervalMillis
+                    || priority < other.priority || maxUpdateDelayMillis < other.maxUpdateDelayMillis;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Requirement)) {
+                return false;
+            }
+            Requirement that = (Requirement) o;
+            return intervalMillis == that.intervalMillis && minIntervalMillis == that.minIntervalMillis
+                    && priority == that.priority && maxUpdateDelayMillis == that.maxUpdateDelayMillis;
+        }
+
+        @Override
+        public int hashCode() {
+            return ((int) (intervalMillis * 31 + minIntervalMillis) * 31 + priority) * 31 + (int) maxUpdateDelayMillis;
+        }
+
+        @Override
+        public String toString() {
+            return intervalMillis + "/" + minIntervalMillis + " ms, priority " + priority
+                    + (maxUpdateDelayMillis > 0 ? ", batch " + maxUpdateDelayMillis + " ms" : "");
+        }
+    }
+
+    /** Kira sahibine fix bildirimi; platform callback thread'inde (ana looper) çağrılır. */
+    public interface FixListener<T> {
+        void onFix(T location);
+    }
+
+    /** Her fix'in kira dinleyicilerinden önce yazıldığı ortak hedefler. */
+    interface Sink<T> {
+        void onFix(T location);
+    }
+
+    /** Platform isteği; cihazda {@link FusedProvider}. */
+    interface Provider<T> {
+        /** Önceki isteğin yerine geçer; izin yoksa SecurityException atar. */
+        void request(Requirement requirement, LocationMultiplexer<T> target) throws SecurityException;
+
+        void remove();
+    }
+
+    /** Açık bir gereksinim; {@link #release()} edilene kadar platform isteğine katkı verir. */
+    public final class Lease {
+        private Requirement requirement;
+        @Nullable
+        private final FixListener<T> listener;
+        private boolean released;
+
+        private Lease(Requirement requirement, @Nullable FixListener<T> listener) {
+            this.requirement = requirement;
+            this.listener = listener;
+        }
+
+        /** Gereksinimi değiştirir; birleşik istek değişirse platform isteği yenilenir. */
+        public void update(Requirement requirement) {
+            synchronized (LocationMultiplexer.this) {
+                if (released || this.requirement.equals(requirement)) {
+                    return;
+                }
+                this.requirement = requirement;
+                apply();
+            }
+        }
+
+        public void release() {
+            synchronized (LocationMultiplexer.this) {
+                if (released) {
+                    return;
+                }
+                released = true;
+                leases.remove(this);
+                apply();
+            }
+        }
+
+        public boolean isReleased() {
+            synchronized (LocationMultiplexer.this) {
+                return released;
+            }
+        }
+    }
+
+    private final Provider<T> provider;
+    private final Sink<T> sink;
+    private final List<Lease> leases = new ArrayList<>();
+    // Platforma verilmiş istek; istek yoksa null.
+    @Nullable
+    private Requirement active;
+    private int platformRequests;
+    private long fixCount;
+
+    LocationMultiplexer(Provider<T> provider, Sink<T> sink) {
+        this.provider = provider;
+        this.sink = sink;
+    }
+
+    public static LocationMultiplexer<Location> getInstance(Context context) {
+        if (instance == null) {
+            synchronized (LocationMultiplexer.class) {
+                if (instance == null) {
+                    Context appContext = context.getApplicationContext();
+                    final ServiceGPSLocationSource source = ServiceGPSLocationSource.getInstance(appContext);
+                    instance = new LocationMultiplexer<>(new FusedProvider(appContext), location -> {
+                        AppSession.setLastKnowLocation(new MapPos(location.getLongitude(), location.getLatitude()));
+                        source.updateFromService(location);
+                    });
+                }
+            }
+        }
+        return instance;
+    }
+
+    /** Gereksinimi ekler; ilk kira platform isteğini başlatır. */
+    public synchronized Lease acquire(Requirement requirement, @Nullable FixListener<T> listener) {
+        Lease lease = new Lease(requirement, listener);
+        leases.add(lease);
+        apply();
+        return lease;
+    }
+
+    /** Platform callback'i: fix önce ortak hedeflere, sonra kira dinleyicilerine gider. */
+    void onFix(@Nullable T location) {
+        if (location != null) {
+            onFixes(Collections.singletonList(location));
+        }
+    }
+
+    /**
+     * Toplu teslim (biriktirmeli istek): fix'ler geliş sırasıyla, her biri önce ortak hedeflere sonra kira
+     * dinleyicilerine verilir; böylece SDK kaynağı ve hız ölçümü aradaki hiçbir fix'i kaçırmaz.
+     */
+    void onFixes(@Nullable List<T> locations) {
+        if (locations == null || locations.isEmpty()) {
+            return;
+        }
+        List<FixListener<T>> listeners = new ArrayList<>();
+        synchronized (this) {
+            if (active == null) {
+                // İstek kaldırıldıktan sonra kuyrukta kalmış fix'ler.
+                return;
+            }
+            for (Lease lease : leases) {
+                if (lease.listener != null) {
+                    listeners.add(lease.listener);
+                }
+            }
+        }
+        int delivered = 0;
+        for (T location : locations) {
+            if (location == null) {
+                continue;
+            }
+            delivered++;
+            sink.onFix(location);
+            for (FixListener<T> listener : listeners) {
+                listener.onFix(location);
+            }
+        }
+        synchronized (this) {
+            fixCount += delivered;
+        }
+    }
+
+    private void apply() {
+        Requirement merged = null;
+        for (Lease lease : leases) {
+            merged = merged == null ? lease.requirement : merged.merge(lease.requirement);
+        }
+        if (merged == null) {
+            if (active != null) {
+                active = null;
+                provider.remove();
+            }
+            return;
+        }
+        if (merged.equals(active)) {
+            return;
+        }
+        try {
+            provider.request(merged, this);
+            active = merged;
+            platformRequests++;
+        } catch (SecurityException e) {
+            // Sağlayıcı logladı; bir sonraki değişiklikte yeniden denenir.
+            active = null;
+        }
+    }
+
+    @Nullable
+    public synchronized Requirement getActiveRequirement() {
+        return active;
+    }
+
+    public synchronized int getLeaseCount() {
+        return leases.size();
+    }
+
+    /** Platforma verilen istek sayısı; aynı birleşik gereksinim tekrar istenmez. */
+    public synchronized int getPlatformRequestCount() {
+        return platformRequests;
+    }
+
+    public synchronized long getFixCount() {
+        return fixCount;
+    }
+
+    /** Tek {@link FusedLocationProviderClient} ve tek callback; yeni istek aynı callback'in isteğini değiştirir. */
+    private static final class FusedProvider implements Provider<Location> {
+        private final FusedLocationProviderClient client;
+        @Nullable
+        private LocationCallback callback;
+
+        FusedProvider(Context context) {
+            client = LocationServices.getFusedLocationProviderClient(context);
+        }
+
+        @SuppressLint("MissingPermission")
+        @Override
+        public void request(Requirement requirement, final LocationMultiplexer<Location> target) {
+            if (callback == null) {
+                callback = new LocationCallback() {
+                    @Override
+                    public void onLocationResult(LocationResult result) {
+                        // Biriktirmeli istekte sonuç birden çok fix taşır; yalnızca sonuncusu değil hepsi iletilir.
+                        if (result != null) {
+                            target.onFixes(result.getLocations());
+                        }
+                    }
+                };
+            }
+            LocationRequest request = new LocationRequest.Builder(requirement.priority, requirement.intervalMillis)
+                    .setMinUpdateIntervalMillis(requirement.minIntervalMillis)
+                    .setMaxUpdateDelayMillis(requirement.maxUpdateDelayMillis)
+                    .setWaitForAccurateLocation(false)
+                    .build();
+            try {
+                client.requestLocationUpdates(request, callback, Looper.getMainLooper());
+                Log.d(TAG, "request: " + requirement);
+            } catch (SecurityException e) {
+                Log.w(TAG, "request: missing location permission", e);
+                throw e;
+            }
+        }
+
+        @Override
+        public void remove() {
+            if (callback == null) {
+                return;
+            }
+            try {
+                client.removeLocationUpdates(callback);
+            } catch (Exception e) {
+                Log.w(TAG, "remove: removeLocationUpdates failed", e);
+            }
+        }
+    }
+}
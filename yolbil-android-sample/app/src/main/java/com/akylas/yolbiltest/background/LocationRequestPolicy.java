@@ -0,0 +1,114 @@
+package com.akylas.yolbiltest.background;
+
+import com.google.android.gms.location.Priority;
+
+/**
+ * Konum isteğini navigasyon durumu, sıradaki komuta mesafe, hız ve ön/arka plan durumuna göre seçer.
+ * Hassasiyet gerekmediğinde (park halinde, arka planda, uzak manevra) aralık büyür, öncelik düşer ve
+ * fix'ler biriktirilir; manevra yaklaşınca istek hemen sıklaşır.
+ *
+ * <p>Sıklaştırma anında uygulanır; gevşetme, istenen gereksinim {@link #LOOSEN_AFTER_MS} boyunca
+ * değişmeden kaldıysa uygulanır. Böylece eşik çevresindeki hız ve mesafe dalgalanması platform isteğini
+ * sürekli yenilemez. Sınıf kendi kilidiyle korunur; girdiler farklı thread'lerden gelebilir.
+ */
+public final class LocationRequestPolicy {
+
+    // Uygulama arka planda ve navigasyon yok: yalnızca bildirim ve son konum için.
+    public static final LocationMultiplexer.Requirement IDLE_BACKGROUND =
+            new LocationMultiplexer.Requirement(60_000, 30_000, Priority.PRIORITY_LOW_POWER, 300_000);
+    // Harita açık, kullanıcı duruyor.
+    static final LocationMultiplexer.Requirement BROWSING_STATIONARY =
+            new LocationMultiplexer.Requirement(10_000, 5_000, Priority.PRIORITY_BALANCED_POWER_ACCURACY);
+    static final LocationMultiplexer.Requirement BROWSING =
+            new LocationMultiplexer.Requirement(3_000, 1_000, Priority.PRIORITY_HIGH_ACCURACY);
+    // Navigasyonda araç duruyor (ışık, trafik); kalkışı kaçırmamak için yüksek doğruluk korunur.
+    static final LocationMultiplexer.Requirement NAVIGATION_STATIONARY =
+            new LocationMultiplexer.Requirement(4_000, 2_000, Priority.PRIORITY_HIGH_ACCURACY);
+    static final LocationMultiplexer.Requirement NAVIGATION_CRUISE = LocationMultiplexer.Requirement.DEFAULT;
+    // Sıradaki manevra uzakta; arka planda fix'ler biriktirilebilir.
+    static final LocationMultiplexer.Requirement NAVIGATION_FAR =
+            new LocationMultiplexer.Requirement(3_000, 1_000, Priority.PRIORITY_HIGH_ACCURACY);
+    static final LocationMultiplexer.Requirement NAVIGATION_FAR_BACKGROUND =
+            new LocationMultiplexer.Requirement(3_000, 1_000, Priority.PRIORITY_HIGH_ACCURACY, 15_000);
+    static final LocationMultiplexer.Requirement MANEUVER =
+            new LocationMultiplexer.Requirement(1_000, 500, Priority.PRIORITY_HIGH_ACCURACY);
+
+    static final double STATIONARY_SPEED_MPS = 1.0;
+    // Manevraya bu kadar yakın veya bu kadar saniye uzaktaysa istek sıklaşır.
+    static final double MANEUVER_DISTANCE_METERS = 250.0;
+    static final double MANEUVER_SECONDS = 20.0;
+    // Bu kadar saniyeden uzak manevralarda aralık büyür.
+    static final double FAR_SECONDS = 120.0;
+    // Hız bilinmiyorsa veya çok düşükse süre hesabında kullanılan alt sınır.
+    private static final double MIN_ETA_SPEED_MPS = 2.0;
+    static final long LOOSEN_AFTER_MS = 10_000;
+
+    private LocationMultiplexer.Requirement current;
+    private LocationMultiplexer.Requirement desired;
+    private long desiredSinceMs;
+    private int changes;
+
+    public LocationRequestPolicy(LocationMultiplexer.Requirement initial) {
+        this.current = initial;
+        this.desired = initial;
+    }
+
+    /**
+     * Girdiler için istenen gereksinim; histerezis uygulanmaz.
+     *
+     * @param distanceToCommandMeters sıradaki komuta mesafe; bilinmiyorsa NaN
+     * @param speedMps son fix hızı; bilinmiyorsa NaN
+     */
+    public static LocationMultiplexer.Requirement evaluate(boolean navigating, double distanceToCommandMeters,
+                                                          double speedMps, boolean foreground) {
+        boolean stationary = !Double.isNaN(speedMps) && speedMps < STATIONARY_SPEED_MPS;
+        if (!navigating) {
+            if (!foreground) {
+                return IDLE_BACKGROUND;
+            }
+            return stationary ? BROWSING_STATIONARY : BROWSING;
+        }
+        if (!Double.isNaN(distanceToCommandMeters)) {
+            double etaSpeed = Double.isNaN(speedMps) ? MIN_ETA_SPEED_MPS : Math.max(speedMps, MIN_ETA_SPEED_MPS);
+            double secondsToCommand = distanceToCommandMeters / etaSpeed;
+            if (distanceToCommandMeters <= MANEUVER_DISTANCE_METERS || secondsToCommand <= MANEUVER_SECONDS) {
+                return MANEUVER;
+            }
+            if (stationary) {
+                return NAVIGATION_STATIONARY;
+            }
+            if (secondsToCommand > FAR_SECONDS) {
+                return foreground ? NAVIGATION_FAR : NAVIGATION_FAR_BACKGROUND;
+            }
+            return NAVIGATION_CRUISE;
+        }
+        return stationary ? NAVIGATION_STATIONARY : NAVIGATION_CRUISE;
+    }
+
+    /** Girdileri değerlendirir ve uygulanacak gereksinimi döner; sıklaştırma hemen, gevşetme gecikmeyle. */
+    public synchronized LocationMultiplexer.Requirement update(boolean navigating, double distanceToCommandMeters,
+                                                               double speedMps, boolean foreground, long nowMs) {
+        LocationMultiplexer.Requirement next = evaluate(navigating, distanceToCommandMeters, speedMps, foreground);
+        if (!next.equals(desired)) {
+            desired = next;
+            desiredSinceMs = nowMs;
+        }
+        if (desired.equals(current)) {
+            return current;
+        }
+        if (desired.isTighterThan(current) || nowMs - desiredSinceMs >= LOOSEN_AFTER_MS) {
+            current = desired;
+            changes++;
+        }
+        return current;
+    }
+
+    public synchronized LocationMultiplexer.Requirement getCurrent() {
+        return current;
+    }
+
+    /** Uygulanan gereksinim değişikliği sayısı. */
+    public synchronized int getChangeCount() {
+        return changes;
+    }
+}
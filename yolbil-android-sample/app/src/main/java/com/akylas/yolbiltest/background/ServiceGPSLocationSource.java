@@ -10,7 +10,7 @@ import com.basarsoft.yolbil.location.LocationBuilder;
 
 /**
  * Uygulama ve foreground servis tarafından ortak kullanılan GPSLocationSource.
- * Platform konumunu foreground servis toplar ve SDK listener'larına bu nesne ile yayınlar.
+ * Platform konumunu {@link LocationMultiplexer} toplar ve SDK listener'larına bu nesne ile yayınlar.
  */
 public final class ServiceGPSLocationSource extends GPSLocationSource {
     private static volatile ServiceGPSLocationSource instance;
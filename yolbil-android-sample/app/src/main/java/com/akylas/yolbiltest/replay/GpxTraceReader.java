@@ -0,0 +1,253 @@
+package com.akylas.yolbiltest.replay;
+
+import java.io.IOException;
+
+/**
+ * GPX 1.1 dosyasındaki {@code <trkpt>} (ve {@code <rtept>}) noktalarını akış halinde okur.
+ * DOM kurulmaz; yalnızca lat/lon öznitelikleri ile time, ele, speed, course, hdop alt elemanları
+ * (uzantı önekleri yok sayılarak, ör. gpxtpx:speed) ayrıştırılır.
+ */
+final class GpxTraceReader implements TraceReader {
+
+    // hdop'u metre cinsinden yatay doğruluğa çevirmek için kullanılan tipik kullanıcı menzil hatası.
+    static final double HDOP_TO_METERS = 5.0;
+    private static final int MAX_NAME = 64;
+
+    private enum TextField { NONE, TIME, ELEVATION, SPEED, COURSE, HDOP }
+
+    private final MappedByteInput input;
+    private final byte[] name = new byte[MAX_NAME];
+    private int nameLength;
+    private byte[] text = new byte[64];
+    private int textLength;
+    private final byte[] attrValue = new byte[64];
+    private int attrLength;
+    private boolean inPoint;
+
+    GpxTraceReader(MappedByteInput input) {
+        this.input = input;
+    }
+
+    @Override
+    public boolean next(TraceFix out) throws IOException {
+        int b;
+        while ((b = input.read()) != -1) {
+            if (b != '<') {
+                continue;
+            }
+            b = input.read();
+            if (b == '!' || b == '?') {
+                skipDeclaration(b);
+                continue;
+            }
+            boolean closing = b == '/';
+            if (closing) {
+                b = input.read();
+            }
+            b = readName(b);
+            if (closing) {
+                skipToTagEnd(b);
+                if (inPoint && isPointTag()) {
+                    inPoint = false;
+                    if (out.hasPosition()) {
+                        return true;
+                    }
+                }
+                continue;
+            }
+            if (isPointTag()) {
+                out.clear();
+                boolean selfClosing = readPointAttributes(b, out);
+                if (selfClosing) {
+                    if (out.hasPosition()) {
+                        return true;
+                    }
+                } else {
+                    inPoint = true;
+                }
+                continue;
+            }
+            if (!inPoint) {
+                skipToTagEnd(b);
+                continue;
+            }
+            TextField field = fieldForName();
+            if (skipToTagEnd(b) || field == TextField.NONE) {
+                continue;
+            }
+            readText();
+            applyText(field, out);
+        }
+        return false;
+    }
+
+    // Etiket adını (önek hariç) name tamponuna okur; ad sonrası ilk baytı döndürür.
+    private int readName(int b) throws IOException {
+        nameLength = 0;
+        while (b != -1 && b != '>' && b != '/' && !isSpace(b)) {
+            if (b == ':') {
+                nameLength = 0; // gpxtpx:speed → speed
+            } else if (nameLength < MAX_NAME) {
+                name[nameLength++] = (byte) b;
+            }
+            b = input.read();
+        }
+        return b;
+    }
+
+    /** Etiketin kalanını atlar; etiket kendiliğinden kapanıyorsa ({@code />}) true döner. */
+    private boolean skipToTagEnd(int b) throws IOException {
+        int previous = -1;
+        while (b != -1 && b != '>') {
+            previous = b;
+            b = input.read();
+        }
+        return previous == '/';
+    }
+
+    // <?xml ...?>, <!-- ... --> ve <!DOCTYPE ...> bölümlerini atlar.
+    private void skipDeclaration(int first) throws IOException {
+        int b = input.read();
+        if (first == '!' && b == '-') {
+            int dashes = 0;
+            while ((b = input.read()) != -1) {
+                if (b == '>' && dashes >= 2) {
+                    return;
+                }
+                dashes = b == '-' ? dashes + 1 : 0;
+            }
+            return;
+        }
+        skipToTagEnd(b);
+    }
+
+    // trkpt özniteliklerinden lat/lon okur; self-closing ise true döner.
+    private boolean readPointAttributes(int b, TraceFix out) throws IOException {
+        int previous = -1;
+        while (b != -1 && b != '>') {
+            if (b == 'l') {
+                b = input.read();
+                if (b == 'a' || b == 'o') {
+                    int kind = b;
+                    b = input.read();
+                    int third = b;
+                    b = input.read();
+                    while (isSpace(b)) b = input.read();
+                    if (b == '=' && ((kind == 'a' && third == 't') || (kind == 'o' && third == 'n'))) {
+                        double value = readAttributeValue();
+                        if (kind == 'a') {
+                            out.latitude = value;
+                        } else {
+                            out.longitude = value;
+                        }
+                        previous = '"';
+                        b = input.read();
+                        continue;
+                    }
+                }
+                continue;
+            }
+            previous = b;
+            b = input.read();
+        }
+        return previous == '/';
+    }
+
+    private double readAttributeValue() throws IOException {
+        int quote = input.read();
+        while (isSpace(quote)) quote = input.read();
+        if (quote != '"' && quote != '\'') {
+            return Double.NaN;
+        }
+        attrLength = 0;
+        int b;
+        while ((b = input.read()) != -1 && b != quote) {
+            if (attrLength < attrValue.length) {
+                attrValue[attrLength++] = (byte) b;
+            }
+        }
+        return TraceParsing.parseDouble(attrValue, 0, attrLength);
+    }
+
+    private void readText() throws IOException {
+        textLength = 0;
+        int b;
+        while ((b = input.read()) != -1 && b != '<') {
+            if (textLength == text.length) {
+                if (text.length >= 4096) {
+                    continue; // Beklenmeyen uzun içerik; geri kalanı yok sayılır.
+                }
+                byte[] grown = new byte[text.length * 2];
+                System.arraycopy(text, 0, grown, 0, textLength);
+                text = grown;
+            }
+            text[textLength++] = (byte) b;
+        }
+        // '<' tüketildi; kapanış etiketini atla ki bir sonraki tur yeni etiketle başlasın.
+        if (b == '<') {
+            skipToTagEnd(input.read());
+        }
+    }
+
+    private void applyText(TextField field, TraceFix out) {
+        switch (field) {
+            case TIME:
+                long time = TraceParsing.parseIsoTimestamp(text, 0, textLength);
+                if (time != TraceParsing.INVALID_TIME) {
+                    out.timestampMs = time;
+                }
+                break;
+            case ELEVATION:
+                out.altitude = TraceParsing.parseDouble(text, 0, textLength);
+                break;
+            case SPEED:
+                out.speedMps = TraceParsing.parseDouble(text, 0, textLength);
+                break;
+            case COURSE:
+                out.bearingDeg = TraceParsing.parseDouble(text, 0, textLength);
+                break;
+            case HDOP:
+                double hdop = TraceParsing.parseDouble(text, 0, textLength);
+                if (!Double.isNaN(hdop)) {
+                    out.horizontalAccuracyM = hdop * HDOP_TO_METERS;
+                }
+                break;
+            default:
+                break;
+        }
+    }
+
+    private boolean isPointTag() {
+        return nameEquals("trkpt") || nameEquals("rtept");
+    }
+
+    private TextField fieldForName() {
+        if (nameEquals("time")) return TextField.TIME;
+        if (nameEquals("ele")) return TextField.ELEVATION;
+        if (nameEquals("speed")) return TextField.SPEED;
+        if (nameEquals("course") || nameEquals("bearing")) return TextField.COURSE;
+        if (nameEquals("hdop")) return TextField.HDOP;
+        return TextField.NONE;
+    }
+
+    private boolean nameEquals(String expected) {
+        if (expected.length() != nameLength) {
+            return false;
+        }
+        for (int i = 0; i < nameLength; i++) {
+            if (name[i] != expected.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isSpace(int b) {
+        return b == ' ' || b == '\t' || b == '\r' || b == '\n';
+    }
+
+    @Override
+    public void close() throws IOException {
+        input.close();
+    }
+}
@@ -0,0 +1,88 @@
+package com.akylas.yolbiltest.replay;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * Dosyayı sabit boyutlu pencereler halinde bellek eşlemeli okur.
+ * Gün boyu süren kayıtlar (yüzlerce MB) heap'e alınmadan bayt bayt taranır.
+ */
+final class MappedByteInput implements Closeable {
+
+    // Tek seferde eşlenen bölüm; 32 MB adres alanı her cihazda rahat karşılanır.
+    static final long WINDOW_BYTES = 32L * 1024 * 1024;
+
+    private final RandomAccessFile file;
+    private final FileChannel channel;
+    private final long size;
+    private final long windowBytes;
+    private MappedByteBuffer window;
+    private long windowStart;
+
+    MappedByteInput(File source) throws IOException {
+        this(source, WINDOW_BYTES);
+    }
+
+    MappedByteInput(File source, long windowBytes) throws IOException {
+        this.file = new RandomAccessFile(source, "r");
+        this.channel = file.getChannel();
+        this.size = channel.size();
+        this.windowBytes = windowBytes;
+    }
+
+    /** Bir sonraki baytı 0-255 aralığında döndürür; dosya sonunda -1. */
+    int read() throws IOException {
+        if (window == null || !window.hasRemaining()) {
+            if (!mapNextWindow()) {
+                return -1;
+            }
+        }
+        return window.get() & 0xFF;
+    }
+
+    /** Okuma konumunu değiştirmeden ilk boşluk olmayan baytı döndürür (BOM atlanır). */
+    int peekFirstNonWhitespace() throws IOException {
+        long limit = Math.min(size, 4096);
+        ByteBuffer head = ByteBuffer.allocate((int) limit);
+        channel.read(head, 0);
+        for (int i = 0; i < head.position(); i++) {
+            int b = head.get(i) & 0xFF;
+            if (b == ' ' || b == '\t' || b == '\r' || b == '\n' || b == 0xEF || b == 0xBB || b == 0xBF) {
+                continue;
+            }
+            return b;
+        }
+        return -1;
+    }
+
+    long position() {
+        return window == null ? 0 : windowStart + window.position();
+    }
+
+    long size() {
+        return size;
+    }
+
+    private boolean mapNextWindow() throws IOException {
+        long next = window == null ? 0 : windowStart + window.capacity();
+        if (next >= size) {
+            return false;
+        }
+        long length = Math.min(windowBytes, size - next);
+        window = channel.map(FileChannel.MapMode.READ_ONLY, next, length);
+        windowStart = next;
+        return true;
+    }
+
+    @Override
+    public void close() throws IOException {
+        window = null;
+        channel.close();
+        file.close();
+    }
+}
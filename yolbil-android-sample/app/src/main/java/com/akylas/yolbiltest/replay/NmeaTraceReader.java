@@ -0,0 +1,243 @@
+package com.akylas.yolbiltest.replay;
+
+import java.io.IOException;
+
+/**
+ * NMEA 0183 kaydını satır satır okur. Aynı saniyeye ait RMC (konum, hız, yön, tarih) ve
+ * GGA (yükseklik, HDOP) cümleleri tek bir fix olarak birleştirilir; checksum'ı tutmayan satırlar atlanır.
+ */
+final class NmeaTraceReader implements TraceReader {
+
+    private static final int MAX_LINE = 256;
+    private static final int MAX_FIELDS = 24;
+    private static final double KNOTS_TO_MPS = 0.514444;
+
+    private final MappedByteInput input;
+    private final byte[] line = new byte[MAX_LINE];
+    private final int[] fieldStart = new int[MAX_FIELDS];
+    private final int[] fieldEnd = new int[MAX_FIELDS];
+    private int fieldCount;
+
+    // Zaman damgası tamamlanmamış, birleştirilmekte olan fix.
+    private final TraceFix pending = new TraceFix();
+    private long pendingTimeOfDayMs = -1;
+    private boolean pendingHasDate;
+    // RMC'den öğrenilen son tarih; yalnızca GGA gelen saniyelerde kullanılır.
+    private long lastDateMs = 0;
+    private boolean finished;
+
+    NmeaTraceReader(MappedByteInput input) {
+        this.input = input;
+        pending.clear();
+    }
+
+    @Override
+    public boolean next(TraceFix out) throws IOException {
+        while (!finished) {
+            int length = readLine();
+            if (length < 0) {
+                finished = true;
+                return emitPending(out);
+            }
+            if (!splitSentence(length)) {
+                continue;
+            }
+            boolean rmc = isType('R', 'M', 'C');
+            boolean gga = !rmc && isType('G', 'G', 'A');
+            if (!rmc && !gga) {
+                continue;
+            }
+            long timeOfDay = parseTimeOfDay(1);
+            if (timeOfDay < 0) {
+                continue;
+            }
+            boolean emitted = false;
+            if (timeOfDay != pendingTimeOfDayMs) {
+                emitted = emitPending(out);
+                pending.clear();
+                pendingTimeOfDayMs = timeOfDay;
+                pendingHasDate = false;
+            }
+            if (rmc) {
+                applyRmc();
+            } else {
+                applyGga();
+            }
+            if (emitted) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean emitPending(TraceFix out) {
+        if (pendingTimeOfDayMs < 0 || !pending.hasPosition()) {
+            return false;
+        }
+        out.set(pending);
+        out.timestampMs = (pendingHasDate ? pending.timestampMs : lastDateMs) + pendingTimeOfDayMs;
+        pending.clear();
+        pendingTimeOfDayMs = -1;
+        return true;
+    }
+
+    // $xxRMC,hhmmss.ss,A,llll.ll,a,yyyyy.yy,a,x.x,x.x,ddmmyy,...
+    private void applyRmc() {
+        if (fieldCount < 10 || fieldLength(2) < 1 || line[fieldStart[2]] != 'A') {
+            return;
+        }
+        double lat = parseCoordinate(3, 4);
+        double lon = parseCoordinate(5, 6);
+        if (!Double.isNaN(lat) && !Double.isNaN(lon)) {
+            pending.latitude = lat;
+            pending.longitude = lon;
+        }
+        double knots = TraceParsing.parseDouble(line, fieldStart[7], fieldEnd[7]);
+        if (!Double.isNaN(knots)) {
+            pending.speedMps = knots * KNOTS_TO_MPS;
+        }
+        double course = TraceParsing.parseDouble(line, fieldStart[8], fieldEnd[8]);
+        if (!Double.isNaN(course)) {
+            pending.bearingDeg = course;
+        }
+        if (fieldLength(9) == 6) {
+            int day = TraceParsing.parseDigits(line, fieldStart[9], 2);
+            int month = TraceParsing.parseDigits(line, fieldStart[9] + 2, 2);
+            int year = TraceParsing.parseDigits(line, fieldStart[9] + 4, 2);
+            if (day > 0 && month > 0 && year >= 0) {
+                // NMEA iki haneli yıl kullanır; 80 öncesi 2000'li yıllar kabul edilir.
+                int fullYear = year < 80 ? 2000 + year : 1900 + year;
+                lastDateMs = TraceParsing.daysFromCivil(fullYear, month, day) * TraceParsing.MILLIS_PER_DAY;
+                pending.timestampMs = lastDateMs;
+                pendingHasDate = true;
+            }
+        }
+    }
+
+    // $xxGGA,hhmmss.ss,llll.ll,a,yyyyy.yy,a,q,nn,h.h,alt,M,...
+    private void applyGga() {
+        if (fieldCount < 10 || fieldLength(6) < 1 || line[fieldStart[6]] == '0') {
+            return;
+        }
+        if (!pending.hasPosition()) {
+            double lat = parseCoordinate(2, 3);
+            double lon = parseCoordinate(4, 5);
+            if (!Double.isNaN(lat) && !Double.isNaN(lon)) {
+                pending.latitude = lat;
+                pending.longitude = lon;
+            }
+        }
+        double hdop = TraceParsing.parseDouble(line, fieldStart[8], fieldEnd[8]);
+        if (!Double.isNaN(hdop)) {
+            pending.horizontalAccuracyM = hdop * GpxTraceReader.HDOP_TO_METERS;
+        }
+        double altitude = TraceParsing.parseDouble(line, fieldStart[9], fieldEnd[9]);
+        if (!Double.isNaN(altitude)) {
+            pending.altitude = altitude;
+        }
+    }
+
+    // ddmm.mmmm / dddmm.mmmm biçimini ondalık dereceye çevirir.
+    private double parseCoordinate(int valueField, int hemisphereField) {
+        double raw = TraceParsing.parseDouble(line, fieldStart[valueField], fieldEnd[valueField]);
+        if (Double.isNaN(raw) || fieldLength(hemisphereField) < 1) {
+            return Double.NaN;
+        }
+        int degrees = (int) (raw / 100);
+        double value = degrees + (raw - degrees * 100) / 60.0;
+        byte hemisphere = line[fieldStart[hemisphereField]];
+        return hemisphere == 'S' || hemisphere == 'W' ? -value : value;
+    }
+
+    private long parseTimeOfDay(int field) {
+        if (fieldLength(field) < 6) {
+            return -1;
+        }
+        int start = fieldStart[field];
+        int hour = TraceParsing.parseDigits(line, start, 2);
+        int minute = TraceParsing.parseDigits(line, start + 2, 2);
+        double seconds = TraceParsing.parseDouble(line, start + 4, fieldEnd[field]);
+        if (hour < 0 || minute < 0 || Double.isNaN(seconds)) {
+            return -1;
+        }
+        return (hour * 60L + minute) * 60_000L + Math.round(seconds * 1000);
+    }
+
+    private boolean isType(char a, char b, char c) {
+        // "$GPRMC" / "$GNRMC": talker kimliğinden sonraki üç karakter.
+        int start = fieldStart[0];
+        return fieldEnd[0] - start == 6 && line[start + 3] == a && line[start + 4] == b && line[start + 5] == c;
+    }
+
+    private int fieldLength(int field) {
+        return field < fieldCount ? fieldEnd[field] - fieldStart[field] : 0;
+    }
+
+    /** Checksum'ı doğrular ve alan sınırlarını çıkarır. */
+    private boolean splitSentence(int length) {
+        if (length < 7 || line[0] != '$') {
+            return false;
+        }
+        int star = -1;
+        int checksum = 0;
+        for (int i = 1; i < length; i++) {
+            if (line[i] == '*') {
+                star = i;
+                break;
+            }
+            checksum ^= line[i];
+        }
+        if (star >= 0) {
+            if (star + 2 >= length) {
+                return false;
+            }
+            int expected = (hexValue(line[star + 1]) << 4) | hexValue(line[star + 2]);
+            if (expected != checksum) {
+                return false;
+            }
+        } else {
+            star = length;
+        }
+        fieldCount = 0;
+        int start = 0;
+        for (int i = 0; i <= star && fieldCount < MAX_FIELDS; i++) {
+            if (i == star || line[i] == ',') {
+                fieldStart[fieldCount] = start;
+                fieldEnd[fieldCount] = i;
+                fieldCount++;
+                start = i + 1;
+            }
+        }
+        return true;
+    }
+
+    private static int hexValue(byte b) {
+        if (b >= '0' && b <= '9') return b - '0';
+        if (b >= 'A' && b <= 'F') return b - 'A' + 10;
+        if (b >= 'a' && b <= 'f') return b - 'a' + 10;
+        return 0x100; // eşleşmeyi garanti olarak bozar
+    }
+
+    /** Bir sonraki satırı tampona okur; dosya sonunda -1. Aşırı uzun satırlar kırpılır. */
+    private int readLine() throws IOException {
+        int length = 0;
+        int b;
+        while ((b = input.read()) != -1) {
+            if (b == '\n') {
+                return length;
+            }
+            if (b == '\r') {
+                continue;
+            }
+            if (length < MAX_LINE) {
+                line[length++] = (byte) b;
+            }
+        }
+        return length == 0 ? -1 : length;
+    }
+
+    @Override
+    public void close() throws IOException {
+        input.close();
+    }
+}
@@ -0,0 +1,56 @@
+package com.akylas.yolbiltest.replay;
+
+/**
+ * Kayıttan okunan tek bir konum örneği. Okuyucular her satırda yeni nesne üretmemek için
+ * aynı örneği doldurur; bilinmeyen alanlar {@link Double#NaN} olarak kalır.
+ */
+public final class TraceFix {
+
+    public long timestampMs;
+    public double longitude;
+    public double latitude;
+    public double altitude = Double.NaN;
+    public double speedMps = Double.NaN;
+    public double bearingDeg = Double.NaN;
+    public double horizontalAccuracyM = Double.NaN;
+
+    public boolean hasAltitude() {
+        return !Double.isNaN(altitude);
+    }
+
+    public boolean hasSpeed() {
+        return !Double.isNaN(speedMps);
+    }
+
+    public boolean hasBearing() {
+        return !Double.isNaN(bearingDeg);
+    }
+
+    public boolean hasAccuracy() {
+        return !Double.isNaN(horizontalAccuracyM);
+    }
+
+    public void clear() {
+        timestampMs = 0;
+        longitude = Double.NaN;
+        latitude = Double.NaN;
+        altitude = Double.NaN;
+        speedMps = Double.NaN;
+        bearingDeg = Double.NaN;
+        horizontalAccuracyM = Double.NaN;
+    }
+
+    public void set(TraceFix other) {
+        timestampMs = other.timestampMs;
+        longitude = other.longitude;
+        latitude = other.latitude;
+        altitude = other.altitude;
+        speedMps = other.speedMps;
+        bearingDeg = other.bearingDeg;
+        horizontalAccuracyM = other.horizontalAccuracyM;
+    }
+
+    boolean hasPosition() {
+        return !Double.isNaN(latitude) && !Double.isNaN(longitude);
+    }
+}
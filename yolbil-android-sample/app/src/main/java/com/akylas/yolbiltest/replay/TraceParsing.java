@@ -0,0 +1,147 @@
+package com.akylas.yolbiltest.replay;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * GPX/NMEA okuyucularının ortak sayı ve zaman ayrıştırıcıları.
+ * Doğrudan bayt tamponu üzerinde çalışır; satır başına String üretmez.
+ */
+final class TraceParsing {
+
+    static final long INVALID_TIME = Long.MIN_VALUE;
+    static final long MILLIS_PER_DAY = 86_400_000L;
+
+    private static final double[] POW10 = {
+            1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9,
+            1e10, 1e11, 1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18
+    };
+
+    private TraceParsing() {
+    }
+
+    /** [from, to) aralığındaki ondalık sayıyı okur; geçersizse NaN döner. */
+    static double parseDouble(byte[] buf, int from, int to) {
+        while (from < to && isSpace(buf[from])) from++;
+        while (to > from && isSpace(buf[to - 1])) to--;
+        if (from >= to) {
+            return Double.NaN;
+        }
+        int i = from;
+        boolean negative = false;
+        if (buf[i] == '-' || buf[i] == '+') {
+            negative = buf[i] == '-';
+            i++;
+        }
+        long mantissa = 0;
+        int scale = 0;
+        int digits = 0;
+        boolean fraction = false;
+        for (; i < to; i++) {
+            byte b = buf[i];
+            if (b >= '0' && b <= '9') {
+                // 18 haneden sonrası double hassasiyetine katkı yapmaz.
+                if (digits < 18) {
+                    mantissa = mantissa * 10 + (b - '0');
+                    digits++;
+                    if (fraction) scale++;
+                } else if (!fraction) {
+                    scale--;
+                }
+            } else if (b == '.' && !fraction) {
+                fraction = true;
+            } else if (b == 'e' || b == 'E') {
+                // Üslü gösterim kayıtlarda nadirdir; standart ayrıştırıcıya bırakılır.
+                try {
+                    return Double.parseDouble(new String(buf, from, to - from, StandardCharsets.US_ASCII));
+                } catch (NumberFormatException e) {
+                    return Double.NaN;
+                }
+            } else {
+                return Double.NaN;
+            }
+        }
+        if (digits == 0) {
+            return Double.NaN;
+        }
+        double value = scale >= 0 ? mantissa / POW10[Math.min(scale, POW10.length - 1)] : mantissa * POW10[Math.min(-scale, POW10.length - 1)];
+        return negative ? -value : value;
+    }
+
+    /** from konumundan başlayan count haneli pozitif tamsayıyı okur; geçersizse -1. */
+    static int parseDigits(byte[] buf, int from, int count) {
+        int value = 0;
+        for (int i = from; i < from + count; i++) {
+            int d = buf[i] - '0';
+            if (d < 0 || d > 9) {
+                return -1;
+            }
+            value = value * 10 + d;
+        }
+        return value;
+    }
+
+    /**
+     * ISO-8601 zamanını (ör. 2024-05-01T12:34:56.250Z veya +03:00 ofsetli) epoch milisaniyeye çevirir.
+     * Geçersizse {@link #INVALID_TIME} döner.
+     */
+    static long parseIsoTimestamp(byte[] buf, int from, int to) {
+        while (from < to && isSpace(buf[from])) from++;
+        while (to > from && isSpace(buf[to - 1])) to--;
+        if (to - from < 19 || buf[from + 4] != '-' || buf[from + 7] != '-'
+                || (buf[from + 10] != 'T' && buf[from + 10] != ' ')
+                || buf[from + 13] != ':' || buf[from + 16] != ':') {
+            return INVALID_TIME;
+        }
+        int year = parseDigits(buf, from, 4);
+        int month = parseDigits(buf, from + 5, 2);
+        int day = parseDigits(buf, from + 8, 2);
+        int hour = parseDigits(buf, from + 11, 2);
+        int minute = parseDigits(buf, from + 14, 2);
+        int second = parseDigits(buf, from + 17, 2);
+        if (year < 0 || month < 1 || month > 12 || day < 1 || day > 31 || hour < 0 || minute < 0 || second < 0) {
+            return INVALID_TIME;
+        }
+        int i = from + 19;
+        int millis = 0;
+        if (i < to && buf[i] == '.') {
+            i++;
+            int multiplier = 100;
+            while (i < to && buf[i] >= '0' && buf[i] <= '9') {
+                millis += (buf[i] - '0') * multiplier;
+                multiplier /= 10;
+                i++;
+            }
+        }
+        long offsetMs = 0;
+        if (i < to && (buf[i] == '+' || buf[i] == '-')) {
+            if (to - i < 6) {
+                return INVALID_TIME;
+            }
+            int offsetHour = parseDigits(buf, i + 1, 2);
+            int offsetMinute = parseDigits(buf, i + 4, 2);
+            if (offsetHour < 0 || offsetMinute < 0) {
+                return INVALID_TIME;
+            }
+            offsetMs = (offsetHour * 60L + offsetMinute) * 60_000L;
+            if (buf[i] == '-') {
+                offsetMs = -offsetMs;
+            }
+        }
+        long dayMs = ((hour * 60L + minute) * 60L + second) * 1000L + millis;
+        return daysFromCivil(year, month, day) * MILLIS_PER_DAY + dayMs - offsetMs;
+    }
+
+    /** Gregoryen tarihi 1970-01-01'den itibaren gün sayısına çevirir. */
+    static long daysFromCivil(int year, int month, int day) {
+        int y = month <= 2 ? year - 1 : year;
+        int era = (y >= 0 ? y : y - 399) / 400;
+        int yoe = y - era * 400;
+        int doy = (153 * (month + (month > 2 ? -3 : 9)) + 2) / 5 + day - 1;
+        int doe = yoe * 365 + yoe / 4 - yoe / 100 + doy;
+        return era * 146097L + doe - 719468;
+    }
+
+    private static boolean isSpace(byte b) {
+        return b == ' ' || b == '\t' || b == '\r' || b == '\n';
+    }
+}
@@ -0,0 +1,37 @@
+package com.akylas.yolbiltest.replay;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.util.Locale;
+
+/**
+ * Kayıtlı sürüş dosyasını (GPX 1.1 / NMEA 0183) baştan sona akış halinde okur.
+ * Dosya belleğe alınmaz; okuyucu her çağrıda bir sonraki fix'i verilen nesneye yazar.
+ */
+public interface TraceReader extends Closeable {
+
+    /** Bir sonraki konumu {@code out} içine yazar; dosya bittiyse false döner. */
+    boolean next(TraceFix out) throws IOException;
+
+    /** Dosya türünü uzantıdan, bilinmiyorsa ilk anlamlı karakterden ('<' veya '$') belirler. */
+    static TraceReader open(File file) throws IOException {
+        String name = file.getName().toLowerCase(Locale.US);
+        if (name.endsWith(".gpx")) {
+            return new GpxTraceReader(new MappedByteInput(file));
+        }
+        if (name.endsWith(".nmea") || name.endsWith(".nma")) {
+            return new NmeaTraceReader(new MappedByteInput(file));
+        }
+        MappedByteInput input = new MappedByteInput(file);
+        int first = input.peekFirstNonWhitespace();
+        if (first == '<') {
+            return new GpxTraceReader(input);
+        }
+        if (first == '$') {
+            return new NmeaTraceReader(input);
+        }
+        input.close();
+        throw new IOException("Unsupported trace format: " + file.getName());
+    }
+}
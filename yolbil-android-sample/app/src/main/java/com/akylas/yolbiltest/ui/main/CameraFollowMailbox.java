@@ -0,0 +1,39 @@
+package com.akylas.yolbiltest.ui.main;
+
+import android.os.Handler;
+import android.os.Looper;
+
+import com.basarsoft.yolbil.location.Location;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Kamera takibi için tek yuvalı posta kutusu. UI thread meşgulken gelen konumlar birikmez;
+ * ana thread'e en fazla bir iş gönderilir ve o iş çalıştığında yalnızca son konumu uygular.
+ * Simülasyon ve kayıt oynatma tarafından paylaşılır.
+ */
+final class CameraFollowMailbox {
+
+    private final NavigationSimulationHelper.SimulationHost host;
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    private final AtomicReference<Location> pending = new AtomicReference<>();
+    private final Runnable drainRunnable = this::drain;
+
+    CameraFollowMailbox(NavigationSimulationHelper.SimulationHost host) {
+        this.host = host;
+    }
+
+    /** Herhangi bir thread'den çağrılabilir; yuva boşsa ana thread'e tek bir iş gönderir. */
+    void post(Location location) {
+        if (pending.getAndSet(location) == null) {
+            mainHandler.post(drainRunnable);
+        }
+    }
+
+    private void drain() {
+        Location location = pending.getAndSet(null);
+        if (location != null) {
+            host.followBlueDot(location, false);
+        }
+    }
+}
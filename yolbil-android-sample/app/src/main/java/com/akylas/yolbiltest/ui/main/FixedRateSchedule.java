@@ -0,0 +1,33 @@
+package com.akylas.yolbiltest.ui.main;
+
+/**
+ * Sabit oranlı tik planı: n. tik başlangıç + n * aralık anına planlanır, gecikmeler birikmez.
+ * Zaman dışarıdan verilir; simülasyon {@code SystemClock.uptimeMillis()} ile kullanır.
+ */
+final class FixedRateSchedule {
+
+    private long firstTickMs;
+    private long tickCount;
+
+    /** Planı verilen andan başlatır; ilk tik bu andadır. */
+    void start(long nowMs) {
+        firstTickMs = nowMs;
+        tickCount = 0;
+    }
+
+    /**
+     * Bir sonraki tikin mutlak zamanını döndürür. Bir aralıktan az gecikmede plan korunur ve kaçan tik hemen
+     * koşturulur; iş parçacığı bir aralıktan fazla geride kaldıysa (ör. uzun GC) kaçırılan tikler art arda
+     * koşturulmaz, plan şimdiki zamana yeniden hizalanır.
+     */
+    long next(long intervalMs, long nowMs) {
+        tickCount++;
+        long due = firstTickMs + tickCount * intervalMs;
+        if (due < nowMs - intervalMs) {
+            firstTickMs = nowMs;
+            tickCount = 0;
+            due = nowMs;
+        }
+        return due;
+    }
+}
@@ -1,6 +1,7 @@
 package com.akylas.yolbiltest.ui.main;
 
-class KalmanFilter {
+/** Tek boyutlu Kalman filtresi; GPS hızını yumuşatmak için kullanılır. Thread güvenli değildir. */
+final class KalmanFilter {
     private final float q;
     private final float r;
     private float p = 1f;
@@ -19,15 +20,3 @@ class KalmanFilter {
         return x;
     }
 }
-
-public final class SpeedUtils {
-    private static final KalmanFilter SPEED_FILTER = new KalmanFilter(0.1f, 1f);
-
-    private SpeedUtils() {
-    }
-
-    public static float updateFilteredSpeed(float speedMetersPerSecond) {
-        float speedKmh = speedMetersPerSecond * 3.6f;
-        return SPEED_FILTER.filter(speedKmh);
-    }
-}
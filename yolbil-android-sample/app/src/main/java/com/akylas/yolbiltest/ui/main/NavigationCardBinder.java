@@ -0,0 +1,151 @@
+package com.akylas.yolbiltest.ui.main;
+
+import androidx.annotation.DrawableRes;
+
+/**
+ * Kart durumunu view'lara yazan fark bağlayıcısı. Her alana en son yazılan değer saklanır ve yalnızca
+ * değişen alanlar için {@link Views} setter'ı çağrılır; aynı metni veya ikonu tekrar yazmak gereksiz
+ * layout/drawable çözümlemesine yol açar. Yalnızca UI thread'den kullanılır.
+ */
+final class NavigationCardBinder {
+
+    private static final int UNSET = Integer.MIN_VALUE;
+
+    /** Kartın view'ları; cihazda {@link NavigationInfoCardView}, testte sayaçlı sahte. */
+    interface Views {
+        void setManifestText(String text);
+
+        void setDirectionText(String text);
+
+        void setDistanceText(String text);
+
+        void setDirectionIcon(@DrawableRes int iconRes);
+
+        void setTotalDistanceText(String text);
+
+        void setTotalTimeText(String text);
+
+        /** Hız kutusu yerleşimde yoksa hız alanları hiç yazılmaz. */
+        boolean hasSpeedRow();
+
+        void setCurrentSpeed(int speedKmh);
+
+        void setSpeedLimit(int speedLimitKmh);
+
+        void setSpeeding(boolean speeding);
+
+        void setNextCommandVisible(boolean visible);
+
+        void setNextCommandIcon(@DrawableRes int iconRes);
+
+        void setNextCommandLabel(CharSequence label);
+    }
+
+    private final Views views;
+
+    // View'lara en son yazılan değerler.
+    private String boundManifestText;
+    private String boundDirectionText;
+    private String boundDistanceText;
+    private int boundIconRes = UNSET;
+    private String boundTotalDistanceText;
+    private String boundTotalTimeText;
+    private int boundSpeed = UNSET;
+    private int boundSpeedLimit = UNSET;
+    private int boundSpeedingIndex = UNSET;
+    private int boundNextVisible = UNSET;
+    private int boundNextIconRes = UNSET;
+    private CharSequence boundNextLabel;
+
+    NavigationCardBinder(Views views) {
+        this.views = views;
+    }
+
+    /** Kart durumunu uygular; yalnızca önceki bağlamadan farklı olan view'lar güncellenir. */
+    void bind(NavigationCardState state, int currentSpeed, CharSequence nextCommandLabel) {
+        updatePrimaryInfo(state.manifestText, state.directionText, state.distanceText, state.iconRes);
+        updateSummaryInfo(state.totalDistanceText, state.totalTimeText);
+        updateSpeedInfo(currentSpeed, state.speedLimitKmh,
+                state.speedLimitKmh > 0 && currentSpeed > state.speedLimitKmh);
+        if (state.showNext) {
+            showNextCommand(state.nextIconRes, nextCommandLabel);
+        } else {
+            hideNextCommand();
+        }
+    }
+
+    void updatePrimaryInfo(String manifestText, String directionText, String distanceText, @DrawableRes int iconRes) {
+        if (!same(boundManifestText, manifestText)) {
+            views.setManifestText(manifestText);
+            boundManifestText = manifestText;
+        }
+        if (!same(boundDirectionText, directionText)) {
+            views.setDirectionText(directionText);
+            boundDirectionText = directionText;
+        }
+        if (!same(boundDistanceText, distanceText)) {
+            views.setDistanceText(distanceText);
+            boundDistanceText = distanceText;
+        }
+        if (boundIconRes != iconRes) {
+            views.setDirectionIcon(iconRes);
+            boundIconRes = iconRes;
+        }
+    }
+
+    void updateSummaryInfo(String totalDistanceText, String totalTimeText) {
+        if (!same(boundTotalDistanceText, totalDistanceText)) {
+            views.setTotalDistanceText(totalDistanceText);
+            boundTotalDistanceText = totalDistanceText;
+        }
+        if (!same(boundTotalTimeText, totalTimeText)) {
+            views.setTotalTimeText(totalTimeText);
+            boundTotalTimeText = totalTimeText;
+        }
+    }
+
+    void updateSpeedInfo(int currentSpeed, int speedLimit, boolean isSpeeding) {
+        if (!views.hasSpeedRow()) {
+            return;
+        }
+        if (boundSpeed != currentSpeed) {
+            views.setCurrentSpeed(currentSpeed);
+            boundSpeed = currentSpeed;
+        }
+        if (boundSpeedLimit != speedLimit) {
+            views.setSpeedLimit(speedLimit);
+            boundSpeedLimit = speedLimit;
+        }
+        int index = isSpeeding ? 1 : 0;
+        if (boundSpeedingIndex != index) {
+            views.setSpeeding(isSpeeding);
+            boundSpeedingIndex = index;
+        }
+    }
+
+    void showNextCommand(@DrawableRes int iconRes, CharSequence labelText) {
+        if (boundNextVisible != 1) {
+            views.setNextCommandVisible(true);
+            boundNextVisible = 1;
+        }
+        if (boundNextIconRes != iconRes) {
+            views.setNextCommandIcon(iconRes);
+            boundNextIconRes = iconRes;
+        }
+        if (!labelText.equals(boundNextLabel)) {
+            views.setNextCommandLabel(labelText);
+            boundNextLabel = labelText;
+        }
+    }
+
+    void hideNextCommand() {
+        if (boundNextVisible != 0) {
+            views.setNextCommandVisible(false);
+            boundNextVisible = 0;
+        }
+    }
+
+    private static boolean same(String bound, String text) {
+        return text == null ? bound == null : text.equals(bound);
+    }
+}
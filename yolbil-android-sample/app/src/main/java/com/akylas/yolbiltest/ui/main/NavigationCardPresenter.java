@@ -0,0 +1,180 @@
+package com.akylas.yolbiltest.ui.main;
+
+import androidx.annotation.Nullable;
+
+import com.akylas.yolbiltest.R;
+
+/**
+ * CommandListener'dan gelen komutları NavigationInfoCard durumuna çeviren Android'den bağımsız mantık.
+ * Hem cihazda {@link YolbilNavigationUsage} hem de JVM üzerindeki tekrar oynatma/benchmark
+ * koşuları aynı sınıfı kullanır.
+ */
+final class NavigationCardPresenter {
+
+    // Komut yokken yön kartının "düz devam" durumuna dönmesi için gereken mesafe.
+    private static final double EMPTY_COMMAND_RESET_DISTANCE_M = 300;
+
+    /** Sunumun ihtiyaç duyduğu metin kaynakları; cihazda Context, testte sabit değerler sağlar. */
+    interface TextSource {
+        String defaultManifestText();
+        String directionText(TurnCommandTable.Entry command);
+        String totalDistancePlaceholder();
+        String totalTimePlaceholder();
+        /** Statik manifest listesindeki sokak adı; bilinmiyorsa null. */
+        @Nullable String instructionStreetName(int index);
+    }
+
+    private final TextSource textSource;
+    private int totalInstructionCount = 0;
+    private String currentManifestText;
+    private TurnCommandTable.Entry currentCommand = TurnCommandTable.get().none();
+    private String currentDirectionText;
+    private int currentCommandIconRes = R.drawable.go_straight;
+    private int currentStaticIndex = -1;
+    private String currentDistanceText = "-";
+    private String currentTotalDistanceText;
+    private String currentTotalTimeText;
+    private int currentNextIconRes = NavigationCardState.NO_ICON;
+    private boolean currentShowNext = false;
+    // Tek thread'den (cihazda NavigationStateActor) kullanılır; UI hızı yayımlanan snapshot'tan okur.
+    private int currentSpeedKmh = 0;
+    private int currentSpeedLimitKmh = 0;
+
+    NavigationCardPresenter(TextSource textSource) {
+        this.textSource = textSource;
+        reset();
+    }
+
+    void reset() {
+        currentManifestText = textSource.defaultManifestText();
+        currentCommand = TurnCommandTable.get().none();
+        currentDirectionText = textSource.directionText(currentCommand);
+        currentCommandIconRes = R.drawable.go_straight;
+        currentStaticIndex = -1;
+        currentDistanceText = "-";
+        currentTotalDistanceText = textSource.totalDistancePlaceholder();
+        currentTotalTimeText = textSource.totalTimePlaceholder();
+        currentNextIconRes = NavigationCardState.NO_ICON;
+        currentShowNext = false;
+        currentSpeedLimitKmh = 0;
+    }
+
+    void setTotalInstructionCount(int totalInstructionCount) {
+        this.totalInstructionCount = totalInstructionCount;
+    }
+
+    // Anlık konumun dinlenip komutların doldurulduğu kısım.
+    NavigationCardState onCommandReady(NavigationCommandSnapshot command) {
+        currentStaticIndex = command.staticIndex;
+        currentManifestText = resolveManifestText(command);
+        updateDirectionState(command.firstCommand);
+        applyDistances(command);
+        return currentState();
+    }
+
+    // Konum güncellemesinde kalan mesafe, kalan süre ve gerekiyorsa yön komutu yenilenir.
+    NavigationCardState onLocationChanged(NavigationCommandSnapshot command) {
+        final String manifestFromLocation = resolveManifestText(command);
+        if (!isEmpty(manifestFromLocation) && !manifestFromLocation.equals(currentManifestText)) {
+            currentManifestText = manifestFromLocation;
+        }
+
+        TurnCommandTable.Entry nextCommand = command.firstCommand;
+        // Tablo kayıtları ada göre tekil olduğu için referans karşılaştırması yeterli.
+        if (!nextCommand.isEmpty() && nextCommand != currentCommand) {
+            currentStaticIndex = command.staticIndex;
+            updateDirectionState(nextCommand);
+        } else if (nextCommand.isEmpty() && command.distanceToCommand > EMPTY_COMMAND_RESET_DISTANCE_M) {
+            currentStaticIndex = command.staticIndex;
+            updateDirectionState(TurnCommandTable.get().none());
+        }
+        applyDistances(command);
+        return currentState();
+    }
+
+    /** Filtrelenmiş hızı saklar; değer değiştiyse true döner. */
+    boolean onSpeedChanged(int speedKmh) {
+        if (speedKmh == currentSpeedKmh) {
+            return false;
+        }
+        currentSpeedKmh = speedKmh;
+        return true;
+    }
+
+    int getSpeedKmh() {
+        return currentSpeedKmh;
+    }
+
+    int getSpeedLimitKmh() {
+        return currentSpeedLimitKmh;
+    }
+
+    NavigationCardState currentState() {
+        return new NavigationCardState(
+                currentManifestText,
+                currentDirectionText,
+                currentDistanceText,
+                currentCommandIconRes,
+                currentNextIconRes,
+                currentShowNext,
+                currentTotalDistanceText,
+                currentTotalTimeText,
+                currentSpeedKmh,
+                currentSpeedLimitKmh
+        );
+    }
+
+    private void applyDistances(NavigationCommandSnapshot command) {
+        currentSpeedLimitKmh = (int) Math.round(command.speedLimitKmh);
+        currentDistanceText = NavigationCommandFormatter.formatDistance(command.distanceToCommand);
+        currentTotalDistanceText = NavigationCommandFormatter.formatTotalDistance(command.totalDistanceToCommand); // manifest üstündeki toplam mesafe yazısı
+        currentTotalTimeText = NavigationCommandFormatter.formatTotalTime(command.remainingTimeSec);
+        currentNextIconRes = command.nextCommand == null
+                ? NavigationCardState.NO_ICON
+                : command.nextCommand.iconRes;
+        currentShowNext = shouldShowNextCommand(currentCommand, currentNextIconRes, currentStaticIndex);
+    }
+
+    /** Son komutta veya manifest dizisinin sonunda “Ardından” kutusunu gizlemek için kullanılır. */
+    private boolean shouldShowNextCommand(TurnCommandTable.Entry primaryCommand, int nextIconRes, int staticIndex) {
+        if (nextIconRes == NavigationCardState.NO_ICON || primaryCommand.isEmpty()) {
+            return false;
+        }
+        boolean isFinalCmd = primaryCommand.isFinal;
+        boolean isAtEnd = totalInstructionCount > 0 && staticIndex >= (totalInstructionCount - 1);
+        return !isFinalCmd && !isAtEnd;
+    }
+
+    /** nextRoadName boşsa statik manifest listesinden sokak adı bularak kart başlığını belirler. */
+    private String resolveManifestText(NavigationCommandSnapshot command) {
+        String manifestText = command.nextRoadName;
+        if (!isEmpty(manifestText)) {
+            return manifestText;
+        }
+        if (totalInstructionCount > 0) {
+            int index = command.staticIndex;
+            if (index < 0) {
+                index = 0;
+            }
+            if (index >= totalInstructionCount) {
+                index = totalInstructionCount - 1;
+            }
+            String streetName = textSource.instructionStreetName(index);
+            if (!isEmpty(streetName)) {
+                return streetName;
+            }
+        }
+        return textSource.defaultManifestText();
+    }
+
+    /** Kartın manifest/direction state'ini günceller (setDynamicManifestCommand eşleniği). */
+    private void updateDirectionState(TurnCommandTable.Entry command) {
+        currentCommand = command;
+        currentDirectionText = textSource.directionText(command);
+        currentCommandIconRes = command.iconRes;
+    }
+
+    private static boolean isEmpty(@Nullable String value) {
+        return value == null || value.isEmpty();
+    }
+}
@@ -0,0 +1,140 @@
+package com.akylas.yolbiltest.ui.main;
+
+import android.view.Choreographer;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * SDK callback'lerinin ürettiği kart durumlarını tek bir kutuda tutar ve UI thread'e her
+ * Choreographer karesinde en fazla bir kez uygular. Yeni durum bekleyen durumun üzerine yazılır;
+ * ara durumlar çizilmeden atılır. Fix ne kadar sık gelirse gelsin ana thread'e düşen iş ekran
+ * yenileme hızıyla sınırlıdır.
+ */
+final class NavigationCardScheduler implements Choreographer.FrameCallback {
+
+    /** UI thread üzerinde kartı güncelleyen taraf. */
+    interface Binder {
+        void bindState(NavigationCardState state);
+
+        /** Yalnızca hız kutusu değiştiğinde çağrılır. */
+        void bindSpeed();
+
+        /** Kartı boş (navigasyon yok) durumuna döndürür. */
+        void reset();
+    }
+
+    /** Kare geri çağrılarının kaynağı; cihazda Choreographer, testte elle ilerletilen sahte kaynak. */
+    interface FrameSource {
+        void postFrameCallback(Choreographer.FrameCallback callback);
+
+        void removeFrameCallback(Choreographer.FrameCallback callback);
+    }
+
+    private final FrameSource frameSource;
+    private final Binder binder;
+    private final AtomicReference<NavigationCardState> pendingState = new AtomicReference<>();
+    private final AtomicBoolean speedDirty = new AtomicBoolean();
+    private final AtomicBoolean resetPending = new AtomicBoolean();
+    private final AtomicBoolean frameScheduled = new AtomicBoolean();
+    private final AtomicLong droppedStates = new AtomicLong();
+    private final AtomicLong dispatchedFrames = new AtomicLong();
+
+    NavigationCardScheduler(FrameSource frameSource, Binder binder) {
+        this.frameSource = frameSource;
+        this.binder = binder;
+    }
+
+    /**
+     * Ana thread'in Choreographer'ını kullanan kaynak. Choreographer thread'e bağlı olduğundan
+     * ana thread üzerinde çağrılmalıdır; postFrameCallback herhangi bir thread'den çağrılabilir.
+     */
+    static FrameSource mainThreadFrames() {
+        final Choreographer choreographer = Choreographer.getInstance();
+        return new FrameSource() {
+            @Override
+            public void postFrameCallback(Choreographer.FrameCallback callback) {
+                choreographer.postFrameCallback(callback);
+            }
+
+            @Override
+            public void removeFrameCallback(Choreographer.FrameCallback callback) {
+                choreographer.removeFrameCallback(callback);
+            }
+        };
+    }
+
+    /** Herhangi bir thread'den çağrılabilir; bekleyen (henüz çizilmemiş) durumun yerine geçer. */
+    void submitState(NavigationCardState state) {
+        if (pendingState.getAndSet(state) != null) {
+            droppedStates.incrementAndGet();
+        }
+        scheduleFrame();
+    }
+
+    /** Hız değiştiğinde çağrılır; sıradaki karede hız kutusu güncel değerle yenilenir. */
+    void markSpeedDirty() {
+        speedDirty.set(true);
+        scheduleFrame();
+    }
+
+    /**
+     * Herhangi bir thread'den çağrılabilir; bekleyen güncellemeleri atar ve kartı sıradaki karede UI thread'de
+     * sıfırlar. Sıfırlamadan sonra gelen durumlar aynı karede sıfırlamanın ardından uygulanır.
+     */
+    void submitReset() {
+        pendingState.set(null);
+        speedDirty.set(false);
+        resetPending.set(true);
+        scheduleFrame();
+    }
+
+    /** Bekleyen güncellemeleri ve planlanmış kareyi iptal eder (ör. navigasyon durdu). */
+    void cancel() {
+        pendingState.set(null);
+        speedDirty.set(false);
+        resetPending.set(false);
+        if (frameScheduled.getAndSet(false)) {
+            frameSource.removeFrameCallback(this);
+        }
+    }
+
+    @Override
+    public void doFrame(long frameTimeNanos) {
+        // Bayrak önce bırakılır; bu karede uygulanırken gelen durum bir sonraki kareyi planlar.
+        frameScheduled.set(false);
+        boolean reset = resetPending.getAndSet(false);
+        NavigationCardState state = pendingState.getAndSet(null);
+        boolean speedChanged = speedDirty.getAndSet(false);
+        if (!reset && state == null && !speedChanged) {
+            return;
+        }
+        dispatchedFrames.incrementAndGet();
+        if (reset) {
+            binder.reset();
+        }
+        if (state != null) {
+            // Kart durumu hız kutusunu da en güncel hızla çizer.
+            binder.bindState(state);
+        } else if (speedChanged) {
+            binder.bindSpeed();
+        }
+    }
+
+    /** Çizilmeden üzerine yazılan durum sayısı. */
+    long getDroppedStateCount() {
+        return droppedStates.get();
+    }
+
+    /** Binder'a iş düşen kare sayısı. */
+    long getDispatchedFrameCount() {
+        return dispatchedFrames.get();
+    }
+
+    private void scheduleFrame() {
+        if (frameScheduled.compareAndSet(false, true)) {
+            frameSource.postFrameCallback(this);
+        }
+    }
+}
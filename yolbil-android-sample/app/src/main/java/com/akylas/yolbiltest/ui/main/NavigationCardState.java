@@ -0,0 +1,49 @@
+package com.akylas.yolbiltest.ui.main;
+
+import androidx.annotation.DrawableRes;
+
+/** NavigationInfoCard'ın bir andaki tüm içeriğini taşıyan değişmez görüntü. */
+final class NavigationCardState {
+
+    // "Ardından" kutusunda gösterilecek ikon yoksa kullanılan değer.
+    static final int NO_ICON = 0;
+
+    final String manifestText;
+    final String directionText;
+    final String distanceText;
+    @DrawableRes
+    final int iconRes;
+    @DrawableRes
+    final int nextIconRes;
+    final boolean showNext;
+    final String totalDistanceText;
+    final String totalTimeText;
+    final int speedKmh;
+    final int speedLimitKmh;
+
+    NavigationCardState(String manifestText,
+                        String directionText,
+                        String distanceText,
+                        @DrawableRes int iconRes,
+                        @DrawableRes int nextIconRes,
+                        boolean showNext,
+                        String totalDistanceText,
+                        String totalTimeText,
+                        int speedKmh,
+                        int speedLimitKmh) {
+        this.manifestText = manifestText;
+        this.directionText = directionText;
+        this.distanceText = distanceText;
+        this.iconRes = iconRes;
+        this.nextIconRes = nextIconRes;
+        this.showNext = showNext;
+        this.totalDistanceText = totalDistanceText;
+        this.totalTimeText = totalTimeText;
+        this.speedKmh = speedKmh;
+        this.speedLimitKmh = speedLimitKmh;
+    }
+
+    boolean isSpeeding() {
+        return speedLimitKmh > 0 && speedKmh > speedLimitKmh;
+    }
+}
@@ -0,0 +1,91 @@
+package com.akylas.yolbiltest.ui.main;
+
+import androidx.annotation.Nullable;
+
+import com.basarsoft.yolbil.navigation.NavigationCommand;
+import com.basarsoft.yolbil.navigation.TurnCommandEnum;
+import com.basarsoft.yolbil.navigation.TurnCommandEnumVector;
+
+/**
+ * NavigationCommand alanlarının callback başına tek seferde okunmuş düz Java kopyası.
+ * Sunum mantığı SDK nesnesine dokunmadan (ve cihaz olmadan) bu değerlerle çalışır.
+ */
+final class NavigationCommandSnapshot {
+
+    final int staticIndex;
+    final String nextRoadName;
+    final String firstCommandName;
+    final String nextCommandName;
+    final double speedLimitKmh;
+    final double distanceToCommand;
+    final double totalDistanceToCommand;
+    final double remainingTimeSec;
+    // Komut adlarının önceden hesaplanmış sunum karşılıkları.
+    final TurnCommandTable.Entry firstCommand;
+    @Nullable
+    final TurnCommandTable.Entry nextCommand;
+
+    NavigationCommandSnapshot(int staticIndex,
+                              @Nullable String nextRoadName,
+                              @Nullable String firstCommandName,
+                              @Nullable String nextCommandName,
+                              double speedLimitKmh,
+                              double distanceToCommand,
+                              double totalDistanceToCommand,
+                              double remainingTimeSec) {
+        this(staticIndex, nextRoadName,
+                TurnCommandTable.get().forName(firstCommandName),
+                nextCommandName == null ? null : TurnCommandTable.get().forName(nextCommandName),
+                speedLimitKmh, distanceToCommand, totalDistanceToCommand, remainingTimeSec);
+    }
+
+    private NavigationCommandSnapshot(int staticIndex,
+                              @Nullable String nextRoadName,
+                              TurnCommandTable.Entry firstCommand,
+                              @Nullable TurnCommandTable.Entry nextCommand,
+                              double speedLimitKmh,
+                              double distanceToCommand,
+                              double totalDistanceToCommand,
+                              double remainingTimeSec) {
+        this.staticIndex = staticIndex;
+        this.nextRoadName = nextRoadName;
+        this.firstCommand = firstCommand;
+        this.nextCommand = nextCommand;
+        this.firstCommandName = firstCommand.name;
+        this.nextCommandName = nextCommand != null ? nextCommand.name : null;
+        this.speedLimitKmh = speedLimitKmh;
+        this.distanceToCommand = distanceToCommand;
+        this.totalDistanceToCommand = totalDistanceToCommand;
+        this.remainingTimeSec = remainingTimeSec;
+    }
+
+    /**
+     * Ondalık alanlar float hassasiyetine indirgenir; {@link NavigationEventRecorder} de aynı hassasiyette
+     * yazdığı için canlı sunum ile kayıttan oynatma birebir aynı kart durumunu üretir.
+     */
+    static NavigationCommandSnapshot from(NavigationCommand command) {
+        return new NavigationCommandSnapshot(
+                (int) command.getStaticManifestCommandIndex(),
+                command.getNextRoadName(),
+                firstCommand(command.getCommands(), TurnCommandTable.get().none()),
+                firstCommand(command.getNextCommands(), null),
+                (float) command.getSpeedLimit(),
+                (float) command.getDistanceToCommand(),
+                (float) command.getTotalDistanceToCommand(),
+                (float) command.getRemainingTimeInSec()
+        );
+    }
+
+    /** TurnCommand listesindeki ilk komutun tablo kaydını döndürür; liste boşsa fallback. */
+    private static TurnCommandTable.Entry firstCommand(@Nullable TurnCommandEnumVector commands,
+                                                      @Nullable TurnCommandTable.Entry fallback) {
+        if (commands == null || commands.size() == 0) {
+            return fallback;
+        }
+        TurnCommandEnum enumValue = commands.get(0);
+        if (enumValue == null) {
+            return fallback;
+        }
+        return TurnCommandTable.get().forCommand(enumValue);
+    }
+}
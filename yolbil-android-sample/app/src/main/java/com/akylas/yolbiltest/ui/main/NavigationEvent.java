@@ -0,0 +1,79 @@
+package com.akylas.yolbiltest.ui.main;
+
+import androidx.annotation.Nullable;
+
+/**
+ * {@link NavigationEventRecorder} ile kaydedilen tek bir olay. Tür alanına göre ilgili alanlar doludur;
+ * diğerleri null veya NaN kalır.
+ */
+final class NavigationEvent {
+
+    static final int TYPE_SESSION = 0;
+    static final int TYPE_COMMAND_READY = 1;
+    static final int TYPE_LOCATION_CHANGED = 2;
+    static final int TYPE_ROUTE = 3;
+    static final int TYPE_FIX = 4;
+
+    final int type;
+    final long timestampMs;
+
+    // TYPE_COMMAND_READY / TYPE_LOCATION_CHANGED
+    @Nullable
+    final NavigationCommandSnapshot command;
+
+    // TYPE_ROUTE: statik manifest sokak adları ve (varsa) rota noktaları.
+    @Nullable
+    final String[] instructionStreetNames;
+    @Nullable
+    final double[] routeLons;
+    @Nullable
+    final double[] routeLats;
+
+    // TYPE_FIX: cihazdan gelen konum ve kartta gösterilen filtrelenmiş hız.
+    final double longitude;
+    final double latitude;
+    final double speedMps;
+    final double bearingDeg;
+    final double horizontalAccuracyM;
+    final int displayedSpeedKmh;
+
+    private NavigationEvent(int type, long timestampMs, @Nullable NavigationCommandSnapshot command,
+                            @Nullable String[] instructionStreetNames, @Nullable double[] routeLons,
+                            @Nullable double[] routeLats, double longitude, double latitude, double speedMps,
+                            double bearingDeg, double horizontalAccuracyM, int displayedSpeedKmh) {
+        this.type = type;
+        this.timestampMs = timestampMs;
+        this.command = command;
+        this.instructionStreetNames = instructionStreetNames;
+        this.routeLons = routeLons;
+        this.routeLats = routeLats;
+        this.longitude = longitude;
+        this.latitude = latitude;
+        this.speedMps = speedMps;
+        this.bearingDeg = bearingDeg;
+        this.horizontalAccuracyM = horizontalAccuracyM;
+        this.displayedSpeedKmh = displayedSpeedKmh;
+    }
+
+    static NavigationEvent session(long timestampMs) {
+        return new NavigationEvent(TYPE_SESSION, timestampMs, null, null, null, null,
+                Double.NaN, Double.NaN, Double.NaN, Double.NaN, Double.NaN, 0);
+    }
+
+    static NavigationEvent command(int type, long timestampMs, NavigationCommandSnapshot command) {
+        return new NavigationEvent(type, timestampMs, command, null, null, null,
+                Double.NaN, Double.NaN, Double.NaN, Double.NaN, Double.NaN, 0);
+    }
+
+    static NavigationEvent route(long timestampMs, String[] instructionStreetNames,
+                                 @Nullable double[] routeLons, @Nullable double[] routeLats) {
+        return new NavigationEvent(TYPE_ROUTE, timestampMs, null, instructionStreetNames, routeLons, routeLats,
+                Double.NaN, Double.NaN, Double.NaN, Double.NaN, Double.NaN, 0);
+    }
+
+    static NavigationEvent fix(long timestampMs, double longitude, double latitude, double speedMps,
+                               double bearingDeg, double horizontalAccuracyM, int displayedSpeedKmh) {
+        return new NavigationEvent(TYPE_FIX, timestampMs, null, null, null, null,
+                longitude, latitude, speedMps, bearingDeg, horizontalAccuracyM, displayedSpeedKmh);
+    }
+}
@@ -0,0 +1,190 @@
+package com.akylas.yolbiltest.ui.main;
+
+import androidx.annotation.Nullable;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * {@link NavigationEventRecorder} dosyalarını çerçeve çerçeve okur. Uygulama kayıt sırasında kapanmışsa
+ * yarım kalan son çerçeve sessizce yok sayılır; kayıtlar çerçeve sınırını aşmaz.
+ */
+final class NavigationEventReader implements Closeable {
+
+    private final DataInputStream input;
+    // Okunmakta olan çerçevenin yükü; kayıtlar yalnızca buradan çözülür.
+    @Nullable
+    private VarintCodec.Decoder frame;
+    private final List<String> stringTable = new ArrayList<>();
+    private long lastTimestampMs;
+    private int lastFixLonE7;
+    private int lastFixLatE7;
+
+    NavigationEventReader(InputStream stream) throws IOException {
+        this.input = new DataInputStream(new BufferedInputStream(stream));
+        byte[] magic = new byte[NavigationEventRecorder.MAGIC.length];
+        input.readFully(magic);
+        for (int i = 0; i < magic.length; i++) {
+            if (magic[i] != NavigationEventRecorder.MAGIC[i]) {
+                throw new IOException("Not a navigation event log");
+            }
+        }
+        int version = input.readUnsignedByte();
+        if (version != NavigationEventRecorder.VERSION) {
+            throw new IOException("Unsupported navigation event log version: " + version);
+        }
+    }
+
+    static NavigationEventReader open(File file) throws IOException {
+        return new NavigationEventReader(new FileInputStream(file));
+    }
+
+    /** Dosyadaki tüm olayları belleğe okur; benchmark fixture'ları için ölçüm dışı yükleme sağlar. */
+    static List<NavigationEvent> readAll(File file) throws IOException {
+        List<NavigationEvent> events = new ArrayList<>();
+        try (NavigationEventReader reader = open(file)) {
+            NavigationEvent event;
+            while ((event = reader.next()) != null) {
+                events.add(event);
+            }
+        }
+        return events;
+    }
+
+    /** Bir sonraki olayı döndürür; dosya sonunda veya yarım kalmış son çerçevede null. */
+    @Nullable
+    NavigationEvent next() throws IOException {
+        while (frame == null || frame.remaining() == 0) {
+            frame = nextFrame();
+            if (frame == null) {
+                return null;
+            }
+        }
+        VarintCodec.Decoder in = frame;
+        try {
+            int type = in.readByte();
+            if (type == NavigationEvent.TYPE_SESSION) {
+                stringTable.clear();
+                lastFixLonE7 = 0;
+                lastFixLatE7 = 0;
+                lastTimestampMs = in.readLong();
+                return NavigationEvent.session(lastTimestampMs);
+            }
+            lastTimestampMs += in.readSignedVarint();
+            switch (type) {
+                case NavigationEvent.TYPE_COMMAND_READY:
+                case NavigationEvent.TYPE_LOCATION_CHANGED:
+                    return NavigationEvent.command(type, lastTimestampMs, readCommand(in));
+                case NavigationEvent.TYPE_ROUTE:
+                    return readRoute(in);
+                case NavigationEvent.TYPE_FIX:
+                    return readFix(in);
+                default:
+                    throw new IOException("Unknown navigation event type: " + type);
+            }
+        } catch (EOFException e) {
+            throw new IOException("Record crosses frame boundary", e);
+        }
+    }
+
+    // Sıradaki tam çerçeveyi belleğe alır; dosya sonu veya yarım çerçevede null.
+    @Nullable
+    private VarintCodec.Decoder nextFrame() throws IOException {
+        try {
+            if (input.readInt() != NavigationEventRecorder.FRAME_MAGIC) {
+                throw new IOException("Corrupt navigation event frame");
+            }
+            int payloadLength = input.readInt();
+            if (payloadLength < 0) {
+                throw new IOException("Corrupt navigation event frame length: " + payloadLength);
+            }
+            byte[] payload = new byte[payloadLength];
+            input.readFully(payload);
+            return new VarintCodec.Decoder(payload);
+        } catch (EOFException truncated) {
+            return null;
+        }
+    }
+
+    private NavigationCommandSnapshot readCommand(VarintCodec.Decoder in) throws IOException {
+        int staticIndex = (int) in.readSignedVarint();
+        String nextRoadName = readString(in);
+        String firstCommandName = readString(in);
+        String nextCommandName = readString(in);
+        double speedLimit = in.readFloat();
+        double distanceToCommand = in.readFloat();
+        double totalDistance = in.readFloat();
+        double remainingTime = in.readFloat();
+        return new NavigationCommandSnapshot(staticIndex, nextRoadName, firstCommandName, nextCommandName,
+                speedLimit, distanceToCommand, totalDistance, remainingTime);
+    }
+
+    private NavigationEvent readRoute(VarintCodec.Decoder in) throws IOException {
+        String[] names = new String[(int) in.readVarint()];
+        for (int i = 0; i < names.length; i++) {
+            names[i] = readString(in);
+        }
+        int pointCount = (int) in.readVarint();
+        double[] lons = null;
+        double[] lats = null;
+        if (pointCount > 0) {
+            lons = new double[pointCount];
+            lats = new double[pointCount];
+            int lon = 0;
+            int lat = 0;
+            for (int i = 0; i < pointCount; i++) {
+                lon += (int) in.readSignedVarint();
+                lat += (int) in.readSignedVarint();
+                lons[i] = lon / NavigationEventRecorder.COORDINATE_SCALE;
+                lats[i] = lat / NavigationEventRecorder.COORDINATE_SCALE;
+            }
+        }
+        return NavigationEvent.route(lastTimestampMs, names, lons, lats);
+    }
+
+    private NavigationEvent readFix(VarintCodec.Decoder in) throws IOException {
+        lastFixLonE7 += (int) in.readSignedVarint();
+        lastFixLatE7 += (int) in.readSignedVarint();
+        double speed = in.readFloat();
+        double bearing = in.readFloat();
+        double accuracy = in.readFloat();
+        int displayedSpeed = (int) in.readSignedVarint();
+        return NavigationEvent.fix(lastTimestampMs,
+                lastFixLonE7 / NavigationEventRecorder.COORDINATE_SCALE,
+                lastFixLatE7 / NavigationEventRecorder.COORDINATE_SCALE,
+                speed, bearing, accuracy, displayedSpeed);
+    }
+
+    @Nullable
+    private String readString(VarintCodec.Decoder in) throws IOException {
+        int code = (int) in.readVarint();
+        if (code == NavigationEventRecorder.STRING_NULL) {
+            return null;
+        }
+        if (code >= NavigationEventRecorder.STRING_TABLE_OFFSET) {
+            int index = code - NavigationEventRecorder.STRING_TABLE_OFFSET;
+            if (index >= stringTable.size()) {
+                throw new IOException("Invalid string reference: " + index);
+            }
+            return stringTable.get(index);
+        }
+        String value = in.readUtf8((int) in.readVarint());
+        if (stringTable.size() < NavigationEventRecorder.MAX_STRING_TABLE) {
+            stringTable.add(value);
+        }
+        return value;
+    }
+
+    @Override
+    public void close() throws IOException {
+        input.close();
+    }
+}
@@ -0,0 +1,270 @@
+package com.akylas.yolbiltest.ui.main;
+
+import androidx.annotation.Nullable;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * CommandListener olay akışını ve giriş konumlarını sıkıştırılmış ikili biçimde, dosyanın sonuna ekleyerek kaydeder.
+ *
+ * <p>Biçim: dosya başında "YNEV" + sürüm baytı; ardından çerçeveler. Her çerçeve {@link #FRAME_MAGIC} ve
+ * 4 baytlık yük uzunluğuyla başlar ve yalnızca tam kayıtlar içerir. Her kayıt tür baytı ve önceki kayda göre
+ * zigzag varint zaman farkıyla başlar. Metinler oturum başına string tablosuyla, koordinatlar 1e-7 derece
+ * çözünürlükte önceki noktaya göre fark olarak, ondalık değerler 4 baytlık float olarak yazılır.
+ * Her açılış bir oturum kaydı ekler; okuyucu tablo ve fark tabanlarını bu kayıtta sıfırlar.
+ *
+ * <p>Önceki oturum yazılırken uygulama kapandıysa dosya sonunda yarım bir çerçeve kalır; açılışta dosya son
+ * tam çerçeveye kırpılır, böylece yeni oturum yarım kaydın arkasına eklenip yanlış okunmaz.
+ *
+ * <p>Kodlama çağıran thread'de belleğe yapılır; dolan tampon diske tek bir yazma thread'inde aktarılır.
+ */
+final class NavigationEventRecorder implements Closeable {
+
+    static final byte[] MAGIC = {'Y', 'N', 'E', 'V'};
+    static final int VERSION = 2;
+    static final int FRAME_MAGIC = 0x594E4652; // "YNFR"
+    static final int FRAME_HEADER_BYTES = 8;
+    // String tablosu bu boyuta ulaşınca yeni metinler tabloya eklenmeden satır içi yazılır.
+    static final int MAX_STRING_TABLE = 4096;
+    static final double COORDINATE_SCALE = 1e7;
+
+    // Metin kodları: 0 = null, 1 = satır içi yeni metin, 2+ = tablo indeksi + 2.
+    static final int STRING_NULL = 0;
+    static final int STRING_INLINE = 1;
+    static final int STRING_TABLE_OFFSET = 2;
+
+    private static final int FLUSH_THRESHOLD = 64 * 1024;
+
+    private final OutputStream output;
+    private final ExecutorService writer = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "NavigationEventRecorder");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final Map<String, Integer> stringTable = new HashMap<>();
+    private final VarintCodec.Encoder out = new VarintCodec.Encoder(FLUSH_THRESHOLD + 1024);
+    private long lastTimestampMs;
+    private int lastFixLonE7;
+    private int lastFixLatE7;
+    private volatile IOException lastError;
+    private boolean closed;
+
+    private NavigationEventRecorder(OutputStream output, long sessionTimestampMs) {
+        this.output = output;
+        // Tamponun başı çerçeve başlığına ayrılır; flush sırasında doldurulur.
+        out.truncate(FRAME_HEADER_BYTES);
+        // Oturum kaydı mutlak zamanı taşır; sonraki kayıtlar buna göre fark yazar.
+        out.writeByte(NavigationEvent.TYPE_SESSION);
+        out.writeLong(sessionTimestampMs);
+        lastTimestampMs = sessionTimestampMs;
+    }
+
+    /**
+     * Dosyayı ekleme modunda açar. Dosya boşsa başlık yazılır; sonunda yarım çerçeve varsa kırpılır.
+     * Dosya başka bir biçimdeyse (ör. eski sürüm) üzerine yazılmaz, IOException atılır.
+     */
+    static NavigationEventRecorder open(File file, long sessionTimestampMs) throws IOException {
+        try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+            long end = completeLength(raf);
+            if (end == 0) {
+                raf.setLength(0);
+                raf.write(MAGIC);
+                raf.write(VERSION);
+            } else if (end < raf.length()) {
+                raf.setLength(end);
+            }
+        }
+        return new NavigationEventRecorder(new FileOutputStream(file, true), sessionTimestampMs);
+    }
+
+    /** Başlık ve son tam çerçeve dahil geçerli uzunluk; başlık bile tamamlanmamışsa 0. */
+    static long completeLength(RandomAccessFile raf) throws IOException {
+        long size = raf.length();
+        long position = MAGIC.length + 1;
+        if (size < position) {
+            return 0;
+        }
+        raf.seek(0);
+        for (byte expected : MAGIC) {
+            if (raf.readByte() != expected) {
+                throw new IOException("Not a navigation event log");
+            }
+        }
+        int version = raf.readUnsignedByte();
+        if (version != VERSION) {
+            throw new IOException("Unsupported navigation event log version: " + version);
+        }
+        while (position + FRAME_HEADER_BYTES <= size) {
+            raf.seek(position);
+            if (raf.readInt() != FRAME_MAGIC) {
+                break;
+            }
+            long end = position + FRAME_HEADER_BYTES + (raf.readInt() & 0xFFFFFFFFL);
+            if (end > size) {
+                break;
+            }
+            position = end;
+        }
+        return position;
+    }
+
+    synchronized void recordCommandReady(long timestampMs, NavigationCommandSnapshot command) {
+        writeCommand(NavigationEvent.TYPE_COMMAND_READY, timestampMs, command);
+    }
+
+    synchronized void recordLocationChanged(long timestampMs, NavigationCommandSnapshot command) {
+        writeCommand(NavigationEvent.TYPE_LOCATION_CHANGED, timestampMs, command);
+    }
+
+    /** Yeni veya yeniden hesaplanmış rotayı kaydeder; geometri verilmezse yalnızca manifest adları yazılır. */
+    synchronized void recordRoute(long timestampMs, String[] instructionStreetNames, @Nullable RouteGeometry geometry) {
+        if (!beginRecord(NavigationEvent.TYPE_ROUTE, timestampMs)) {
+            return;
+        }
+        out.writeVarint(instructionStreetNames.length);
+        for (String name : instructionStreetNames) {
+            writeString(name);
+        }
+        int pointCount = geometry != null ? geometry.getPointCount() : 0;
+        out.writeVarint(pointCount);
+        int previousLon = 0;
+        int previousLat = 0;
+        for (int i = 0; i < pointCount; i++) {
+            int lon = toE7(geometry.getLon(i));
+            int lat = toE7(geometry.getLat(i));
+            out.writeSignedVarint(lon - previousLon);
+            out.writeSignedVarint(lat - previousLat);
+            previousLon = lon;
+            previousLat = lat;
+        }
+        endRecord();
+    }
+
+    synchronized void recordFix(long timestampMs, double longitude, double latitude, double speedMps,
+                                double bearingDeg, double horizontalAccuracyM, int displayedSpeedKmh) {
+        if (!beginRecord(NavigationEvent.TYPE_FIX, timestampMs)) {
+            return;
+        }
+        int lon = toE7(longitude);
+        int lat = toE7(latitude);
+        out.writeSignedVarint(lon - lastFixLonE7);
+        out.writeSignedVarint(lat - lastFixLatE7);
+        lastFixLonE7 = lon;
+        lastFixLatE7 = lat;
+        out.writeFloat(speedMps);
+        out.writeFloat(bearingDeg);
+        out.writeFloat(horizontalAccuracyM);
+        out.writeSignedVarint(displayedSpeedKmh);
+        endRecord();
+    }
+
+    /** Tampondaki kayıtları tek çerçeve olarak yazma thread'ine aktarır. */
+    synchronized void flush() {
+        if (out.length() == FRAME_HEADER_BYTES || closed) {
+            return;
+        }
+        out.setInt(0, FRAME_MAGIC);
+        out.setInt(4, out.length() - FRAME_HEADER_BYTES);
+        final byte[] chunk = out.toByteArray();
+        out.truncate(FRAME_HEADER_BYTES);
+        writer.execute(() -> {
+            try {
+                output.write(chunk);
+            } catch (IOException e) {
+                lastError = e;
+            }
+        });
+    }
+
+    /** Son yazma hatası; kayıt sağlıklıysa null. */
+    @Nullable
+    IOException getLastError() {
+        return lastError;
+    }
+
+    @Override
+    public void close() throws IOException {
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+            flush();
+            closed = true;
+        }
+        writer.shutdown();
+        try {
+            writer.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        output.close();
+        if (lastError != null) {
+            throw lastError;
+        }
+    }
+
+    private void writeCommand(int type, long timestampMs, NavigationCommandSnapshot command) {
+        if (!beginRecord(type, timestampMs)) {
+            return;
+        }
+        out.writeSignedVarint(command.staticIndex);
+        writeString(command.nextRoadName);
+        writeString(command.firstCommandName);
+        writeString(command.nextCommandName);
+        out.writeFloat(command.speedLimitKmh);
+        out.writeFloat(command.distanceToCommand);
+        out.writeFloat(command.totalDistanceToCommand);
+        out.writeFloat(command.remainingTimeSec);
+        endRecord();
+    }
+
+    private boolean beginRecord(int type, long timestampMs) {
+        if (closed) {
+            return false;
+        }
+        out.writeByte(type);
+        out.writeSignedVarint(timestampMs - lastTimestampMs);
+        lastTimestampMs = timestampMs;
+        return true;
+    }
+
+    private void endRecord() {
+        if (out.length() >= FLUSH_THRESHOLD) {
+            flush();
+        }
+    }
+
+    private void writeString(@Nullable String value) {
+        if (value == null) {
+            out.writeVarint(STRING_NULL);
+            return;
+        }
+        Integer index = stringTable.get(value);
+        if (index != null) {
+            out.writeVarint(index + STRING_TABLE_OFFSET);
+            return;
+        }
+        if (stringTable.size() < MAX_STRING_TABLE) {
+            stringTable.put(value, stringTable.size());
+        }
+        out.writeVarint(STRING_INLINE);
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeVarint(bytes.length);
+        out.writeBytes(bytes);
+    }
+
+    static int toE7(double degrees) {
+        return (int) Math.round(degrees * COORDINATE_SCALE);
+    }
+}
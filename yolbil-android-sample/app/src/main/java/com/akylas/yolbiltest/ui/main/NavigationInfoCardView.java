@@ -1,7 +1,10 @@
 package com.akylas.yolbiltest.ui.main;
 
+import android.content.Context;
 import android.content.res.Resources;
 import android.graphics.PorterDuff;
+import android.graphics.PorterDuffColorFilter;
+import android.graphics.drawable.Drawable;
 import android.view.View;
 import android.widget.ImageView;
 import android.widget.LinearLayout;
@@ -15,9 +18,16 @@ import com.akylas.yolbiltest.R;
 /**
  * Basit bir yardımcı sınıf: NavigationInfoCard üzerindeki view referanslarını
  * merkezi bir yerden güncelleyebilmek için kullanılır.
+ *
+ * <p>Hangi view'ın yazılacağına {@link NavigationCardBinder} karar verir; yalnızca değişen view'lara
+ * dokunulur. Hız kutusunun normal ve aşım durumlarına ait arka plan, renk ve renk filtreleri bir kez
+ * çözülür. Tüm metotlar UI thread'den çağrılmalıdır.
  */
 public class NavigationInfoCardView {
 
+    // Hız metinleri bu değere kadar bir kez biçimlendirilip saklanır.
+    private static final int MAX_CACHED_SPEED = 250;
+
     private final ImageView directionIconView;
     private final TextView manifestTextView;
     private final TextView directionTextView;
@@ -32,6 +42,87 @@ public class NavigationInfoCardView {
     private final TextView currentSpeedTextView;
     private final TextView speedLimitTextView;
 
+    // Hız kutusu için önceden çözülmüş kaynaklar (index 0: normal, 1: aşım).
+    private final Drawable[] speedBackgrounds = new Drawable[2];
+    private final int[] speedTextColors = new int[2];
+    private final PorterDuffColorFilter[] speedIconFilters = new PorterDuffColorFilter[2];
+    private final String[] speedTexts = new String[MAX_CACHED_SPEED + 1];
+    private final String[] speedLimitTexts = new String[MAX_CACHED_SPEED + 1];
+    private final String nextCommandLabel;
+    private final NavigationCardBinder binder = new NavigationCardBinder(new NavigationCardBinder.Views() {
+        @Override
+        public void setManifestText(String text) {
+            manifestTextView.setText(text);
+        }
+
+        @Override
+        public void setDirectionText(String text) {
+            directionTextView.setText(text);
+        }
+
+        @Override
+        public void setDistanceText(String text) {
+            distanceTextView.setText(text);
+        }
+
+        @Override
+        public void setDirectionIcon(int iconRes) {
+            directionIconView.setImageResource(iconRes);
+        }
+
+        @Override
+        public void setTotalDistanceText(String text) {
+            totalDistanceTextView.setText(text);
+        }
+
+        @Override
+        public void setTotalTimeText(String text) {
+            totalTimeTextView.setText(text);
+        }
+
+        @Override
+        public boolean hasSpeedRow() {
+            return speedRow != null;
+        }
+
+        @Override
+        public void setCurrentSpeed(int speedKmh) {
+            currentSpeedTextView.setText(speedText(speedRow.getResources(), speedKmh, speedTexts,
+                    R.string.navigation_speed_value, R.string.navigation_current_speed_placeholder));
+        }
+
+        @Override
+        public void setSpeedLimit(int speedLimitKmh) {
+            speedLimitTextView.setText(speedText(speedRow.getResources(), speedLimitKmh, speedLimitTexts,
+                    R.string.navigation_speed_limit_value, R.string.navigation_speed_limit_placeholder));
+        }
+
+        @Override
+        public void setSpeeding(boolean speeding) {
+            int index = speeding ? 1 : 0;
+            int textColor = speedTextColors[index];
+            speedRow.setBackground(speedBackgrounds[index]);
+            currentSpeedTextView.setTextColor(textColor);
+            speedLimitTextView.setTextColor(textColor);
+            speedIconView.setColorFilter(speedIconFilters[index]);
+        }
+
+        @Override
+        public void setNextCommandVisible(boolean visible) {
+            nextCommandContainer.setVisibility(visible ? View.VISIBLE : View.GONE);
+        }
+
+        @Override
+        public void setNextCommandIcon(int iconRes) {
+            nextCommandIconView.setImageResource(iconRes);
+        }
+
+        @Override
+        public void setNextCommandLabel(CharSequence label) {
+            nextCommandLabelView.setText(label);
+        }
+    });
+
     public NavigationInfoCardView(View rootView) {
         // Kart içindeki manifest/direction bileşenleri
         View cardView = rootView.findViewById(R.id.navigationInfoCard);
@@ -50,53 +141,44 @@ public class NavigationInfoCardView {
         speedIconView = rootView.findViewById(R.id.navigationSpeedIcon);
         currentSpeedTextView = rootView.findViewById(R.id.navigationCurrentSpeedText);
         speedLimitTextView = rootView.findViewById(R.id.navigationSpeedLimitText);
+
+        Context context = rootView.getContext();
+        nextCommandLabel = context.getString(R.string.next_direction_label);
+        if (speedRow != null) {
+            Context speedContext = speedRow.getContext();
+            speedBackgrounds[0] = ContextCompat.getDrawable(speedContext, R.drawable.bg_speed_info_safe);
+            speedBackgrounds[1] = ContextCompat.getDrawable(speedContext, R.drawable.bg_speed_info_warning);
+            speedTextColors[0] = ContextCompat.getColor(speedContext, R.color.speed_safe_text);
+            speedTextColors[1] = ContextCompat.getColor(speedContext, R.color.speed_warning_text);
+            for (int i = 0; i < 2; i++) {
+                speedIconFilters[i] = new PorterDuffColorFilter(speedTextColors[i], PorterDuff.Mode.SRC_IN);
+            }
+        }
+    }
+
+    /** Kart durumunu uygular; yalnızca önceki bağlamadan farklı olan view'lar güncellenir. */
+    void bind(NavigationCardState state, int currentSpeed) {
+        binder.bind(state, currentSpeed, nextCommandLabel);
     }
 
     public void updatePrimaryInfo(String manifestText, String directionText, String distanceText, @DrawableRes int iconRes) {
-        manifestTextView.setText(manifestText);
-        directionTextView.setText(directionText);
-        distanceTextView.setText(distanceText);
-        directionIconView.setImageResource(iconRes);
+        binder.updatePrimaryInfo(manifestText, directionText, distanceText, iconRes);
     }
 
     public void updateSummaryInfo(String totalDistanceText, String totalTimeText) {
-        totalDistanceTextView.setText(totalDistanceText);
-        totalTimeTextView.setText(totalTimeText);
+        binder.updateSummaryInfo(totalDistanceText, totalTimeText);
     }
 
     public void updateSpeedInfo(int currentSpeed, int speedLimit, boolean isSpeeding) {
-        if (speedRow == null) {
-            return;
-        }
-        Resources res = speedRow.getResources();
-        String currentText = currentSpeed > 0
-                ? res.getString(R.string.navigation_speed_value, currentSpeed)
-                : res.getString(R.string.navigation_current_speed_placeholder);
-        String limitText = speedLimit > 0
-                ? res.getString(R.string.navigation_speed_limit_value, speedLimit)
-                : res.getString(R.string.navigation_speed_limit_placeholder);
-
-        currentSpeedTextView.setText(currentText);
-        speedLimitTextView.setText(limitText);
-
-        int bgRes = isSpeeding ? R.drawable.bg_speed_info_warning : R.drawable.bg_speed_info_safe;
-        int textColor = ContextCompat.getColor(speedRow.getContext(),
-                isSpeeding ? R.color.speed_warning_text : R.color.speed_safe_text);
-
-        speedRow.setBackgroundResource(bgRes);
-        currentSpeedTextView.setTextColor(textColor);
-        speedLimitTextView.setTextColor(textColor);
-        speedIconView.setColorFilter(textColor, PorterDuff.Mode.SRC_IN);
+        binder.updateSpeedInfo(currentSpeed, speedLimit, isSpeeding);
     }
 
     public void showNextCommand(@DrawableRes int iconRes, CharSequence labelText) {
-        nextCommandContainer.setVisibility(View.VISIBLE);
-        nextCommandIconView.setImageResource(iconRes);
-        nextCommandLabelView.setText(labelText);
+        binder.showNextCommand(iconRes, labelText);
     }
 
     public void hideNextCommand() {
-        nextCommandContainer.setVisibility(View.GONE);
+        binder.hideNextCommand();
     }
 
     public void reset() {
@@ -114,4 +196,19 @@ public class NavigationInfoCardView {
         updateSpeedInfo(0, 0, false);
         hideNextCommand();
     }
+
+    private static String speedText(Resources res, int value, String[] cache, int valueRes, int placeholderRes) {
+        if (value <= 0) {
+            return res.getString(placeholderRes);
+        }
+        if (value > MAX_CACHED_SPEED) {
+            return res.getString(valueRes, value);
+        }
+        String text = cache[value];
+        if (text == null) {
+            text = res.getString(valueRes, value);
+            cache[value] = text;
+        }
+        return text;
+    }
 }
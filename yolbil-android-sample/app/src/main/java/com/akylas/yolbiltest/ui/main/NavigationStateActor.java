@@ -0,0 +1,386 @@
+package com.akylas.yolbiltest.ui.main;
+
+import androidx.annotation.Nullable;
+
+import com.basarsoft.yolbil.core.MapPos;
+import com.basarsoft.yolbil.location.Location;
+import com.basarsoft.yolbil.routing.NavigationResult;
+
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Navigasyon durumunun tek sahibi. SDK callback'leri, konum dinleyicileri, simülasyon ve UI durumu
+ * doğrudan değiştirmez; tipli mesajları kilitsiz bir kuyruğa bırakır. Kuyruk tek bir iş parçacığında
+ * sırayla boşaltılır, sonuç değişmez bir {@link Snapshot} olarak yayımlanır. Böylece sunum mantığı,
+ * hız filtresi ve rota bilgisi tek thread'de kalır; okuyucular yalnızca volatile bir referans okur.
+ *
+ * <p>Üreticiler mesaj başına bir CAS ve kuyruğa ekleme yapar; boşaltma görevi yalnızca kuyruk boştan
+ * doluya geçtiğinde planlanır.
+ */
+final class NavigationStateActor {
+
+    static final int MESSAGE_FIX = 0;
+    static final int MESSAGE_POSITION = 1;
+    static final int MESSAGE_COMMAND_READY = 2;
+    static final int MESSAGE_LOCATION_CHANGED = 3;
+    static final int MESSAGE_ROUTE = 4;
+    static final int MESSAGE_RESET = 5;
+    static final int MESSAGE_ROUTE_DIGEST = 6;
+
+    private static final int MAX_BATCH = 64;
+
+    /** Durum değişikliklerinin yan etkileri; aktör thread'inde, ilgili snapshot yayımlandıktan sonra çağrılır. */
+    interface Effects {
+        void onCardState(NavigationCardState state);
+
+        void onSpeedChanged();
+
+        void onSpeedLimitChanged(int speedLimitKmh);
+
+        /**
+         * Fix işlendi; displayedSpeedKmh o fix sonrasında kartta gösterilen (filtrelenmiş) hızdır. Turdaki
+         * fix'ler için sırayla ve turun snapshot'ı yayımlandıktan sonra çağrılır; location testlerde null olabilir.
+         */
+        void onFixProcessed(@Nullable Location location, int displayedSpeedKmh);
+    }
+
+    /** Aktörün bir andaki durumu; yayımlandıktan sonra değişmez. */
+    static final class Snapshot {
+        static final Snapshot EMPTY = new Snapshot(null, null, RouteDigest.EMPTY, null, null, null, 0, 0, 0);
+
+        @Nullable
+        final NavigationResult navigationResult;
+        @Nullable
+        final RouteGeometry routeGeometry;
+        // Rota gelince arka planda üretilir; hazır olana kadar boş özet.
+        final RouteDigest routeDigest;
+        @Nullable
+        final Location lastLocation;
+        @Nullable
+        final NavigationCardState cardState;
+        // Son konumun rota üzerindeki ilerlemesi (SDK snap'inden bağımsız); rota veya konum yoksa null.
+        @Nullable
+        final RouteProgressTracker.Progress routeProgress;
+        final int speedKmh;
+        final int speedLimitKmh;
+        // İşlenen mesaj sayısı; okuyucular değişikliği ucuzca fark edebilir.
+        final long sequence;
+
+        Snapshot(@Nullable NavigationResult navigationResult,
+                 @Nullable RouteGeometry routeGeometry,
+                 RouteDigest routeDigest,
+                 @Nullable Location lastLocation,
+                 @Nullable NavigationCardState cardState,
+                 @Nullable RouteProgressTracker.Progress routeProgress,
+                 int speedKmh,
+                 int speedLimitKmh,
+                 long sequence) {
+            this.navigationResult = navigationResult;
+            this.routeGeometry = routeGeometry;
+            this.routeDigest = routeDigest;
+            this.lastLocation = lastLocation;
+            this.cardState = cardState;
+            this.routeProgress = routeProgress;
+            this.speedKmh = speedKmh;
+            this.speedLimitKmh = speedLimitKmh;
+            this.sequence = sequence;
+        }
+    }
+
+    private static final class Message {
+        final int type;
+        @Nullable
+        final Location location;
+        @Nullable
+        final NavigationCommandSnapshot command;
+        @Nullable
+        final NavigationResult navigationResult;
+        @Nullable
+        final RouteGeometry routeGeometry;
+        @Nullable
+        final RouteDigest routeDigest;
+        // Konum mesajlarında üreticide okunan koordinat ve hız (m/s); bilinmiyorsa NaN.
+        final double lon;
+        final double lat;
+        final double speedMetersPerSecond;
+
+        Message(int type, @Nullable Location location, @Nullable NavigationCommandSnapshot command,
+                @Nullable NavigationResult navigationResult, @Nullable RouteGeometry routeGeometry,
+                @Nullable RouteDigest routeDigest) {
+            this(type, location, command, navigationResult, routeGeometry, routeDigest,
+                    Double.NaN, Double.NaN, Double.NaN);
+        }
+
+        Message(int type, @Nullable Location location, @Nullable NavigationCommandSnapshot command,
+                @Nullable NavigationResult navigationResult, @Nullable RouteGeometry routeGeometry,
+                @Nullable RouteDigest routeDigest, double lon, double lat, double speedMetersPerSecond) {
+            this.type = type;
+            this.location = location;
+            this.command = command;
+            this.navigationResult = navigationResult;
+            this.routeGeometry = routeGeometry;
+            this.routeDigest = routeDigest;
+            this.lon = lon;
+            this.lat = lat;
+            this.speedMetersPerSecond = speedMetersPerSecond;
+        }
+    }
+
+    private final ConcurrentLinkedQueue<Message> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean drainScheduled = new AtomicBoolean();
+    private final Executor drainExecutor;
+    private final Effects effects;
+    private final Runnable drainRunnable = this::drain;
+    private volatile Snapshot snapshot = Snapshot.EMPTY;
+
+    // Aşağıdaki alanlar yalnızca aktör thread'inde kullanılır.
+    private final NavigationCardPresenter presenter;
+    private final KalmanFilter speedFilter = new KalmanFilter(0.1f, 1f);
+    @Nullable
+    private NavigationResult navigationResult;
+    @Nullable
+    private RouteGeometry routeGeometry;
+    private RouteDigest routeDigest = RouteDigest.EMPTY;
+    @Nullable
+    private Location lastLocation;
+    @Nullable
+    private NavigationCardState cardState;
+    @Nullable
+    private RouteProgressTracker progressTracker;
+    @Nullable
+    private RouteProgressTracker.Progress routeProgress;
+    private long processed;
+    // Turda işlenen fix'ler; yan etkileri snapshot yayımlandıktan sonra bu sırayla çağrılır.
+    private final Location[] batchFixes = new Location[MAX_BATCH];
+    private final int[] batchFixSpeeds = new int[MAX_BATCH];
+
+    /**
+     * @param drainExecutor kuyruğu boşaltan tek iş parçacıklı yürütücü (cihazda HandlerThread)
+     * @param texts         kart metinleri; sokak adları aktörün rota özetinden okunur
+     */
+    NavigationStateActor(Executor drainExecutor, final NavigationCardPresenter.TextSource texts, Effects effects) {
+        this.drainExecutor = drainExecutor;
+        this.effects = effects;
+        this.presenter = new NavigationCardPresenter(new NavigationCardPresenter.TextSource() {
+            @Override
+            public String defaultManifestText() {
+                return texts.defaultManifestText();
+            }
+
+            @Override
+            public String directionText(TurnCommandTable.Entry command) {
+                return texts.directionText(command);
+            }
+
+            @Override
+            public String totalDistancePlaceholder() {
+                return texts.totalDistancePlaceholder();
+            }
+
+            @Override
+            public String totalTimePlaceholder() {
+                return texts.totalTimePlaceholder();
+            }
+
+            @Nullable
+            @Override
+            public String instructionStreetName(int index) {
+                return routeDigest.streetName(index);
+            }
+        });
+    }
+
+    /** Son yayımlanan durum; herhangi bir thread'den okunabilir. */
+    Snapshot snapshot() {
+        return snapshot;
+    }
+
+    /** Gerçek konum güncellemesi: hız filtresi, kart hızı ve kayıt işlenir. */
+    void postFix(Location location) {
+        MapPos coordinate = location.getCoordinate();
+        postFix(location, coordinate != null ? coordinate.getX() : Double.NaN,
+                coordinate != null ? coordinate.getY() : Double.NaN, location.getSpeed());
+    }
+
+    /**
+     * Koordinatı ve hızı üreticide okunmuş fix; aktör thread'i Location'a yalnızca yan etkiye vermek için
+     * dokunur. Testler SDK Location'ı olmadan (location null) bu yolu kullanır.
+     */
+    void postFix(@Nullable Location location, double lon, double lat, double speedMetersPerSecond) {
+        post(new Message(MESSAGE_FIX, location, null, null, null, null, lon, lat, speedMetersPerSecond));
+    }
+
+    /** Yalnızca son konumu günceller (başlangıç noktası, simülasyon ve kayıt oynatmanın kendi konumları). */
+    void postPosition(Location location) {
+        MapPos coordinate = location.getCoordinate();
+        post(new Message(MESSAGE_POSITION, location, null, null, null, null,
+                coordinate != null ? coordinate.getX() : Double.NaN,
+                coordinate != null ? coordinate.getY() : Double.NaN, Double.NaN));
+    }
+
+    void postCommandReady(NavigationCommandSnapshot command) {
+        post(new Message(MESSAGE_COMMAND_READY, null, command, null, null, null));
+    }
+
+    void postLocationChanged(NavigationCommandSnapshot command) {
+        post(new Message(MESSAGE_LOCATION_CHANGED, null, command, null, null, null));
+    }
+
+    /**
+     * Yeni veya yeniden hesaplanmış rota; önceki rotanın özeti bırakılır. result null ise rota temizlenir.
+     * Talimat özeti ayrıca {@link #postRouteDigest} ile gelir.
+     */
+    void postRoute(@Nullable NavigationResult result, @Nullable RouteGeometry geometry) {
+        postRoute(result, geometry, null);
+    }
+
+    /**
+     * Özeti hazır rota (yeniden hesaplamada önceki özetten yamanmış); rota ve özet aynı mesajla değiştiğinden
+     * arada boş özetli bir snapshot yayımlanmaz.
+     */
+    void postRoute(@Nullable NavigationResult result, @Nullable RouteGeometry geometry,
+                   @Nullable RouteDigest digest) {
+        post(new Message(MESSAGE_ROUTE, null, null, result, geometry, digest));
+    }
+
+    /**
+     * Arka planda üretilen talimat özeti. Özet üretilirken rota değiştiyse (result artık güncel rota
+     * değilse) yok sayılır; aktör sonrasında JNI'ye inmez.
+     */
+    void postRouteDigest(@Nullable NavigationResult result, RouteDigest digest) {
+        post(new Message(MESSAGE_ROUTE_DIGEST, null, null, result, null, digest));
+    }
+
+    /** Navigasyon durdu: kart varsayılan durumuna döner. */
+    void postReset() {
+        post(new Message(MESSAGE_RESET, null, null, null, null, null));
+    }
+
+    private void post(Message message) {
+        queue.offer(message);
+        if (drainScheduled.compareAndSet(false, true)) {
+            drainExecutor.execute(drainRunnable);
+        }
+    }
+
+    private void drain() {
+        NavigationCardState pendingCard = null;
+        boolean speedChanged = false;
+        int previousLimit = presenter.getSpeedLimitKmh();
+        int handled = 0;
+        int fixes = 0;
+        Message message;
+        // Sürekli yük altında da snapshot'ların gecikmemesi için tur başına en fazla MAX_BATCH mesaj işlenir.
+        while (handled < MAX_BATCH && (message = queue.poll()) != null) {
+            handled++;
+            processed++;
+            switch (message.type) {
+                case MESSAGE_FIX:
+                    lastLocation = message.location;
+                    trackProgress(message);
+                    if (applySpeed(message.speedMetersPerSecond)) {
+                        speedChanged = true;
+                    }
+                    batchFixes[fixes] = message.location;
+                    batchFixSpeeds[fixes] = presenter.getSpeedKmh();
+                    fixes++;
+                    break;
+                case MESSAGE_POSITION:
+                    lastLocation = message.location;
+                    trackProgress(message);
+                    break;
+                case MESSAGE_COMMAND_READY:
+                    cardState = presenter.onCommandReady(message.command);
+                    pendingCard = cardState;
+                    break;
+                case MESSAGE_LOCATION_CHANGED:
+                    cardState = presenter.onLocationChanged(message.command);
+                    pendingCard = cardState;
+                    break;
+                case MESSAGE_ROUTE:
+                    navigationResult = message.navigationResult;
+                    progressTracker = nextProgressTracker(message.routeGeometry);
+                    routeGeometry = message.routeGeometry;
+                    routeDigest = message.routeDigest != null ? message.routeDigest : RouteDigest.EMPTY;
+                    routeProgress = null;
+                    presenter.setTotalInstructionCount(routeDigest.size());
+                    break;
+                case MESSAGE_ROUTE_DIGEST:
+                    if (message.navigationResult == navigationResult && message.routeDigest != null) {
+                        routeDigest = message.routeDigest;
+                        presenter.setTotalInstructionCount(routeDigest.size());
+                    }
+                    break;
+                case MESSAGE_RESET:
+                    presenter.reset();
+                    cardState = null;
+                    pendingCard = null;
+                    break;
+                default:
+                    break;
+            }
+        }
+
+        // Bir boşaltma turu tek snapshot üretir; yan etkiler yayımlanan duruma göre tetiklenir.
+        snapshot = new Snapshot(navigationResult, routeGeometry, routeDigest, lastLocation, cardState, routeProgress,
+                presenter.getSpeedKmh(), presenter.getSpeedLimitKmh(), processed);
+        for (int i = 0; i < fixes; i++) {
+            effects.onFixProcessed(batchFixes[i], batchFixSpeeds[i]);
+            batchFixes[i] = null;
+        }
+        int limit = presenter.getSpeedLimitKmh();
+        if (limit != previousLimit) {
+            effects.onSpeedLimitChanged(limit);
+        }
+        if (pendingCard != null) {
+            // Kart durumu hız kutusunu da en güncel hızla çizer.
+            effects.onCardState(pendingCard);
+        } else if (speedChanged) {
+            effects.onSpeedChanged();
+        }
+
+        if (!queue.isEmpty()) {
+            drainExecutor.execute(drainRunnable);
+            return;
+        }
+        drainScheduled.set(false);
+        // Bayrak bırakılırken gelen mesaj boşaltma planlayamamış olabilir; sahiplik geri alınır.
+        if (!queue.isEmpty() && drainScheduled.compareAndSet(false, true)) {
+            drainExecutor.execute(drainRunnable);
+        }
+    }
+
+    /**
+     * Yeni rota için izleyici. Rota mevcut geometriden yamanmışsa ilerleme ipucu taşınır; dizin rota
+     * yayımlanmadan önce arka planda kurulmuştur, burada yalnızca alınır.
+     */
+    @Nullable
+    private RouteProgressTracker nextProgressTracker(@Nullable RouteGeometry next) {
+        if (next == null || next.getSegmentCount() == 0) {
+            return null;
+        }
+        RouteSplice splice = next.getSplice();
+        if (progressTracker != null && splice != null && next.getSplicedFrom() == progressTracker.getGeometry()) {
+            return progressTracker.continueOn(next.getSegmentIndex(), splice);
+        }
+        return new RouteProgressTracker(next.getSegmentIndex());
+    }
+
+    private void trackProgress(Message message) {
+        if (progressTracker == null || Double.isNaN(message.lon) || Double.isNaN(message.lat)) {
+            return;
+        }
+        routeProgress = progressTracker.update(message.lon, message.lat);
+    }
+
+    /** GPS hızını Kalman filtresinden geçirip km/s olarak saklar; gösterilen değer değiştiyse true. */
+    private boolean applySpeed(double speedMetersPerSecond) {
+        if (Double.isNaN(speedMetersPerSecond)) {
+            return false;
+        }
+        float filtered = speedFilter.filter((float) speedMetersPerSecond * 3.6f);
+        return presenter.onSpeedChanged(Math.max(0, Math.round(filtered)));
+    }
+}
@@ -0,0 +1,328 @@
+package com.akylas.yolbiltest.ui.main;
+
+import android.view.Choreographer;
+
+import androidx.annotation.Nullable;
+
+import com.akylas.yolbiltest.utils.GeoMath;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Kamerayı her fix'te yeni bir SDK animasyonu başlatmak yerine ekran yenileme hızında kendisi sürer.
+ * Fix'ler arasında konum ve yön rota üzerinde hız ile ileri kestirilir (dead-reckoning), kamera bu
+ * hedefe kritik sönümlü yay ile yaklaşır. Dönüş her zaman kısa yay üzerinden yapılır (350° → 10° için
+ * 20°), eşik altındaki değişiklikler SDK'ya hiç iletilmez.
+ *
+ * <p>Kare döngüsü UI thread'de çalışır; {@link #onFix} herhangi bir thread'den çağrılabilir. Kamera
+ * hedefe oturup kestirim süresi dolduğunda döngü kendiliğinden durur, sonraki fix yeniden başlatır.
+ */
+final class PredictiveCameraController implements Choreographer.FrameCallback {
+
+    /** Kameraya anında (animasyonsuz) yazan taraf; cihazda MapView. */
+    interface Camera {
+        void setFocus(double lon, double lat);
+
+        void setRotation(float degrees);
+    }
+
+    /** Tek bir konum güncellemesi; UI thread'e değişmez olarak aktarılır. */
+    static final class Fix {
+        final double lon;
+        final double lat;
+        final double headingDegrees;
+        final double speedMps;
+        // Kameranın odaklanacağı nokta (ör. snap proxy'nin ileri kaydırılmış koordinatı).
+        final double focusLon;
+        final double focusLat;
+        final long receivedNanos;
+
+        Fix(double lon, double lat, double headingDegrees, double speedMps,
+            double focusLon, double focusLat, long receivedNanos) {
+            this.lon = lon;
+            this.lat = lat;
+            this.headingDegrees = headingDegrees;
+            this.speedMps = Double.isNaN(speedMps) || speedMps < 0 ? 0 : speedMps;
+            this.focusLon = focusLon;
+            this.focusLat = focusLat;
+            this.receivedNanos = receivedNanos;
+        }
+    }
+
+    // Kritik sönümlü yayın hedefe yaklaşma süresi.
+    static final double SMOOTH_TIME_SEC = 0.35;
+    // Son fix'ten sonra en fazla bu kadar ileri kestirilir; fix gelmezse kamera yerinde durur.
+    static final double MAX_PREDICTION_SEC = 1.5;
+    static final double MIN_MOVE_METERS = 0.05;
+    static final double MIN_ROTATION_DEGREES = 0.2;
+    // Fix rotaya bundan uzaksa rota dışı sayılır ve düz çizgide kestirilir.
+    static final double MAX_ROUTE_SNAP_METERS = 30.0;
+    private static final double DEFAULT_FRAME_SEC = 1.0 / 60.0;
+    // Kameraya bu kadar kare yazılmazsa döngü durdurulur.
+    private static final int IDLE_FRAMES_BEFORE_STOP = 30;
+
+    private final NavigationCardScheduler.FrameSource frameSource;
+    private final Camera camera;
+    private final AtomicReference<Fix> latestFix = new AtomicReference<>();
+    private final AtomicBoolean frameScheduled = new AtomicBoolean();
+    private volatile boolean snapRequested;
+    // stop() herhangi bir thread'den gelebilir; kare durumu bir sonraki karede sıfırlanır.
+    private volatile boolean resetRequested;
+    @Nullable
+    private volatile RouteGeometry routeGeometry;
+
+    // Aşağıdaki alanlar yalnızca kare thread'inde kullanılır.
+    @Nullable
+    private Fix appliedFix;
+    @Nullable
+    private RouteGeometry appliedGeometry;
+    private int segmentHint = -1;
+    private final RouteSegmentIndex.Match routeMatch = new RouteSegmentIndex.Match();
+    // Fix'in rota üzerindeki mesafesi; rota dışıysa NaN.
+    private double fixRouteDistance = Double.NaN;
+    private double fixSegmentBearing;
+    private double fixRouteLon;
+    private double fixRouteLat;
+    private double focusOffsetEastMeters;
+    private double focusOffsetNorthMeters;
+    private boolean initialized;
+    private double cameraLon;
+    private double cameraLat;
+    private double cameraRotation;
+    private final double[] velocity = new double[3];
+    private double writtenLon;
+    private double writtenLat;
+    private double writtenRotation;
+    private long lastFrameNanos;
+    private int idleFrames;
+    private long cameraWrites;
+    private final double[] scratch = new double[2];
+    private double targetLon;
+    private double targetLat;
+    private double targetRotation;
+
+    PredictiveCameraController(NavigationCardScheduler.FrameSource frameSource, Camera camera) {
+        this.frameSource = frameSource;
+        this.camera = camera;
+    }
+
+    /** Kestirimde kullanılacak rota; rota değiştiğinde veya temizlendiğinde çağrılır. */
+    void setRouteGeometry(@Nullable RouteGeometry geometry) {
+        routeGeometry = geometry;
+    }
+
+    /**
+     * Yeni fix'i bırakır. snap true ise (ilk odak, "Ortala") kamera yumuşatma olmadan hedefe atlar.
+     */
+    void onFix(Fix fix, boolean snap) {
+        if (snap) {
+            snapRequested = true;
+        }
+        latestFix.set(fix);
+        scheduleFrame();
+    }
+
+    /**
+     * Takibi bırakır; bir sonraki fix kamerayı yeniden hedefe oturtur. Herhangi bir thread'den
+     * çağrılabilir: kare alanları burada değil, kare thread'inde çalışan bir sonraki karede sıfırlanır.
+     */
+    void stop() {
+        latestFix.set(null);
+        resetRequested = true;
+        scheduleFrame();
+    }
+
+    /** SDK'ya yapılan kamera çağrısı sayısı (odak ve dönüş ayrı sayılır). */
+    long getCameraWriteCount() {
+        return cameraWrites;
+    }
+
+    @Override
+    public void doFrame(long frameTimeNanos) {
+        frameScheduled.set(false);
+        if (resetRequested) {
+            resetRequested = false;
+            lastFrameNanos = 0;
+            idleFrames = 0;
+            snapRequested = true;
+        }
+        Fix fix = latestFix.get();
+        if (fix == null) {
+            return;
+        }
+        RouteGeometry geometry = routeGeometry;
+        if (geometry != appliedGeometry) {
+            // Yeniden hesaplanan rota öncekinden yamandıysa ipucu ortak kısımda kaldığı sürece taşınır.
+            RouteSplice splice = geometry != null ? geometry.getSplice() : null;
+            segmentHint = splice != null && appliedGeometry != null && geometry.getSplicedFrom() == appliedGeometry
+                    ? splice.mapSegment(segmentHint)
+                    : -1;
+            appliedGeometry = geometry;
+            appliedFix = null;
+        }
+        if (fix != appliedFix) {
+            ingest(fix, geometry);
+            appliedFix = fix;
+            idleFrames = 0;
+        }
+        predict(fix, geometry, frameTimeNanos);
+
+        double dt = lastFrameNanos == 0 ? DEFAULT_FRAME_SEC : (frameTimeNanos - lastFrameNanos) / 1e9;
+        lastFrameNanos = frameTimeNanos;
+        boolean snap = snapRequested || !initialized;
+        snapRequested = false;
+        if (snap) {
+            cameraLon = targetLon;
+            cameraLat = targetLat;
+            cameraRotation = targetRotation;
+            velocity[0] = 0;
+            velocity[1] = 0;
+            velocity[2] = 0;
+        } else if (dt > 0) {
+            cameraLon = smoothDamp(cameraLon, targetLon, 0, dt);
+            cameraLat = smoothDamp(cameraLat, targetLat, 1, dt);
+            // Hedef açı mevcut açıya en kısa yaydan taşınır; böylece 0/360 geçişinde tur atılmaz.
+            double rotationTarget = cameraRotation + shortestArc(cameraRotation, targetRotation);
+            cameraRotation = normalizeDegrees(smoothDamp(cameraRotation, rotationTarget, 2, dt));
+        }
+
+        boolean wrote = writeCamera(snap || !initialized);
+        initialized = true;
+        idleFrames = wrote ? 0 : idleFrames + 1;
+        if (idleFrames < IDLE_FRAMES_BEFORE_STOP) {
+            scheduleFrame();
+        } else {
+            // Döngü yeniden başladığında aradaki bekleme süresi tek bir kare adımı sayılmaz.
+            lastFrameNanos = 0;
+        }
+    }
+
+    /** fromDegrees'ten toDegrees'e en kısa dönüş açısı, (-180, 180] aralığında. */
+    static double shortestArc(double fromDegrees, double toDegrees) {
+        double delta = (toDegrees - fromDegrees) % 360.0;
+        if (delta > 180.0) {
+            delta -= 360.0;
+        } else if (delta <= -180.0) {
+            delta += 360.0;
+        }
+        return delta;
+    }
+
+    private void ingest(Fix fix, @Nullable RouteGeometry geometry) {
+        double cosLat = Math.cos(Math.toRadians(fix.lat));
+        focusOffsetEastMeters = (fix.focusLon - fix.lon) * cosLat * GeoMath.METERS_PER_DEGREE;
+        focusOffsetNorthMeters = (fix.focusLat - fix.lat) * GeoMath.METERS_PER_DEGREE;
+        fixRouteDistance = geometry != null && geometry.getSegmentCount() > 0
+                ? projectOntoRoute(geometry, fix.lon, fix.lat)
+                : Double.NaN;
+        if (!Double.isNaN(fixRouteDistance)) {
+            fixSegmentBearing = geometry.getSegmentBearing(geometry.findSegmentIndex(fixRouteDistance));
+            routePointAt(geometry, fixRouteDistance, scratch);
+            fixRouteLon = scratch[0];
+            fixRouteLat = scratch[1];
+        }
+    }
+
+    private static void routePointAt(RouteGeometry geometry, double distance, double[] out) {
+        int segment = geometry.findSegmentIndex(distance);
+        double start = geometry.getDistanceAt(segment);
+        double length = geometry.getDistanceAt(segment + 1) - start;
+        GeoMath.interpolate(GeoMath.Mode.FAST,
+                geometry.getLon(segment), geometry.getLat(segment),
+                geometry.getLon(segment + 1), geometry.getLat(segment + 1),
+                length, length > 0 ? (distance - start) / length : 0, out);
+    }
+
+    /**
+     * Fix'in rota başından mesafesini segment dizininden bulur; rotaya uzaksa NaN döner. Son eşleşme ipucu
+     * olarak verilir, rotanın örtüştüğü yerlerde ileri yöndeki segment seçilir.
+     */
+    private double projectOntoRoute(RouteGeometry geometry, double lon, double lat) {
+        if (!geometry.getSegmentIndex().nearest(lon, lat, MAX_ROUTE_SNAP_METERS, segmentHint, routeMatch)) {
+            return Double.NaN;
+        }
+        segmentHint = routeMatch.segment;
+        return routeMatch.routeDistanceMeters;
+    }
+
+    /** Kare zamanı için kamera hedefini (target*) hesaplar. */
+    private void predict(Fix fix, @Nullable RouteGeometry geometry, long frameTimeNanos) {
+        double elapsed = (frameTimeNanos - fix.receivedNanos) / 1e9;
+        double travel = fix.speedMps * Math.max(0, Math.min(MAX_PREDICTION_SEC, elapsed));
+        double lon;
+        double lat;
+        double heading;
+        if (geometry != null && !Double.isNaN(fixRouteDistance)) {
+            double distance = Math.min(fixRouteDistance + travel, geometry.getTotalLengthMeters());
+            int segment = geometry.findSegmentIndex(distance);
+            routePointAt(geometry, distance, scratch);
+            // Fix'in rotaya göre yanal sapması korunur: yalnızca rota üzerindeki ilerleme eklenir.
+            lon = fix.lon + (scratch[0] - fixRouteLon);
+            lat = fix.lat + (scratch[1] - fixRouteLat);
+            // Kestirilen noktadaki rota dönüşü fix yönüne eklenir.
+            heading = fix.headingDegrees + shortestArc(fixSegmentBearing, geometry.getSegmentBearing(segment));
+        } else {
+            double radians = Math.toRadians(fix.headingDegrees);
+            double cosLat = Math.cos(Math.toRadians(fix.lat));
+            lon = fix.lon + Math.sin(radians) * travel / (GeoMath.METERS_PER_DEGREE * cosLat);
+            lat = fix.lat + Math.cos(radians) * travel / GeoMath.METERS_PER_DEGREE;
+            heading = fix.headingDegrees;
+        }
+
+        // Odak kaydırması yönle birlikte döndürülür (saat yönünde).
+        double delta = Math.toRadians(shortestArc(fix.headingDegrees, heading));
+        double sin = Math.sin(delta);
+        double cos = Math.cos(delta);
+        double east = focusOffsetEastMeters * cos + focusOffsetNorthMeters * sin;
+        double north = -focusOffsetEastMeters * sin + focusOffsetNorthMeters * cos;
+        double cosLat = Math.cos(Math.toRadians(lat));
+        targetLon = lon + east / (GeoMath.METERS_PER_DEGREE * cosLat);
+        targetLat = lat + north / GeoMath.METERS_PER_DEGREE;
+        targetRotation = normalizeDegrees(heading);
+    }
+
+    /** Eşiği aşan değişiklikleri kameraya yazar; en az bir çağrı yapıldıysa true döner. */
+    private boolean writeCamera(boolean force) {
+        boolean wrote = false;
+        double cosLat = Math.cos(Math.toRadians(cameraLat));
+        double moved = GeoMath.fastDistanceMeters(writtenLat, writtenLon, cameraLat, cameraLon, cosLat);
+        if (force || moved >= MIN_MOVE_METERS) {
+            camera.setFocus(cameraLon, cameraLat);
+            writtenLon = cameraLon;
+            writtenLat = cameraLat;
+            cameraWrites++;
+            wrote = true;
+        }
+        if (force || Math.abs(shortestArc(writtenRotation, cameraRotation)) >= MIN_ROTATION_DEGREES) {
+            camera.setRotation((float) cameraRotation);
+            writtenRotation = cameraRotation;
+            cameraWrites++;
+            wrote = true;
+        }
+        return wrote;
+    }
+
+    /** Kritik sönümlü yay adımı; hız velocity[axis] içinde taşınır. */
+    private double smoothDamp(double current, double target, int axis, double dt) {
+        double omega = 2.0 / SMOOTH_TIME_SEC;
+        double x = omega * dt;
+        // exp(-x) için Padé yaklaşımı; kare başına bir üstel çağrısından kaçınır.
+        double decay = 1.0 / (1.0 + x + 0.48 * x * x + 0.235 * x * x * x);
+        double change = current - target;
+        double temp = (velocity[axis] + omega * change) * dt;
+        velocity[axis] = (velocity[axis] - omega * temp) * decay;
+        return target + (change + temp) * decay;
+    }
+
+    private static double normalizeDegrees(double degrees) {
+        double normalized = degrees % 360.0;
+        return normalized < 0 ? normalized + 360.0 : normalized;
+    }
+
+    private void scheduleFrame() {
+        if (frameScheduled.compareAndSet(false, true)) {
+            frameSource.postFrameCallback(this);
+        }
+    }
+}
@@ -0,0 +1,197 @@
+package com.akylas.yolbiltest.ui.main;
+
+import java.text.DecimalFormatSymbols;
+import java.util.Locale;
+
+/**
+ * Kart üzerindeki mesafe ve süre metinlerini gösterim aralığına (10 m, 0.1 km, 1 dk) yuvarlayıp
+ * önceden üretilmiş String'leri döndürür. Her aralık için metin bir kez oluşturulur; fix başına
+ * DecimalFormat veya String birleştirme yapılmaz.
+ *
+ * <p>Önbellek sınırlıdır: {@link #MAX_TENTHS_KM} (1000 km), {@link #MAX_WHOLE_KM} ve {@link #MAX_MINUTES}
+ * üzerindeki değerler önbelleğe alınmadan üretilir. Ondalık ayırıcı ve rakamlar varsayılan dile göre seçilir;
+ * dil değişirse önbellek yeniden kurulur.
+ */
+final class QuantizedTextCache {
+
+    static final int MAX_TENTHS_KM = 10_000;
+    static final int MAX_WHOLE_KM = 5_000;
+    static final int MAX_MINUTES = 48 * 60;
+
+    private static final String METERS_SUFFIX = " m";
+    private static final String KM_SUFFIX = " km";
+    private static final String MINUTES_SUFFIX = " dk";
+    private static final String HOURS_SUFFIX = " s ";
+    // DecimalFormat ile aynı yuvarlama için ikili değerin tam ortaya bu kadar yakın olduğu durumlar kesin hesaplanır.
+    private static final double TIE_EPSILON = 1e-6;
+
+    private static volatile QuantizedTextCache instance;
+
+    private final Locale locale;
+    private final char decimalSeparator;
+    private final char zeroDigit;
+    // n -> "n*10 m" (0-990 m)
+    private final String[] meters = new String[100];
+    // n -> "#.#" biçiminde n/10 km (1-10 km arası toplam mesafe)
+    private final String[] compactTenthsKm = new String[101];
+    // n -> "0.0" biçiminde n/10 km (manevraya kalan mesafe)
+    private final String[] tenthsKm = new String[MAX_TENTHS_KM + 1];
+    private final String[] wholeKm = new String[MAX_WHOLE_KM + 1];
+    // Bir saatin altındaki süreler ("n dk") ve üstündekiler ("h s m dk") ayrı tutulur; 60 dk ikisinde de geçer.
+    private final String[] shortMinutes = new String[61];
+    private final String[] longMinutes = new String[MAX_MINUTES + 1];
+
+    private QuantizedTextCache(Locale locale) {
+        this.locale = locale;
+        DecimalFormatSymbols symbols = DecimalFormatSymbols.getInstance(locale);
+        this.decimalSeparator = symbols.getDecimalSeparator();
+        this.zeroDigit = symbols.getZeroDigit();
+        // Şehir içinde en sık görülen aralıklar baştan hazırlanır.
+        for (int i = 0; i < meters.length; i++) {
+            meters[i] = (i * 10) + METERS_SUFFIX;
+        }
+        for (int i = 10; i < compactTenthsKm.length; i++) {
+            compactTenthsKm[i] = buildTenths(i, false) + KM_SUFFIX;
+        }
+        for (int i = 0; i < shortMinutes.length; i++) {
+            shortMinutes[i] = i + MINUTES_SUFFIX;
+        }
+    }
+
+    /** Varsayılan dile ait önbelleği döndürür. */
+    static QuantizedTextCache get() {
+        Locale current = Locale.getDefault();
+        QuantizedTextCache cache = instance;
+        if (cache == null || !cache.locale.equals(current)) {
+            cache = new QuantizedTextCache(current);
+            instance = cache;
+        }
+        return cache;
+    }
+
+    /** Manevraya kalan mesafe: 1 km altı 10 m'lik, üstü "0.0" biçiminde 0.1 km'lik aralıklar. */
+    String formatDistance(double distanceInMeters) {
+        if (distanceInMeters <= 0) {
+            return "-";
+        }
+        if (distanceInMeters >= 1000) {
+            long tenths = roundHalfEvenTenths(distanceInMeters / 1000d);
+            if (tenths > MAX_TENTHS_KM) {
+                return buildTenths(tenths, true) + KM_SUFFIX;
+            }
+            int index = (int) tenths;
+            String cached = tenthsKm[index];
+            if (cached == null) {
+                cached = buildTenths(tenths, true) + KM_SUFFIX;
+                tenthsKm[index] = cached;
+            }
+            return cached;
+        }
+        int bucket = (int) (distanceInMeters / 10);
+        return meters[bucket == 0 ? 1 : bucket];
+    }
+
+    /** Toplam kalan mesafe: 1 km altı 10 m, 10 km altı "#.#" km, üstü tam km. */
+    String formatTotalDistance(double meters) {
+        if (Double.isNaN(meters) || meters <= 0) {
+            return "";
+        }
+        if (meters < 1000) {
+            int bucket = (int) (meters / 10);
+            return bucket == 0 ? "" : this.meters[bucket];
+        }
+        if (meters < 10_000) {
+            return compactTenthsKm[(int) roundHalfEvenTenths(meters / 1000d)];
+        }
+        long km = (long) (meters / 1000d);
+        if (km > MAX_WHOLE_KM) {
+            return km + KM_SUFFIX;
+        }
+        int index = (int) km;
+        String cached = wholeKm[index];
+        if (cached == null) {
+            cached = km + KM_SUFFIX;
+            wholeKm[index] = cached;
+        }
+        return cached;
+    }
+
+    /** Kalan süre dakikaya yukarı yuvarlanır: "n dk" veya "h s m dk". */
+    String formatTotalTime(double seconds) {
+        if (Double.isNaN(seconds) || seconds <= 0) {
+            return shortMinutes[0];
+        }
+        long totalMinutes = (long) Math.ceil(seconds / 60d);
+        if (seconds < 3600) {
+            return shortMinutes[(int) totalMinutes];
+        }
+        if (totalMinutes > MAX_MINUTES) {
+            return buildHours(totalMinutes);
+        }
+        int index = (int) totalMinutes;
+        String cached = longMinutes[index];
+        if (cached == null) {
+            cached = buildHours(totalMinutes);
+            longMinutes[index] = cached;
+        }
+        return cached;
+    }
+
+    /**
+     * Değeri bir ondalık haneye DecimalFormat'ın varsayılanı olan HALF_EVEN ile yuvarlar ve onda birler
+     * cinsinden döndürür. İkili değer tam ortaya çok yakınsa karar kesin karşılaştırmayla verilir
+     * (ör. 1.15 aslında 1.149999... olduğundan "1.1" olur).
+     */
+    static long roundHalfEvenTenths(double value) {
+        double scaled = value * 10;
+        double floor = Math.floor(scaled);
+        double fraction = scaled - floor;
+        if (Math.abs(fraction - 0.5) > TIE_EPSILON) {
+            return (long) (fraction < 0.5 ? floor : floor + 1);
+        }
+        long lower = (long) floor;
+        int comparison = compareToTwentieths(value, 2 * lower + 1);
+        if (comparison != 0) {
+            return comparison < 0 ? lower : lower + 1;
+        }
+        return (lower & 1) == 0 ? lower : lower + 1;
+    }
+
+    /** value * 20 ile n'yi yuvarlama hatası olmadan karşılaştırır (BigDecimal ayırmadan). */
+    private static int compareToTwentieths(double value, long n) {
+        // 16x ve 4x ikinin kuvvetleri olduğundan kesindir; toplamın hatası TwoSum ile ayrıca tutulur.
+        double a = value * 16;
+        double b = value * 4;
+        double sum = a + b;
+        double bVirtual = sum - a;
+        double error = (a - (sum - bVirtual)) + (b - bVirtual);
+        double difference = sum - n;
+        if (difference != 0) {
+            return difference < 0 ? -1 : 1;
+        }
+        return error < 0 ? -1 : (error > 0 ? 1 : 0);
+    }
+
+    // "0.0" (forceDecimal) veya "#.#" biçiminde onda birler değerini dile uygun rakamlarla yazar.
+    private String buildTenths(long tenths, boolean forceDecimal) {
+        StringBuilder builder = new StringBuilder(12);
+        appendDigits(builder, tenths / 10);
+        long decimal = tenths % 10;
+        if (forceDecimal || decimal != 0) {
+            builder.append(decimalSeparator);
+            builder.append((char) (zeroDigit + decimal));
+        }
+        return builder.toString();
+    }
+
+    private void appendDigits(StringBuilder builder, long value) {
+        String digits = Long.toString(value);
+        for (int i = 0; i < digits.length(); i++) {
+            builder.append((char) (zeroDigit + (digits.charAt(i) - '0')));
+        }
+    }
+
+    private static String buildHours(long totalMinutes) {
+        return (totalMinutes / 60) + HOURS_SUFFIX + (totalMinutes % 60) + MINUTES_SUFFIX;
+    }
+}
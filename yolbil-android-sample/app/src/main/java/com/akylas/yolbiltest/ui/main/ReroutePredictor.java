@@ -0,0 +1,296 @@
+package com.akylas.yolbiltest.ui.main;
+
+import androidx.annotation.Nullable;
+
+import com.akylas.yolbiltest.utils.GeoMath;
+
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Yaklaşan karar noktalarında (dönüş, şerit, kavşak çıkışı) sürücünün dönüşü kaçırması halinde gerekecek
+ * rotayı önceden hesaplar. Sıradaki {@link #MANEUVERS_AHEAD} karar noktası için manevra noktasından gelen
+ * yönde {@link #MISS_DISTANCE_METERS} ilerideki konumdan varışa rota, izin verildiğinde ({@link Gate})
+ * tek işçide sırayla aranır ve küçük bir LRU'da tutulur. Sapma anındaki konum bir tahminin başına
+ * oturuyorsa tahmin SDK'nın yeni rotası gelene kadar önizlenebilir; isabet oranı ve önizlemenin öne
+ * aldığı süre {@link Stats} ile izlenir. Sınıf loglamaz; başarısız aramalar {@link Stats#failures} ile sayılır.
+ *
+ * <p>Rota ve ilerleme aktör thread'inden, eşleştirme SDK thread'inden, arama işçiden gelir; durum this
+ * kilidi altındadır, arama kilit dışında yapılır.
+ */
+final class ReroutePredictor<T> {
+
+    static final int MANEUVERS_AHEAD = 3;
+    static final int MAX_PREDICTIONS = 4;
+    // Kaçırılan dönüşten sonra sürücünün düz devam ederek varacağı varsayılan mesafe.
+    static final double MISS_DISTANCE_METERS = 120.0;
+    // Sapma konumu tahmin rotasına bu kadar yakın ve rotanın ilk MATCH_WINDOW_METERS'ı içindeyse isabettir.
+    static final double MATCH_RADIUS_METERS = 40.0;
+    static final double MATCH_WINDOW_METERS = 400.0;
+
+    /** Kaçırılan dönüş konumundan varışa rota arayan kaynak; cihazda gölge navigasyon paketi. */
+    interface Router<T> {
+        /** İşçi thread'inde çağrılır; rota yoksa null. Atılan hata başarısız arama sayılır, loglama kaynağa aittir. */
+        @Nullable
+        T route(double fromLon, double fromLat) throws Exception;
+
+        @Nullable
+        RouteGeometry decodeGeometry(T route);
+
+        RouteDigest digest(T route);
+    }
+
+    /**
+     * Önceden hesaplamaya izin; her aday aramadan önce sorulur. Cihazda şarj durumu, pil tasarrufu ve
+     * kullanıcının süren rota aramasından türetilir (bkz. YolbilNavigationUsage.allowsRouteSpeculation).
+     */
+    interface Gate {
+        boolean allowsSpeculation();
+    }
+
+    /** Bir karar noktası için hazır rota; geometri dizini ısıtılmış olarak saklanır. */
+    static final class Prediction<T> {
+        // Mevcut rota özetindeki talimat sırası.
+        final int instructionIndex;
+        final double missLon;
+        final double missLat;
+        final T route;
+        final RouteGeometry geometry;
+        final RouteDigest digest;
+
+        Prediction(int instructionIndex, double missLon, double missLat, T route, RouteGeometry geometry,
+                   RouteDigest digest) {
+            this.instructionIndex = instructionIndex;
+            this.missLon = missLon;
+            this.missLat = missLat;
+            this.route = route;
+            this.geometry = geometry;
+            this.digest = digest;
+        }
+    }
+
+    /** Birikimli ölçüler; isabetsiz sapma, eşleşen tahmin bulunmayan yeniden hesaplamadır. */
+    static final class Stats {
+        final int speculations;
+        final int failures;
+        final int hits;
+        final int misses;
+        // İsabetlerde tahminin önizlenmesinden SDK'nın yeni rotası gelene kadar geçen toplam süre.
+        final long savedMillis;
+
+        Stats(int speculations, int failures, int hits, int misses, long savedMillis) {
+            this.speculations = speculations;
+            this.failures = failures;
+            this.hits = hits;
+            this.misses = misses;
+            this.savedMillis = savedMillis;
+        }
+
+        double hitRate() {
+            int deviations = hits + misses;
+            return deviations > 0 ? hits / (double) deviations : 0;
+        }
+    }
+
+    private final Router<T> router;
+    private final Gate gate;
+    private final Executor worker;
+    @Nullable
+    private RouteGeometry routeGeometry;
+    @Nullable
+    private RouteDigest routeDigest;
+    // Rota her değiştiğinde artar; eski rotaya ait arama sonucu saklanmaz.
+    private int generation;
+    private int inFlightInstruction = -1;
+    private final Map<Integer, Prediction<T>> predictions =
+            new LinkedHashMap<Integer, Prediction<T>>(MAX_PREDICTIONS + 1, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<Integer, Prediction<T>> eldest) {
+                    return size() > MAX_PREDICTIONS;
+                }
+            };
+    // Araması başarısız olan veya rota döndürmeyen karar noktaları; aynı rotada tekrar denenmez.
+    private final Set<Integer> failedInstructions = new HashSet<>();
+    @Nullable
+    private Prediction<T> appliedPrediction;
+    private long appliedAtMs;
+    private int speculations;
+    private int failures;
+    private int hits;
+    private int misses;
+    private long savedMillis;
+
+    ReroutePredictor(Router<T> router, Gate gate, Executor worker) {
+        this.router = router;
+        this.gate = gate;
+        this.worker = worker;
+    }
+
+    /**
+     * Güncel rota ve ilerlemeyle çağrılır. Rota değiştiyse tahminler bırakılır; geçilen karar noktalarının
+     * tahminleri atılır ve izin varsa tahmini olmayan ilk yaklaşan karar noktası için arama başlatılır.
+     */
+    synchronized void onProgress(@Nullable RouteGeometry geometry, @Nullable RouteDigest digest,
+                                 double distanceAlongMeters) {
+        if (geometry != routeGeometry || digest != routeDigest) {
+            routeGeometry = geometry;
+            routeDigest = digest;
+            generation++;
+            inFlightInstruction = -1;
+            predictions.clear();
+            failedInstructions.clear();
+        }
+        if (geometry == null || digest == null || digest.size() == 0 || geometry.getSegmentCount() == 0) {
+            return;
+        }
+        int firstAhead = digest.firstInstructionAfter(distanceAlongMeters);
+        // Sapma manevradan sonra fark edildiğinden az önce geçilen karar noktasının tahmini de tutulur.
+        final int keepFrom = firstAhead < 0 ? Integer.MAX_VALUE : firstAhead - 1;
+        predictions.keySet().removeIf(instruction -> instruction < keepFrom);
+        if (firstAhead < 0 || inFlightInstruction >= 0) {
+            return;
+        }
+        int candidate = -1;
+        for (int i = firstAhead, seen = 0; i < digest.size() && seen < MANEUVERS_AHEAD; i++) {
+            if (!isDecisionPoint(digest.command(i))) {
+                continue;
+            }
+            seen++;
+            if (!predictions.containsKey(i) && !failedInstructions.contains(i)) {
+                candidate = i;
+                break;
+            }
+        }
+        if (candidate < 0 || !gate.allowsSpeculation()) {
+            return;
+        }
+        double[] miss = missPosition(geometry, digest, candidate);
+        if (miss == null) {
+            failedInstructions.add(candidate);
+            return;
+        }
+        inFlightInstruction = candidate;
+        speculations++;
+        final int instruction = candidate;
+        final int expectedGeneration = generation;
+        try {
+            worker.execute(() -> speculate(instruction, miss[0], miss[1], expectedGeneration));
+        } catch (RejectedExecutionException rejected) {
+            // İşçi kapatıldı (kullanım nesnesi bırakıldı); arama yapılmaz.
+            speculations--;
+            inFlightInstruction = -1;
+        }
+    }
+
+    private void speculate(int instruction, double missLon, double missLat, int expectedGeneration) {
+        Prediction<T> prediction = null;
+        try {
+            T route = router.route(missLon, missLat);
+            RouteGeometry geometry = route != null ? router.decodeGeometry(route) : null;
+            if (geometry != null && geometry.getSegmentCount() > 0) {
+                // Uygulama anında sorgu ve çizim hesap yapmasın.
+                geometry.getSegmentIndex();
+                geometry.getPyramid();
+                prediction = new Prediction<>(instruction, missLon, missLat, route, geometry, router.digest(route));
+            }
+        } catch (Exception speculationEx) {
+            // Aşağıda başarısız arama olarak sayılır.
+        }
+        synchronized (this) {
+            if (expectedGeneration != generation) {
+                return;
+            }
+            inFlightInstruction = -1;
+            if (prediction != null) {
+                predictions.put(instruction, prediction);
+            } else {
+                failures++;
+                failedInstructions.add(instruction);
+            }
+        }
+    }
+
+    /**
+     * Sapma (SDK yeniden hesaplamaya başladı) anında çağrılır. Konum bir tahmin rotasının başına oturuyorsa
+     * en yakın tahmini döner ve isabet sayar; yoksa null döner ve isabetsiz sayar.
+     */
+    @Nullable
+    synchronized Prediction<T> match(double lon, double lat, long nowMs) {
+        RouteSegmentIndex.Match match = new RouteSegmentIndex.Match();
+        Prediction<T> best = null;
+        double bestDistance = Double.POSITIVE_INFINITY;
+        for (Prediction<T> prediction : predictions.values()) {
+            if (prediction.geometry.getSegmentIndex().nearest(lon, lat, MATCH_RADIUS_METERS, -1, match)
+                    && match.routeDistanceMeters <= MATCH_WINDOW_METERS && match.distanceMeters < bestDistance) {
+                best = prediction;
+                bestDistance = match.distanceMeters;
+            }
+        }
+        if (best == null) {
+            misses++;
+            appliedPrediction = null;
+            return null;
+        }
+        hits++;
+        predictions.remove(best.instructionIndex);
+        appliedPrediction = best;
+        appliedAtMs = nowMs;
+        return best;
+    }
+
+    /** SDK'nın yeni rotası geldi; önceki eşleşme isabetliyse önizlemenin öne aldığı süre kazanç olarak eklenir. */
+    synchronized void onRecalculated(long nowMs) {
+        if (appliedPrediction != null) {
+            savedMillis += Math.max(0, nowMs - appliedAtMs);
+            appliedPrediction = null;
+        }
+    }
+
+    /** Navigasyon durdu: tahminler ve süren aramanın sonucu bırakılır; ölçüler korunur. */
+    synchronized void reset() {
+        onProgress(null, null, 0);
+        appliedPrediction = null;
+    }
+
+    synchronized Stats getStats() {
+        return new Stats(speculations, failures, hits, misses, savedMillis);
+    }
+
+    synchronized int getPredictionCount() {
+        return predictions.size();
+    }
+
+    /** Düz devam, tünel ve varış dışındaki komutlar sürücünün kaçırabileceği karar noktalarıdır. */
+    static boolean isDecisionPoint(TurnCommandTable.Entry command) {
+        return !command.isFinal && !command.name.isEmpty() && !command.name.contains("GO_STRAIGHT")
+                && !command.name.contains("IN_TUNNEL");
+    }
+
+    /**
+     * Talimatın manevra noktasından, o noktaya gelen segmentin yönünde {@link #MISS_DISTANCE_METERS} ilerisi:
+     * {lon, lat}. Manevra noktası rota başındaysa null.
+     */
+    @Nullable
+    static double[] missPosition(RouteGeometry geometry, RouteDigest digest, int instruction) {
+        int point = digest.pointIndex(instruction);
+        if (point < 0 || point >= geometry.getPointCount()) {
+            // Nokta indeksi bilinmiyorsa talimat mesafesinden bulunur.
+            int segment = geometry.findSegmentIndex(digest.distanceFromStart(instruction));
+            point = segment < 0 ? -1 : segment;
+        }
+        if (point <= 0) {
+            return null;
+        }
+        double bearing = Math.toRadians(geometry.getSegmentBearing(point - 1));
+        double lat = geometry.getLat(point);
+        double metersPerLon = GeoMath.METERS_PER_DEGREE * Math.cos(Math.toRadians(lat));
+        return new double[]{
+                geometry.getLon(point) + Math.sin(bearing) * MISS_DISTANCE_METERS / metersPerLon,
+                lat + Math.cos(bearing) * MISS_DISTANCE_METERS / GeoMath.METERS_PER_DEGREE
+        };
+    }
+}
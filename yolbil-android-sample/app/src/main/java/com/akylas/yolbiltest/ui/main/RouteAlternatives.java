@@ -0,0 +1,181 @@
+package com.akylas.yolbiltest.ui.main;
+
+import androidx.annotation.Nullable;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.FutureTask;
+
+/**
+ * Rota aramasının döndürdüğü tüm alternatifler. Özet ölçüler (uzunluk, süre, birincil rotaya göre fark)
+ * alternatif başına ayrı işçi görevinde hesaplanır; tam geometri yalnızca önizlenen alternatif için,
+ * ilk istendiğinde çözülür ve saklanır. Birincil rota her zaman 0. sıradadır.
+ */
+final class RouteAlternatives<T> {
+
+    /** Rotadan ölçü ve geometri okuyan kaynak; cihazda NavigationResult, testte sahte nesneler. */
+    interface RouteReader<T> {
+        /** İşçi thread'inde çağrılır; geometri çözmeden, talimat özetinden okunmalıdır. */
+        Measure measure(T route);
+
+        /** Önizleme için tam geometri; nokta yoksa null. */
+        @Nullable
+        RouteGeometry decodeGeometry(T route);
+    }
+
+    /** Bir rotanın toplam uzunluğu ve süresi. */
+    static final class Measure {
+        final double lengthMeters;
+        final double durationSec;
+
+        Measure(double lengthMeters, double durationSec) {
+            this.lengthMeters = lengthMeters;
+            this.durationSec = durationSec;
+        }
+    }
+
+    /** Kullanıcıya gösterilen alternatif özeti; farklar birincil rotaya göredir. */
+    static final class Summary {
+        // Arama sonucundaki sıra.
+        final int routeIndex;
+        final double lengthMeters;
+        final double durationSec;
+        final double lengthDeltaMeters;
+        final double durationDeltaSec;
+
+        Summary(int routeIndex, double lengthMeters, double durationSec, double lengthDeltaMeters,
+                double durationDeltaSec) {
+            this.routeIndex = routeIndex;
+            this.lengthMeters = lengthMeters;
+            this.durationSec = durationSec;
+            this.lengthDeltaMeters = lengthDeltaMeters;
+            this.durationDeltaSec = durationDeltaSec;
+        }
+
+        boolean isPrimary() {
+            return routeIndex == 0;
+        }
+    }
+
+    private final List<T> routes;
+    private final List<Summary> summaries;
+    private final RouteReader<T> reader;
+    // this kilidi altında; null olan alternatif henüz çözülmedi.
+    private final RouteGeometry[] geometries;
+    // Ölçülemediği için listeden çıkarılan alternatif sayısı.
+    private final int droppedCount;
+    private int decodeCount;
+
+    private RouteAlternatives(List<T> routes, List<Summary> summaries, RouteReader<T> reader,
+                              @Nullable RouteGeometry primaryGeometry, int droppedCount) {
+        this.routes = routes;
+        this.droppedCount = droppedCount;
+        this.summaries = summaries;
+        this.reader = reader;
+        this.geometries = new RouteGeometry[summaries.size()];
+        this.geometries[0] = primaryGeometry;
+    }
+
+    /**
+     * Alternatifleri ölçer. Birincil dışındakiler workers'a verilir; çağıran thread birincili ölçer ve
+     * henüz başlamamış görevleri kendisi çalıştırır, böylece havuz doluyken (veya çağıran zaten havuzun
+     * bir işçisiyken) beklemede kilitlenme olmaz. Ölçülemeyen alternatif listeden çıkarılır ve
+     * {@link #getDroppedCount()} ile bildirilir; loglama çağırana kalır.
+     *
+     * @param primaryGeometry birincil rotanın önceden çözülmüş geometrisi (navigasyon için zaten gerekir)
+     */
+    static <T> RouteAlternatives<T> evaluate(List<T> routes, final RouteReader<T> reader, Executor workers,
+                                             @Nullable RouteGeometry primaryGeometry) {
+        if (routes.isEmpty()) {
+            throw new IllegalArgumentException("routes must contain the primary route");
+        }
+        int count = routes.size();
+        List<FutureTask<Measure>> tasks = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            final T route = routes.get(i);
+            FutureTask<Measure> task = new FutureTask<>(() -> reader.measure(route));
+            tasks.add(task);
+            if (i > 0) {
+                workers.execute(task);
+            }
+        }
+
+        Measure[] measures = new Measure[count];
+        for (int i = 0; i < count; i++) {
+            FutureTask<Measure> task = tasks.get(i);
+            // Başlamamış görev burada çalışır; başlamış veya bitmiş görevde run() etkisizdir.
+            task.run();
+            try {
+                measures[i] = task.get();
+            } catch (ExecutionException e) {
+                // Ölçülemeyen alternatif aşağıda atlanır.
+            } catch (InterruptedException e) {
+                // Arama iptal edildi; sonuç zaten kullanılmayacak, kalan alternatifler atlanır.
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+
+        Measure primary = measures[0] != null ? measures[0] : new Measure(0, 0);
+        List<T> keptRoutes = new ArrayList<>(count);
+        List<Summary> summaries = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Measure measure = i == 0 ? primary : measures[i];
+            if (measure == null) {
+                continue;
+            }
+            keptRoutes.add(routes.get(i));
+            summaries.add(new Summary(i, measure.lengthMeters, measure.durationSec,
+                    measure.lengthMeters - primary.lengthMeters, measure.durationSec - primary.durationSec));
+        }
+        return new RouteAlternatives<>(Collections.unmodifiableList(keptRoutes),
+                Collections.unmodifiableList(summaries), reader, primaryGeometry, count - summaries.size());
+    }
+
+    int size() {
+        return summaries.size();
+    }
+
+    Summary summary(int position) {
+        return summaries.get(position);
+    }
+
+    T route(int position) {
+        return routes.get(position);
+    }
+
+    /** Çözülmüşse geometri; çözme yapmaz, ana thread'den çağrılabilir. */
+    @Nullable
+    synchronized RouteGeometry decodedGeometry(int position) {
+        return geometries[position];
+    }
+
+    /** Geometriyi gerekirse çözer ve saklar; JNI okuması yapabileceğinden arka planda çağrılmalıdır. */
+    @Nullable
+    RouteGeometry geometry(int position) {
+        RouteGeometry geometry = decodedGeometry(position);
+        if (geometry != null) {
+            return geometry;
+        }
+        geometry = reader.decodeGeometry(routes.get(position));
+        synchronized (this) {
+            if (geometries[position] == null) {
+                geometries[position] = geometry;
+                decodeCount++;
+            }
+            return geometries[position];
+        }
+    }
+
+    int getDroppedCount() {
+        return droppedCount;
+    }
+
+    /** Birincil dışında çözülmüş geometri sayısı. */
+    synchronized int getDecodeCount() {
+        return decodeCount;
+    }
+}
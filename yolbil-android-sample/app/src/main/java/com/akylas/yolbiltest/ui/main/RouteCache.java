@@ -0,0 +1,374 @@
+package com.akylas.yolbiltest.ui.main;
+
+import android.util.Log;
+
+import androidx.annotation.Nullable;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Hesaplanmış rotaların geometri ve talimat özetini saklayan iki katmanlı önbellek: sınırlı bir bellek
+ * içi LRU ve rota başına tek dosyalık kompakt disk deposu. Anahtar, uçların ~11 m'lik ızgaraya
+ * yuvarlanmış koordinatları, rota tipi, online/offline modu ve veri sürümünden oluşur; aynı depo-müşteri
+ * rotası uygulama yeniden başlasa da milisaniyeler içinde okunur.
+ *
+ * <p>Dosya biçimi: "YRTC" + sürüm baytı, anahtar, oluşturma zamanı, 1e-7 derece çözünürlükte önceki
+ * noktaya göre zigzag varint farklarla noktalar, ardından talimat başına sokak adı, komut adı, metin
+ * ve 4 baytlık float segment uzunluğu. Bozuk veya anahtarı tutmayan dosya yok sayılıp silinir.
+ *
+ * <p>SDK'nın NavigationResult nesnesi bu verilerden yeniden kurulamadığından önbellek rota önizlemesi
+ * içindir; navigasyonu başlatmak için arama yine yapılır.
+ */
+final class RouteCache {
+
+    private static final String TAG = "RouteCache";
+
+    static final byte[] MAGIC = {'Y', 'R', 'T', 'C'};
+    static final int VERSION = 1;
+    private static final String FILE_SUFFIX = ".route";
+    // Uç noktalar 1e-4 dereceye (~11 m) yuvarlanır; aynı depodan çıkan istekler aynı anahtara düşer.
+    static final double ENDPOINT_SCALE = 1e4;
+
+    /** Önbellek anahtarı; uçlar yuvarlanmış tamsayı olarak tutulur. */
+    static final class Key {
+        final int startLonE4;
+        final int startLatE4;
+        final int endLonE4;
+        final int endLatE4;
+        final String routeType;
+        final boolean offline;
+        final String dataVersion;
+
+        Key(int startLonE4, int startLatE4, int endLonE4, int endLatE4, String routeType, boolean offline,
+            String dataVersion) {
+            this.startLonE4 = startLonE4;
+            this.startLatE4 = startLatE4;
+            this.endLonE4 = endLonE4;
+            this.endLatE4 = endLatE4;
+            this.routeType = routeType;
+            this.offline = offline;
+            this.dataVersion = dataVersion;
+        }
+
+        static Key of(double startLon, double startLat, double endLon, double endLat, String routeType,
+                      boolean offline, String dataVersion) {
+            return new Key(quantize(startLon), quantize(startLat), quantize(endLon), quantize(endLat),
+                    routeType, offline, dataVersion);
+        }
+
+        static int quantize(double degrees) {
+            return (int) Math.round(degrees * ENDPOINT_SCALE);
+        }
+
+        /** Disk dosya adı; çakışma ihtimaline karşı dosyada anahtarın tamamı da saklanır. */
+        String fileName() {
+            return String.format(Locale.US, "%016x%s", fingerprint(), FILE_SUFFIX);
+        }
+
+        private long fingerprint() {
+            // FNV-1a 64 bit.
+            long hash = 0xcbf29ce484222325L;
+            hash = mix(hash, startLonE4);
+            hash = mix(hash, startLatE4);
+            hash = mix(hash, endLonE4);
+            hash = mix(hash, endLatE4);
+            hash = mix(hash, offline ? 1 : 0);
+            hash = mix(hash, routeType.hashCode());
+            return mix(hash, dataVersion.hashCode());
+        }
+
+        private static long mix(long hash, int value) {
+            for (int shift = 0; shift < 32; shift += 8) {
+                hash ^= (value >>> shift) & 0xFF;
+                hash *= 0x100000001b3L;
+            }
+            return hash;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) o;
+            return startLonE4 == other.startLonE4
+                    && startLatE4 == other.startLatE4
+                    && endLonE4 == other.endLonE4
+                    && endLatE4 == other.endLatE4
+                    && offline == other.offline
+                    && routeType.equals(other.routeType)
+                    && dataVersion.equals(other.dataVersion);
+        }
+
+        @Override
+        public int hashCode() {
+            return (int) (fingerprint() ^ (fingerprint() >>> 32));
+        }
+    }
+
+    /** Önbellekteki rota; geometri SDK vektörü taşımaz (getSourcePoints null). */
+    static final class Entry {
+        final RouteGeometry geometry;
+        final RouteDigest digest;
+        final long createdMs;
+
+        Entry(RouteGeometry geometry, RouteDigest digest, long createdMs) {
+            this.geometry = geometry;
+            this.digest = digest;
+            this.createdMs = createdMs;
+        }
+    }
+
+    @Nullable
+    private final File directory;
+    private final int diskCapacity;
+    private final long maxAgeMs;
+    // this kilidi altında; erişim sırasına göre tutulur, en eski kayıt kapasite aşılınca atılır.
+    private final LinkedHashMap<Key, Entry> memory;
+    private int hitCount;
+    private int diskHitCount;
+    private int missCount;
+    // Okunamadığı için silinen disk kayıtları; get() yolu log yazmaz, çağıran bu sayaçtan izler.
+    private int droppedCount;
+
+    /**
+     * @param directory      disk deposu; null ise yalnızca bellek kullanılır
+     * @param memoryCapacity bellekte tutulacak rota sayısı
+     * @param diskCapacity   diskte tutulacak rota sayısı
+     * @param maxAgeMs       bu süreden eski kayıtlar kullanılmaz (yol ağı ve trafik değişir)
+     */
+    RouteCache(@Nullable File directory, final int memoryCapacity, int diskCapacity, long maxAgeMs) {
+        this.directory = directory;
+        this.diskCapacity = diskCapacity;
+        this.maxAgeMs = maxAgeMs;
+        this.memory = new LinkedHashMap<Key, Entry>(memoryCapacity * 2, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, Entry> eldest) {
+                return size() > memoryCapacity;
+            }
+        };
+    }
+
+    /** Bellekten, yoksa diskten okur; disk isabeti belleğe alınır. Disk G/Ç yaptığından ana thread dışında çağrılmalıdır. */
+    @Nullable
+    synchronized Entry get(Key key, long nowMs) {
+        Entry entry = memory.get(key);
+        if (entry != null) {
+            if (isFresh(entry, nowMs)) {
+                hitCount++;
+                return entry;
+            }
+            memory.remove(key);
+        }
+        entry = readFromDisk(key, nowMs);
+        if (entry == null) {
+            missCount++;
+            return null;
+        }
+        diskHitCount++;
+        memory.put(key, entry);
+        return entry;
+    }
+
+    /**
+     * Rotayı belleğe ve diske yazar; disk kapasitesi aşılırsa en eski dosyalar silinir. Bellekte canlı
+     * geometri yerine SDK vektörünü ve türetilmiş dizinleri bırakan kopyası tutulur.
+     */
+    synchronized void put(Key key, RouteGeometry geometry, RouteDigest digest, long nowMs) {
+        Entry entry = new Entry(geometry.detached(), digest, nowMs);
+        memory.put(key, entry);
+        if (directory == null) {
+            return;
+        }
+        if (!directory.isDirectory() && !directory.mkdirs()) {
+            Log.w(TAG, "put: cache directory unavailable " + directory);
+            return;
+        }
+        File file = new File(directory, key.fileName());
+        File temp = new File(directory, key.fileName() + ".tmp");
+        try (OutputStream output = new FileOutputStream(temp)) {
+            output.write(encode(key, entry));
+        } catch (IOException e) {
+            Log.e(TAG, "put: write failed", e);
+            temp.delete();
+            return;
+        }
+        // Yarım yazılmış dosya okunmasın diye önce geçici dosyaya yazılıp yeniden adlandırılır.
+        if (!temp.renameTo(file)) {
+            Log.w(TAG, "put: rename failed " + file);
+            temp.delete();
+            return;
+        }
+        trimDisk();
+    }
+
+    synchronized int getHitCount() {
+        return hitCount;
+    }
+
+    synchronized int getDiskHitCount() {
+        return diskHitCount;
+    }
+
+    synchronized int getMissCount() {
+        return missCount;
+    }
+
+    synchronized int getDroppedCount() {
+        return droppedCount;
+    }
+
+    private boolean isFresh(Entry entry, long nowMs) {
+        return nowMs - entry.createdMs <= maxAgeMs;
+    }
+
+    @Nullable
+    private Entry readFromDisk(Key key, long nowMs) {
+        if (directory == null) {
+            return null;
+        }
+        File file = new File(directory, key.fileName());
+        if (!file.isFile()) {
+            return null;
+        }
+        Entry entry;
+        try (InputStream input = new FileInputStream(file)) {
+            byte[] bytes = new byte[(int) file.length()];
+            int read = 0;
+            while (read < bytes.length) {
+                int count = input.read(bytes, read, bytes.length - read);
+                if (count < 0) {
+                    throw new IOException("Truncated route cache file");
+                }
+                read += count;
+            }
+            entry = decode(bytes, key);
+        } catch (IOException | RuntimeException e) {
+            droppedCount++;
+            file.delete();
+            return null;
+        }
+        if (entry == null || !isFresh(entry, nowMs)) {
+            file.delete();
+            return null;
+        }
+        // Disk kapasitesi aşıldığında en uzun süre kullanılmayan dosya silinsin.
+        file.setLastModified(nowMs);
+        return entry;
+    }
+
+    private void trimDisk() {
+        File[] files = directory.listFiles((dir, name) -> name.endsWith(FILE_SUFFIX));
+        if (files == null || files.length <= diskCapacity) {
+            return;
+        }
+        Arrays.sort(files, (a, b) -> Long.compare(a.lastModified(), b.lastModified()));
+        for (int i = 0; i < files.length - diskCapacity; i++) {
+            files[i].delete();
+        }
+    }
+
+    /** Kaydı disk biçiminde kodlar. */
+    static byte[] encode(Key key, Entry entry) {
+        VarintCodec.Encoder out = new VarintCodec.Encoder(64 + entry.geometry.getPointCount() * 6 + entry.digest.size() * 32);
+        out.writeBytes(MAGIC);
+        out.writeByte(VERSION);
+        out.writeSignedVarint(key.startLonE4);
+        out.writeSignedVarint(key.startLatE4);
+        out.writeSignedVarint(key.endLonE4);
+        out.writeSignedVarint(key.endLatE4);
+        out.writeString(key.routeType);
+        out.writeByte(key.offline ? 1 : 0);
+        out.writeString(key.dataVersion);
+        out.writeVarint(entry.createdMs);
+
+        RouteGeometry geometry = entry.geometry;
+        int pointCount = geometry.getPointCount();
+        out.writeVarint(pointCount);
+        int previousLon = 0;
+        int previousLat = 0;
+        for (int i = 0; i < pointCount; i++) {
+            int lon = NavigationEventRecorder.toE7(geometry.getLon(i));
+            int lat = NavigationEventRecorder.toE7(geometry.getLat(i));
+            out.writeSignedVarint(lon - previousLon);
+            out.writeSignedVarint(lat - previousLat);
+            previousLon = lon;
+            previousLat = lat;
+        }
+
+        RouteDigest digest = entry.digest;
+        int instructionCount = digest.size();
+        out.writeVarint(instructionCount);
+        for (int i = 0; i < instructionCount; i++) {
+            out.writeString(digest.streetName(i));
+            TurnCommandTable.Entry command = digest.command(i);
+            out.writeString(command.isEmpty() ? null : command.name);
+            out.writeString(digest.instructionText(i));
+            out.writeFloat(digest.distanceFromStart(i + 1) - digest.distanceFromStart(i));
+        }
+        return out.toByteArray();
+    }
+
+    /** Disk kaydını çözer; anahtar beklenenle aynı değilse (ad çakışması) null döner. */
+    @Nullable
+    static Entry decode(byte[] bytes, Key expected) throws IOException {
+        VarintCodec.Decoder in = new VarintCodec.Decoder(bytes);
+        for (byte b : MAGIC) {
+            if (in.readByte() != b) {
+                throw new IOException("Not a route cache file");
+            }
+        }
+        int version = in.readByte();
+        if (version != VERSION) {
+            throw new IOException("Unsupported route cache version: " + version);
+        }
+        Key key = new Key((int) in.readSignedVarint(), (int) in.readSignedVarint(),
+                (int) in.readSignedVarint(), (int) in.readSignedVarint(),
+                in.readString(), in.readByte() != 0, in.readString());
+        if (!key.equals(expected)) {
+            return null;
+        }
+        long createdMs = in.readVarint();
+
+        int pointCount = (int) in.readVarint();
+        if (pointCount <= 0) {
+            throw new IOException("Route cache entry without points");
+        }
+        double[] lons = new double[pointCount];
+        double[] lats = new double[pointCount];
+        int lon = 0;
+        int lat = 0;
+        for (int i = 0; i < pointCount; i++) {
+            lon += (int) in.readSignedVarint();
+            lat += (int) in.readSignedVarint();
+            lons[i] = lon / NavigationEventRecorder.COORDINATE_SCALE;
+            lats[i] = lat / NavigationEventRecorder.COORDINATE_SCALE;
+        }
+
+        int instructionCount = (int) in.readVarint();
+        String[] streetNames = new String[instructionCount];
+        String[] commandNames = new String[instructionCount];
+        String[] texts = new String[instructionCount];
+        double[] meters = new double[instructionCount];
+        for (int i = 0; i < instructionCount; i++) {
+            streetNames[i] = in.readString();
+            commandNames[i] = in.readString();
+            texts[i] = in.readString();
+            meters[i] = in.readFloat();
+        }
+        return new Entry(RouteGeometry.fromCoordinates(lons, lats),
+                new RouteDigest(streetNames, commandNames, texts, meters), createdMs);
+    }
+}
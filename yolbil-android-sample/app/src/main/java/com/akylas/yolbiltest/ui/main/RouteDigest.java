@@ -0,0 +1,262 @@
+package com.akylas.yolbiltest.ui.main;
+
+import android.util.Log;
+
+import androidx.annotation.DrawableRes;
+import androidx.annotation.Nullable;
+import androidx.annotation.StringRes;
+
+import com.basarsoft.yolbil.core.Variant;
+import com.basarsoft.yolbil.routing.NavigationResult;
+import com.basarsoft.yolbil.routing.RoutingInstruction;
+import com.basarsoft.yolbil.routing.RoutingInstructionVector;
+
+import java.util.Arrays;
+
+/**
+ * Rota talimatlarının rota başına bir kez okunmuş düz Java özeti. Diziler
+ * {@code NavigationCommand.getStaticManifestCommandIndex()} ile indekslenir; callback'ler sokak adı,
+ * komut, ikon ve mesafe için JNI'ye inmeden dizi okur. Üretimi talimat sayısı kadar JNI geçişi
+ * gerektirdiğinden ana thread dışında yapılır.
+ */
+final class RouteDigest {
+
+    private static final String TAG = "RouteDigest";
+
+    static final RouteDigest EMPTY = new RouteDigest(new String[0], new String[0], new String[0], new double[0]);
+
+    // Elemanlar null olabilir (adı olmayan yol).
+    private final String[] streetNames;
+    private final TurnCommandTable.Entry[] commands;
+    @DrawableRes
+    private final int[] iconRes;
+    @StringRes
+    private final int[] directionTextRes;
+    private final String[] instructionTexts;
+    // i. talimatın başladığı noktaya kadar rota üzerinde kat edilen mesafe (metre).
+    private final double[] distancesFromStart;
+    private final double totalMeters;
+    // Talimatın başladığı rota noktası; kayıttan/önbellekten gelen özette null.
+    @Nullable
+    private final int[] pointIndices;
+
+    /**
+     * @param streetNames       talimat başına sokak adı
+     * @param commandNames      talimat başına ilk dönüş komutunun adı; bilinmiyorsa null
+     * @param instructionTexts  talimat başına SDK metni
+     * @param instructionMeters talimat başına segment uzunluğu (metre)
+     */
+    RouteDigest(String[] streetNames, String[] commandNames, String[] instructionTexts, double[] instructionMeters) {
+        this(streetNames, commandNames, instructionTexts, instructionMeters, null);
+    }
+
+    /** @param pointIndices talimat başına başlangıç noktasının rota indeksi; bilinmiyorsa null */
+    RouteDigest(String[] streetNames, String[] commandNames, String[] instructionTexts, double[] instructionMeters,
+                @Nullable int[] pointIndices) {
+        int count = streetNames.length;
+        this.pointIndices = pointIndices;
+        this.streetNames = streetNames;
+        this.instructionTexts = instructionTexts;
+        commands = new TurnCommandTable.Entry[count];
+        iconRes = new int[count];
+        directionTextRes = new int[count];
+        distancesFromStart = new double[count];
+        TurnCommandTable table = TurnCommandTable.get();
+        double total = 0;
+        for (int i = 0; i < count; i++) {
+            TurnCommandTable.Entry entry = table.forName(commandNames[i]);
+            commands[i] = entry;
+            iconRes[i] = entry.iconRes;
+            directionTextRes[i] = entry.directionTextRes;
+            distancesFromStart[i] = total;
+            total += instructionMeters[i];
+        }
+        totalMeters = total;
+    }
+
+    /** Talimatları tek geçişte okur; arka plan thread'inde çağrılmalıdır. */
+    static RouteDigest fromNavigationResult(@Nullable NavigationResult navigationResult) {
+        if (navigationResult == null) {
+            return EMPTY;
+        }
+        RoutingInstructionVector instructions = navigationResult.getInstructions();
+        int count = instructions != null ? (int) instructions.size() : 0;
+        if (count == 0) {
+            return EMPTY;
+        }
+        String[] streetNames = new String[count];
+        String[] commandNames = new String[count];
+        String[] texts = new String[count];
+        double[] meters = new double[count];
+        int[] points = new int[count];
+        for (int i = 0; i < count; i++) {
+            RoutingInstruction instruction = instructions.get(i);
+            if (instruction == null) {
+                continue;
+            }
+            streetNames[i] = instruction.getStreetName();
+            texts[i] = instruction.getInstruction();
+            meters[i] = instruction.getDistance();
+            commandNames[i] = firstCommandName(instruction);
+            points[i] = instruction.getPointIndex();
+        }
+        Log.d(TAG, "fromNavigationResult: " + count + " instructions");
+        return new RouteDigest(streetNames, commandNames, texts, meters, points);
+    }
+
+    /**
+     * Yeniden hesaplanan rotanın özetini previous'tan taşıyarak üretir. Talimat başına yalnızca nokta indeksi
+     * okunur; talimatın gelen segmenti ve bir sonraki talimata kadarki kısmı ortak baş veya son kısımdaysa
+     * metin, komut ve mesafe previous'tan alınır, diğerleri SDK'dan okunur. Arka plan thread'inde çağrılmalıdır.
+     */
+    static RouteDigest splice(RouteDigest previous, RouteSplice splice,
+                              @Nullable NavigationResult navigationResult) {
+        if (previous.pointIndices == null || navigationResult == null) {
+            return fromNavigationResult(navigationResult);
+        }
+        RoutingInstructionVector instructions = navigationResult.getInstructions();
+        int count = instructions != null ? (int) instructions.size() : 0;
+        if (count == 0) {
+            return EMPTY;
+        }
+        RoutingInstruction[] read = new RoutingInstruction[count];
+        int[] points = new int[count];
+        for (int i = 0; i < count; i++) {
+            read[i] = instructions.get(i);
+            points[i] = read[i] != null ? read[i].getPointIndex() : -1;
+        }
+        String[] streetNames = new String[count];
+        String[] commandNames = new String[count];
+        String[] texts = new String[count];
+        double[] meters = new double[count];
+        int reused = 0;
+        for (int i = 0; i < count; i++) {
+            int end = i + 1 < count ? points[i + 1] : splice.newPointCount - 1;
+            int old = reusableInstruction(previous, splice, points[i], end);
+            if (old >= 0) {
+                streetNames[i] = previous.streetNames[old];
+                commandNames[i] = previous.commands[old].name;
+                texts[i] = previous.instructionTexts[old];
+                meters[i] = previous.distanceFromStart(old + 1) - previous.distancesFromStart[old];
+                reused++;
+                continue;
+            }
+            RoutingInstruction instruction = read[i];
+            if (instruction == null) {
+                continue;
+            }
+            streetNames[i] = instruction.getStreetName();
+            texts[i] = instruction.getInstruction();
+            meters[i] = instruction.getDistance();
+            commandNames[i] = firstCommandName(instruction);
+        }
+        Log.d(TAG, "splice: " + count + " instructions, " + reused + " reused");
+        return new RouteDigest(streetNames, commandNames, texts, meters, points);
+    }
+
+    /**
+     * point'te başlayıp end'e kadar süren talimatın previous'taki karşılığı; gelen segment veya talimat boyunca
+     * değişen kısma değiyorsa -1. Ortak kısımlar bitişik olduğundan iki ucun aynı kısımda olması yeterlidir.
+     */
+    private static int reusableInstruction(RouteDigest previous, RouteSplice splice, int point, int end) {
+        if (point < 0 || end < point || (point > 0 && splice.unmapSegment(point - 1) < 0)) {
+            return -1;
+        }
+        boolean inPrefix = end < splice.prefixPoints;
+        boolean inSuffix = point >= splice.newSuffixStart;
+        if (!inPrefix && !inSuffix) {
+            return -1;
+        }
+        int oldPoint = splice.unmapPoint(point);
+        int old = Arrays.binarySearch(previous.pointIndices, oldPoint);
+        if (old < 0) {
+            return -1;
+        }
+        // Önceki talimat da aynı kısımda bitmeli; aksi halde mesafesi farklıdır.
+        int oldEnd = old + 1 < previous.pointIndices.length
+                ? previous.pointIndices[old + 1]
+                : splice.oldPointCount - 1;
+        return splice.mapPoint(oldEnd) == end ? old : -1;
+    }
+
+    /** geometryTag içindeki "commands" dizisinin ilk elemanı; yoksa null. */
+    @Nullable
+    private static String firstCommandName(RoutingInstruction instruction) {
+        Variant tag = instruction.getGeometryTag();
+        if (tag == null) {
+            return null;
+        }
+        Variant commands = tag.getObjectElement("commands");
+        if (commands == null || commands.getArraySize() == 0) {
+            return null;
+        }
+        Variant first = commands.getArrayElement(0);
+        return first != null ? first.getString() : null;
+    }
+
+    int size() {
+        return streetNames.length;
+    }
+
+    @Nullable
+    String streetName(int index) {
+        return index >= 0 && index < streetNames.length ? streetNames[index] : null;
+    }
+
+    /** Talimatın ilk komutunun tablo kaydı; aralık dışında "düz devam". */
+    TurnCommandTable.Entry command(int index) {
+        return index >= 0 && index < commands.length ? commands[index] : TurnCommandTable.get().none();
+    }
+
+    @DrawableRes
+    int iconRes(int index) {
+        return index >= 0 && index < iconRes.length ? iconRes[index] : TurnCommandTable.get().none().iconRes;
+    }
+
+    @StringRes
+    int directionTextRes(int index) {
+        return index >= 0 && index < directionTextRes.length
+                ? directionTextRes[index]
+                : TurnCommandTable.get().none().directionTextRes;
+    }
+
+    @Nullable
+    String instructionText(int index) {
+        return index >= 0 && index < instructionTexts.length ? instructionTexts[index] : null;
+    }
+
+    /** Talimatın başladığı rota noktasının indeksi; bilinmiyorsa -1. */
+    int pointIndex(int index) {
+        return pointIndices != null && index >= 0 && index < pointIndices.length ? pointIndices[index] : -1;
+    }
+
+    /** Rota başından talimatın başladığı noktaya kadar olan mesafe; aralık dışında toplam uzunluğa sıkıştırılır. */
+    double distanceFromStart(int index) {
+        if (index < 0) {
+            return 0;
+        }
+        return index < distancesFromStart.length ? distancesFromStart[index] : totalMeters;
+    }
+
+    /**
+     * Rota üzerinde distanceMeters'tan sonra başlayan ilk talimat; yoksa -1. Başlangıç mesafeleri azalmayan
+     * sırada olduğundan ikili aramayla bulunur; sıfır uzunluklu talimatların eşit mesafeleri atlanır.
+     */
+    int firstInstructionAfter(double distanceMeters) {
+        int found = Arrays.binarySearch(distancesFromStart, distanceMeters);
+        int next = found >= 0 ? found + 1 : -found - 1;
+        while (next < distancesFromStart.length && distancesFromStart[next] <= distanceMeters) {
+            next++;
+        }
+        return next < distancesFromStart.length ? next : -1;
+    }
+
+    double getTotalMeters() {
+        return totalMeters;
+    }
+
+    /** Kayıt dosyası için paylaşılan sokak adı dizisi; değiştirilmemelidir. */
+    String[] streetNames() {
+        return streetNames;
+    }
+}
@@ -0,0 +1,285 @@
+package com.akylas.yolbiltest.ui.main;
+
+import androidx.annotation.Nullable;
+
+import com.akylas.yolbiltest.utils.GeoMath;
+import com.basarsoft.yolbil.core.MapPos;
+import com.basarsoft.yolbil.core.MapPosVector;
+import com.basarsoft.yolbil.routing.NavigationResult;
+
+/**
+ * NavigationResult noktalarını rota başına tek seferde primitive dizilere kopyalar.
+ * Simülasyon, kamera ve ilerleme hesapları her vertex için JNI'ye inmeden bu nesneyi paylaşır.
+ */
+final class RouteGeometry {
+
+    // SDK'ya tekrar verilmesi gereken (setRoutingPoints, fitRouteOnMap) orijinal vektör.
+    @Nullable
+    private final MapPosVector sourcePoints;
+    private final double[] lons;
+    private final double[] lats;
+    // i. noktaya kadar rota üzerinde kat edilen mesafe (metre).
+    private final double[] cumulativeMeters;
+    // i. segmentin (i -> i+1) başlangıç yönü (derece, 0-360).
+    private final double[] segmentBearings;
+    private final double minLon;
+    private final double minLat;
+    private final double maxLon;
+    private final double maxLat;
+    // İlk istendiğinde kurulur; this kilidi altında.
+    @Nullable
+    private RoutePolylinePyramid pyramid;
+    @Nullable
+    private RouteSegmentIndex segmentIndex;
+    // Yeniden hesaplamada bu geometrinin türetildiği önceki geometri ve eşleme; bu geometri de taban olunca
+    // bırakılır, böylece rota zinciri birikmez. this kilidi altında.
+    @Nullable
+    private RouteGeometry splicedFrom;
+    @Nullable
+    private RouteSplice splice;
+
+    private RouteGeometry(@Nullable MapPosVector sourcePoints, double[] lons, double[] lats) {
+        this(sourcePoints, lons, lats, new double[lons.length], new double[Math.max(0, lons.length - 1)]);
+        // Rota başına bir kez hesaplandığı için tam doğruluklu mod kullanılır.
+        GeoMath.cumulativeDistances(GeoMath.Mode.EXACT, lons, lats, cumulativeMeters);
+        GeoMath.segmentBearings(GeoMath.Mode.EXACT, lons, lats, segmentBearings);
+    }
+
+    private RouteGeometry(@Nullable MapPosVector sourcePoints, double[] lons, double[] lats,
+                          double[] cumulativeMeters, double[] segmentBearings) {
+        this.sourcePoints = sourcePoints;
+        this.lons = lons;
+        this.lats = lats;
+        this.cumulativeMeters = cumulativeMeters;
+        this.segmentBearings = segmentBearings;
+        int count = lons.length;
+
+        double west = lons[0];
+        double east = lons[0];
+        double south = lats[0];
+        double north = lats[0];
+        for (int i = 1; i < count; i++) {
+            double lon = lons[i];
+            double lat = lats[i];
+            if (lon < west) west = lon;
+            if (lon > east) east = lon;
+            if (lat < south) south = lat;
+            if (lat > north) north = lat;
+        }
+        minLon = west;
+        maxLon = east;
+        minLat = south;
+        maxLat = north;
+    }
+
+    /** NavigationResult noktalarını tek JNI geçişiyle okur; nokta yoksa null döner. */
+    @Nullable
+    static RouteGeometry fromNavigationResult(@Nullable NavigationResult navigationResult) {
+        return fromNavigationResult(navigationResult, null);
+    }
+
+    /**
+     * Yeniden hesaplanan rotayı okur. previous verilirse ortak baş ve son kısmın mesafe, yön ve segment dizini
+     * verileri ondan taşınır; noktaların karşılaştırma için yine de tek JNI geçişiyle okunması gerekir.
+     */
+    @Nullable
+    static RouteGeometry fromNavigationResult(@Nullable NavigationResult navigationResult,
+                                              @Nullable RouteGeometry previous) {
+        if (navigationResult == null) {
+            return null;
+        }
+        MapPosVector points = navigationResult.getPoints();
+        if (points == null) {
+            return null;
+        }
+        int count = (int) points.size();
+        if (count == 0) {
+            return null;
+        }
+        double[] lons = new double[count];
+        double[] lats = new double[count];
+        for (int i = 0; i < count; i++) {
+            MapPos pos = points.get(i);
+            lons[i] = pos.getX();
+            lats[i] = pos.getY();
+        }
+        return previous != null ? splice(previous, points, lons, lats) : new RouteGeometry(points, lons, lats);
+    }
+
+    /**
+     * previous ile ortak baş ve son kısmı bulur; baştaki mesafe ve yönleri kopyalar, sondakileri değişen kısmın
+     * uzunluk farkı kadar kaydırarak taşır ve yalnızca değişen segmentleri hesaplar. previous'un segment dizini
+     * kurulmuşsa o da yamanır.
+     */
+    static RouteGeometry splice(RouteGeometry previous, @Nullable MapPosVector sourcePoints, double[] lons,
+                                double[] lats) {
+        if (lons.length != lats.length || lons.length == 0) {
+            throw new IllegalArgumentException("lons/lats must be non-empty and of equal length");
+        }
+        RouteSplice splice = RouteSplice.diff(previous, lons, lats);
+        int count = lons.length;
+        double[] cumulative = new double[count];
+        double[] bearings = new double[count - 1];
+        System.arraycopy(previous.cumulativeMeters, 0, cumulative, 0, splice.prefixPoints);
+        int changedEnd = Math.min(splice.newSuffixStart, count - 1);
+        for (int i = Math.max(1, splice.prefixPoints); i <= changedEnd; i++) {
+            cumulative[i] = cumulative[i - 1]
+                    + GeoMath.distanceMeters(GeoMath.Mode.EXACT, lats[i - 1], lons[i - 1], lats[i], lons[i]);
+        }
+        if (splice.newSuffixStart < count) {
+            double offset = cumulative[splice.newSuffixStart] - previous.cumulativeMeters[splice.oldSuffixStart];
+            for (int i = splice.newSuffixStart + 1; i < count; i++) {
+                cumulative[i] = previous.cumulativeMeters[splice.unmapPoint(i)] + offset;
+            }
+        }
+        for (int segment = 0; segment < count - 1; segment++) {
+            int oldSegment = splice.unmapSegment(segment);
+            bearings[segment] = oldSegment >= 0
+                    ? previous.segmentBearings[oldSegment]
+                    : GeoMath.bearingDegrees(GeoMath.Mode.EXACT, lats[segment], lons[segment],
+                    lats[segment + 1], lons[segment + 1]);
+        }
+
+        RouteGeometry geometry = new RouteGeometry(sourcePoints, lons.clone(), lats.clone(), cumulative, bearings);
+        RouteSegmentIndex previousIndex;
+        synchronized (previous) {
+            previous.splicedFrom = null;
+            previous.splice = null;
+            previousIndex = previous.segmentIndex;
+        }
+        synchronized (geometry) {
+            geometry.splicedFrom = previous;
+            geometry.splice = splice;
+            if (previousIndex != null) {
+                geometry.segmentIndex = RouteSegmentIndex.splice(previousIndex, geometry, splice);
+            }
+        }
+        return geometry;
+    }
+
+    /** SDK bağımsız kullanım (test, kayıt oynatma) için hazır koordinat dizilerinden oluşturur. */
+    static RouteGeometry fromCoordinates(double[] lons, double[] lats) {
+        if (lons.length != lats.length || lons.length == 0) {
+            throw new IllegalArgumentException("lons/lats must be non-empty and of equal length");
+        }
+        return new RouteGeometry(null, lons.clone(), lats.clone());
+    }
+
+    /**
+     * Aynı koordinatlar ve mesafeler; SDK vektörü, sadeleştirme/dizin önbellekleri ve yeniden hesaplama
+     * zinciri taşımaz. Rotadan uzun yaşayan depolar (rota önbelleği) bunu tutar. Diziler değişmez olduğundan
+     * paylaşılır.
+     */
+    RouteGeometry detached() {
+        return new RouteGeometry(null, lons, lats, cumulativeMeters, segmentBearings);
+    }
+
+    @Nullable
+    MapPosVector getSourcePoints() {
+        return sourcePoints;
+    }
+
+    int getPointCount() {
+        return lons.length;
+    }
+
+    int getSegmentCount() {
+        return segmentBearings.length;
+    }
+
+    double getLon(int index) {
+        return lons[index];
+    }
+
+    double getLat(int index) {
+        return lats[index];
+    }
+
+    double getDistanceAt(int index) {
+        return cumulativeMeters[index];
+    }
+
+    double getSegmentBearing(int segmentIndex) {
+        return segmentBearings[segmentIndex];
+    }
+
+    double getTotalLengthMeters() {
+        return cumulativeMeters[cumulativeMeters.length - 1];
+    }
+
+    double getMinLon() {
+        return minLon;
+    }
+
+    double getMinLat() {
+        return minLat;
+    }
+
+    double getMaxLon() {
+        return maxLon;
+    }
+
+    double getMaxLat() {
+        return maxLat;
+    }
+
+    /** Çizim ve sığdırma için sadeleştirme seviyeleri; ilk çağrı hesap yaptığından arka planda ısıtılmalıdır. */
+    synchronized RoutePolylinePyramid getPyramid() {
+        if (pyramid == null) {
+            pyramid = RoutePolylinePyramid.build(this);
+        }
+        return pyramid;
+    }
+
+    /** Bu geometri yeniden hesaplamada önceki geometriden türetildiyse o geometri; değilse null. */
+    @Nullable
+    synchronized RouteGeometry getSplicedFrom() {
+        return splicedFrom;
+    }
+
+    /** {@link #getSplicedFrom()} ile eşleme; değilse null. */
+    @Nullable
+    synchronized RouteSplice getSplice() {
+        return splice;
+    }
+
+    /** En yakın segment sorguları için dizin; ilk çağrı hesap yaptığından arka planda ısıtılmalıdır. */
+    synchronized RouteSegmentIndex getSegmentIndex() {
+        if (segmentIndex == null) {
+            segmentIndex = RouteSegmentIndex.build(this);
+        }
+        return segmentIndex;
+    }
+
+    MapPos toMapPos(int index) {
+        return new MapPos(lons[index], lats[index]);
+    }
+
+    /**
+     * Verilen rota mesafesini içeren segmentin indeksini ikili arama ile bulur.
+     * Tek noktalı rotada -1 döner.
+     */
+    int findSegmentIndex(double distanceMeters) {
+        int segments = segmentBearings.length;
+        if (segments == 0) {
+            return -1;
+        }
+        if (distanceMeters <= 0) {
+            return 0;
+        }
+        if (distanceMeters >= getTotalLengthMeters()) {
+            return segments - 1;
+        }
+        int low = 0;
+        int high = segments - 1;
+        while (low < high) {
+            int mid = (low + high + 1) >>> 1;
+            if (cumulativeMeters[mid] <= distanceMeters) {
+                low = mid;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return low;
+    }
+}
@@ -0,0 +1,211 @@
+package com.akylas.yolbiltest.ui.main;
+
+import androidx.annotation.Nullable;
+
+import com.akylas.yolbiltest.utils.GeoMath;
+import com.basarsoft.yolbil.core.MapPos;
+import com.basarsoft.yolbil.core.MapPosVector;
+
+/**
+ * Rota çizgisinin zoom bantlarına göre sadeleştirilmiş seviyeleri. Douglas-Peucker rota başına bir kez
+ * çalıştırılır ve her vertex için "hangi toleransa kadar korunur" değeri saklanır; her seviye bu değere
+ * göre süzülerek çıkarılır, böylece seviyeler iç içedir ve her biri kendi toleransındaki DP sonucuna eşittir.
+ * Çizim ve harita sığdırma için kullanılır; snap ve ilerleme hesapları tam çözünürlükte kalır.
+ */
+final class RoutePolylinePyramid {
+
+    // i. seviyenin kullanıldığı en küçük zoom; son seviye en ayrıntılısıdır.
+    static final float[] LEVEL_MIN_ZOOMS = {0f, 8f, 11f, 14f, 17f};
+    // Seviye toleransı, bandın en yakın zoom'undaki piksel boyunun bu katıdır.
+    private static final double TOLERANCE_PIXELS = 0.5;
+    // Son seviyenin toleransı bu zoom'a göre hesaplanır.
+    private static final float MAX_DETAIL_ZOOM = 20f;
+    // 256 piksellik karolarla zoom 0'da ekvatorda piksel başına metre.
+    private static final double METERS_PER_PIXEL_AT_ZOOM_0 = 156_543.033_928;
+
+    private final RouteGeometry geometry;
+    private final double[] levelTolerances;
+    // Her seviyede korunan vertex indeksleri (artan sırada, uçlar dahil).
+    private final int[][] levelIndices;
+    // Ana thread'de ilk istendiğinde kurulur.
+    private final MapPosVector[] levelVectors;
+    @Nullable
+    private MapPosVector boundsVector;
+
+    private RoutePolylinePyramid(RouteGeometry geometry, double[] levelTolerances, int[][] levelIndices) {
+        this.geometry = geometry;
+        this.levelTolerances = levelTolerances;
+        this.levelIndices = levelIndices;
+        this.levelVectors = new MapPosVector[levelIndices.length];
+    }
+
+    /** Seviyeleri hesaplar; uzun rotada birkaç ms sürebileceğinden arka planda çağrılmalıdır. */
+    static RoutePolylinePyramid build(RouteGeometry geometry) {
+        int count = geometry.getPointCount();
+        double centerLat = (geometry.getMinLat() + geometry.getMaxLat()) * 0.5;
+        double centerLon = (geometry.getMinLon() + geometry.getMaxLon()) * 0.5;
+        double metersPerLon = GeoMath.METERS_PER_DEGREE * Math.cos(Math.toRadians(centerLat));
+
+        // Rota ölçeğinde eşdikdörtgen izdüşüm yeterlidir; toleranslar piksel altıdır.
+        double[] xs = new double[count];
+        double[] ys = new double[count];
+        for (int i = 0; i < count; i++) {
+            xs[i] = (geometry.getLon(i) - centerLon) * metersPerLon;
+            ys[i] = (geometry.getLat(i) - centerLat) * GeoMath.METERS_PER_DEGREE;
+        }
+        double[] significance = computeSignificance(xs, ys);
+
+        int levels = LEVEL_MIN_ZOOMS.length;
+        double[] tolerances = new double[levels];
+        int[][] indices = new int[levels][];
+        int[] scratch = new int[count];
+        for (int level = 0; level < levels; level++) {
+            float detailZoom = level + 1 < levels ? LEVEL_MIN_ZOOMS[level + 1] : MAX_DETAIL_ZOOM;
+            double tolerance = TOLERANCE_PIXELS * metersPerPixel(detailZoom, centerLat);
+            tolerances[level] = tolerance;
+            int kept = 0;
+            for (int i = 0; i < count; i++) {
+                if (significance[i] > tolerance) {
+                    scratch[kept++] = i;
+                }
+            }
+            int[] levelIndex = new int[kept];
+            System.arraycopy(scratch, 0, levelIndex, 0, kept);
+            indices[level] = levelIndex;
+        }
+        return new RoutePolylinePyramid(geometry, tolerances, indices);
+    }
+
+    /**
+     * Her vertex için korunduğu en büyük DP toleransını (metre) hesaplar. Özyineleme yerine yığın kullanılır;
+     * alt aralığın değeri üst bölmenin değerini geçemez, böylece seviyeler iç içe kalır.
+     */
+    static double[] computeSignificance(double[] xs, double[] ys) {
+        int count = xs.length;
+        double[] significance = new double[count];
+        if (count == 0) {
+            return significance;
+        }
+        significance[0] = Double.POSITIVE_INFINITY;
+        significance[count - 1] = Double.POSITIVE_INFINITY;
+        if (count < 3) {
+            return significance;
+        }
+        // (first, last, üst değer) üçlüleri; derinlik en fazla nokta sayısı kadardır.
+        int[] firsts = new int[count];
+        int[] lasts = new int[count];
+        double[] parents = new double[count];
+        firsts[0] = 0;
+        lasts[0] = count - 1;
+        parents[0] = Double.POSITIVE_INFINITY;
+        int top = 1;
+        while (top > 0) {
+            top--;
+            int first = firsts[top];
+            int last = lasts[top];
+            double parent = parents[top];
+            if (last - first < 2) {
+                continue;
+            }
+            int farthest = -1;
+            double farthestSq = -1;
+            for (int i = first + 1; i < last; i++) {
+                double distanceSq = segmentDistanceSq(xs[i], ys[i], xs[first], ys[first], xs[last], ys[last]);
+                if (distanceSq > farthestSq) {
+                    farthestSq = distanceSq;
+                    farthest = i;
+                }
+            }
+            double value = Math.min(Math.sqrt(farthestSq), parent);
+            significance[farthest] = value;
+            firsts[top] = first;
+            lasts[top] = farthest;
+            parents[top] = value;
+            top++;
+            firsts[top] = farthest;
+            lasts[top] = last;
+            parents[top] = value;
+            top++;
+        }
+        return significance;
+    }
+
+    /** Noktanın [a, b] doğru parçasına uzaklığının karesi; U dönüşlerinde sonsuz doğru yanıltır. */
+    private static double segmentDistanceSq(double px, double py, double ax, double ay, double bx, double by) {
+        double dx = bx - ax;
+        double dy = by - ay;
+        double lengthSq = dx * dx + dy * dy;
+        double t = lengthSq > 0 ? ((px - ax) * dx + (py - ay) * dy) / lengthSq : 0;
+        if (t < 0) {
+            t = 0;
+        } else if (t > 1) {
+            t = 1;
+        }
+        double ex = ax + t * dx - px;
+        double ey = ay + t * dy - py;
+        return ex * ex + ey * ey;
+    }
+
+    static double metersPerPixel(float zoom, double latitude) {
+        return METERS_PER_PIXEL_AT_ZOOM_0 * Math.cos(Math.toRadians(latitude)) / Math.pow(2, zoom);
+    }
+
+    int getLevelCount() {
+        return levelIndices.length;
+    }
+
+    /** Zoom'un düştüğü bandın seviyesi. */
+    static int levelForZoom(float zoom) {
+        int level = 0;
+        while (level + 1 < LEVEL_MIN_ZOOMS.length && zoom >= LEVEL_MIN_ZOOMS[level + 1]) {
+            level++;
+        }
+        return level;
+    }
+
+    double getTolerance(int level) {
+        return levelTolerances[level];
+    }
+
+    int getPointCount(int level) {
+        return levelIndices[level].length;
+    }
+
+    /** Seviyedeki position. noktanın tam çözünürlüklü rotadaki indeksi. */
+    int getSourceIndex(int level, int position) {
+        return levelIndices[level][position];
+    }
+
+    RouteGeometry getGeometry() {
+        return geometry;
+    }
+
+    /** Seviyenin SDK vektörü; ilk istendiğinde kurulur ve saklanır. Ana thread'de çağrılır. */
+    MapPosVector points(int level) {
+        MapPosVector vector = levelVectors[level];
+        if (vector == null) {
+            int[] indices = levelIndices[level];
+            vector = new MapPosVector();
+            vector.reserve(indices.length);
+            for (int index : indices) {
+                vector.add(geometry.toMapPos(index));
+            }
+            levelVectors[level] = vector;
+        }
+        return vector;
+    }
+
+    /**
+     * Haritayı rotaya sığdırmak için sınır kutusunun iki köşesi; kutu geometri kurulurken hesaplandığından
+     * vertex dolaşılmaz.
+     */
+    MapPosVector bounds() {
+        if (boundsVector == null) {
+            MapPosVector vector = new MapPosVector();
+            vector.add(new MapPos(geometry.getMinLon(), geometry.getMinLat()));
+            vector.add(new MapPos(geometry.getMaxLon(), geometry.getMaxLat()));
+            boundsVector = vector;
+        }
+        return boundsVector;
+    }
+}
@@ -0,0 +1,89 @@
+package com.akylas.yolbiltest.ui.main;
+
+/**
+ * Fix'leri rota segment dizini üzerinden izleyerek rota ilerlemesini, rotaya uzaklığı ve rota dışı durumunu
+ * SDK snap proxy'sinden bağımsız hesaplar. Her sorgu bir önceki eşleşmeden ileri doğru tercih yapar.
+ * Rota dışı kararı histerezislidir: eşik birkaç ardışık fix aşılınca verilir, daha yakın bir eşikte kalkar.
+ *
+ * <p>Tek thread'den (navigasyon durumu aktörü) kullanılır.
+ */
+final class RouteProgressTracker {
+
+    // Bu uzaklıktan ötesi aranmaz; ötesindeki fix rotaya uzaklığı bilinmeyen (NaN) rota dışı fix'tir.
+    static final double SEARCH_RADIUS_METERS = 100.0;
+    static final double OFF_ROUTE_METERS = 40.0;
+    static final double BACK_ON_ROUTE_METERS = 25.0;
+    static final int OFF_ROUTE_CONFIRM_FIXES = 3;
+
+    /** Bir fix'teki rota durumu; yayımlandıktan sonra değişmez. */
+    static final class Progress {
+        // Rota başından kat edilen mesafe; rota dışındayken son eşleşmedeki değer korunur.
+        final double distanceAlongMeters;
+        final double remainingMeters;
+        // Rotaya en kısa uzaklık; arama yarıçapının dışındaysa NaN.
+        final double distanceToRouteMeters;
+        final boolean offRoute;
+        final int segmentIndex;
+
+        Progress(double distanceAlongMeters, double remainingMeters, double distanceToRouteMeters,
+                 boolean offRoute, int segmentIndex) {
+            this.distanceAlongMeters = distanceAlongMeters;
+            this.remainingMeters = remainingMeters;
+            this.distanceToRouteMeters = distanceToRouteMeters;
+            this.offRoute = offRoute;
+            this.segmentIndex = segmentIndex;
+        }
+    }
+
+    private final RouteSegmentIndex index;
+    private final RouteSegmentIndex.Match match = new RouteSegmentIndex.Match();
+    private int segmentHint = -1;
+    private double distanceAlong;
+    private boolean offRoute;
+    private int farFixes;
+
+    RouteProgressTracker(RouteSegmentIndex index) {
+        this.index = index;
+    }
+
+    /**
+     * Yeniden hesaplanmış (önceki geometriden yamanmış) rotada izlemeyi sürdürür: ipucu segmenti ortak kısımdaysa
+     * yeni indeksine taşınır ve segment içindeki konum korunur; değilse izleme rota başından başlar. Rota dışı
+     * durumu yeni rotayla birlikte temizlenir.
+     */
+    RouteProgressTracker continueOn(RouteSegmentIndex nextIndex, RouteSplice splice) {
+        RouteProgressTracker next = new RouteProgressTracker(nextIndex);
+        int mapped = splice.mapSegment(segmentHint);
+        if (mapped >= 0) {
+            double offset = distanceAlong - index.getGeometry().getDistanceAt(segmentHint);
+            next.segmentHint = mapped;
+            next.distanceAlong = nextIndex.getGeometry().getDistanceAt(mapped) + offset;
+        }
+        return next;
+    }
+
+    RouteGeometry getGeometry() {
+        return index.getGeometry();
+    }
+
+    Progress update(double lon, double lat) {
+        boolean matched = index.nearest(lon, lat, SEARCH_RADIUS_METERS, segmentHint, match);
+        double distanceToRoute = matched ? match.distanceMeters : Double.NaN;
+        if (matched && match.distanceMeters <= OFF_ROUTE_METERS) {
+            farFixes = 0;
+            if (offRoute && match.distanceMeters <= BACK_ON_ROUTE_METERS) {
+                offRoute = false;
+            }
+        } else if (!offRoute && ++farFixes >= OFF_ROUTE_CONFIRM_FIXES) {
+            offRoute = true;
+        }
+        // Eşik dışındaki fix'lerde yakındaki başka bir kola atlanmasın diye ilerleme ve ipucu sabit kalır.
+        if (matched && !offRoute && farFixes == 0) {
+            segmentHint = match.segment;
+            distanceAlong = match.routeDistanceMeters;
+        }
+        double total = index.getGeometry().getTotalLengthMeters();
+        return new Progress(distanceAlong, Math.max(0, total - distanceAlong), distanceToRoute, offRoute,
+                segmentHint);
+    }
+}
@@ -0,0 +1,276 @@
+package com.akylas.yolbiltest.ui.main;
+
+import androidx.annotation.Nullable;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Rota aramalarını (online istek veya offline graf araması) işçi havuzunda çalıştırır ve sonucu
+ * callback yürütücüsünde (cihazda ana thread) teslim eder. Aynı uçlarla süren bir istek varsa yeni
+ * arama başlatılmaz, isteyen bekleyen aramaya bağlanır. Her istek ayrı iptal edilir; bağlı istek
+ * kalmayan arama da iptal edilir. SDK çağrısı kesilemediğinden iptal edilen aramanın sonucu atılır.
+ */
+final class RouteRequestExecutor<R> {
+
+    /** Rota isteğinin kimliği; uçlar ve offline bayrağı aynıysa istekler birleştirilir. */
+    static final class RouteKey {
+        final double startLon;
+        final double startLat;
+        final double endLon;
+        final double endLat;
+        final boolean offline;
+
+        RouteKey(double startLon, double startLat, double endLon, double endLat, boolean offline) {
+            this.startLon = startLon;
+            this.startLat = startLat;
+            this.endLon = endLon;
+            this.endLat = endLat;
+            this.offline = offline;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof RouteKey)) {
+                return false;
+            }
+            RouteKey other = (RouteKey) o;
+            return Double.compare(startLon, other.startLon) == 0
+                    && Double.compare(startLat, other.startLat) == 0
+                    && Double.compare(endLon, other.endLon) == 0
+                    && Double.compare(endLat, other.endLat) == 0
+                    && offline == other.offline;
+        }
+
+        @Override
+        public int hashCode() {
+            int result = Double.hashCode(startLon);
+            result = 31 * result + Double.hashCode(startLat);
+            result = 31 * result + Double.hashCode(endLon);
+            result = 31 * result + Double.hashCode(endLat);
+            return 31 * result + (offline ? 1 : 0);
+        }
+    }
+
+    /** Sonuç bildirimi; callback yürütücüsünde, istek iptal edilmediyse bir kez çağrılır. */
+    interface Callback<R> {
+        void onRouteReady(@Nullable R result);
+
+        void onRouteFailed(Exception error);
+    }
+
+    /** Tek bir isteğin iptal edilebilir görünümü; birleştirilen istekler aynı aramayı paylaşır. */
+    static final class Request<R> implements Future<R> {
+        private final RouteRequestExecutor<R> owner;
+        private final Search<R> search;
+        private final Callback<R> callback;
+        // owner kilidi altında değişir.
+        private boolean cancelled;
+        private boolean delivered;
+
+        Request(RouteRequestExecutor<R> owner, Search<R> search, Callback<R> callback) {
+            this.owner = owner;
+            this.search = search;
+            this.callback = callback;
+        }
+
+        RouteKey key() {
+            return search.key;
+        }
+
+        @Override
+        public boolean cancel(boolean mayInterruptIfRunning) {
+            boolean cancelSearch;
+            synchronized (owner) {
+                // Arama bitmiş ama sonuç henüz teslim edilmemiş olabilir; teslimden önce iptal hâlâ geçerlidir.
+                if (cancelled || delivered) {
+                    return false;
+                }
+                cancelled = true;
+                search.requests.remove(this);
+                cancelSearch = search.requests.isEmpty() && !search.isDone();
+                if (cancelSearch) {
+                    owner.inFlight.remove(search.key, search);
+                }
+            }
+            if (cancelSearch) {
+                search.cancel(mayInterruptIfRunning);
+            }
+            return true;
+        }
+
+        @Override
+        public boolean isCancelled() {
+            synchronized (owner) {
+                return cancelled;
+            }
+        }
+
+        @Override
+        public boolean isDone() {
+            return isCancelled() || search.isDone();
+        }
+
+        @Override
+        public R get() throws InterruptedException, ExecutionException {
+            if (isCancelled()) {
+                throw new CancellationException();
+            }
+            return search.get();
+        }
+
+        @Override
+        public R get(long timeout, TimeUnit unit) throws InterruptedException, ExecutionException, TimeoutException {
+            if (isCancelled()) {
+                throw new CancellationException();
+            }
+            return search.get(timeout, unit);
+        }
+
+        void deliver(@Nullable R result, @Nullable Exception error) {
+            synchronized (owner) {
+                if (cancelled) {
+                    return;
+                }
+                delivered = true;
+            }
+            if (error != null) {
+                callback.onRouteFailed(error);
+            } else {
+                callback.onRouteReady(result);
+            }
+        }
+    }
+
+    /** İşçi havuzunda çalışan paylaşılan arama. */
+    private static final class Search<R> extends FutureTask<R> {
+        final RouteRequestExecutor<R> owner;
+        final RouteKey key;
+        // owner kilidi altında değişir.
+        final List<Request<R>> requests = new ArrayList<>(2);
+
+        Search(RouteRequestExecutor<R> owner, RouteKey key, Callable<R> work) {
+            super(work);
+            this.owner = owner;
+            this.key = key;
+        }
+
+        @Override
+        protected void done() {
+            final List<Request<R>> targets;
+            synchronized (owner) {
+                owner.inFlight.remove(key, this);
+                targets = new ArrayList<>(requests);
+            }
+            if (isCancelled() || targets.isEmpty()) {
+                return;
+            }
+            R result = null;
+            Exception error = null;
+            try {
+                result = get();
+            } catch (ExecutionException e) {
+                Throwable cause = e.getCause();
+                error = cause instanceof Exception ? (Exception) cause : e;
+            } catch (InterruptedException | CancellationException e) {
+                return;
+            }
+            final R deliveredResult = result;
+            final Exception deliveredError = error;
+            owner.callbackExecutor.execute(() -> {
+                for (int i = 0; i < targets.size(); i++) {
+                    targets.get(i).deliver(deliveredResult, deliveredError);
+                }
+            });
+        }
+    }
+
+    private final Executor workers;
+    private final Executor callbackExecutor;
+    // this kilidi altında.
+    private final Map<RouteKey, Search<R>> inFlight = new HashMap<>();
+    private int mergedCount;
+
+    /**
+     * @param workers          aramaları çalıştıran havuz
+     * @param callbackExecutor sonuçların teslim edildiği yürütücü (cihazda ana thread)
+     */
+    RouteRequestExecutor(Executor workers, Executor callbackExecutor) {
+        this.workers = workers;
+        this.callbackExecutor = callbackExecutor;
+    }
+
+    /**
+     * Aynı anahtarla süren aramaya bağlanır; süren arama yoksa null döner ve hiçbir şey başlatılmaz.
+     * Çağıran, arama hazırlığını (harita katmanları, rota paketi) yalnızca null dönünce yapar.
+     */
+    @Nullable
+    synchronized Request<R> join(RouteKey key, Callback<R> callback) {
+        Search<R> search = inFlight.get(key);
+        if (search == null) {
+            return null;
+        }
+        mergedCount++;
+        Request<R> request = new Request<>(this, search, callback);
+        search.requests.add(request);
+        return request;
+    }
+
+    /** Yeni arama başlatır; aynı anahtarla süren arama varsa work çalıştırılmaz ve ona bağlanılır. */
+    Request<R> submit(RouteKey key, Callable<R> work, Callback<R> callback) {
+        Search<R> search;
+        Request<R> request;
+        boolean start = false;
+        synchronized (this) {
+            search = inFlight.get(key);
+            if (search == null) {
+                search = new Search<>(this, key, work);
+                inFlight.put(key, search);
+                start = true;
+            } else {
+                mergedCount++;
+            }
+            request = new Request<>(this, search, callback);
+            search.requests.add(request);
+        }
+        if (start) {
+            workers.execute(search);
+        }
+        return request;
+    }
+
+    /** Süren tüm aramalara bağlı istekleri iptal eder; callback'leri çağrılmaz. */
+    void cancelAll() {
+        List<Request<R>> requests = new ArrayList<>();
+        synchronized (this) {
+            for (Search<R> search : inFlight.values()) {
+                requests.addAll(search.requests);
+            }
+        }
+        for (int i = 0; i < requests.size(); i++) {
+            requests.get(i).cancel(true);
+        }
+    }
+
+    /** Süren aramaya bağlanarak yeni arama başlatmayan istek sayısı. */
+    synchronized int getMergedCount() {
+        return mergedCount;
+    }
+
+    synchronized int getInFlightCount() {
+        return inFlight.size();
+    }
+}
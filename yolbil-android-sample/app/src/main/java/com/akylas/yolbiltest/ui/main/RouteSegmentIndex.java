@@ -0,0 +1,456 @@
+package com.akylas.yolbiltest.ui.main;
+
+import androidx.annotation.Nullable;
+
+import com.akylas.yolbiltest.utils.GeoMath;
+
+import java.util.Arrays;
+
+/**
+ * Rota segmentleri üzerinde seyrek ızgara. Her segment geçtiği hücrelere kaydedilir; yalnızca dolu hücreler
+ * sıralı anahtar dizisinde tutulur ve hücre araması ikili aramayla yapılır. En yakın segment sorgusu noktanın
+ * hücresinden halka halka genişler ve kalan hücrelerin bulunandan daha yakın olamayacağı anda durur; sonuç
+ * doğrusal taramayla aynıdır.
+ *
+ * <p>Yeniden hesaplanan rota için önceki dizin {@link #splice} ile yamanır: ortak segmentlerin kayıtları
+ * korunur, yalnızca değişen kısım kaydedilir.
+ *
+ * <p>Kurulduktan sonra değişmez; sorgu tamponları çağıranın {@link Match} nesnesindedir, bu yüzden farklı
+ * thread'ler (aktör, kamera) aynı dizini kendi Match nesneleriyle paylaşabilir.
+ */
+final class RouteSegmentIndex {
+
+    static final double DEFAULT_CELL_METERS = 40.0;
+    // Aynı yolun gidiş-dönüşü gibi örtüşen kısımlarda bu fark içindeki adaylar eşit sayılır.
+    static final double AMBIGUITY_METERS = 3.0;
+    // İpucu verildiğinde bu kadar geriye kadar olan segmentler "ileride" sayılır.
+    private static final int HINT_BEHIND_SEGMENTS = 2;
+
+    /** Sorgu sonucu; çağıran tarafından tekrar kullanılır. */
+    static final class Match {
+        int segment = -1;
+        // Segment üzerindeki konum (0 başı, 1 sonu).
+        double fraction;
+        double distanceMeters = Double.NaN;
+        // Rota başından eşleşen noktaya mesafe.
+        double routeDistanceMeters = Double.NaN;
+        // Sorgu başına incelenen segment sayısı (ölçüm için).
+        int examinedSegments;
+    }
+
+    /**
+     * Dolu hücrelerin sıralı anahtarları ve her hücrenin segments içindeki aralığı. Yeniden hesaplamada önceki
+     * rotanın tabloları korunur; remap tablo kimliğini güncel segmente çevirir (-1: artık rotada yok).
+     */
+    private static final class CellTable {
+        final long[] keys;
+        final int[] starts;
+        final int[] segments;
+        @Nullable
+        final int[] remap;
+        // remap null ise tablodaki en büyük kimlik + 1, değilse remap uzunluğu.
+        final int idSpace;
+
+        CellTable(long[] keys, int[] starts, int[] segments, @Nullable int[] remap, int idSpace) {
+            this.keys = keys;
+            this.starts = starts;
+            this.segments = segments;
+            this.remap = remap;
+            this.idSpace = idSpace;
+        }
+    }
+
+    // Yamalı dizinde bundan fazla tablo birikirse yama yerine tam kurulum yapılır.
+    static final int MAX_TABLES = 3;
+
+    private final RouteGeometry geometry;
+    private final double originLon;
+    private final double originLat;
+    private final double metersPerLon;
+    private final double cellMeters;
+    // Yerel metrik izdüşümde vertex koordinatları.
+    private final double[] xs;
+    private final double[] ys;
+    private final CellTable[] tables;
+    private final int minCellX;
+    private final int maxCellX;
+    private final int minCellY;
+    private final int maxCellY;
+
+    private RouteSegmentIndex(RouteGeometry geometry, double cellMeters) {
+        this(geometry, cellMeters, geometry.getMinLon(), geometry.getMinLat(),
+                GeoMath.METERS_PER_DEGREE * Math.cos(Math.toRadians((geometry.getMinLat() + geometry.getMaxLat()) * 0.5)),
+                null, null);
+    }
+
+    /**
+     * previous verilirse onun izdüşümü ve tabloları kullanılır; tablolar splice ile yeniden eşlenir ve yalnızca
+     * değişen segmentler için yeni bir tablo kurulur.
+     */
+    private RouteSegmentIndex(RouteGeometry geometry, double cellMeters, double originLon, double originLat,
+                              double metersPerLon, @Nullable RouteSegmentIndex previous,
+                              @Nullable RouteSplice splice) {
+        this.geometry = geometry;
+        this.cellMeters = cellMeters;
+        this.originLon = originLon;
+        this.originLat = originLat;
+        this.metersPerLon = metersPerLon;
+
+        int count = geometry.getPointCount();
+        xs = new double[count];
+        ys = new double[count];
+        for (int i = 0; i < count; i++) {
+            xs[i] = (geometry.getLon(i) - originLon) * metersPerLon;
+            ys[i] = (geometry.getLat(i) - originLat) * GeoMath.METERS_PER_DEGREE;
+        }
+        minCellX = cell((geometry.getMinLon() - originLon) * metersPerLon);
+        minCellY = cell((geometry.getMinLat() - originLat) * GeoMath.METERS_PER_DEGREE);
+        maxCellX = cell((geometry.getMaxLon() - originLon) * metersPerLon);
+        maxCellY = cell((geometry.getMaxLat() - originLat) * GeoMath.METERS_PER_DEGREE);
+
+        int segments = geometry.getSegmentCount();
+        if (previous == null || splice == null) {
+            int[] all = new int[segments];
+            for (int s = 0; s < segments; s++) {
+                all[s] = s;
+            }
+            tables = new CellTable[]{buildTable(all)};
+            return;
+        }
+        CellTable[] kept = new CellTable[previous.tables.length + 1];
+        for (int t = 0; t < previous.tables.length; t++) {
+            CellTable table = previous.tables[t];
+            int[] remap = new int[table.idSpace];
+            for (int id = 0; id < remap.length; id++) {
+                int current = table.remap != null ? table.remap[id] : id;
+                remap[id] = current >= 0 ? splice.mapSegment(current) : -1;
+            }
+            kept[t] = new CellTable(table.keys, table.starts, table.segments, remap, remap.length);
+        }
+        int changed = 0;
+        int[] changedSegments = new int[segments];
+        for (int s = 0; s < segments; s++) {
+            if (splice.unmapSegment(s) < 0) {
+                changedSegments[changed++] = s;
+            }
+        }
+        kept[kept.length - 1] = buildTable(Arrays.copyOf(changedSegments, changed));
+        tables = kept;
+    }
+
+    /** Verilen segmentleri geçtikleri hücrelere kaydeder; kimlikler güncel segment indeksleridir. */
+    private CellTable buildTable(int[] segmentIds) {
+        // 1. geçiş: (hücre, segment) çiftlerinin hücre anahtarları.
+        int[] segmentCellCounts = new int[segmentIds.length];
+        int pairCount = 0;
+        for (int i = 0; i < segmentIds.length; i++) {
+            segmentCellCounts[i] = traverse(segmentIds[i], null, 0);
+            pairCount += segmentCellCounts[i];
+        }
+        long[] pairKeys = new long[pairCount];
+        int written = 0;
+        for (int segment : segmentIds) {
+            written += traverse(segment, pairKeys, written);
+        }
+        long[] sorted = pairKeys.clone();
+        Arrays.sort(sorted);
+        int unique = 0;
+        for (int i = 0; i < sorted.length; i++) {
+            if (i == 0 || sorted[i] != sorted[i - 1]) {
+                sorted[unique++] = sorted[i];
+            }
+        }
+        long[] keys = Arrays.copyOf(sorted, unique);
+
+        // 2. geçiş: hücre başına segment listeleri (sayma sıralaması).
+        int[] starts = new int[unique + 1];
+        int[] pairCells = new int[pairCount];
+        for (int i = 0; i < pairCount; i++) {
+            int cellIndex = Arrays.binarySearch(keys, pairKeys[i]);
+            pairCells[i] = cellIndex;
+            starts[cellIndex + 1]++;
+        }
+        for (int c = 0; c < unique; c++) {
+            starts[c + 1] += starts[c];
+        }
+        int[] cellSegments = new int[pairCount];
+        int[] fill = Arrays.copyOf(starts, unique);
+        int pair = 0;
+        int idSpace = 0;
+        for (int i = 0; i < segmentIds.length; i++) {
+            idSpace = Math.max(idSpace, segmentIds[i] + 1);
+            for (int k = 0; k < segmentCellCounts[i]; k++, pair++) {
+                cellSegments[fill[pairCells[pair]]++] = segmentIds[i];
+            }
+        }
+        return new CellTable(keys, starts, cellSegments, null, idSpace);
+    }
+
+    /** Dizini kurar; uzun rotada birkaç ms sürebileceğinden arka planda çağrılmalıdır. */
+    static RouteSegmentIndex build(RouteGeometry geometry) {
+        return new RouteSegmentIndex(geometry, DEFAULT_CELL_METERS);
+    }
+
+    static RouteSegmentIndex build(RouteGeometry geometry, double cellMeters) {
+        if (!(cellMeters > 0)) {
+            throw new IllegalArgumentException("cellMeters must be positive");
+        }
+        return new RouteSegmentIndex(geometry, cellMeters);
+    }
+
+    /**
+     * Yeniden hesaplanan rota için önceki dizini yamar: ortak segmentlerin hücre kayıtları yeniden eşlenerek
+     * korunur, yalnızca değişen segmentler yeni tabloya kaydedilir. Tablo sayısı sınırı aşılırsa tam kurar.
+     */
+    static RouteSegmentIndex splice(RouteSegmentIndex previous, RouteGeometry geometry, RouteSplice splice) {
+        if (previous.tables.length + 1 > MAX_TABLES) {
+            return new RouteSegmentIndex(geometry, previous.cellMeters);
+        }
+        return new RouteSegmentIndex(geometry, previous.cellMeters, previous.originLon, previous.originLat,
+                previous.metersPerLon, previous, splice);
+    }
+
+    private int cell(double meters) {
+        return (int) Math.floor(meters / cellMeters);
+    }
+
+    private static long key(int cellX, int cellY) {
+        return ((long) cellX << 32) | (cellY & 0xffffffffL);
+    }
+
+    /**
+     * Segmentin geçtiği hücreleri ızgara yürüyüşüyle (Amanatides-Woo) sırayla gezer. out verilirse anahtarları
+     * offset'ten itibaren yazar; gezilen hücre sayısını döner.
+     */
+    private int traverse(int segment, @Nullable long[] out, int offset) {
+        double x0 = xs[segment];
+        double y0 = ys[segment];
+        double dx = xs[segment + 1] - x0;
+        double dy = ys[segment + 1] - y0;
+        int cellX = cell(x0);
+        int cellY = cell(y0);
+        int endX = cell(x0 + dx);
+        int endY = cell(y0 + dy);
+        int stepX = dx > 0 ? 1 : -1;
+        int stepY = dy > 0 ? 1 : -1;
+        double tMaxX = dx != 0 ? ((cellX + (dx > 0 ? 1 : 0)) * cellMeters - x0) / dx : Double.POSITIVE_INFINITY;
+        double tMaxY = dy != 0 ? ((cellY + (dy > 0 ? 1 : 0)) * cellMeters - y0) / dy : Double.POSITIVE_INFINITY;
+        double tDeltaX = dx != 0 ? cellMeters / Math.abs(dx) : Double.POSITIVE_INFINITY;
+        double tDeltaY = dy != 0 ? cellMeters / Math.abs(dy) : Double.POSITIVE_INFINITY;
+        // Kayan nokta hatası yürüyüşü uzatmasın diye adım sayısı uç hücreler arasındaki mesafeyle sınırlanır.
+        int remaining = Math.abs(endX - cellX) + Math.abs(endY - cellY);
+        int visited = 0;
+        while (true) {
+            if (out != null) {
+                out[offset + visited] = key(cellX, cellY);
+            }
+            visited++;
+            if (remaining-- <= 0) {
+                return visited;
+            }
+            // Uç sütuna/satıra varıldıysa yalnızca diğer eksende ilerlenir.
+            if (cellY == endY || (cellX != endX && tMaxX < tMaxY)) {
+                cellX += stepX;
+                tMaxX += tDeltaX;
+            } else {
+                cellY += stepY;
+                tMaxY += tDeltaY;
+            }
+        }
+    }
+
+    /**
+     * maxDistanceMeters içindeki en yakın segmenti bulur. hintSegment (önceki eşleşme, yoksa -1) verilirse
+     * en yakından {@link #AMBIGUITY_METERS} kadar uzak adaylar arasında ipucundan ileride olan seçilir;
+     * böylece rotanın kendini kestiği veya aynı yoldan döndüğü yerlerde eşleşme geri atlamaz.
+     *
+     * @return eşleşme yoksa false; out yine de güncellenir (segment -1)
+     */
+    boolean nearest(double lon, double lat, double maxDistanceMeters, int hintSegment, Match out) {
+        double px = (lon - originLon) * metersPerLon;
+        double py = (lat - originLat) * GeoMath.METERS_PER_DEGREE;
+        int centerX = cell(px);
+        int centerY = cell(py);
+        out.segment = -1;
+        out.examinedSegments = 0;
+        double bestSquared = Double.POSITIVE_INFINITY;
+        int bestSegment = -1;
+        // Halka r'deki hücreler noktaya en az (r - 1) hücre boyu uzaktadır.
+        int maxRing = Math.max(Math.max(centerX - minCellX, maxCellX - centerX),
+                Math.max(centerY - minCellY, maxCellY - centerY));
+        for (int ring = 0; ring <= maxRing; ring++) {
+            double ringDistance = (ring - 1) * cellMeters;
+            if (ringDistance > maxDistanceMeters || ringDistance * ringDistance > bestSquared) {
+                break;
+            }
+            for (int cellY = centerY - ring; cellY <= centerY + ring; cellY++) {
+                boolean edgeRow = cellY == centerY - ring || cellY == centerY + ring;
+                int step = edgeRow ? 1 : Math.max(1, 2 * ring);
+                for (int cellX = centerX - ring; cellX <= centerX + ring; cellX += step) {
+                    if (!inBounds(cellX, cellY)) {
+                        continue;
+                    }
+                    long cellKey = key(cellX, cellY);
+                    for (CellTable table : tables) {
+                        int cellIndex = Arrays.binarySearch(table.keys, cellKey);
+                        if (cellIndex < 0) {
+                            continue;
+                        }
+                        for (int k = table.starts[cellIndex]; k < table.starts[cellIndex + 1]; k++) {
+                            int segment = table.remap != null ? table.remap[table.segments[k]] : table.segments[k];
+                            if (segment < 0) {
+                                continue;
+                            }
+                            double squared = segmentDistanceSquared(segment, px, py);
+                            out.examinedSegments++;
+                            if (squared < bestSquared || (squared == bestSquared && segment < bestSegment)) {
+                                bestSquared = squared;
+                                bestSegment = segment;
+                            }
+                        }
+                    }
+                }
+            }
+        }
+        if (bestSegment < 0 || bestSquared > maxDistanceMeters * maxDistanceMeters) {
+            out.distanceMeters = Double.NaN;
+            out.routeDistanceMeters = Double.NaN;
+            return false;
+        }
+        if (hintSegment >= 0) {
+            bestSegment = preferForward(px, py, Math.sqrt(bestSquared) + AMBIGUITY_METERS, hintSegment,
+                    bestSegment, out);
+        }
+        fill(bestSegment, px, py, out);
+        return true;
+    }
+
+    /** limit yarıçapındaki adaylardan ipucundan ileride ve ona en yakın olanı seçer. */
+    private int preferForward(double px, double py, double limit, int hint, int fallback, Match out) {
+        double limitSquared = limit * limit;
+        int firstAllowed = hint - HINT_BEHIND_SEGMENTS;
+        int chosen = fallback;
+        long chosenRank = rank(fallback, hint, firstAllowed);
+        int fromX = cell(px - limit);
+        int toX = cell(px + limit);
+        int fromY = cell(py - limit);
+        int toY = cell(py + limit);
+        for (int cellY = fromY; cellY <= toY; cellY++) {
+            for (int cellX = fromX; cellX <= toX; cellX++) {
+                if (!inBounds(cellX, cellY)) {
+                    continue;
+                }
+                long cellKey = key(cellX, cellY);
+                for (CellTable table : tables) {
+                    int cellIndex = Arrays.binarySearch(table.keys, cellKey);
+                    if (cellIndex < 0) {
+                        continue;
+                    }
+                    for (int k = table.starts[cellIndex]; k < table.starts[cellIndex + 1]; k++) {
+                        int segment = table.remap != null ? table.remap[table.segments[k]] : table.segments[k];
+                        if (segment < 0) {
+                            continue;
+                        }
+                        long candidateRank = rank(segment, hint, firstAllowed);
+                        if (candidateRank >= chosenRank) {
+                            continue;
+                        }
+                        out.examinedSegments++;
+                        if (segmentDistanceSquared(segment, px, py) <= limitSquared) {
+                            chosen = segment;
+                            chosenRank = candidateRank;
+                        }
+                    }
+                }
+            }
+        }
+        return chosen;
+    }
+
+    /** Küçük olan tercih edilir: ipucundan ileride olanlar yakınlık sırasıyla, geridekiler en sonda. */
+    private static long rank(int segment, int hint, int firstAllowed) {
+        if (segment >= firstAllowed) {
+            return Math.abs((long) segment - hint);
+        }
+        return Integer.MAX_VALUE + (long) (hint - segment);
+    }
+
+    private boolean inBounds(int cellX, int cellY) {
+        return cellX >= minCellX && cellX <= maxCellX && cellY >= minCellY && cellY <= maxCellY;
+    }
+
+    private double segmentDistanceSquared(int segment, double px, double py) {
+        double ax = xs[segment];
+        double ay = ys[segment];
+        double dx = xs[segment + 1] - ax;
+        double dy = ys[segment + 1] - ay;
+        double lengthSquared = dx * dx + dy * dy;
+        double t = lengthSquared > 0 ? ((px - ax) * dx + (py - ay) * dy) / lengthSquared : 0;
+        if (t < 0) {
+            t = 0;
+        } else if (t > 1) {
+            t = 1;
+        }
+        double ex = ax + dx * t - px;
+        double ey = ay + dy * t - py;
+        return ex * ex + ey * ey;
+    }
+
+    private void fill(int segment, double px, double py, Match out) {
+        double ax = xs[segment];
+        double ay = ys[segment];
+        double dx = xs[segment + 1] - ax;
+        double dy = ys[segment + 1] - ay;
+        double lengthSquared = dx * dx + dy * dy;
+        double t = lengthSquared > 0 ? ((px - ax) * dx + (py - ay) * dy) / lengthSquared : 0;
+        t = Math.max(0, Math.min(1, t));
+        out.segment = segment;
+        out.fraction = t;
+        out.distanceMeters = Math.sqrt(segmentDistanceSquared(segment, px, py));
+        double start = geometry.getDistanceAt(segment);
+        out.routeDistanceMeters = start + (geometry.getDistanceAt(segment + 1) - start) * t;
+    }
+
+    /** Karşılaştırma için tüm segmentleri tarayan doğrusal arama; sonucu nearest'in ipucusuz hâliyle aynıdır. */
+    boolean nearestLinear(double lon, double lat, double maxDistanceMeters, Match out) {
+        double px = (lon - originLon) * metersPerLon;
+        double py = (lat - originLat) * GeoMath.METERS_PER_DEGREE;
+        double bestSquared = Double.POSITIVE_INFINITY;
+        int bestSegment = -1;
+        int segments = geometry.getSegmentCount();
+        for (int segment = 0; segment < segments; segment++) {
+            double squared = segmentDistanceSquared(segment, px, py);
+            if (squared < bestSquared) {
+                bestSquared = squared;
+                bestSegment = segment;
+            }
+        }
+        out.examinedSegments = segments;
+        if (bestSegment < 0 || bestSquared > maxDistanceMeters * maxDistanceMeters) {
+            out.segment = -1;
+            out.distanceMeters = Double.NaN;
+            out.routeDistanceMeters = Double.NaN;
+            return false;
+        }
+        fill(bestSegment, px, py, out);
+        return true;
+    }
+
+    /** Tüm tablolardaki dolu hücre sayısı. */
+    int getCellCount() {
+        int cells = 0;
+        for (CellTable table : tables) {
+            cells += table.keys.length;
+        }
+        return cells;
+    }
+
+    /** Tam kurulumda 1; her yama bir tablo ekler. */
+    int getTableCount() {
+        return tables.length;
+    }
+
+    RouteGeometry getGeometry() {
+        return geometry;
+    }
+}
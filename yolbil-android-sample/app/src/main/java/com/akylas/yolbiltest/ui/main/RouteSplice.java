@@ -0,0 +1,110 @@
+package com.akylas.yolbiltest.ui.main;
+
+/**
+ * Yeniden hesaplanan rotanın önceki rotayla ortak baş ve son kısmı. Yeni rotada [0, prefixPoints) ve
+ * [newSuffixStart, newPointCount) noktaları önceki rotadakilerle birebir aynıdır; aradaki kısım değişmiştir.
+ * Aynı graf kenarlarından gelen noktalar SDK'dan aynı değerlerle döndüğünden karşılaştırma tam eşitlikle yapılır.
+ * Geometri, segment dizini, talimat özeti ve ilerleme ipuçları bu eşlemeyle yalnızca değişen kısım için
+ * yeniden hesaplanır.
+ */
+final class RouteSplice {
+
+    final int oldPointCount;
+    final int newPointCount;
+    // İki rotanın baştan itibaren aynı olan nokta sayısı.
+    final int prefixPoints;
+    // Ortak son kısmın önceki ve yeni rotadaki ilk noktası.
+    final int oldSuffixStart;
+    final int newSuffixStart;
+
+    private RouteSplice(int oldPointCount, int newPointCount, int prefixPoints, int oldSuffixStart,
+                        int newSuffixStart) {
+        this.oldPointCount = oldPointCount;
+        this.newPointCount = newPointCount;
+        this.prefixPoints = prefixPoints;
+        this.oldSuffixStart = oldSuffixStart;
+        this.newSuffixStart = newSuffixStart;
+    }
+
+    /** Ortak baş ve son kısmı bulur; ikisi çakışmaz, toplamları kısa rotanın nokta sayısını geçmez. */
+    static RouteSplice diff(RouteGeometry previous, double[] lons, double[] lats) {
+        int oldCount = previous.getPointCount();
+        int newCount = lons.length;
+        int shared = Math.min(oldCount, newCount);
+        int prefix = 0;
+        while (prefix < shared && previous.getLon(prefix) == lons[prefix] && previous.getLat(prefix) == lats[prefix]) {
+            prefix++;
+        }
+        int suffix = 0;
+        while (suffix < shared - prefix
+                && previous.getLon(oldCount - 1 - suffix) == lons[newCount - 1 - suffix]
+                && previous.getLat(oldCount - 1 - suffix) == lats[newCount - 1 - suffix]) {
+            suffix++;
+        }
+        return new RouteSplice(oldCount, newCount, prefix, oldCount - suffix, newCount - suffix);
+    }
+
+    int getSuffixPoints() {
+        return newPointCount - newSuffixStart;
+    }
+
+    /** İki rotada aynı kalan nokta sayısı. */
+    int getSharedPoints() {
+        return prefixPoints + getSuffixPoints();
+    }
+
+    /** Yeni rotada değişen nokta sayısı. */
+    int getChangedPoints() {
+        return newSuffixStart - prefixPoints;
+    }
+
+    /** Önceki rotadaki noktanın yeni rotadaki indeksi; değişen kısımdaysa -1. */
+    int mapPoint(int oldPoint) {
+        if (oldPoint < prefixPoints) {
+            return oldPoint;
+        }
+        if (oldPoint >= oldSuffixStart && oldPoint < oldPointCount) {
+            return oldPoint + newSuffixStart - oldSuffixStart;
+        }
+        return -1;
+    }
+
+    /** Yeni rotadaki noktanın önceki rotadaki indeksi; değişen kısımdaysa -1. */
+    int unmapPoint(int newPoint) {
+        if (newPoint < prefixPoints) {
+            return newPoint;
+        }
+        if (newPoint >= newSuffixStart && newPoint < newPointCount) {
+            return newPoint - newSuffixStart + oldSuffixStart;
+        }
+        return -1;
+    }
+
+    /** Önceki rotadaki segmentin (i -> i+1) yeni rotadaki indeksi; iki ucu da ortak kısımda değilse -1. */
+    int mapSegment(int oldSegment) {
+        if (oldSegment < 0) {
+            return -1;
+        }
+        if (oldSegment + 1 < prefixPoints) {
+            return oldSegment;
+        }
+        if (oldSegment >= oldSuffixStart && oldSegment + 1 < oldPointCount) {
+            return oldSegment + newSuffixStart - oldSuffixStart;
+        }
+        return -1;
+    }
+
+    /** Yeni rotadaki segmentin önceki rotadaki karşılığı; değişen kısımdaysa -1. */
+    int unmapSegment(int newSegment) {
+        if (newSegment < 0) {
+            return -1;
+        }
+        if (newSegment + 1 < prefixPoints) {
+            return newSegment;
+        }
+        if (newSegment >= newSuffixStart && newSegment + 1 < newPointCount) {
+            return newSegment - newSuffixStart + oldSuffixStart;
+        }
+        return -1;
+    }
+}
@@ -36,6 +36,7 @@ import com.basarsoft.yolbil.components.Options;
 import com.basarsoft.yolbil.core.MapPos;
 import com.basarsoft.yolbil.core.MapPosVector;
 import com.akylas.yolbiltest.application.AppSession;
+import com.akylas.yolbiltest.background.LocationBus;
 import com.akylas.yolbiltest.background.ServiceGPSLocationSource;
 import com.akylas.yolbiltest.utils.LocationUtils;
 import com.basarsoft.yolbil.datasources.BlueDotDataSource;
@@ -45,12 +46,10 @@ import com.basarsoft.yolbil.layers.VectorLayer;
 import com.basarsoft.yolbil.location.GPSLocationSource;
 import com.basarsoft.yolbil.location.Location;
 import com.basarsoft.yolbil.location.LocationBuilder;
-import com.basarsoft.yolbil.location.LocationListener;
 import com.basarsoft.yolbil.location.LocationSource;
 import com.basarsoft.yolbil.navigation.AssetsVoiceNarrator;
 import com.basarsoft.yolbil.projections.EPSG4326;
 import com.basarsoft.yolbil.routing.NavigationResult;
-import com.basarsoft.yolbil.routing.RoutingInstructionVector;
 import com.basarsoft.yolbil.styles.LineStyleBuilder;
 import com.basarsoft.yolbil.styles.MarkerStyle;
 import com.basarsoft.yolbil.styles.MarkerStyleBuilder;
@@ -61,6 +60,7 @@ import com.basarsoft.yolbil.vectorelements.Marker;
 import java.io.File;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.Future;
 
 
 public class SecondFragment extends Fragment {
@@ -85,14 +85,27 @@ public class SecondFragment extends Fragment {
     BlueDotDataSource sharedBlueDotDataSource;
     Location lastLocation = null;
     LocationUtils locationUtils;
-    Button focusPos,startNavigation, simulationButton, followButton, blueDotButton;
+    Button focusPos,startNavigation, simulationButton, alternativeButton, followButton, blueDotButton;
     private NavigationInfoCardView navigationInfoCardView;
     private View routeLoadingOverlay;
     private TextView routeLoadingText;
     private BaseMapSwitchController baseMapSwitchController;
     boolean isLocationFound = false;
     boolean mockGpsEnabled = false;
+    // Konum veriyolu aboneliği; fragment yok edilince kapanır. Veriyolu listener'ı zayıf tuttuğundan alanda saklanır.
+    @Nullable
+    private LocationBus.Subscription<Location> locationSubscription;
+    private final LocationBus.Listener<Location> locationListener = location -> {
+        lastLocation = location;
+        if (!isLocationFound) {
+            initOnline(location.getCoordinate(), new MapPos(32.814785, 39.923197), false);
+            isLocationFound = true;
+        }
+    };
     private boolean hasActiveRoute = false;
+    // Sonucu beklenen rota isteği; yalnızca ana thread'de kullanılır.
+    @Nullable
+    private Future<?> pendingRouteRequest;
     private boolean isSimulationActive = false;
     private boolean isFollowModeActive = true;
     private SharedPreferences sharedPreferences;
@@ -107,6 +120,10 @@ public class SecondFragment extends Fragment {
     String appCode = BaseSettings.INSTANCE.getAppCode();
 
     private static final int REQUEST_LOCATION_PERMISSION = 1001;
+    private static final String TRACE_REPLAY_DIR = "traces";
+    private static final String[] TRACE_REPLAY_FILES = {"replay.gpx", "replay.nmea"};
+    private static final double TRACE_REPLAY_TIME_WARP = 4.0;
+    private static final String EVENT_RECORDING_FILE = "navigation.ynev";
 
     AssetsVoiceNarrator commandPlayer;
     private final YolbilNavigationUsage.SimulationListener simulationStateListener = new YolbilNavigationUsage.SimulationListener() {
@@ -170,6 +187,7 @@ public class SecondFragment extends Fragment {
         navigationInfoCardView = new NavigationInfoCardView(view);
         startNavigation = view.findViewById(R.id.button3);
         simulationButton = view.findViewById(R.id.buttonSimulation);
+        alternativeButton = view.findViewById(R.id.buttonAlternative);
         routeLoadingOverlay = view.findViewById(R.id.routeLoadingOverlay);
         routeLoadingText = view.findViewById(R.id.routeLoadingText);
         followButton = view.findViewById(R.id.followButton);
@@ -231,15 +249,38 @@ public class SecondFragment extends Fragment {
             public void onClick(View view) {
                 if(usage != null ){
                     usage.startNavigation();
+                    // Navigasyon rotası paket tarafından izlenir; alternatif seçimi kapanır.
+                    refreshAlternativeButton();
                 }
             }
         });
+        // Debug: uzun basış, navigasyon olay kaydını açıp kapatır.
+        startNavigation.setOnLongClickListener(new View.OnLongClickListener() {
+            @Override
+            public boolean onLongClick(View view) {
+                toggleEventRecording();
+                return true;
+            }
+        });
         simulationButton.setOnClickListener(new View.OnClickListener() {
             @Override
             public void onClick(View view) {
                 handleSimulationButtonClick();
             }
         });
+        // Debug: uzun basış, uygulama dosyalarındaki kayıtlı sürüşü simülasyon yerine oynatır.
+        simulationButton.setOnLongClickListener(new View.OnLongClickListener() {
+            @Override
+            public boolean onLongClick(View view) {
+                return handleTraceReplayLongClick();
+            }
+        });
+        alternativeButton.setOnClickListener(new View.OnClickListener() {
+            @Override
+            public void onClick(View view) {
+                handleAlternativeButtonClick();
+            }
+        });
         refreshSimulationButton();
         offlineSwitch.setOnCheckedChangeListener(new CompoundButton.OnCheckedChangeListener() {
             @Override
@@ -251,11 +292,14 @@ public class SecondFragment extends Fragment {
                         if (usage.isSimulationRunning()) {
                             usage.stopSimulation();
                         }
+                        usage.stopTraceReplay();
                         usage.stopNavigation();
                     }
                     hasActiveRoute = false;
                     isSimulationActive = false;
                     refreshSimulationButton();
+                    // Önceki moddaki arama sürüyorsa sonucu artık geçersizdir.
+                    cancelPendingRouteRequest();
 
                     if (b) {
                         initOnline(lastLocation.getCoordinate(), new MapPos(32.814785, 39.923197), false);
@@ -559,6 +603,7 @@ public class SecondFragment extends Fragment {
     @Override
     public void onDestroyView() {
         Log.d(TAG, "onDestroyView");
+        cancelPendingRouteRequest();
         stopPhoneLocationUpdates();
         super.onDestroyView();
     }
@@ -566,6 +611,10 @@ public class SecondFragment extends Fragment {
     @Override
     public void onDestroy() {
         Log.d(TAG, "onDestroy");
+        if (usage != null) {
+            usage.release();
+            usage = null;
+        }
         super.onDestroy();
     }
 
@@ -575,10 +624,23 @@ public class SecondFragment extends Fragment {
         super.onPause();
     }
 
+    @Override
+    public void onStart() {
+        Log.d(TAG, "onStart");
+        super.onStart();
+        if (locationUtils != null) {
+            locationUtils.setForeground(true);
+        }
+    }
+
     @Override
     public void onStop() {
         Log.d(TAG, "onStop");
         super.onStop();
+        // Ekran görünmezken konum isteği navigasyonun ihtiyacına göre gevşer.
+        if (locationUtils != null) {
+            locationUtils.setForeground(false);
+        }
     }
 
     @Override
@@ -595,6 +657,7 @@ public class SecondFragment extends Fragment {
                 if (usage.isSimulationRunning()) {
                     usage.stopSimulation();
                 }
+                usage.stopTraceReplay();
                 mapViewObject.getLayers().remove(vectorLayerMarker);
                 vectorDataSourceMarker.clear();
             }
@@ -621,6 +684,7 @@ public class SecondFragment extends Fragment {
                 usage = new YolbilNavigationUsage(navigationInfoCardView, requireContext().getApplicationContext());
                 usage.setVoiceGuidanceEnabled(voiceGuidanceEnabled);
                 usage.setMockGpsEnabled(mockGpsEnabled);
+                usage.setLocationDemandListener(this::onLocationDemand);
             }
 
             toggleRouteLoading(true, getString(R.string.route_loading_text));
@@ -631,27 +695,28 @@ public class SecondFragment extends Fragment {
             routeLoadingOverlay.post(new Runnable() {
                 @Override
                 public void run() {
-                    try {
-                        // Yolbil servisinden rota isteğini gönderip NavigationResult bekler.
-                        ensureBlueDotDataSource();
-                        if (sharedBlueDotDataSource == null) {
-                            Log.w(TAG, "initOnline: shared blue dot data source unavailable");
-                            return;
-                        }
-                        NavigationResult navigationResult = usage.fullExample(mapViewObject, startPos, destinationPos, offline, gpsLocationSource, sharedBlueDotDataSource);
-
-                        if (navigationResult != null) {
-                            hasActiveRoute = true;
-                            RoutingInstructionVector instructions = navigationResult.getInstructions();
-                            Log.e(TAG, "onViewCreated: nav result: " + navigationResult);
-                            for (int i = 0; i < instructions.size(); i++) {
-                                Log.e(TAG, "onViewCreated: " + instructions.get(i).toString());
-                            }
-                        } else {
-                            hasActiveRoute = false;
-                        }
+                    ensureBlueDotDataSource();
+                    if (sharedBlueDotDataSource == null) {
+                        Log.w(TAG, "initOnline: shared blue dot data source unavailable");
+                        toggleRouteLoading(false, null);
+                        return;
+                    }
+                    cancelPendingRouteRequest();
+                    // Yolbil servisinden (veya offline graftan) rota arka planda aranır; UI thread bloklanmaz.
+                    pendingRouteRequest = usage.requestRoute(mapViewObject, startPos, destinationPos, offline,
+                            gpsLocationSource, sharedBlueDotDataSource, new YolbilNavigationUsage.RouteCallback() {
+                                @Override
+                                public void onRouteResult(@Nullable NavigationResult navigationResult) {
+                                    pendingRouteRequest = null;
+                                    // Talimatlar ana thread'de dolaşılmaz; RouteDigest arka planda okur.
+                                    hasActiveRoute = navigationResult != null;
+                                    refreshSimulationButton();
+                                    toggleRouteLoading(false, null);
+                                }
+                            });
+                    if (pendingRouteRequest == null) {
+                        hasActiveRoute = false;
                         refreshSimulationButton();
-                    } finally {
                         toggleRouteLoading(false, null);
                     }
                 }
@@ -659,6 +724,15 @@ public class SecondFragment extends Fragment {
         }
     }
 
+    /** Bekleyen rota isteğini iptal eder; sonucu gelse de uygulanmaz. */
+    private void cancelPendingRouteRequest() {
+        Future<?> request = pendingRouteRequest;
+        pendingRouteRequest = null;
+        if (request != null) {
+            request.cancel(true);
+        }
+    }
+
     private void toggleRouteLoading(final boolean show, @Nullable final String message) {
         if (routeLoadingOverlay == null || getActivity() == null) {
             return;
@@ -697,16 +771,14 @@ public class SecondFragment extends Fragment {
         }
         ensureBlueDotDataSource();
       //  gpsLocationSource.startLocationUpdates();
-        gpsLocationSource.addListener(new LocationListener() {
-            @Override
-            public void onLocationChange(Location location) {
-                lastLocation = location;
-                if (!isLocationFound) {
-                    initOnline(location.getCoordinate(), new MapPos(32.814785, 39.923197), false);
-                    isLocationFound = true;
-                }
+        // Her çağrıda kaynağa yeni listener eklenmez; açık abonelik varsa o kullanılır.
+        if (locationSubscription == null || !locationSubscription.isActive()) {
+            locationSubscription = LocationBus.shared(requireContext())
+                    .subscribe(this, Runnable::run, locationListener);
+            if (!locationSubscription.isActive()) {
+                Log.e(TAG, "startLocationUpdates: location bus subscriber limit reached");
             }
-        });
+        }
     }
 
     private void resumeRealLocationUpdatesIfNeeded() {
@@ -727,6 +799,14 @@ public class SecondFragment extends Fragment {
       */
     }
 
+    // Navigasyon durumu konum isteği politikasına iletilir; aktör thread'inden de gelebilir.
+    private void onLocationDemand(boolean navigating, double distanceToCommandMeters) {
+        LocationUtils utils = locationUtils;
+        if (utils != null) {
+            utils.setNavigationState(navigating, distanceToCommandMeters);
+        }
+    }
+
     private void ensureLocationUtils() {
         if (locationUtils == null && isAdded()) {
             locationUtils = new LocationUtils(requireContext());
@@ -771,6 +851,7 @@ public class SecondFragment extends Fragment {
 
         if (isSimulationActive) {
             usage.stopSimulation();
+            usage.stopTraceReplay();
             return;
         }
 
@@ -796,6 +877,73 @@ public class SecondFragment extends Fragment {
         }
     }
 
+    /**
+     * Uygulama dosyalarındaki traces/replay.gpx veya traces/replay.nmea kaydını oynatır. Kayıt yoksa
+     * bilgi verir; simülasyon zaten çalışıyorsa uzun basış normal tıklamaya bırakılır.
+     */
+    private boolean handleTraceReplayLongClick() {
+        if (usage == null) {
+            Toast.makeText(requireContext(), R.string.simulation_not_ready, Toast.LENGTH_SHORT).show();
+            return true;
+        }
+        if (isSimulationActive) {
+            return false;
+        }
+        File traceFile = findTraceReplayFile();
+        if (traceFile == null) {
+            Toast.makeText(requireContext(), R.string.trace_replay_missing, Toast.LENGTH_SHORT).show();
+            return true;
+        }
+
+        if (gpsLocationSource != null) {
+            gpsLocationSource.stopLocationUpdates();
+        }
+        stopPhoneLocationUpdates();
+
+        if (usage.startTraceReplay(traceFile, TRACE_REPLAY_TIME_WARP, simulationStateListener)) {
+            isSimulationActive = true;
+            refreshSimulationButton();
+        } else {
+            resumeRealLocationUpdatesIfNeeded();
+            Toast.makeText(requireContext(), R.string.trace_replay_missing, Toast.LENGTH_SHORT).show();
+        }
+        return true;
+    }
+
+    @Nullable
+    private File findTraceReplayFile() {
+        File dir = requireContext().getExternalFilesDir(TRACE_REPLAY_DIR);
+        if (dir == null) {
+            return null;
+        }
+        for (String name : TRACE_REPLAY_FILES) {
+            File file = new File(dir, name);
+            if (file.canRead()) {
+                return file;
+            }
+        }
+        return null;
+    }
+
+    /** Olay kaydını traces/navigation.ynev dosyasına açar veya kapatır; kayıt testlerde tekrar oynatılır. */
+    private void toggleEventRecording() {
+        if (usage == null) {
+            Toast.makeText(requireContext(), R.string.simulation_not_ready, Toast.LENGTH_SHORT).show();
+            return;
+        }
+        if (usage.isEventRecording()) {
+            usage.stopEventRecording();
+            Toast.makeText(requireContext(), R.string.event_recording_stopped, Toast.LENGTH_SHORT).show();
+            return;
+        }
+        File dir = requireContext().getExternalFilesDir(TRACE_REPLAY_DIR);
+        if (dir != null && usage.startEventRecording(new File(dir, EVENT_RECORDING_FILE))) {
+            Toast.makeText(requireContext(), R.string.event_recording_started, Toast.LENGTH_SHORT).show();
+        } else {
+            Toast.makeText(requireContext(), R.string.event_recording_failed, Toast.LENGTH_SHORT).show();
+        }
+    }
+
     private void handleSimulationFinished() {
         resumeRealLocationUpdatesIfNeeded();
         isSimulationActive = false;
@@ -812,6 +960,68 @@ public class SecondFragment extends Fragment {
                     ? getString(R.string.simulation_stop)
                     : getString(R.string.simulation_start));
         }
+        refreshAlternativeButton();
+    }
+
+    /** Sıradaki alternatifi seçer; geometri ilk seçimde arka planda çözülür. */
+    private void handleAlternativeButtonClick() {
+        if (usage == null || isSimulationActive || usage.isNavigationStarted()) {
+            return;
+        }
+        int count = usage.getRouteAlternativeCount();
+        if (count < 2) {
+            return;
+        }
+        int next = (usage.getSelectedRouteAlternativeIndex() + 1) % count;
+        alternativeButton.setEnabled(false);
+        usage.selectRouteAlternative(next, new Runnable() {
+            @Override
+            public void run() {
+                refreshAlternativeButton();
+            }
+        });
+    }
+
+    /**
+     * Birden fazla alternatif varsa seçili olanın özetini gösterir; simülasyonda rota değiştirilmez, navigasyon
+     * başladıktan sonra düğme gizlenir.
+     */
+    private void refreshAlternativeButton() {
+        if (alternativeButton == null) {
+            return;
+        }
+        int count = usage != null && hasActiveRoute && !usage.isNavigationStarted()
+                ? usage.getRouteAlternativeCount() : 0;
+        if (count < 2 || !isAdded()) {
+            alternativeButton.setVisibility(View.GONE);
+            return;
+        }
+        int selected = usage.getSelectedRouteAlternativeIndex();
+        RouteAlternatives.Summary summary = usage.getRouteAlternativeSummary(selected);
+        if (summary == null) {
+            alternativeButton.setVisibility(View.GONE);
+            return;
+        }
+        String label = getString(R.string.route_alternative_label, selected + 1, count,
+                NavigationCommandFormatter.formatTotalDistance(summary.lengthMeters),
+                NavigationCommandFormatter.formatTotalTime(summary.durationSec));
+        if (!summary.isPrimary()) {
+            String timeDelta = formatSignedDelta(summary.durationDeltaSec,
+                    NavigationCommandFormatter.formatTotalTime(Math.abs(summary.durationDeltaSec)));
+            String distanceDelta = formatSignedDelta(summary.lengthDeltaMeters,
+                    NavigationCommandFormatter.formatTotalDistance(Math.abs(summary.lengthDeltaMeters)));
+            label = getString(R.string.route_alternative_delta, label, timeDelta, distanceDelta);
+        }
+        alternativeButton.setText(label);
+        alternativeButton.setEnabled(!isSimulationActive);
+        alternativeButton.setVisibility(View.VISIBLE);
+    }
+
+    private static String formatSignedDelta(double delta, String magnitude) {
+        if (magnitude.isEmpty()) {
+            return "±0";
+        }
+        return (delta < 0 ? "-" : "+") + magnitude;
     }
 
     /**
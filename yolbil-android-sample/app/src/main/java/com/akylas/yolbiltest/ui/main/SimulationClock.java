@@ -0,0 +1,51 @@
+package com.akylas.yolbiltest.ui.main;
+
+/**
+ * Simülasyon tiklerinin gerçek zamanlı aralığını ve SDK'ya giden simüle zaman damgasını yönetir.
+ * Zaman hızlandırma (1x-100x) uygulandığında gerçek aralık kısalır, her tikte geçen simüle süre uzar;
+ * zaman damgaları her durumda tekdüze artar.
+ */
+final class SimulationClock {
+
+    static final double MIN_TIME_WARP = 1.0;
+    static final double MAX_TIME_WARP = 100.0;
+    // Hızlandırılmış oynatmada ana iş parçacığını boğmamak için alt sınır.
+    private static final long MIN_REAL_INTERVAL_MS = 50L;
+
+    private final long realIntervalMs;
+    private final long simulatedStepMs;
+    private long timestampMs;
+
+    SimulationClock(long baseStepMs, double timeWarp) {
+        double warp = clampTimeWarp(timeWarp);
+        realIntervalMs = Math.max(MIN_REAL_INTERVAL_MS, Math.round(baseStepMs / warp));
+        simulatedStepMs = Math.max(1L, Math.round(realIntervalMs * warp));
+    }
+
+    static double clampTimeWarp(double timeWarp) {
+        if (Double.isNaN(timeWarp)) {
+            return MIN_TIME_WARP;
+        }
+        return Math.min(Math.max(timeWarp, MIN_TIME_WARP), MAX_TIME_WARP);
+    }
+
+    void start(long startTimestampMs) {
+        timestampMs = startTimestampMs;
+    }
+
+    /** Saati bir tik ilerletir ve bu tikte geçen simüle süreyi saniye olarak döndürür. */
+    double tick() {
+        timestampMs += simulatedStepMs;
+        return simulatedStepMs / 1000.0;
+    }
+
+    /** İki tik arasında gerçek zamanda beklenecek süre. */
+    long getRealIntervalMs() {
+        return realIntervalMs;
+    }
+
+    /** Son tikin simüle zaman damgası (epoch ms). */
+    long getTimestampMs() {
+        return timestampMs;
+    }
+}
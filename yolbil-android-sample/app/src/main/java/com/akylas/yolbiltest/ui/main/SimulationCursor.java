@@ -0,0 +1,91 @@
+package com.akylas.yolbiltest.ui.main;
+
+import com.akylas.yolbiltest.utils.GeoMath;
+
+/**
+ * Simülasyon konumunu rota boyunca kat edilen mesafeden anlık hesaplayan imleç.
+ * Rotayı önceden örneklemez; ek bellek kullanımı rota uzunluğundan bağımsızdır.
+ */
+final class SimulationCursor {
+
+    private final RouteGeometry geometry;
+    private final double[] scratch = new double[2];
+    private double distanceMeters;
+    private int segmentIndex;
+    private double lon;
+    private double lat;
+    private double bearing;
+
+    SimulationCursor(RouteGeometry geometry) {
+        this.geometry = geometry;
+        seekDistance(0);
+    }
+
+    /** İmleci rota boyunca verilen mesafe kadar ileri taşır; rota sonunda durur. */
+    void advance(double meters) {
+        double total = geometry.getTotalLengthMeters();
+        distanceMeters = Math.min(total, distanceMeters + Math.max(0, meters));
+        int lastSegment = geometry.getSegmentCount() - 1;
+        // Tik başına genellikle birkaç segment ilerlenir; ikili aramaya gerek yok.
+        while (segmentIndex < lastSegment && geometry.getDistanceAt(segmentIndex + 1) <= distanceMeters) {
+            segmentIndex++;
+        }
+        updatePosition();
+    }
+
+    /** Rotanın verilen oranına (0-1) atlar. */
+    void seekFraction(double fraction) {
+        double clamped = Math.min(Math.max(fraction, 0.0), 1.0);
+        seekDistance(clamped * geometry.getTotalLengthMeters());
+    }
+
+    /** Rota başından itibaren verilen mesafeye (metre) atlar. */
+    void seekDistance(double meters) {
+        distanceMeters = Math.min(Math.max(meters, 0.0), geometry.getTotalLengthMeters());
+        segmentIndex = Math.max(0, geometry.findSegmentIndex(distanceMeters));
+        updatePosition();
+    }
+
+    boolean isAtEnd() {
+        return distanceMeters >= geometry.getTotalLengthMeters();
+    }
+
+    double getDistanceMeters() {
+        return distanceMeters;
+    }
+
+    double getLon() {
+        return lon;
+    }
+
+    double getLat() {
+        return lat;
+    }
+
+    /** Bulunulan segmentin yönü (derece, 0-360). */
+    double getBearing() {
+        return bearing;
+    }
+
+    private void updatePosition() {
+        if (geometry.getSegmentCount() == 0) {
+            lon = geometry.getLon(0);
+            lat = geometry.getLat(0);
+            bearing = 0;
+            return;
+        }
+        int start = segmentIndex;
+        double segmentStart = geometry.getDistanceAt(start);
+        double segmentLength = geometry.getDistanceAt(start + 1) - segmentStart;
+        double fraction = segmentLength > 0 ? (distanceMeters - segmentStart) / segmentLength : 0.0;
+        fraction = Math.min(Math.max(fraction, 0.0), 1.0);
+        // Kısa segmentlerde düzlemsel ara nokta yeterli; uzun segmentlerde büyük daireye düşer.
+        GeoMath.interpolate(GeoMath.Mode.FAST,
+                geometry.getLon(start), geometry.getLat(start),
+                geometry.getLon(start + 1), geometry.getLat(start + 1),
+                segmentLength, fraction, scratch);
+        lon = scratch[0];
+        lat = scratch[1];
+        bearing = geometry.getSegmentBearing(start);
+    }
+}
@@ -0,0 +1,90 @@
+package com.akylas.yolbiltest.ui.main;
+
+/**
+ * Simülasyonda rota üzerindeki her konum için kullanılacak hızı belirler.
+ * Sabit hız, komut hız sınırları veya özel bir hız eğrisi olarak takılabilir.
+ */
+public interface SimulationSpeedProfile {
+
+    /** Rota başından itibaren verilen mesafedeki hız (km/s). */
+    double speedKmhAt(double distanceAlongRouteMeters);
+
+    /** Navigasyon yeni bir komut hız sınırı bildirdiğinde çağrılır; sınır yoksa 0 gelir. */
+    default void onSpeedLimitChanged(double speedLimitKmh) {
+    }
+
+    static SimulationSpeedProfile constant(final double speedKmh) {
+        return distance -> speedKmh;
+    }
+
+    /** Komutlardan gelen hız sınırını izler; sınır bilinmiyorsa varsayılan hıza düşer. */
+    static SimulationSpeedProfile speedLimits(double fallbackKmh) {
+        return new SpeedLimitProfile(fallbackKmh);
+    }
+
+    /**
+     * Mesafe (metre) - hız (km/s) noktaları arasında doğrusal interpolasyon yapan eğri.
+     * Mesafeler artan sırada olmalıdır; uçlarda ilk/son hız kullanılır.
+     */
+    static SimulationSpeedProfile curve(double[] distancesMeters, double[] speedsKmh) {
+        return new CurveProfile(distancesMeters, speedsKmh);
+    }
+
+    final class SpeedLimitProfile implements SimulationSpeedProfile {
+        private final double fallbackKmh;
+        private volatile double speedLimitKmh;
+
+        SpeedLimitProfile(double fallbackKmh) {
+            this.fallbackKmh = fallbackKmh;
+        }
+
+        @Override
+        public double speedKmhAt(double distanceAlongRouteMeters) {
+            double limit = speedLimitKmh;
+            return limit > 0 ? limit : fallbackKmh;
+        }
+
+        @Override
+        public void onSpeedLimitChanged(double speedLimitKmh) {
+            this.speedLimitKmh = speedLimitKmh;
+        }
+    }
+
+    final class CurveProfile implements SimulationSpeedProfile {
+        private final double[] distances;
+        private final double[] speeds;
+
+        CurveProfile(double[] distancesMeters, double[] speedsKmh) {
+            if (distancesMeters.length == 0 || distancesMeters.length != speedsKmh.length) {
+                throw new IllegalArgumentException("curve needs matching, non-empty distance/speed arrays");
+            }
+            for (int i = 1; i < distancesMeters.length; i++) {
+                if (distancesMeters[i] < distancesMeters[i - 1]) {
+                    throw new IllegalArgumentException("curve distances must be ascending");
+                }
+            }
+            this.distances = distancesMeters.clone();
+            this.speeds = speedsKmh.clone();
+        }
+
+        @Override
+        public double speedKmhAt(double distanceAlongRouteMeters) {
+            int last = distances.length - 1;
+            if (distanceAlongRouteMeters <= distances[0]) {
+                return speeds[0];
+            }
+            if (distanceAlongRouteMeters >= distances[last]) {
+                return speeds[last];
+            }
+            int index = java.util.Arrays.binarySearch(distances, distanceAlongRouteMeters);
+            if (index >= 0) {
+                return speeds[index];
+            }
+            int upper = -index - 1;
+            int lower = upper - 1;
+            double span = distances[upper] - distances[lower];
+            double t = span > 0 ? (distanceAlongRouteMeters - distances[lower]) / span : 0.0;
+            return speeds[lower] + (speeds[upper] - speeds[lower]) * t;
+        }
+    }
+}
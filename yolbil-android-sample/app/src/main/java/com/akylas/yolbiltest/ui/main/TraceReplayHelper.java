@@ -0,0 +1,221 @@
+package com.akylas.yolbiltest.ui.main;
+
+import android.os.Handler;
+import android.os.HandlerThread;
+import android.os.Looper;
+import android.os.SystemClock;
+import android.util.Log;
+
+import androidx.annotation.Nullable;
+
+import com.akylas.yolbiltest.replay.TraceFix;
+import com.akylas.yolbiltest.replay.TraceReader;
+import com.akylas.yolbiltest.utils.GeoMath;
+import com.basarsoft.yolbil.core.MapPos;
+import com.basarsoft.yolbil.location.GPSLocationSource;
+import com.basarsoft.yolbil.location.Location;
+import com.basarsoft.yolbil.location.LocationBuilder;
+import com.basarsoft.yolbil.location.LocationSourceSnapProxy;
+
+import java.io.File;
+import java.io.IOException;
+
+/**
+ * Kaydedilmiş sürüşleri (GPX / NMEA) orijinal zamanlama, hız, yön ve doğrulukla
+ * {@link GPSLocationSource#sendMockLocation} ve {@link LocationSourceSnapProxy#updateLocation} üzerine oynatır.
+ * Dosya ayrı bir iş parçacığında akış halinde okunur; bellekte yalnızca sıradaki fix tutulur.
+ */
+final class TraceReplayHelper {
+
+    private final NavigationSimulationHelper.SimulationHost host;
+    private final String logTag;
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    // Fix'ler hızlandırılmış oynatmada UI thread'den hızlı gelebilir; kameraya yalnızca son konum aktarılır.
+    private final CameraFollowMailbox cameraFollow;
+
+    private HandlerThread replayThread;
+    private Handler replayHandler;
+    private TraceReader reader;
+    private Runnable replayRunnable;
+    private YolbilNavigationUsage.SimulationListener replayListener;
+    private boolean replayRunning = false;
+
+    // Sıradaki (henüz gönderilmemiş) fix ve hız/yön türetmek için bir önceki fix.
+    private final TraceFix nextFix = new TraceFix();
+    private final TraceFix previousFix = new TraceFix();
+    private boolean hasPreviousFix;
+    private long firstTraceTimestampMs;
+    private long replayStartUptimeMs;
+    private double timeWarp = SimulationClock.MIN_TIME_WARP;
+
+    TraceReplayHelper(String logTag, NavigationSimulationHelper.SimulationHost host) {
+        this.logTag = logTag;
+        this.host = host;
+        this.cameraFollow = new CameraFollowMailbox(host);
+    }
+
+    /** Kayıt dosyasını verilen zaman hızlandırmasıyla (1x-100x) oynatmaya başlar. */
+    synchronized boolean startReplay(File traceFile, double timeWarp,
+                                     @Nullable YolbilNavigationUsage.SimulationListener listener) {
+        if (replayRunning) {
+            Log.w(logTag, "startReplay: Replay already running");
+            return false;
+        }
+        if (traceFile == null || !traceFile.canRead()) {
+            Log.w(logTag, "startReplay: Trace file not readable");
+            return false;
+        }
+        this.timeWarp = SimulationClock.clampTimeWarp(timeWarp);
+        replayListener = listener;
+        replayRunning = true;
+        hasPreviousFix = false;
+        replayThread = new HandlerThread("TraceReplay");
+        replayThread.start();
+        replayHandler = new Handler(replayThread.getLooper());
+        host.ensureDeviceOrientationFocus();
+
+        final Handler handler = replayHandler;
+        replayRunnable = new Runnable() {
+            @Override
+            public void run() {
+                synchronized (TraceReplayHelper.this) {
+                    if (!replayRunning || replayHandler != handler) {
+                        return;
+                    }
+                    publish(nextFix);
+                    previousFix.set(nextFix);
+                    hasPreviousFix = true;
+                    if (!readNext()) {
+                        stopReplayInternal(true);
+                        return;
+                    }
+                    handler.postAtTime(this, dueUptimeMs(nextFix));
+                }
+            }
+        };
+        handler.post(() -> {
+            synchronized (TraceReplayHelper.this) {
+                if (!replayRunning || replayHandler != handler) {
+                    return;
+                }
+                try {
+                    reader = TraceReader.open(traceFile);
+                } catch (IOException e) {
+                    Log.e(logTag, "startReplay: Trace could not be opened", e);
+                    stopReplayInternal(true);
+                    return;
+                }
+                if (!readNext()) {
+                    Log.w(logTag, "startReplay: Trace has no fixes");
+                    stopReplayInternal(true);
+                    return;
+                }
+                firstTraceTimestampMs = nextFix.timestampMs;
+                replayStartUptimeMs = SystemClock.uptimeMillis();
+                handler.post(replayRunnable);
+            }
+        });
+        return true;
+    }
+
+    synchronized void stopReplay() {
+        stopReplayInternal(true);
+    }
+
+    synchronized boolean isReplayRunning() {
+        return replayRunning;
+    }
+
+    // Kayıttaki göreli zamanı hızlandırma katsayısına göre gerçek zamana çevirir; geriye giden zaman beklenmez.
+    private long dueUptimeMs(TraceFix fix) {
+        long offsetMs = Math.max(0, fix.timestampMs - firstTraceTimestampMs);
+        return Math.max(SystemClock.uptimeMillis(), replayStartUptimeMs + (long) (offsetMs / timeWarp));
+    }
+
+    private boolean readNext() {
+        try {
+            return reader != null && reader.next(nextFix);
+        } catch (IOException e) {
+            Log.e(logTag, "Trace read failed", e);
+            return false;
+        }
+    }
+
+    private void publish(TraceFix fix) {
+        MapPos mapPos = new MapPos(fix.longitude, fix.latitude);
+        GPSLocationSource locationSource = host.getLocationSource();
+        if (locationSource != null) {
+            locationSource.sendMockLocation(mapPos);
+        }
+        LocationBuilder locationBuilder = new LocationBuilder();
+        locationBuilder.setCoordinate(mapPos);
+        locationBuilder.setTimestamp(fix.timestampMs);
+        if (fix.hasAltitude()) {
+            locationBuilder.setAltitude(fix.altitude);
+        }
+        if (fix.hasAccuracy()) {
+            locationBuilder.setHorizontalAccuracy(fix.horizontalAccuracyM);
+        }
+        // Kayıtta hız/yön yoksa bir önceki noktaya göre türetilir.
+        double speedMps = fix.speedMps;
+        double bearing = fix.bearingDeg;
+        if (hasPreviousFix && (!fix.hasSpeed() || !fix.hasBearing())) {
+            double meters = GeoMath.distanceMeters(previousFix.latitude, previousFix.longitude, fix.latitude, fix.longitude);
+            long elapsedMs = fix.timestampMs - previousFix.timestampMs;
+            if (!fix.hasSpeed() && elapsedMs > 0) {
+                speedMps = meters / (elapsedMs / 1000.0);
+            }
+            if (!fix.hasBearing() && meters > 0) {
+                bearing = GeoMath.bearingDegrees(previousFix.latitude, previousFix.longitude, fix.latitude, fix.longitude);
+            }
+        }
+        if (!Double.isNaN(speedMps)) {
+            locationBuilder.setSpeed(speedMps);
+        }
+        if (!Double.isNaN(bearing)) {
+            locationBuilder.setDirection(bearing);
+        }
+        Location location = locationBuilder.build();
+        host.updateLastLocation(location);
+
+        LocationSourceSnapProxy snapProxy = host.getSnapLocationSourceProxy();
+        if (snapProxy != null) {
+            snapProxy.updateLocation(location);
+        }
+        cameraFollow.post(location); // Kamera takibi UI thread'de.
+    }
+
+    private void stopReplayInternal(boolean notifyListener) {
+        YolbilNavigationUsage.SimulationListener listener = replayListener;
+        replayListener = null;
+        if (replayRunning) {
+            replayRunning = false;
+            final Handler handler = replayHandler;
+            final TraceReader openReader = reader;
+            final HandlerThread thread = replayThread;
+            replayHandler = null;
+            reader = null;
+            replayThread = null;
+            if (handler != null) {
+                handler.removeCallbacks(replayRunnable);
+                // Okuyucu, dosyayı kullanan iş parçacığında kapatılır.
+                handler.post(() -> {
+                    if (openReader != null) {
+                        try {
+                            openReader.close();
+                        } catch (IOException e) {
+                            Log.w(logTag, "Trace close failed: " + e.getMessage());
+                        }
+                    }
+                });
+            }
+            if (thread != null) {
+                thread.quitSafely();
+            }
+            replayRunnable = null;
+        }
+        if (notifyListener && listener != null) {
+            mainHandler.post(listener::onSimulationFinished);
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package com.akylas.yolbiltest.ui.main;
+
+import androidx.annotation.DrawableRes;
+import androidx.annotation.Nullable;
+import androidx.annotation.StringRes;
+
+import com.basarsoft.yolbil.navigation.TurnCommandEnum;
+
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Her {@link TurnCommandEnum} değeri için ikon, yön metni ve "son komut" bilgisini bir kez hesaplayan tablo.
+ * Değerler {@link NavigationCommandFormatter}'daki eşleşme sırası çalıştırılarak üretilir; böylece davranış
+ * aynı kalırken callback başına string dönüşümü ve contains() zinciri yerine tek dizi erişimi yapılır.
+ */
+final class TurnCommandTable {
+
+    /** Tek bir komutun önceden hesaplanmış sunum bilgisi. */
+    static final class Entry {
+        final String name;
+        // Yerelleştirilmiş metin dizilerinde kullanılan sıra numarası.
+        final int index;
+        @DrawableRes
+        final int iconRes;
+        @StringRes
+        final int directionTextRes;
+        // Varış komutlarında "Ardından" kutusu gösterilmez.
+        final boolean isFinal;
+
+        Entry(String name, int index) {
+            this.name = name;
+            this.index = index;
+            this.iconRes = NavigationCommandFormatter.getIconForCommand(name);
+            this.directionTextRes = NavigationCommandFormatter.getDirectionTextRes(name);
+            this.isFinal = name.toUpperCase(Locale.US).contains("DESTINATION");
+        }
+
+        boolean isEmpty() {
+            return name.isEmpty();
+        }
+    }
+
+    private static volatile TurnCommandTable instance;
+
+    private final Entry none;
+    private final Entry[] byOrdinal;
+    private final Map<String, Entry> byName = new HashMap<>();
+    // SDK enum'unda olmayan adlar (eski kayıtlar, testler) ilk görüldüğünde hesaplanıp saklanır.
+    private final Map<String, Entry> extraByName = new ConcurrentHashMap<>();
+
+    /**
+     * Ordinal sırasıyla verilen komut adlarından tablo kurar. SDK enum'u JNI ile yüklendiği için
+     * JVM testleri tabloyu bu kurucuyla, enum sınıfına dokunmadan oluşturur.
+     */
+    TurnCommandTable(String[] namesByOrdinal) {
+        none = new Entry("", 0);
+        byName.put(none.name, none);
+        byOrdinal = new Entry[namesByOrdinal.length];
+        for (int ordinal = 0; ordinal < namesByOrdinal.length; ordinal++) {
+            Entry entry = new Entry(namesByOrdinal[ordinal], ordinal + 1);
+            byOrdinal[ordinal] = entry;
+            byName.put(entry.name, entry);
+        }
+    }
+
+    static TurnCommandTable get() {
+        if (instance == null) {
+            synchronized (TurnCommandTable.class) {
+                if (instance == null) {
+                    instance = new TurnCommandTable(enumNames());
+                }
+            }
+        }
+        return instance;
+    }
+
+    private static String[] enumNames() {
+        TurnCommandEnum[] values;
+        try {
+            values = TurnCommandEnum.values();
+        } catch (LinkageError e) {
+            // Yerel kütüphanenin yüklenemediği ortamlarda (JVM birim testleri) tablo yalnızca adlarla çalışır.
+            return new String[0];
+        }
+        String[] names = new String[values.length];
+        for (TurnCommandEnum value : values) {
+            // Eski akış enum'u toString() ile metne çeviriyordu; aynı ad kullanılır.
+            names[value.ordinal()] = value.toString();
+        }
+        return names;
+    }
+
+    /** Komut yokken kullanılan ("düz devam") kayıt. */
+    Entry none() {
+        return none;
+    }
+
+    Entry forCommand(@Nullable TurnCommandEnum command) {
+        return command == null ? none : byOrdinal[command.ordinal()];
+    }
+
+    Entry forName(@Nullable String name) {
+        if (name == null) {
+            return none;
+        }
+        Entry entry = byName.get(name);
+        if (entry != null) {
+            return entry;
+        }
+        entry = extraByName.get(name);
+        if (entry == null) {
+            entry = new Entry(name, -1);
+            Entry existing = extraByName.putIfAbsent(name, entry);
+            if (existing != null) {
+                entry = existing;
+            }
+        }
+        return entry;
+    }
+
+    /** Yerelleştirilmiş yön metinlerinin dizideki yeri için üst sınır. */
+    int size() {
+        return byOrdinal.length + 1;
+    }
+
+    /** Tablodaki tüm kayıtları (none dahil) verilen sırayla dolaşır. */
+    Entry entryAt(int index) {
+        return index == 0 ? none : byOrdinal[index - 1];
+    }
+}
@@ -0,0 +1,186 @@
+package com.akylas.yolbiltest.ui.main;
+
+import androidx.annotation.Nullable;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Olay kaydı ve rota önbelleği dosyalarının ortak bayt kodlaması. İşaretsiz tamsayılar 7 bitlik varint,
+ * işaretliler zigzag varint olarak; int, long ve float değerler big-endian yazılır. Metinler uzunluk + 1
+ * (0 = null) önekiyle yazılır; string tablosu gibi biçime özgü kodlamalar çağırana aittir.
+ */
+final class VarintCodec {
+
+    private VarintCodec() {
+    }
+
+    static long zigzag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    static long unzigzag(long raw) {
+        return (raw >>> 1) ^ -(raw & 1);
+    }
+
+    /** Büyüyen bellek tamponuna yazar; thread güvenli değildir. */
+    static final class Encoder {
+        private byte[] buffer;
+        private int length;
+
+        Encoder(int initialCapacity) {
+            buffer = new byte[Math.max(64, initialCapacity)];
+        }
+
+        int length() {
+            return length;
+        }
+
+        /** Tamponu verilen uzunluğa geri alır (ör. aktarılan çerçeveden sonra başlığa). */
+        void truncate(int newLength) {
+            length = newLength;
+        }
+
+        void writeByte(int value) {
+            ensureCapacity(1);
+            buffer[length++] = (byte) value;
+        }
+
+        void writeBytes(byte[] bytes) {
+            ensureCapacity(bytes.length);
+            System.arraycopy(bytes, 0, buffer, length, bytes.length);
+            length += bytes.length;
+        }
+
+        void writeVarint(long value) {
+            ensureCapacity(10);
+            while ((value & ~0x7FL) != 0) {
+                buffer[length++] = (byte) ((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            buffer[length++] = (byte) value;
+        }
+
+        void writeSignedVarint(long value) {
+            writeVarint(zigzag(value));
+        }
+
+        void writeInt(int value) {
+            ensureCapacity(4);
+            setInt(length, value);
+            length += 4;
+        }
+
+        /** Daha önce yer ayrılmış bir alana int yazar; uzunluk değişmez. */
+        void setInt(int offset, int value) {
+            buffer[offset] = (byte) (value >>> 24);
+            buffer[offset + 1] = (byte) (value >>> 16);
+            buffer[offset + 2] = (byte) (value >>> 8);
+            buffer[offset + 3] = (byte) value;
+        }
+
+        void writeLong(long value) {
+            ensureCapacity(8);
+            for (int shift = 56; shift >= 0; shift -= 8) {
+                buffer[length++] = (byte) (value >>> shift);
+            }
+        }
+
+        void writeFloat(double value) {
+            writeInt(Float.floatToIntBits((float) value));
+        }
+
+        void writeString(@Nullable String value) {
+            if (value == null) {
+                writeVarint(0);
+                return;
+            }
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            writeVarint(bytes.length + 1L);
+            writeBytes(bytes);
+        }
+
+        byte[] toByteArray() {
+            return Arrays.copyOf(buffer, length);
+        }
+
+        private void ensureCapacity(int extra) {
+            if (length + extra > buffer.length) {
+                buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, length + extra));
+            }
+        }
+    }
+
+    /** Bellekteki bayt dizisinden okur; dizi sonu aşılırsa EOFException atar. */
+    static final class Decoder {
+        private final byte[] buffer;
+        private int position;
+
+        Decoder(byte[] buffer) {
+            this.buffer = buffer;
+        }
+
+        int remaining() {
+            return buffer.length - position;
+        }
+
+        int readByte() throws IOException {
+            if (position >= buffer.length) {
+                throw new EOFException("Truncated varint data");
+            }
+            return buffer[position++] & 0xFF;
+        }
+
+        long readVarint() throws IOException {
+            long result = 0;
+            for (int shift = 0; shift < 64; shift += 7) {
+                int b = readByte();
+                result |= (long) (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    return result;
+                }
+            }
+            throw new IOException("Malformed varint");
+        }
+
+        long readSignedVarint() throws IOException {
+            return unzigzag(readVarint());
+        }
+
+        int readInt() throws IOException {
+            return (readByte() << 24) | (readByte() << 16) | (readByte() << 8) | readByte();
+        }
+
+        long readLong() throws IOException {
+            return ((long) readInt() << 32) | (readInt() & 0xFFFFFFFFL);
+        }
+
+        float readFloat() throws IOException {
+            return Float.intBitsToFloat(readInt());
+        }
+
+        /** byteCount baytlık UTF-8 metni okur. */
+        String readUtf8(int byteCount) throws IOException {
+            if (byteCount < 0 || byteCount > remaining()) {
+                throw new EOFException("Truncated string");
+            }
+            String value = new String(buffer, position, byteCount, StandardCharsets.UTF_8);
+            position += byteCount;
+            return value;
+        }
+
+        @Nullable
+        String readString() throws IOException {
+            long prefix = readVarint();
+            if (prefix == 0) {
+                return null;
+            }
+            if (prefix - 1 > remaining()) {
+                throw new EOFException("Truncated string");
+            }
+            return readUtf8((int) (prefix - 1));
+        }
+    }
+}
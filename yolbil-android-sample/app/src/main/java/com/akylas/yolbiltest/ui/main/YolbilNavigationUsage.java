@@ -2,22 +2,27 @@ package com.akylas.yolbiltest.ui.main;
 
 import android.annotation.SuppressLint;
 import android.content.Context;
+import android.os.BatteryManager;
 import android.os.Handler;
+import android.os.HandlerThread;
 import android.os.Looper;
-import android.text.TextUtils;
+import android.os.PowerManager;
+import android.os.SystemClock;
 import android.util.Log;
 
 import androidx.annotation.Nullable;
 
 import com.akylas.yolbiltest.R;
+import com.akylas.yolbiltest.background.LocationBus;
 import com.akylas.yolbiltest.ui.main.constants.BaseSettings;
 import com.basarsoft.yolbil.core.MapPos;
+import com.basarsoft.yolbil.core.MapPosVector;
 import com.basarsoft.yolbil.datasources.BlueDotDataSource;
+import com.basarsoft.yolbil.datasources.LocalVectorDataSource;
 import com.basarsoft.yolbil.graphics.Color;
 import com.basarsoft.yolbil.layers.VectorLayer;
 import com.basarsoft.yolbil.location.GPSLocationSource;
 import com.basarsoft.yolbil.location.Location;
-import com.basarsoft.yolbil.location.LocationListener;
 import com.basarsoft.yolbil.location.LocationSource;
 import com.basarsoft.yolbil.location.LocationSourceSnapProxy;
 import com.basarsoft.yolbil.navigation.AssetsVoiceNarrator;
@@ -25,14 +30,13 @@ import com.basarsoft.yolbil.navigation.CommandListener;
 import com.basarsoft.yolbil.navigation.NavigationCommand;
 import com.basarsoft.yolbil.navigation.Navigation;
 import com.basarsoft.yolbil.navigation.RouteType;
-import com.basarsoft.yolbil.navigation.TurnCommandEnum;
-import com.basarsoft.yolbil.navigation.TurnCommandEnumVector;
 import com.basarsoft.yolbil.navigation.VoiceNarrator;
 import com.basarsoft.yolbil.navigation.YolbilNavigationBundle;
 import com.basarsoft.yolbil.navigation.YolbilNavigationBundleBuilder;
 import com.basarsoft.yolbil.projections.EPSG4326;
 import com.basarsoft.yolbil.routing.NavigationResult;
 import com.basarsoft.yolbil.routing.RoutingInstruction;
+import com.basarsoft.yolbil.routing.RoutingInstructionVector;
 import com.basarsoft.yolbil.styles.LineEndType;
 import com.basarsoft.yolbil.styles.LineJoinType;
 import com.basarsoft.yolbil.styles.LineStyle;
@@ -42,67 +46,265 @@ import com.basarsoft.yolbil.ui.MapEventListener;
 import com.basarsoft.yolbil.ui.MapView;
 import com.basarsoft.yolbil.utils.AssetUtils;
 import com.basarsoft.yolbil.utils.ZippedAssetPackage;
+import com.basarsoft.yolbil.vectorelements.Line;
 import com.basarsoft.yolbil.routing.NavigationResultVector;
-import java.util.Locale;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 public class YolbilNavigationUsage {
     private static final String TAG = "YolbilNavigationUsage";
+    private static final RouteType ROUTE_TYPE = RouteType.Car;
+    private static final String OFFLINE_DATA_PATH = "/storage/emulated/0/yolbilxdata/TR.vtiles";
+    private static final String ROUTE_REQUEST_ENDPOINT = "/Service/api/v1/Routing/RouteAdvance";
+    private static final int ROUTE_CACHE_MEMORY_ENTRIES = 16;
+    private static final int ROUTE_CACHE_DISK_ENTRIES = 64;
+    private static final long ROUTE_CACHE_MAX_AGE_MS = TimeUnit.DAYS.toMillis(7);
+    // Alternatif ölçüsü talimat segmentlerinden toplanır; nokta vektörüne inilmez.
+    private static final RouteAlternatives.RouteReader<NavigationResult> NAVIGATION_RESULT_READER =
+            new RouteAlternatives.RouteReader<NavigationResult>() {
+                @Override
+                public RouteAlternatives.Measure measure(NavigationResult route) {
+                    RoutingInstructionVector instructions = route.getInstructions();
+                    int count = instructions != null ? (int) instructions.size() : 0;
+                    double meters = 0;
+                    double seconds = 0;
+                    for (int i = 0; i < count; i++) {
+                        RoutingInstruction instruction = instructions.get(i);
+                        if (instruction != null) {
+                            meters += instruction.getDistance();
+                            seconds += instruction.getTime();
+                        }
+                    }
+                    return new RouteAlternatives.Measure(meters, seconds);
+                }
+
+                @Nullable
+                @Override
+                public RouteGeometry decodeGeometry(NavigationResult route) {
+                    RouteGeometry geometry = RouteGeometry.fromNavigationResult(route);
+                    if (geometry != null) {
+                        // Önizleme çizgisi ana thread'de seviyeden kurulur; sadeleştirme ve segment dizini burada hazırlanır.
+                        geometry.getPyramid();
+                        geometry.getSegmentIndex();
+                    }
+                    return geometry;
+                }
+            };
 
     private MapView mapView;
     private LocationSourceSnapProxy snapLocationSourceProxy;
-    private YolbilNavigationBundle bundle;
+    // Ana thread'de değişir; SDK callback'leri sonuçlarının hâlâ güncel pakete ait olduğunu buradan denetler.
+    private volatile YolbilNavigationBundle bundle;
     private GPSLocationSource locationSource;
-    private Location lastLocation = null;
-    private NavigationResult navigationResult;
-    private int totalInstructionCount = 0;
     private VectorLayer blueDotVectorLayer = null;
     private BlueDotDataSource blueDotDataSource = null;
 
     private NavigationResultVector navigationResults = null;
 
     private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    // Rota başına talimat özeti ve önbellek G/Ç'si; sıralı çalıştığı için yeniden hesaplanan rotanın özeti eskisini ezer.
+    private final ExecutorService routeBackgroundExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "RouteBackground");
+        thread.setDaemon(true);
+        return thread;
+    });
+    // Rota aramaları ve alternatif ölçümleri ana thread dışında yapılır; iptal edilen bir SDK çağrısı
+    // sürerken yeni istek bekletilmesin diye iki işçi kullanılır.
+    private final ExecutorService routeWorkers = Executors.newFixedThreadPool(2, runnable -> {
+        Thread thread = new Thread(runnable, "RouteRequest");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final RouteRequestExecutor<RouteOutcome> routeRequests = new RouteRequestExecutor<>(routeWorkers, mainHandler::post);
+    private final RouteCache routeCache;
+    // Kaçırılan dönüşler için önceden aranan rotalar; gölge paketle, düşük öncelikli tek işçide aranır.
+    private final ExecutorService routeSpeculationExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "RouteSpeculation");
+        thread.setDaemon(true);
+        thread.setPriority(Thread.MIN_PRIORITY);
+        return thread;
+    });
+    private final ReroutePredictor<NavigationResult> reroutePredictor;
+    // Önceden aramanın varış noktası ve modu; prepareRoute'ta güncellenir.
+    @Nullable
+    private volatile SpeculationTarget speculationTarget;
+    // Yalnızca RouteSpeculation thread'inde kullanılır; hedefin modu veya konum kaynağı değişince yeniden kurulur,
+    // navigasyon durunca bırakılır.
+    @Nullable
+    private YolbilNavigationBundle speculationBundle;
+    @Nullable
+    private SpeculationTarget speculationBundleTarget;
+    // Sapmada uygulanan tahmin önizlemesi çiziliyse SDK'nın rotası gelince kaldırılır; ana thread'de kullanılır.
+    private boolean predictedRouteShown;
+    // Önbellek önizlemesi ve seçilen alternatifin çizildiği katman; bir kez kurulur, yalnızca ana thread'de kullanılır.
+    @Nullable
+    private LocalVectorDataSource routeOverlayDataSource;
+    @Nullable
+    private VectorLayer routeOverlayLayer;
+    @Nullable
+    private Line shownOverlayLine;
+    // Katmandaki rotanın seviyeleri ve her seviye için bir kez kurulan çizgi; zoom bandı değişince çizgi değişir.
+    @Nullable
+    private RoutePolylinePyramid overlayPyramid;
+    @Nullable
+    private LineStyle overlayStyle;
+    @Nullable
+    private Line[] overlayLevelLines;
+    private int overlayLevel = -1;
+    // Harita hareketinde seviye kontrolü ana thread'e en fazla bir kez kuyruklanır.
+    private final AtomicBoolean overlayLevelCheckPending = new AtomicBoolean();
+    @Nullable
+    private LineStyle previewLineStyle;
+    @Nullable
+    private LineStyle alternativeLineStyle;
+    // Son aramanın alternatifleri ve her biri için bir kez kurulan çizgi; ana thread'de kullanılır.
+    @Nullable
+    private RouteAlternatives<NavigationResult> routeAlternatives;
+    @Nullable
+    private Line[][] alternativeLines;
+    private int selectedAlternative;
+    // Sonucu haritaya uygulanmış son aramanın paketi.
+    @Nullable
+    private YolbilNavigationBundle routeAppliedBundle;
     private final NavigationSimulationHelper simulationHelper;
+    private final TraceReplayHelper traceReplayHelper;
 
     private final NavigationInfoCardView navigationInfoCardView;
     private final Context context;
     private boolean voiceGuidanceEnabled = true;
     private VoiceNarrator voiceNarrator;
     private String lastRouteMessage = null;
-    private String currentManifestText = "";
-    private String currentCommandName = "";
-    private String currentDirectionText = "";
-    private int currentCommandIconRes = R.drawable.go_straight;
-    private int currentStaticIndex = -1;
-    private String currentTotalDistanceText = "";
-    private String currentTotalTimeText = "";
-    private int currentSpeedKmh = 0;
-    private int currentSpeedLimitKmh = 0;
+    // Son konum, rota, hız ve kart durumunun tek sahibi; diğer thread'ler mesaj bırakıp snapshot okur.
+    private final NavigationStateActor stateActor;
+    // Aktörün thread'i; release() ile sonlandırılır.
+    private final HandlerThread stateThread;
+    // Kart durumlarını kare başına en fazla bir kez ve yalnızca en güncelini UI'a uygular.
+    private final NavigationCardScheduler cardScheduler;
+    // Kamerayı fix'ler arasında kestirerek kare hızında sürer; her fix'te yeni animasyon başlatılmaz.
+    private final PredictiveCameraController cameraController;
+    private final String[] localizedDirectionTexts;
+    // Açıksa CommandListener olayları ve giriş konumları performans fixture'ı olarak dosyaya yazılır.
+    private volatile NavigationEventRecorder eventRecorder;
     private boolean mockGpsEnabled = false;
+    // Konum isteği politikasına navigasyon durumu ve sıradaki komuta mesafe bildirilir.
+    @Nullable
+    private volatile LocationDemandListener locationDemandListener;
+    private volatile boolean navigationStarted;
+    // Her başarılı beginNavigation'da (ana thread) artar; durdurup yeniden başlatmadan önceki SDK sonuçları ayırt edilir.
+    private volatile int navigationSession;
 
     // UI tarafındaki NavigationInfoCard bileşenini güncelleyebilmek için referans alır.
     public YolbilNavigationUsage(NavigationInfoCardView navigationInfoCardView, Context context) {
         this.navigationInfoCardView = navigationInfoCardView;
         this.context = context.getApplicationContext();
-        this.currentManifestText = this.context.getString(R.string.navigation_card_default_manifest);
-        this.currentDirectionText = this.context.getString(R.string.keep_going_straight);
-        this.currentTotalDistanceText = this.context.getString(R.string.navigation_total_distance_placeholder);
-        this.currentTotalTimeText = this.context.getString(R.string.navigation_total_time_placeholder);
-        this.simulationHelper = new NavigationSimulationHelper(TAG, new NavigationSimulationHelper.SimulationHost() {
+        this.routeCache = new RouteCache(new File(this.context.getCacheDir(), "routes"),
+                ROUTE_CACHE_MEMORY_ENTRIES, ROUTE_CACHE_DISK_ENTRIES, ROUTE_CACHE_MAX_AGE_MS);
+        // Yön metinleri komut tablosu sırasıyla bir kez çözülür; callback'lerde getString çağrılmaz.
+        TurnCommandTable commandTable = TurnCommandTable.get();
+        this.localizedDirectionTexts = new String[commandTable.size()];
+        for (int i = 0; i < localizedDirectionTexts.length; i++) {
+            localizedDirectionTexts[i] = this.context.getString(commandTable.entryAt(i).directionTextRes);
+        }
+        NavigationCardPresenter.TextSource cardTexts = new NavigationCardPresenter.TextSource() {
+            @Override
+            public String defaultManifestText() {
+                return YolbilNavigationUsage.this.context.getString(R.string.navigation_card_default_manifest);
+            }
+
+            @Override
+            public String directionText(TurnCommandTable.Entry command) {
+                return command.index >= 0
+                        ? localizedDirectionTexts[command.index]
+                        : YolbilNavigationUsage.this.context.getString(command.directionTextRes);
+            }
+
+            @Override
+            public String totalDistancePlaceholder() {
+                return YolbilNavigationUsage.this.context.getString(R.string.navigation_total_distance_placeholder);
+            }
+
+            @Override
+            public String totalTimePlaceholder() {
+                return YolbilNavigationUsage.this.context.getString(R.string.navigation_total_time_placeholder);
+            }
+
+            @Nullable
+            @Override
+            public String instructionStreetName(int index) {
+                // Aktör sokak adlarını kendi rota kopyasından verir.
+                return null;
+            }
+        };
+        // Aktör thread'i kullanım nesnesiyle birlikte yaşar; mesaj yokken Looper'da bekler.
+        stateThread = new HandlerThread("NavigationState");
+        stateThread.start();
+        final Handler stateHandler = new Handler(stateThread.getLooper());
+        this.stateActor = new NavigationStateActor(stateHandler::post, cardTexts, new NavigationStateActor.Effects() {
+            @Override
+            public void onCardState(NavigationCardState state) {
+                postNavigationCardUpdate(state);
+            }
+
+            @Override
+            public void onSpeedChanged() {
+                refreshSpeedRowAsync();
+            }
+
+            @Override
+            public void onSpeedLimitChanged(int speedLimitKmh) {
+                simulationHelper.onSpeedLimitChanged(speedLimitKmh);
+            }
+
+            @Override
+            public void onFixProcessed(Location location, int displayedSpeedKmh) {
+                recordFix(location, displayedSpeedKmh);
+                speculateReroutes();
+                publishLocationDemand();
+            }
+        });
+        this.reroutePredictor = new ReroutePredictor<>(new ReroutePredictor.Router<NavigationResult>() {
+            @Nullable
+            @Override
+            public NavigationResult route(double fromLon, double fromLat) {
+                return searchSpeculativeRoute(fromLon, fromLat);
+            }
+
+            @Nullable
+            @Override
+            public RouteGeometry decodeGeometry(NavigationResult route) {
+                return RouteGeometry.fromNavigationResult(route);
+            }
+
+            @Override
+            public RouteDigest digest(NavigationResult route) {
+                return RouteDigest.fromNavigationResult(route);
+            }
+        }, this::allowsRouteSpeculation, routeSpeculationExecutor);
+        NavigationSimulationHelper.SimulationHost simulationHost = new NavigationSimulationHelper.SimulationHost() {
             @Nullable
             @Override
-            public NavigationResult getNavigationResult() {
-                return navigationResult;
+            public RouteGeometry getRouteGeometry() {
+                return stateActor.snapshot().routeGeometry;
             }
 
             @Nullable
             @Override
             public Location getLastLocation() {
-                return lastLocation;
+                return stateActor.snapshot().lastLocation;
             }
 
             @Override
             public void updateLastLocation(Location location) {
-                lastLocation = location;
+                stateActor.postPosition(location);
             }
 
             @Nullable
@@ -126,11 +328,112 @@ public class YolbilNavigationUsage {
             public boolean followBlueDot(@Nullable Location location, boolean initialFocus) {
                 return YolbilNavigationUsage.this.followBlueDot(location, initialFocus);
             }
+        };
+        this.simulationHelper = new NavigationSimulationHelper(TAG, simulationHost);
+        this.traceReplayHelper = new TraceReplayHelper(TAG, simulationHost);
+        // Kurucu ana thread'de çağrıldığından Choreographer burada alınır.
+        NavigationCardScheduler.FrameSource mainFrames = NavigationCardScheduler.mainThreadFrames();
+        this.cameraController = new PredictiveCameraController(mainFrames, new PredictiveCameraController.Camera() {
+            @Override
+            public void setFocus(double lon, double lat) {
+                if (mapView != null) {
+                    mapView.setFocusPos(new MapPos(lon, lat), 0f);
+                }
+            }
+
+            @Override
+            public void setRotation(float degrees) {
+                if (mapView != null) {
+                    mapView.setMapRotation(degrees, 0f);
+                }
+            }
         });
+        this.cardScheduler = new NavigationCardScheduler(mainFrames,
+                new NavigationCardScheduler.Binder() {
+                    @Override
+                    public void bindState(NavigationCardState state) {
+                        bindNavigationCard(state);
+                    }
+
+                    @Override
+                    public void bindSpeed() {
+                        bindSpeedRow();
+                    }
+
+                    @Override
+                    public void reset() {
+                        if (navigationInfoCardView != null) {
+                            navigationInfoCardView.reset();
+                        }
+                    }
+                });
     }
     // Harita üzerinde rota talep edip gerekli layer'ları hazırlar; NavigationResult döndürür.
+    // Rota araması çağıran thread'de yapılır; ana thread'den kullanım için requestRoute tercih edilmelidir.
     @SuppressLint("MissingPermission")
     NavigationResult fullExample(MapView mapView, MapPos start, MapPos end, boolean isOffline, GPSLocationSource locationSource, BlueDotDataSource sharedBlueDotDataSource) {
+        YolbilNavigationBundle routeBundle = prepareRoute(mapView, start, end, isOffline, locationSource, sharedBlueDotDataSource);
+        if (routeBundle == null) {
+            return null;
+        }
+        return applyRoute(searchRoute(routeBundle, start, end, routeCacheKey(start, end, isOffline), routeWorkers));
+    }
+
+    /**
+     * fullExample'ın asenkron karşılığı. Harita ve paket hazırlığı ana thread'de, rota araması işçi
+     * havuzunda yapılır; sonuç katmanlarla birlikte ana thread'de tek seferde uygulanıp callback'e verilir.
+     * Aynı uçlarla süren bir istek varsa ona bağlanılır; farklı uçlara yeni istek eskilerini iptal eder.
+     * Dönen istek iptal edilirse callback çağrılmaz. Hazırlık başarısızsa null döner.
+     */
+    @Nullable
+    Future<?> requestRoute(MapView mapView, final MapPos start, final MapPos end, boolean isOffline,
+                           GPSLocationSource locationSource, BlueDotDataSource sharedBlueDotDataSource,
+                           final RouteCallback callback) {
+        if (start == null || end == null) {
+            lastRouteMessage = "Başlangıç veya varış noktası eksik.";
+            Log.e(TAG, "requestRoute: start or end is null");
+            return null;
+        }
+        RouteRequestExecutor.RouteKey key = new RouteRequestExecutor.RouteKey(
+                start.getX(), start.getY(), end.getX(), end.getY(), isOffline);
+        RouteRequestExecutor.Callback<RouteOutcome> delivery = new RouteRequestExecutor.Callback<RouteOutcome>() {
+            @Override
+            public void onRouteReady(@Nullable RouteOutcome outcome) {
+                callback.onRouteResult(outcome != null ? applyRoute(outcome) : null);
+            }
+
+            @Override
+            public void onRouteFailed(Exception error) {
+                lastRouteMessage = error.getMessage();
+                Log.e(TAG, "requestRoute failed", error);
+                callback.onRouteResult(null);
+            }
+        };
+        Future<?> merged = routeRequests.join(key, delivery);
+        if (merged != null) {
+            return merged;
+        }
+        // Yeni paket hazırlanacağı için eski paketle süren aramaların sonucu artık uygulanamaz.
+        routeRequests.cancelAll();
+        final YolbilNavigationBundle routeBundle = prepareRoute(mapView, start, end, isOffline, locationSource, sharedBlueDotDataSource);
+        if (routeBundle == null) {
+            return null;
+        }
+        final RouteCache.Key cacheKey = routeCacheKey(start, end, isOffline);
+        Future<?> request = routeRequests.submit(key,
+                () -> searchRoute(routeBundle, start, end, cacheKey, routeWorkers), delivery);
+        showCachedRoutePreview(routeBundle, cacheKey);
+        return request;
+    }
+
+    /** Süren rota isteklerini iptal eder; callback'leri çağrılmaz. */
+    void cancelRouteRequests() {
+        routeRequests.cancelAll();
+    }
+
+    /** Snap proxy ve navigasyon paketini hazırlar (ana thread); başarısızsa null döner. */
+    @Nullable
+    private YolbilNavigationBundle prepareRoute(MapView mapView, MapPos start, MapPos end, boolean isOffline, GPSLocationSource locationSource, BlueDotDataSource sharedBlueDotDataSource) {
         if (start == null || end == null) {
             lastRouteMessage = "Başlangıç veya varış noktası eksik.";
             Log.e(TAG, "fullExample: start or end is null");
@@ -138,8 +441,10 @@ public class YolbilNavigationUsage {
         }
         this.mapView = mapView;
         this.locationSource = locationSource;
-        lastLocation = new Location();
-        lastLocation.setCoordinate(start);
+        speculationTarget = locationSource != null ? new SpeculationTarget(end, isOffline, locationSource) : null;
+        Location startLocation = new Location();
+        startLocation.setCoordinate(start);
+        stateActor.postPosition(startLocation);
 
         mapView.setMapEventListener(new MapEventListener() {
             @Override
@@ -148,6 +453,17 @@ public class YolbilNavigationUsage {
                     locationSource.sendMockLocation(mapClickInfo.getClickPos());
                 }
             }
+
+            @Override
+            public void onMapMoved() {
+                // Harita thread'inden gelir; katman ana thread'de güncellenir.
+                if (overlayPyramid != null && overlayLevelCheckPending.compareAndSet(false, true)) {
+                    mainHandler.post(() -> {
+                        overlayLevelCheckPending.set(false);
+                        refreshOverlayLevel();
+                    });
+                }
+            }
         });
 
         // Tüm navigasyonlar shared BlueDotDataSource üzerinden devam eder.
@@ -163,80 +479,350 @@ public class YolbilNavigationUsage {
         snapLocationSourceProxy.init();
         snapLocationSourceProxy.setMaxSnapDistanceMeter(50.0);
         mapView.post(() -> {
-            if (snapLocationSourceProxy != null && mapView != null) {
-                snapLocationSourceProxy.setmoveToHeadingDistance(50.0, mapView.getWidth(), mapView.getHeight());
+            if (snapLocationSourceProxy != null && this.mapView != null) {
+                snapLocationSourceProxy.setmoveToHeadingDistance(50.0, this.mapView.getWidth(), this.mapView.getHeight());
             }
         });
-        this.addLocationSourceToMap(mapView);
 
         bundle = this.getNavigationBundle(isOffline);
         applyVoiceGuidanceSetting();
-        this.addNavigationToMapLayers(mapView);
+        if (bundle == null) {
+            lastRouteMessage = lastRouteMessage != null ? lastRouteMessage : "Navigasyon paketi oluşturulamadı.";
+            Log.e(TAG, "fullExample: getNavigationBundle returned null");
+            navigationResults = null;
+            this.addLocationSourceToMap(mapView);
+            stateActor.postRoute(null, null);
+            cameraController.setRouteGeometry(null);
+            return null;
+        }
+        return bundle;
+    }
+
+    /** Rota aramasını ve nokta kopyasını yapar; işçi thread'inde çalışabilir, haritaya dokunmaz. */
+    private static RouteOutcome searchRoute(YolbilNavigationBundle routeBundle, MapPos start, MapPos end,
+                                            RouteCache.Key cacheKey, Executor evaluationWorkers) {
+        NavigationResultVector results;
+        try {
+            results = routeBundle.startNavigation(start, end);
+        } catch (Exception startEx) {
+            Log.e(TAG, "startNavigation failed", startEx);
+            return new RouteOutcome(routeBundle, start, cacheKey, null, null, null, null, startEx.getMessage());
+        }
+        int resultCount = results != null ? (int) results.size() : 0;
+        if (resultCount == 0) {
+            return new RouteOutcome(routeBundle, start, cacheKey, results, null, null, null, null);
+        }
+        List<NavigationResult> routes = new ArrayList<>(resultCount);
+        for (int i = 0; i < resultCount; i++) {
+            routes.add(results.get(i));
+        }
+        NavigationResult result = routes.get(0);
+        if (result == null) {
+            return new RouteOutcome(routeBundle, start, cacheKey, results, null, null, null, null);
+        }
+        // Navigasyon birincil rotanın noktalarına zaten ihtiyaç duyar; diğer alternatiflerin yalnızca özeti ölçülür.
+        RouteGeometry geometry = RouteGeometry.fromNavigationResult(result);
+        if (geometry != null) {
+            geometry.getPyramid();
+            geometry.getSegmentIndex();
+        }
+        RouteAlternatives<NavigationResult> alternatives = null;
+        if (routes.indexOf(null) < 0) {
+            alternatives = RouteAlternatives.evaluate(routes, NAVIGATION_RESULT_READER, evaluationWorkers, geometry);
+            if (alternatives.getDroppedCount() > 0) {
+                Log.w(TAG, "searchRoute: " + alternatives.getDroppedCount() + " alternative(s) could not be measured");
+            }
+        }
+        return new RouteOutcome(routeBundle, start, cacheKey, results, result, geometry, alternatives, null);
+    }
+
+    /**
+     * Önbellek anahtarı: yuvarlanmış uçlar, rota tipi, mod ve veri sürümü. Offline sürüm veri dosyasının
+     * boyutu ve değişiklik zamanından, online sürüm servis adresinden türetilir.
+     */
+    private static RouteCache.Key routeCacheKey(MapPos start, MapPos end, boolean isOffline) {
+        String dataVersion;
+        if (isOffline) {
+            File offlineData = new File(OFFLINE_DATA_PATH);
+            dataVersion = "offline:" + offlineData.length() + ":" + offlineData.lastModified();
+        } else {
+            dataVersion = "online:" + BaseSettings.INSTANCE.getBASE_URL() + ROUTE_REQUEST_ENDPOINT;
+        }
+        return RouteCache.Key.of(start.getX(), start.getY(), end.getX(), end.getY(),
+                String.valueOf(ROUTE_TYPE), isOffline, dataVersion);
+    }
 
+    /**
+     * Önbellekte aynı rota varsa arama sürerken önizleme olarak çizer. NavigationResult önbellekten
+     * kurulamadığından navigasyon için aramanın sonucu beklenir; sonuç gelince önizleme kaldırılır.
+     */
+    private void showCachedRoutePreview(final YolbilNavigationBundle routeBundle, final RouteCache.Key cacheKey) {
+        routeBackgroundExecutor.execute(() -> {
+            int droppedBefore = routeCache.getDroppedCount();
+            final RouteCache.Entry cached = routeCache.get(cacheKey, System.currentTimeMillis());
+            if (cached == null) {
+                if (routeCache.getDroppedCount() != droppedBefore) {
+                    Log.w(TAG, "showCachedRoutePreview: unreadable cache entry dropped " + cacheKey.fileName());
+                }
+                return;
+            }
+            cached.geometry.getPyramid();
+            mainHandler.post(() -> applyRoutePreview(routeBundle, cached));
+        });
+    }
 
-        if (bundle != null) {
+    private void applyRoutePreview(YolbilNavigationBundle routeBundle, RouteCache.Entry cached) {
+        // Arama önizlemeden önce bittiyse veya yeni bir rota istendiyse önizleme gösterilmez.
+        if (routeBundle != bundle || routeAppliedBundle == routeBundle || mapView == null) {
+            return;
+        }
+        RoutePolylinePyramid pyramid = cached.geometry.getPyramid();
+        showOverlayRoute(pyramid, previewLineStyle(), new Line[pyramid.getLevelCount()]);
+        try {
+            mapView.fitRouteOnMap(pyramid.bounds());
+        } catch (Exception fitEx) {
+            Log.e(TAG, "applyRoutePreview: fitRouteOnMap failed", fitEx);
+        }
+        Log.d(TAG, "applyRoutePreview: cached route shown, " + cached.digest.size() + " instructions");
+    }
+
+    /** Önbellek ve sapma tahmini önizlemelerinin yarı saydam stili; ilk kullanımda kurulur. */
+    private LineStyle previewLineStyle() {
+        if (previewLineStyle == null) {
+            previewLineStyle = buildOverlayLineStyle(new Color((short) 66, (short) 133, (short) 244, (short) 160));
+        }
+        return previewLineStyle;
+    }
+
+    /** Önbellek önizlemesini veya seçili alternatif çizgisini kaldırır. */
+    private void clearRoutePreview() {
+        showOverlayRoute(null, null, null);
+    }
+
+    /**
+     * Rotayı katmanda güncel zoom bandının seviyesiyle çizer. levelLines seviye başına kurulan çizgileri
+     * saklar; aynı rotaya dönüldüğünde veya zoom bandı değiştiğinde çizgi yeniden kurulmaz.
+     */
+    private void showOverlayRoute(@Nullable RoutePolylinePyramid pyramid, @Nullable LineStyle style,
+                                  @Nullable Line[] levelLines) {
+        overlayPyramid = pyramid;
+        overlayStyle = style;
+        overlayLevelLines = levelLines;
+        if (pyramid == null || style == null || levelLines == null) {
+            overlayLevel = -1;
+            showOverlayLine(null);
+            return;
+        }
+        int level = RoutePolylinePyramid.levelForZoom(mapView != null ? mapView.getZoom() : 0f);
+        overlayLevel = level;
+        Line line = levelLines[level];
+        if (line == null) {
+            line = new Line(pyramid.points(level), style);
+            levelLines[level] = line;
+        }
+        showOverlayLine(line);
+    }
+
+    private void refreshOverlayLevel() {
+        if (overlayPyramid == null || mapView == null) {
+            return;
+        }
+        if (RoutePolylinePyramid.levelForZoom(mapView.getZoom()) != overlayLevel) {
+            showOverlayRoute(overlayPyramid, overlayStyle, overlayLevelLines);
+        }
+    }
+
+    /** Katmanda tek çizgi gösterir; katman ilk kullanımda bir kez eklenir, sonrasında yalnızca eleman değişir. */
+    private void showOverlayLine(@Nullable Line line) {
+        if (line == shownOverlayLine) {
+            return;
+        }
+        if (routeOverlayDataSource == null) {
+            if (line == null || mapView == null) {
+                return;
+            }
+            routeOverlayDataSource = new LocalVectorDataSource(new EPSG4326());
+            routeOverlayLayer = new VectorLayer(routeOverlayDataSource);
+            mapView.getLayers().add(routeOverlayLayer);
+        }
+        if (shownOverlayLine != null) {
+            routeOverlayDataSource.remove(shownOverlayLine);
+        }
+        shownOverlayLine = line;
+        if (line != null) {
+            routeOverlayDataSource.add(line);
+        }
+    }
+
+    private static LineStyle buildOverlayLineStyle(Color color) {
+        LineStyleBuilder styleBuilder = new LineStyleBuilder();
+        styleBuilder.setColor(color);
+        styleBuilder.setLineJoinType(LineJoinType.LINE_JOIN_TYPE_ROUND);
+        styleBuilder.setLineEndType(LineEndType.LINE_END_TYPE_ROUND);
+        styleBuilder.setWidth(6);
+        return styleBuilder.buildStyle();
+    }
+
+    /** Son aramanın alternatif sayısı (birincil dahil); arama yoksa 0. */
+    int getRouteAlternativeCount() {
+        return routeAlternatives != null ? routeAlternatives.size() : 0;
+    }
+
+    int getSelectedRouteAlternativeIndex() {
+        return selectedAlternative;
+    }
+
+    @Nullable
+    RouteAlternatives.Summary getRouteAlternativeSummary(int position) {
+        RouteAlternatives<NavigationResult> alternatives = routeAlternatives;
+        if (alternatives == null || position < 0 || position >= alternatives.size()) {
+            return null;
+        }
+        return alternatives.summary(position);
+    }
+
+    /**
+     * Alternatifi önizler ve navigasyon rotası olarak seçer. Geometri ilk seçimde arka planda çözülür;
+     * paket yeniden kurulmaz, katman ve daha önce kurulmuş çizgiler yeniden kullanılır. onSelected seçim
+     * denendiğinde (geometri çözülemese de) ana thread'de çağrılır; bu arada yeni arama geldiyse çağrılmaz.
+     * Navigasyon başladıktan sonra seçim yapılmaz: paket beginNavigation'a verilen rotada yönlendirmeye
+     * devam ettiğinden snap, kamera ve kart başka rotaya geçerse komutlarla konum ayrışır.
+     */
+    void selectRouteAlternative(final int position, @Nullable final Runnable onSelected) {
+        final RouteAlternatives<NavigationResult> alternatives = routeAlternatives;
+        if (alternatives == null || position < 0 || position >= alternatives.size()) {
+            return;
+        }
+        if (navigationStarted) {
+            Log.w(TAG, "selectRouteAlternative: navigation already started");
+            return;
+        }
+        RouteGeometry decoded = alternatives.decodedGeometry(position);
+        if (decoded != null) {
+            applyRouteAlternative(alternatives, position, decoded, onSelected);
+            return;
+        }
+        routeBackgroundExecutor.execute(() -> {
+            RouteGeometry decodedGeometry = null;
             try {
-                navigationResults = bundle.startNavigation(start, end);
-            } catch (Exception startEx) {
-                Log.e(TAG, "startNavigation failed", startEx);
-                lastRouteMessage = startEx.getMessage();
-                navigationResults = null;
+                decodedGeometry = alternatives.geometry(position);
+            } catch (Exception decodeEx) {
+                Log.e(TAG, "selectRouteAlternative: geometry decode failed", decodeEx);
             }
-        } else {
-            lastRouteMessage = lastRouteMessage != null ? lastRouteMessage : "Navigasyon paketi oluşturulamadı.";
-            Log.e(TAG, "fullExample: getNavigationBundle returned null");
-            navigationResults = null;
+            final RouteGeometry geometry = decodedGeometry;
+            mainHandler.post(() -> applyRouteAlternative(alternatives, position, geometry, onSelected));
+        });
+    }
+
+    private void applyRouteAlternative(RouteAlternatives<NavigationResult> alternatives, int position,
+                                       @Nullable RouteGeometry geometry, @Nullable Runnable onSelected) {
+        // Geometri çözülürken yeni arama geldiyse veya navigasyon başladıysa seçim geçersizdir.
+        if (alternatives != routeAlternatives || alternativeLines == null || mapView == null || navigationStarted) {
+            return;
         }
-        if (navigationResults != null && navigationResults.size() > 0) {
-            navigationResult = navigationResults.get(0);
-            if (navigationResult != null && navigationResult.getInstructions() != null) {
-                totalInstructionCount = (int) navigationResult.getInstructions().size();
-            } else {
-                totalInstructionCount = 0;
+        if (geometry == null) {
+            Log.w(TAG, "applyRouteAlternative: alternative " + position + " has no points");
+            if (onSelected != null) {
+                onSelected.run();
             }
+            return;
+        }
+        selectedAlternative = position;
+        RoutePolylinePyramid pyramid = geometry.getPyramid();
+        if (alternatives.summary(position).isPrimary()) {
+            // Birincil rota paket katmanlarında zaten çizili.
+            clearRoutePreview();
         } else {
-            navigationResult = null;
-            totalInstructionCount = 0;
+            if (alternativeLineStyle == null) {
+                alternativeLineStyle = buildOverlayLineStyle(new Color((short) 30, (short) 136, (short) 229, (short) 230));
+            }
+            if (alternativeLines[position] == null) {
+                alternativeLines[position] = new Line[pyramid.getLevelCount()];
+            }
+            showOverlayRoute(pyramid, alternativeLineStyle, alternativeLines[position]);
+        }
+        publishRoute(alternatives.route(position), geometry, null);
+        if (snapLocationSourceProxy != null && geometry.getSourcePoints() != null) {
+            snapLocationSourceProxy.setRoutingPoints(geometry.getSourcePoints());
+        }
+        cameraController.setRouteGeometry(geometry);
+        try {
+            mapView.fitRouteOnMap(pyramid.bounds());
+        } catch (Exception fitEx) {
+            Log.e(TAG, "applyRouteAlternative: fitRouteOnMap failed", fitEx);
+        }
+        if (onSelected != null) {
+            onSelected.run();
+        }
+    }
+
+    /** Arama sonucunu ana thread'de tek seferde uygular: katmanlar, snap noktaları, kamera ve kayıt. */
+    @Nullable
+    private NavigationResult applyRoute(RouteOutcome outcome) {
+        // Birleştirilen istekler aynı sonucu alır; uygulama bir kez yapılır.
+        if (outcome.applied) {
+            return outcome.appliedResult;
+        }
+        outcome.applied = true;
+        if (outcome.bundle != bundle || mapView == null) {
+            Log.w(TAG, "applyRoute: stale route result dropped");
+            return null;
+        }
+        routeAppliedBundle = outcome.bundle;
+        clearRoutePreview();
+        routeAlternatives = outcome.alternatives;
+        alternativeLines = outcome.alternatives != null ? new Line[outcome.alternatives.size()][] : null;
+        selectedAlternative = 0;
+        this.addLocationSourceToMap(mapView);
+        this.addNavigationToMapLayers(mapView);
+        if (outcome.errorMessage != null) {
+            lastRouteMessage = outcome.errorMessage;
+        }
+        // Vektör, içinden alınan NavigationResult ile birlikte yaşamalıdır.
+        navigationResults = outcome.navigationResults;
+        if (navigationResults == null || navigationResults.size() == 0) {
+            stateActor.postRoute(null, null);
+            cameraController.setRouteGeometry(null);
             Log.e(TAG, "Rota çizilemedi! navigationResults boş döndü.");
              return null; // rotasız devam edilmez
         }
 
+        NavigationResult navigationResult = outcome.navigationResult;
         if (navigationResult != null) {
-            snapLocationSourceProxy.setRoutingPoints(navigationResult.getPoints());
-            int pointCount = (int) navigationResult.getPoints().size();
-            if (pointCount == 0) {
+            RouteGeometry routeGeometry = outcome.routeGeometry;
+            if (routeGeometry == null) {
                 lastRouteMessage = "Rota noktası boş döndü.";
                 Log.e(TAG, "Navigation points empty; skipping fitRouteOnMap/beginNavigation.");
-                navigationResult = null;
+                stateActor.postRoute(null, null);
                 return null;
             }
+            publishRoute(navigationResult, routeGeometry, outcome.cacheKey);
+            if (snapLocationSourceProxy != null && routeGeometry.getSourcePoints() != null) {
+                snapLocationSourceProxy.setRoutingPoints(routeGeometry.getSourcePoints());
+            }
+            cameraController.setRouteGeometry(routeGeometry);
             try {
-                mapView.fitRouteOnMap(navigationResult.getPoints());
+                // Tam çözünürlüklü vektör yerine sınır kutusu verilir; kutu geometriyle birlikte hesaplandı.
+                mapView.fitRouteOnMap(routeGeometry.getPyramid().bounds());
             } catch (Exception fitEx) {
                 lastRouteMessage = fitEx.getMessage();
                 Log.e(TAG, "fitRouteOnMap failed", fitEx);
                 return null;
             }
-
-            for (int i = 0; i < navigationResult.getInstructions().size(); i++) {
-                RoutingInstruction rI = navigationResult.getInstructions().get(i);
-                Log.e("Instruction", rI.getInstruction());
-                Log.e("Instruction", rI.getAction().toString());
-                rI.getGeometryTag().getObjectElement("commands").getArrayElement(0);
-            }
         } else {
             Log.e(TAG, "NavigationResult is null! Navigation could not start.");
         }
 
         try {
-            boolean shouldMock = isSimulationRunning() || lastLocation == null;
-            if (shouldMock && start != null) {
-                locationSource.sendMockLocation(start);
+            boolean shouldMock = isSimulationRunning();
+            if (shouldMock && locationSource != null) {
+                locationSource.sendMockLocation(outcome.start);
             }
         } catch (Exception mockEx) {
             lastRouteMessage = mockEx.getMessage();
             Log.e(TAG, "sendMockLocation failed", mockEx);
         }
+        outcome.appliedResult = navigationResult;
         return navigationResult;
     }
 
@@ -278,6 +864,10 @@ public class YolbilNavigationUsage {
 
     // Başlatılmış navigasyonu durdurup ilgili layer'ları temizler.
     void stopNavigation() {
+        NavigationEventRecorder recorder = eventRecorder;
+        if (recorder != null) {
+            recorder.flush();
+        }
         if (mapView != null) {
             try {
                 if (blueDotVectorLayer != null) {
@@ -302,15 +892,106 @@ public class YolbilNavigationUsage {
             Log.e(TAG, "bundle.stopNavigation failed", stopEx);
         }
         blueDotVectorLayer = null;
-        if (navigationInfoCardView != null) {
-            navigationInfoCardView.reset();
+        closeNavigationLocationSubscription();
+        navigationStarted = false;
+        publishLocationDemand();
+        reroutePredictor.reset();
+        releaseSpeculationBundleAsync();
+        predictedRouteShown = false;
+        clearRoutePreview();
+        routeAlternatives = null;
+        alternativeLines = null;
+        selectedAlternative = 0;
+        cameraController.stop();
+        cardScheduler.submitReset();
+    }
+
+    /**
+     * Kullanım nesnesinin thread'lerini ve aboneliklerini bırakır (ör. fragment yok edilirken).
+     * Sonrasında nesne yeniden kullanılmaz; sıradaki önbellek yazımları tamamlanır, aramalar kesilir.
+     */
+    void release() {
+        stopSimulation();
+        stopTraceReplay();
+        stopEventRecording();
+        cancelRouteRequests();
+        if (navigationStarted) {
+            // SDK'nın rehberlik callback'leri kapanan executor'lara iş bırakmasın.
+            stopNavigation();
         }
+        closeNavigationLocationSubscription();
+        cardScheduler.cancel();
+        cameraController.stop();
+        routeWorkers.shutdownNow();
+        // Sıradaki gölge paket bırakma işi çalışsın; yeni önceden arama navigasyon durduğu için yapılmaz.
+        routeSpeculationExecutor.shutdown();
+        routeBackgroundExecutor.shutdown();
+        stateThread.quitSafely();
     }
 
     public interface SimulationListener {
         void onSimulationFinished();
     }
 
+    /** Asenkron rota isteğinin sonucu; ana thread'de çağrılır, rota yoksa null. */
+    public interface RouteCallback {
+        void onRouteResult(@Nullable NavigationResult navigationResult);
+    }
+
+    /** Navigasyonun konum talebi; aktör veya ana thread'de çağrılır, komut mesafesi bilinmiyorsa NaN. */
+    public interface LocationDemandListener {
+        void onLocationDemand(boolean navigating, double distanceToCommandMeters);
+    }
+
+    /** Önceden aramanın varış noktası, modu ve gölge paketin konum kaynağı. */
+    private static final class SpeculationTarget {
+        final MapPos end;
+        final boolean isOffline;
+        final LocationSource locationSource;
+
+        SpeculationTarget(MapPos end, boolean isOffline, LocationSource locationSource) {
+            this.end = end;
+            this.isOffline = isOffline;
+            this.locationSource = locationSource;
+        }
+    }
+
+    /** İşçi thread'inde tamamlanan rota araması; ana thread'de {@link #applyRoute} ile uygulanır. */
+    static final class RouteOutcome {
+        final YolbilNavigationBundle bundle;
+        final MapPos start;
+        final RouteCache.Key cacheKey;
+        @Nullable
+        final NavigationResultVector navigationResults;
+        @Nullable
+        final NavigationResult navigationResult;
+        @Nullable
+        final RouteGeometry routeGeometry;
+        // Birincil dahil tüm alternatiflerin özeti; sonuç yoksa null.
+        @Nullable
+        final RouteAlternatives<NavigationResult> alternatives;
+        @Nullable
+        final String errorMessage;
+        // Yalnızca ana thread'de kullanılır.
+        boolean applied;
+        @Nullable
+        NavigationResult appliedResult;
+
+        RouteOutcome(YolbilNavigationBundle bundle, MapPos start, RouteCache.Key cacheKey,
+                     @Nullable NavigationResultVector navigationResults,
+                     @Nullable NavigationResult navigationResult, @Nullable RouteGeometry routeGeometry,
+                     @Nullable RouteAlternatives<NavigationResult> alternatives, @Nullable String errorMessage) {
+            this.bundle = bundle;
+            this.start = start;
+            this.cacheKey = cacheKey;
+            this.navigationResults = navigationResults;
+            this.navigationResult = navigationResult;
+            this.routeGeometry = routeGeometry;
+            this.alternatives = alternatives;
+            this.errorMessage = errorMessage;
+        }
+    }
+
     public void setVoiceGuidanceEnabled(boolean enabled) {
         if (voiceGuidanceEnabled == enabled) {
             return;
@@ -323,23 +1004,80 @@ public class YolbilNavigationUsage {
         mockGpsEnabled = enabled;
     }
 
-    public synchronized boolean startSimulation(@Nullable SimulationListener listener) {
+    public void setLocationDemandListener(@Nullable LocationDemandListener listener) {
+        locationDemandListener = listener;
+        publishLocationDemand();
+    }
+
+    // UI intent'leri ana thread'den gelir; simülasyon ve kayıt oynatma kendi durumlarını kendileri korur.
+    public boolean startSimulation(@Nullable SimulationListener listener) {
+        if (traceReplayHelper.isReplayRunning()) {
+            Log.w(TAG, "startSimulation: trace replay is running");
+            return false;
+        }
         return simulationHelper.startSimulation(listener);
     }
 
-    public synchronized void stopSimulation() {
+    public void stopSimulation() {
         simulationHelper.stopSimulation();
     }
 
+    /** beginNavigation başarıyla çağrıldıysa ve navigasyon durmadıysa true. */
+    public boolean isNavigationStarted() {
+        return navigationStarted;
+    }
+
     public boolean isSimulationRunning() {
         return simulationHelper.isSimulationRunning();
     }
+
+    /**
+     * Kaydedilmiş bir sürüşü (GPX 1.1 veya NMEA 0183) orijinal zamanlamasıyla konum kaynağına oynatır.
+     * timeWarp 1x-100x aralığına sıkıştırılır; sahadaki yeniden rota ve snap sorunlarını hızlıca tekrar etmek içindir.
+     */
+    public boolean startTraceReplay(File traceFile, double timeWarp, @Nullable SimulationListener listener) {
+        if (simulationHelper.isSimulationRunning()) {
+            Log.w(TAG, "startTraceReplay: route simulation is running");
+            return false;
+        }
+        return traceReplayHelper.startReplay(traceFile, timeWarp, listener);
+    }
+
+    public void stopTraceReplay() {
+        traceReplayHelper.stopReplay();
+    }
+
+    public boolean isTraceReplayRunning() {
+        return traceReplayHelper.isReplayRunning();
+    }
+
+    /** Simülasyon zaman hızlandırma katsayısı (1x-100x); regresyon koşularında tüm yolculuğu hızlı oynatır. */
+    public void setSimulationTimeWarp(double timeWarp) {
+        simulationHelper.setTimeWarp(timeWarp);
+    }
+
+    /** Simülasyon hız profilini değiştirir; null verilirse sabit varsayılan hıza döner. */
+    public void setSimulationSpeedProfile(@Nullable SimulationSpeedProfile profile) {
+        simulationHelper.setSpeedProfile(profile);
+        simulationHelper.onSpeedLimitChanged(stateActor.snapshot().speedLimitKmh);
+    }
+
+    /** Simülasyonu rotanın verilen oranına (0-1) taşır; test sırasında manevralara atlamak için. */
+    public boolean seekSimulationToFraction(double fraction) {
+        return simulationHelper.seekSimulationFraction(fraction);
+    }
+
+    /** Simülasyonu rota başından itibaren verilen mesafeye (metre) taşır. */
+    public boolean seekSimulationToDistance(double distanceMeters) {
+        return simulationHelper.seekSimulationDistance(distanceMeters);
+    }
 // kuzeye bakarken bluedotın yönüne dönemsini sağlar
     @Nullable
     public Float getBlueDotHeading() {
         if (snapLocationSourceProxy != null && snapLocationSourceProxy.getLastLocation() != null) {
             return (float) snapLocationSourceProxy.getLastLocation().getDirection();
         }
+        Location lastLocation = stateActor.snapshot().lastLocation;
         if (lastLocation != null) {
             return (float) lastLocation.getDirection();
         }
@@ -369,12 +1107,12 @@ public class YolbilNavigationUsage {
             Log.e(TAG, "getNavigationBundle: snapSource is null");
             return null;
         }
-        YolbilNavigationBundleBuilder navigationBundleBuilder = new YolbilNavigationBundleBuilder(baseUrl, accountId, appCode, snapLocationSourceProxy.getBlueDotDataSource().getLocationSource(), RouteType.Car);
+        YolbilNavigationBundleBuilder navigationBundleBuilder = new YolbilNavigationBundleBuilder(baseUrl, accountId, appCode, snapLocationSourceProxy.getBlueDotDataSource().getLocationSource(), ROUTE_TYPE);
         navigationBundleBuilder.setOfflineEnabled(isOffline);
         navigationBundleBuilder.setBlueDotDataSourceEnabled(true);
-        navigationBundleBuilder.setOfflineDataPath("/storage/emulated/0/yolbilxdata/TR.vtiles");
+        navigationBundleBuilder.setOfflineDataPath(OFFLINE_DATA_PATH);
         //optional
-        navigationBundleBuilder.setRequestEndpoint("/Service/api/v1/Routing/RouteAdvance");
+        navigationBundleBuilder.setRequestEndpoint(ROUTE_REQUEST_ENDPOINT);
         //custom line style set (optional)
         LineStyleBuilder lineStyleBuilder = new LineStyleBuilder();
         lineStyleBuilder.setColor(new Color((short) 148, (short) 148, (short) 148, (short) 100));
@@ -398,24 +1136,19 @@ public class YolbilNavigationUsage {
                 if (command == null) {
                     return super.onCommandReady(command);
                 }
-                currentStaticIndex = (int) command.getStaticManifestCommandIndex();
-                currentManifestText = resolveManifestText(command);
-                String firstCommandName = extractFirstCommandName(command.getCommands());
-                updateDirectionState(firstCommandName);
-                currentSpeedLimitKmh = (int) Math.round(command.getSpeedLimit());
-                final String distanceText = NavigationCommandFormatter.formatDistance(command.getDistanceToCommand());
-                currentTotalDistanceText = NavigationCommandFormatter.formatTotalDistance(command.getTotalDistanceToCommand()); // manifest üstündeki toplam mesafe yazısı
-                currentTotalTimeText = NavigationCommandFormatter.formatTotalTime(command.getRemainingTimeInSec());
-                final Integer nextIconRes = resolveNextCommandIcon(command.getNextCommands());
-                final boolean showNext = shouldShowNextCommand(currentCommandName, nextIconRes, currentStaticIndex);
-
-                postNavigationCardUpdate(currentManifestText, currentDirectionText, distanceText, currentCommandIconRes, nextIconRes, showNext, currentTotalDistanceText, currentTotalTimeText);
+                NavigationCommandSnapshot snapshot = NavigationCommandSnapshot.from(command);
+                NavigationEventRecorder recorder = eventRecorder;
+                if (recorder != null) {
+                    recorder.recordCommandReady(System.currentTimeMillis(), snapshot);
+                }
+                stateActor.postCommandReady(snapshot);
                 return super.onCommandReady(command);
             }
 
             @Override
             public boolean onNavigationWillRecalculate(){
                 Log.e(TAG, "onNavigationWillRecalculate");
+                applyPredictedReroute();
                 return super.onNavigationWillRecalculate();
             }
 // Farklı bir yola geçildiğinde rotanın yeniden hesaplandığı kısım.
@@ -425,40 +1158,28 @@ public class YolbilNavigationUsage {
                 if (navigationResult == null) {
                     return super.onNavigationRecalculated(navigationResult);
                 }
-                YolbilNavigationUsage.this.navigationResult = navigationResult;
-                totalInstructionCount =
-                        navigationResult.getInstructions() != null ? (int) navigationResult.getInstructions().size() : 0;
-
-                if (snapLocationSourceProxy != null) {
-                    snapLocationSourceProxy.setRoutingPoints(navigationResult.getPoints());
-                }
-
-                if (mapView != null && navigationResult.getPoints() != null && navigationResult.getPoints().size() > 0) {
-                    mainHandler.post(new Runnable() {
-                        @Override
-                        public void run() {
-                            if (mapView == null) {
-                                return;
-                            }
-                        //    mapView.fitRouteOnMap(navigationResult.getPoints());
-                            if (snapLocationSourceProxy != null) {
-                                snapLocationSourceProxy.setmoveToHeadingDistance(50.0, mapView.getWidth(), mapView.getHeight());
-                                MapPos focus = snapLocationSourceProxy.getShiftedCoordinate();
-                                if (focus != null) {
-                                    mapView.setFocusPos(focus, 0.6f);
-                                }
-                            }
-                        }
-                    });
+                reroutePredictor.onRecalculated(SystemClock.elapsedRealtime());
+                logReroutePredictionStats();
+                mainHandler.post(YolbilNavigationUsage.this::clearPredictedRoute);
+                // Geometri çözme, dizin ve özet yamama SDK thread'ini tutmasın; sonuç ana thread'de yayımlanır.
+                // Sonuç beklerken rota veya navigasyon değişirse hangi pakete ait olduğu buradan bilinir.
+                final YolbilNavigationBundle owner = bundle;
+                final int session = navigationSession;
+                if (!routeBackgroundExecutor.isShutdown()) {
+                    routeBackgroundExecutor.execute(() -> prepareRecalculatedRoute(owner, session, navigationResult));
                 }
                 return super.onNavigationRecalculated(navigationResult);
             }
 
             @Override
             public boolean onNavigationStopped() {
-                if (navigationInfoCardView != null) {
-                    navigationInfoCardView.reset();
-                }
+                navigationStarted = false;
+                publishLocationDemand();
+                reroutePredictor.reset();
+                releaseSpeculationBundleAsync();
+                stateActor.postReset();
+                // SDK thread'indeyiz; kart, bağlayıcının önbelleğiyle yarışmasın diye UI thread'de sıfırlanır.
+                cardScheduler.submitReset();
                 return super.onNavigationStopped();
             }
 
@@ -469,39 +1190,12 @@ public class YolbilNavigationUsage {
                 if (command == null || navigationInfoCardView == null) {
                     return super.onLocationChanged(command);
                 }
-                double distanceToCommand = command.getDistanceToCommand();
-                final String distanceText = NavigationCommandFormatter.formatDistance(distanceToCommand);
-                currentTotalDistanceText = NavigationCommandFormatter.formatTotalDistance(command.getTotalDistanceToCommand());
-                currentTotalTimeText = NavigationCommandFormatter.formatTotalTime(command.getRemainingTimeInSec());
-
-                final String manifestFromLocation = resolveManifestText(command);
-                if (!TextUtils.isEmpty(manifestFromLocation) && !TextUtils.equals(manifestFromLocation, currentManifestText)) {
-                    currentManifestText = manifestFromLocation;
+                NavigationCommandSnapshot snapshot = NavigationCommandSnapshot.from(command);
+                NavigationEventRecorder recorder = eventRecorder;
+                if (recorder != null) {
+                    recorder.recordLocationChanged(System.currentTimeMillis(), snapshot);
                 }
-
-                String nextCommandName = extractFirstCommandName(command.getCommands());
-                if (!TextUtils.isEmpty(nextCommandName) && !TextUtils.equals(nextCommandName, currentCommandName)) {
-                    currentStaticIndex = (int) command.getStaticManifestCommandIndex();
-                    updateDirectionState(nextCommandName);
-                } else if (TextUtils.isEmpty(nextCommandName) && command.getDistanceToCommand() > 300) {
-                    currentStaticIndex = (int) command.getStaticManifestCommandIndex();
-                    updateDirectionState("");
-                }
-                currentSpeedLimitKmh = (int) Math.round(command.getSpeedLimit());
-
-                final Integer nextIconRes = resolveNextCommandIcon(command.getNextCommands());
-                final boolean showNext = shouldShowNextCommand(currentCommandName, nextIconRes, currentStaticIndex);
-
-                postNavigationCardUpdate(
-                        currentManifestText,
-                        currentDirectionText,
-                        distanceText,
-                        currentCommandIconRes,
-                        nextIconRes,
-                        showNext,
-                        currentTotalDistanceText,
-                        currentTotalTimeText
-                );
+                stateActor.postLocationChanged(snapshot);
 
                 return super.onLocationChanged(command);
             }
@@ -529,12 +1223,29 @@ public class YolbilNavigationUsage {
         }
     }
     private boolean isFirstLocation = true;
+    // Navigasyon fix'leri; yayıncı (ana) thread'inde teslim edilir. Veriyolu listener'ı zayıf tuttuğundan alanda saklanır.
+    private final LocationBus.Listener<Location> navigationLocationListener = new LocationBus.Listener<Location>() {
+        @Override
+        public void onLocation(Location location) {
+            // Hız filtresi, kart hızı ve kayıt aktör thread'inde işlenir.
+            stateActor.postFix(location);
+            //Bluedot takibi sağlanır
+            followBlueDot(location, isFirstLocation);
+            if (isFirstLocation) {
+                isFirstLocation = false;
+            }
+        }
+    };
+    @Nullable
+    private LocationBus.Subscription<Location> navigationLocationSubscription;
 
     // Rota hazır olduğunda gerçek zamanlı navigasyonu başlatır ve haritayı kullanıcıya odaklar.
     @SuppressLint("MissingPermission")
     void startNavigation() {
+        NavigationStateActor.Snapshot state = stateActor.snapshot();
+        NavigationResult navigationResult = state.navigationResult;
         if (navigationResult != null && mapView != null && bundle != null) {
-            if (navigationResult.getPoints().size() == 0) {
+            if (state.routeGeometry == null) {
                 lastRouteMessage = "Rota noktası boş, navigasyon başlatılmadı.";
                 Log.e(TAG, "startNavigation: nav.points empty");
                 return;
@@ -547,24 +1258,28 @@ public class YolbilNavigationUsage {
                 return;
             }
             mapView.setDeviceOrientationFocused(true);
-            mapView.setFocusPos(lastLocation.getCoordinate(), 1.0f);
+            if (state.lastLocation != null && state.lastLocation.getCoordinate() != null) {
+                mapView.setFocusPos(state.lastLocation.getCoordinate(), 1.0f);
+            }
             mapView.setZoom(19, 1.0f);
 
-            locationSource.addListener(new LocationListener() {
-                @Override
-            public void onLocationChange(Location location) {
-
-                lastLocation = location;
-                //Bluedot takibi sağlanır
-                followBlueDot(location, isFirstLocation);
-                updateSpeedFromLocation(location);
-
+            // Tekrar başlatmada önceki abonelik kapatılır; kaynağa listener birikmez.
+            closeNavigationLocationSubscription();
+            navigationLocationSubscription = LocationBus.shared(context)
+                    .subscribe(Runnable::run, navigationLocationListener);
+            if (!navigationLocationSubscription.isActive()) {
+                Log.e(TAG, "startNavigation: location bus subscriber limit reached");
+            }
+            navigationSession++;
+            navigationStarted = true;
+            publishLocationDemand();
+        }
+    }
 
-                    if (isFirstLocation) {
-                        isFirstLocation = false;
-                    }
-                }
-            });
+    private void closeNavigationLocationSubscription() {
+        if (navigationLocationSubscription != null) {
+            navigationLocationSubscription.close();
+            navigationLocationSubscription = null;
         }
     }
 
@@ -576,6 +1291,7 @@ public class YolbilNavigationUsage {
         if (!ensureDeviceOrientationFocus()) {
             return false;
         }
+        Location lastLocation = stateActor.snapshot().lastLocation;
         boolean handled = followBlueDot(lastLocation, true);
         if (!handled && mapView != null && lastLocation != null) {
             MapPos coordinate = lastLocation.getCoordinate();
@@ -603,14 +1319,17 @@ public class YolbilNavigationUsage {
 
         if (snapLocationSourceProxy != null) {
             MapPos focusPos = snapLocationSourceProxy.getShiftedCoordinate();
-            if (focusPos != null) {
+            Location snappedLocation = snapLocationSourceProxy.getLastLocation();
+            MapPos snappedPos = snappedLocation != null ? snappedLocation.getCoordinate() : null;
+            if (focusPos != null && snappedPos != null) {
+                // Kamera kare döngüsünde kestirilen hedefe kendisi yaklaşır; burada yalnızca fix bırakılır.
+                double speedMps = newLocation != null ? newLocation.getSpeed() : snappedLocation.getSpeed();
+                cameraController.onFix(new PredictiveCameraController.Fix(
+                        snappedPos.getX(), snappedPos.getY(), snappedLocation.getDirection(), speedMps,
+                        focusPos.getX(), focusPos.getY(), System.nanoTime()), initialFocus);
+            } else if (focusPos != null) {
                 mapView.setFocusPos(focusPos, 0.6f);
             }
-            Location lastLocation = snapLocationSourceProxy.getLastLocation();
-            if (lastLocation != null) {
-                float direction = (float) lastLocation.getDirection();
-                mapView.setMapRotation(direction, 0.6f);
-            }
         }
         if (initialFocus) {
             mapView.setZoom(18, 0.6f);
@@ -653,130 +1372,350 @@ public class YolbilNavigationUsage {
     }
 
 
-    /** TurnCommand listesinden ilk komutu string olarak döndürür (ikon metni için kullanılır). */
-    @Nullable
-    private String extractFirstCommandName(@Nullable TurnCommandEnumVector commands) {
-        if (commands == null || commands.size() == 0) {
-            return "";
+    /**
+     * CommandListener olaylarını, rota değişimlerini ve giriş konumlarını verilen dosyanın sonuna kaydetmeye başlar.
+     * Kayıt, birim testlerindeki NavigationReplayRunner ile cihaz ve harita SDK'sı olmadan tekrar oynatılabilir.
+     */
+    public boolean startEventRecording(File file) {
+        stopEventRecording();
+        try {
+            eventRecorder = NavigationEventRecorder.open(file, System.currentTimeMillis());
+        } catch (IOException e) {
+            Log.e(TAG, "startEventRecording failed", e);
+            return false;
+        }
+        // Kayıt ortasında başlatıldıysa mevcut rota da yazılır ki dosya tek başına oynatılabilsin.
+        NavigationStateActor.Snapshot state = stateActor.snapshot();
+        if (state.navigationResult != null) {
+            // Özet henüz üretilmediyse rota, özet hazır olduğunda ayrıca kaydedilir.
+            recordRoute(state.routeDigest.streetNames(), state.routeGeometry);
+        }
+        return true;
+    }
+
+    public void stopEventRecording() {
+        NavigationEventRecorder recorder = eventRecorder;
+        eventRecorder = null;
+        if (recorder == null) {
+            return;
+        }
+        try {
+            recorder.close();
+        } catch (IOException e) {
+            Log.e(TAG, "stopEventRecording: recording incomplete", e);
+        }
+    }
+
+    public boolean isEventRecording() {
+        return eventRecorder != null;
+    }
+
+    private void recordRoute(String[] streetNames, @Nullable RouteGeometry geometry) {
+        NavigationEventRecorder recorder = eventRecorder;
+        if (recorder == null) {
+            return;
         }
-        TurnCommandEnum enumValue = commands.get(0);
-        if (enumValue == null) {
-            return "";
+        recorder.recordRoute(System.currentTimeMillis(), streetNames, geometry);
+    }
+
+    /** Aktör thread'inde, fix başına: son snapshot'ın rotası ve ilerlemesiyle tahminleri günceller. */
+    private void speculateReroutes() {
+        NavigationStateActor.Snapshot snapshot = stateActor.snapshot();
+        RouteProgressTracker.Progress progress = snapshot.routeProgress;
+        if (progress == null || progress.offRoute) {
+            return;
+        }
+        reroutePredictor.onProgress(snapshot.routeGeometry, snapshot.routeDigest, progress.distanceAlongMeters);
+    }
+
+    /** Navigasyon durumunu ve sıradaki komuta rota üzerindeki mesafeyi konum isteği politikasına bildirir. */
+    private void publishLocationDemand() {
+        LocationDemandListener listener = locationDemandListener;
+        if (listener == null) {
+            return;
+        }
+        if (!navigationStarted) {
+            listener.onLocationDemand(false, Double.NaN);
+            return;
+        }
+        listener.onLocationDemand(true, distanceToNextCommand(stateActor.snapshot()));
+    }
+
+    /** Son konumdan sıradaki talimatın manevra noktasına rota üzerindeki mesafe; rota dışındaysa NaN. */
+    private static double distanceToNextCommand(NavigationStateActor.Snapshot snapshot) {
+        RouteProgressTracker.Progress progress = snapshot.routeProgress;
+        if (progress == null || progress.offRoute) {
+            return Double.NaN;
         }
-        return enumValue.toString();
+        RouteDigest digest = snapshot.routeDigest;
+        int next = digest.firstInstructionAfter(progress.distanceAlongMeters);
+        return next >= 0 ? digest.distanceFromStart(next) - progress.distanceAlongMeters : Double.NaN;
     }
 
-    /** “Ardından” bölümünde hangi ikonun gösterileceğini belirler. */
+    /**
+     * Önceden arama izni: cihaz şarjdaysa her zaman; değilse pil tasarrufu kapalıyken ve kullanıcının
+     * rota araması sürmüyorken. Navigasyon sırasında ekran açık ve cihaz etkin olduğundan sistemin boşta
+     * durumu kullanılamaz; onun yerine önceden aramanın kullanıcının aramasıyla işçi ve ağ için yarışmaması
+     * koşulu aranır.
+     */
+    private boolean allowsRouteSpeculation() {
+        BatteryManager battery = (BatteryManager) context.getSystemService(Context.BATTERY_SERVICE);
+        if (battery != null && battery.isCharging()) {
+            return true;
+        }
+        PowerManager power = (PowerManager) context.getSystemService(Context.POWER_SERVICE);
+        if (power != null && power.isPowerSaveMode()) {
+            return false;
+        }
+        return routeRequests.getInFlightCount() == 0;
+    }
+
+    /**
+     * Kaçırılan dönüş konumundan varışa rota arar (RouteSpeculation thread'i). Etkin paketin navigasyon
+     * durumu bozulmasın diye ayrı, katmanları haritaya eklenmeyen ve dinleyicisi olmayan bir paket kullanılır.
+     */
     @Nullable
-    private Integer resolveNextCommandIcon(@Nullable TurnCommandEnumVector nextCommands) {
-        if (nextCommands == null || nextCommands.size() == 0) {
+    private NavigationResult searchSpeculativeRoute(double fromLon, double fromLat) {
+        SpeculationTarget target = speculationTarget;
+        if (target == null || !navigationStarted) {
+            return null;
+        }
+        if (speculationBundle == null || speculationBundleTarget == null
+                || speculationBundleTarget.isOffline != target.isOffline
+                || speculationBundleTarget.locationSource != target.locationSource) {
+            releaseSpeculationBundle();
+            YolbilNavigationBundleBuilder builder = new YolbilNavigationBundleBuilder(
+                    BaseSettings.INSTANCE.getBASE_URL(), BaseSettings.INSTANCE.getAccountId(),
+                    BaseSettings.INSTANCE.getAppCode(), target.locationSource, ROUTE_TYPE);
+            builder.setOfflineEnabled(target.isOffline);
+            builder.setOfflineDataPath(OFFLINE_DATA_PATH);
+            builder.setRequestEndpoint(ROUTE_REQUEST_ENDPOINT);
+            speculationBundle = builder.build();
+            speculationBundleTarget = target;
+        }
+        if (speculationBundle == null) {
             return null;
         }
-        TurnCommandEnum nextEnum = nextCommands.get(0);
-        if (nextEnum == null) {
+        try {
+            NavigationResultVector results = speculationBundle.startNavigation(new MapPos(fromLon, fromLat), target.end);
+            return results != null && results.size() > 0 ? results.get(0) : null;
+        } catch (Exception searchEx) {
+            Log.e(TAG, "searchSpeculativeRoute: route search failed", searchEx);
             return null;
         }
-        return NavigationCommandFormatter.getIconForCommand(nextEnum.toString());
     }
 
-    /** Son komutta veya manifest dizisinin sonunda “Ardından” kutusunu gizlemek için kullanılır. */
-    private boolean shouldShowNextCommand(@Nullable String primaryCommandName, @Nullable Integer nextIconRes, int staticIndex) {
-        if (nextIconRes == null) {
-            return false;
+    /** Gölge paketi bırakır (RouteSpeculation thread'i); sonraki önceden arama yenisini kurar. */
+    private void releaseSpeculationBundle() {
+        YolbilNavigationBundle shadow = speculationBundle;
+        speculationBundle = null;
+        speculationBundleTarget = null;
+        if (shadow == null) {
+            return;
         }
-        String normalized = primaryCommandName == null ? "" : primaryCommandName.toUpperCase(Locale.US);
-        if (TextUtils.isEmpty(normalized)) {
-            return false;
+        try {
+            shadow.stopNavigation();
+        } catch (Exception stopEx) {
+            Log.e(TAG, "releaseSpeculationBundle: stopNavigation failed", stopEx);
         }
-        boolean isFinalCmd = normalized.contains("WILL_REACH_YOUR_DESTINATION")
-                || normalized.contains("REACHED_YOUR_DESTINATION")
-                || normalized.contains("DESTINATION");
-        boolean isAtEnd = totalInstructionCount > 0 && staticIndex >= (totalInstructionCount - 1);
-        return !isFinalCmd && !isAtEnd;
     }
 
-    /** nextRoadName boşsa statik manifest listesinden sokak adı bularak kart başlığını belirler. */
-    private String resolveManifestText(NavigationCommand command) {
-        String manifestText = command.getNextRoadName();
-        String resolved = NavigationCommandFormatter.resolveManifestText(context, manifestText);
-        if (!TextUtils.isEmpty(manifestText)) {
-            return manifestText;
+    /** Navigasyon durduğunda gölge paketi kendi thread'inde bırakır; sıradaki aramalar önce tamamlanır. */
+    private void releaseSpeculationBundleAsync() {
+        if (!routeSpeculationExecutor.isShutdown()) {
+            routeSpeculationExecutor.execute(this::releaseSpeculationBundle);
         }
-        if (navigationResult != null && navigationResult.getInstructions() != null && navigationResult.getInstructions().size() > 0) {
-            int index = (int) command.getStaticManifestCommandIndex();
-            if (index < 0) {
-                index = 0;
-            }
-            long size = navigationResult.getInstructions().size();
-            if (index >= size) {
-                index = (int) (size - 1);
-            }
-            RoutingInstruction instruction = navigationResult.getInstructions().get(index);
-            if (instruction != null && !TextUtils.isEmpty(instruction.getStreetName())) {
-                return instruction.getStreetName();
+    }
+
+    /**
+     * SDK yeniden hesaplamaya başladığında (SDK thread'i) son konum bir tahminin başına oturuyorsa tahmini
+     * rota yalnızca önizleme çizgisi olarak çizilir. SDK hâlâ eski rotayı izlediğinden aktörün rotası ve
+     * özeti, kamera ve snap proxy'si değiştirilmez; hepsi SDK'nın yeni rotasıyla onNavigationRecalculated'da
+     * güncellenir ve önizleme o zaman kaldırılır.
+     */
+    private void applyPredictedReroute() {
+        Location last = stateActor.snapshot().lastLocation;
+        MapPos coordinate = last != null ? last.getCoordinate() : null;
+        if (coordinate == null) {
+            return;
+        }
+        final ReroutePredictor.Prediction<NavigationResult> prediction =
+                reroutePredictor.match(coordinate.getX(), coordinate.getY(), SystemClock.elapsedRealtime());
+        if (prediction == null) {
+            return;
+        }
+        Log.d(TAG, "applyPredictedReroute: instruction " + prediction.instructionIndex + " predicted");
+        mainHandler.post(() -> {
+            if (mapView == null || !navigationStarted) {
+                return;
             }
+            RoutePolylinePyramid pyramid = prediction.geometry.getPyramid();
+            showOverlayRoute(pyramid, previewLineStyle(), new Line[pyramid.getLevelCount()]);
+            predictedRouteShown = true;
+        });
+    }
+
+    private void clearPredictedRoute() {
+        if (predictedRouteShown) {
+            predictedRouteShown = false;
+            clearRoutePreview();
         }
-        return resolved;
     }
 
-    /** NavigationInfoCard tek noktadan günceller. */
-    private void postNavigationCardUpdate(
-            final String manifestText,
-            final String directionText,
-            final String distanceText,
-            final int iconRes,
-            @Nullable final Integer nextIconRes,
-            final boolean showNext,
-            final String totalDistanceText,
-            final String totalTimeText
-    ) {
-        if (navigationInfoCardView == null) {
+    private void logReroutePredictionStats() {
+        ReroutePredictor.Stats stats = reroutePredictor.getStats();
+        Log.d(TAG, "reroute predictions: " + stats.hits + " hits, " + stats.misses + " misses ("
+                + Math.round(stats.hitRate() * 100) + "%), " + stats.speculations + " searched, "
+                + stats.failures + " failed, " + stats.savedMillis + " ms saved");
+    }
+
+    private void recordFix(@Nullable Location location, int displayedSpeedKmh) {
+        NavigationEventRecorder recorder = eventRecorder;
+        if (recorder == null || location == null || location.getCoordinate() == null) {
             return;
         }
-        mainHandler.post(() -> {
-            navigationInfoCardView.updatePrimaryInfo(manifestText, directionText, distanceText, iconRes);
-            navigationInfoCardView.updateSummaryInfo(totalDistanceText, totalTimeText);
-            boolean isSpeeding = currentSpeedLimitKmh > 0 && currentSpeedKmh > currentSpeedLimitKmh;
-            navigationInfoCardView.updateSpeedInfo(currentSpeedKmh, currentSpeedLimitKmh, isSpeeding);
-            if (showNext && nextIconRes != null) {
-                navigationInfoCardView.showNextCommand(nextIconRes, context.getString(R.string.next_direction_label));
-            } else {
-                navigationInfoCardView.hideNextCommand();
+        MapPos coordinate = location.getCoordinate();
+        recorder.recordFix(location.getTimestamp(), coordinate.getX(), coordinate.getY(), location.getSpeed(),
+                location.getDirection(), location.getHorizontalAccuracy(), displayedSpeedKmh);
+    }
+
+    /**
+     * Rotayı aktöre hemen verir; talimat özeti (sokak adları, komutlar, mesafeler) talimat başına JNI
+     * gerektirdiğinden arka plan thread'inde üretilip aktöre, kayda ve cacheKey verildiyse önbelleğe iletilir.
+     */
+    private void publishRoute(final NavigationResult navigationResult, @Nullable final RouteGeometry geometry,
+                              @Nullable final RouteCache.Key cacheKey) {
+        stateActor.postRoute(navigationResult, geometry);
+        routeBackgroundExecutor.execute(() -> {
+            RouteDigest digest;
+            try {
+                digest = RouteDigest.fromNavigationResult(navigationResult);
+            } catch (Exception digestEx) {
+                Log.e(TAG, "publishRoute: route digest failed", digestEx);
+                return;
+            }
+            stateActor.postRouteDigest(navigationResult, digest);
+            recordRoute(digest.streetNames(), geometry);
+            if (cacheKey != null && geometry != null) {
+                routeCache.put(cacheKey, geometry, digest, System.currentTimeMillis());
             }
         });
     }
 
+    /** SDK sonucu verilen pakete ve navigasyon oturumuna aitse ve navigasyon sürüyorsa true. */
+    private boolean isCurrentNavigation(@Nullable YolbilNavigationBundle owner, int session) {
+        return navigationStarted && owner != null && owner == bundle && session == navigationSession;
+    }
 
-    /** GPS hızını Kalman filtresinden geçirip km/s olarak saklar. */
-    private void updateSpeedFromLocation(@Nullable Location location) {
-        if (location == null) {
+    /**
+     * Yeniden hesaplanan rotayı RouteBackground thread'inde hazırlar: önceki rotayla ortak baş ve son kısım
+     * taşınır, yalnızca değişen kısım çözülür; dizin ve talimat özeti de burada yamanır. Hazır rota ana
+     * thread'de yayımlanır; bu arada yeni rota istendiyse veya navigasyon durduysa sonuç bırakılır.
+     */
+    private void prepareRecalculatedRoute(final YolbilNavigationBundle owner, final int session,
+                                          final NavigationResult navigationResult) {
+        if (!isCurrentNavigation(owner, session)) {
             return;
         }
-        double speedValue = location.getSpeed();
-        float filtered = SpeedUtils.updateFilteredSpeed((float) speedValue);
-        int kmh = Math.max(0, Math.round(filtered));
-        if (kmh != currentSpeedKmh) {
-            currentSpeedKmh = kmh;
-            refreshSpeedRowAsync();
+        NavigationStateActor.Snapshot previous = stateActor.snapshot();
+        final RouteGeometry geometry;
+        try {
+            geometry = RouteGeometry.fromNavigationResult(navigationResult, previous.routeGeometry);
+            if (geometry != null) {
+                // Aktör ve kamera dizini kendi thread'lerinde kurmasın (önceki dizin varsa yamanmıştır).
+                geometry.getSegmentIndex();
+            }
+        } catch (Exception geometryEx) {
+            Log.e(TAG, "prepareRecalculatedRoute: route geometry failed", geometryEx);
+            return;
+        }
+        final RouteDigest digest = spliceRecalculatedDigest(navigationResult, geometry, previous.routeDigest);
+        mainHandler.post(() -> applyRecalculatedRoute(owner, session, navigationResult, geometry, digest));
+    }
+
+    /**
+     * Geometri önceki rotadan yamandıysa talimat özetini de önceki özetten yamar; kart arada boş özete düşmez.
+     * Yamanamıyorsa null döner ve özet {@link #publishRoute} ile baştan üretilir.
+     */
+    @Nullable
+    private static RouteDigest spliceRecalculatedDigest(NavigationResult navigationResult,
+                                                        @Nullable RouteGeometry geometry, RouteDigest previousDigest) {
+        RouteSplice splice = geometry != null ? geometry.getSplice() : null;
+        if (splice == null || previousDigest.size() == 0) {
+            return null;
+        }
+        try {
+            return RouteDigest.splice(previousDigest, splice, navigationResult);
+        } catch (Exception digestEx) {
+            Log.e(TAG, "spliceRecalculatedDigest: route digest splice failed", digestEx);
+            return null;
         }
     }
 
-    /** UI thread üzerinde hız kutusunu günceller. */
+    /**
+     * Hazırlanan rotayı ana thread'de aktöre, kameraya ve snap proxy'ye verir. Rota değişimleri de ana thread'de
+     * yapıldığından denetim ile yayımlama arasında yeni rota araya giremez; eski sonuç yeni rotanın üzerine yazılmaz.
+     */
+    private void applyRecalculatedRoute(YolbilNavigationBundle owner, int session, NavigationResult navigationResult,
+                                        @Nullable final RouteGeometry geometry, @Nullable final RouteDigest digest) {
+        if (!isCurrentNavigation(owner, session) || mapView == null) {
+            Log.w(TAG, "applyRecalculatedRoute: stale recalculation dropped");
+            return;
+        }
+        if (digest == null) {
+            publishRoute(navigationResult, geometry, null);
+        } else {
+            stateActor.postRoute(navigationResult, geometry, digest);
+            if (eventRecorder != null && !routeBackgroundExecutor.isShutdown()) {
+                routeBackgroundExecutor.execute(() -> recordRoute(digest.streetNames(), geometry));
+            }
+        }
+        cameraController.setRouteGeometry(geometry);
+        if (geometry == null || snapLocationSourceProxy == null) {
+            return;
+        }
+        snapLocationSourceProxy.setRoutingPoints(geometry.getSourcePoints());
+        //    mapView.fitRouteOnMap(navigationResult.getPoints());
+        snapLocationSourceProxy.setmoveToHeadingDistance(50.0, mapView.getWidth(), mapView.getHeight());
+        MapPos focus = snapLocationSourceProxy.getShiftedCoordinate();
+        if (focus != null) {
+            mapView.setFocusPos(focus, 0.6f);
+        }
+    }
+
+    /** Kart durumunu bir sonraki karede çizilmek üzere bırakır; bekleyen eski durumun yerine geçer. */
+    private void postNavigationCardUpdate(final NavigationCardState state) {
+        if (navigationInfoCardView == null) {
+            return;
+        }
+        cardScheduler.submitState(state);
+    }
+
+    /** NavigationInfoCard tek noktadan günceller; UI thread'de kare geri çağrısından çalışır. */
+    private void bindNavigationCard(NavigationCardState state) {
+        if (navigationInfoCardView == null) {
+            return;
+        }
+        // Hız, kart durumu üretildikten sonra değişmiş olabilir; en güncel değer gösterilir.
+        navigationInfoCardView.bind(state, stateActor.snapshot().speedKmh);
+    }
+
+    /** Hız kutusunu bir sonraki karede günceller. */
     private void refreshSpeedRowAsync() {
         if (navigationInfoCardView == null) {
             return;
         }
-        final int speed = currentSpeedKmh;
-        final int limit = currentSpeedLimitKmh;
-        final boolean isSpeeding = limit > 0 && speed > limit;
-        mainHandler.post(() -> navigationInfoCardView.updateSpeedInfo(speed, limit, isSpeeding));
+        cardScheduler.markSpeedDirty();
     }
 
-    /** Kartın manifest/direction state'ini günceller (setDynamicManifestCommand eşleniği). */
-    private void updateDirectionState(@Nullable String commandName) {
-        String safeName = commandName == null ? "" : commandName;
-        currentCommandName = safeName;
-        currentDirectionText = NavigationCommandFormatter.getDirectionText(context, safeName);
-        currentCommandIconRes = NavigationCommandFormatter.getIconForCommand(safeName);
+    /** UI thread üzerinde hız kutusunu en güncel hız ve limitle günceller. */
+    private void bindSpeedRow() {
+        if (navigationInfoCardView == null) {
+            return;
+        }
+        NavigationStateActor.Snapshot state = stateActor.snapshot();
+        int speed = state.speedKmh;
+        int limit = state.speedLimitKmh;
+        navigationInfoCardView.updateSpeedInfo(speed, limit, limit > 0 && speed > limit);
     }
 }
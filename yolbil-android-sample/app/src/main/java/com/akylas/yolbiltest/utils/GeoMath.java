@@ -0,0 +1,182 @@
+package com.akylas.yolbiltest.utils;
+
+/**
+ * Simülasyon, kamera tahmini, ilerleme ve geofence hesaplarının ortak kullandığı jeodezi fonksiyonları.
+ *
+ * <p>{@link Mode#EXACT} küresel dünya modeli üzerinde haversine / büyük daire formüllerini kullanır
+ * (nokta başına 6-15 trigonometri çağrısı). {@link Mode#FAST} segment başına bir kez hesaplanan
+ * cos(enlem) ile equirectangular yaklaşım yapar, kısa segmentlerde ara noktayı düzlemde doğrusal bulur.
+ *
+ * <p>FAST moddaki hata sınırları (EXACT'e göre, |enlem| &lt;= 70°, test ile doğrulanır):
+ * <ul>
+ *     <li>Mesafe: {@link #FAST_MAX_SEGMENT_M} altındaki segmentlerde bağıl hata &lt; %0.1.</li>
+ *     <li>Yön: aynı segmentlerde &lt; 0.25° (hata segment boyu ve tan(enlem) ile büyür).</li>
+ *     <li>Ara nokta: {@link #FLAT_LERP_MAX_SEGMENT_M} altındaki segmentlerde büyük daire noktasına uzaklık &lt; 0.1 m;
+ *     daha uzun segmentlerde otomatik olarak büyük daire interpolasyonuna düşülür.</li>
+ * </ul>
+ * Küresel modelin kendisi elipsoide göre %0.5'e kadar sapabilir; iki mod da bu sapmayı paylaşır.
+ */
+public final class GeoMath {
+
+    public static final double EARTH_RADIUS_M = 6371000.0;
+    // FAST mod hata sınırlarının geçerli olduğu en uzun segment.
+    public static final double FAST_MAX_SEGMENT_M = 10_000.0;
+    // Bu uzunluğun altındaki segmentlerde ara nokta düzlemde doğrusal bulunur.
+    public static final double FLAT_LERP_MAX_SEGMENT_M = 1_000.0;
+
+    // Bir enlem derecesinin (ve ekvatorda bir boylam derecesinin) metre karşılığı.
+    public static final double METERS_PER_DEGREE = Math.toRadians(1.0) * EARTH_RADIUS_M;
+
+    public enum Mode {
+        EXACT,
+        FAST
+    }
+
+    private GeoMath() {
+    }
+
+    // İki koordinat arasındaki mesafeyi metre cinsinden döndürür (haversine).
+    public static double distanceMeters(double lat1, double lon1, double lat2, double lon2) {
+        double dLat = Math.toRadians(lat2 - lat1);
+        double dLon = Math.toRadians(lon2 - lon1);
+        double sinLat = Math.sin(dLat / 2);
+        double sinLon = Math.sin(dLon / 2);
+        double a = sinLat * sinLat
+                + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2)) * sinLon * sinLon;
+        double c = 2 * Math.atan2(Math.sqrt(a), Math.sqrt(1 - a));
+        return EARTH_RADIUS_M * c;
+    }
+
+    // Başlangıç noktasından hedefe olan yönü derece cinsinden (0-360) döndürür.
+    public static double bearingDegrees(double lat1Deg, double lon1Deg, double lat2Deg, double lon2Deg) {
+        double lat1 = Math.toRadians(lat1Deg);
+        double lat2 = Math.toRadians(lat2Deg);
+        double dLon = Math.toRadians(lon2Deg - lon1Deg);
+        double y = Math.sin(dLon) * Math.cos(lat2);
+        double x = Math.cos(lat1) * Math.sin(lat2) - Math.sin(lat1) * Math.cos(lat2) * Math.cos(dLon);
+        return normalizeBearing(Math.toDegrees(Math.atan2(y, x)));
+    }
+
+    /** Segmentin ortalama enlemindeki cos değeri; FAST mod fonksiyonları bunu parametre olarak alır. */
+    public static double cosLatitude(double lat1, double lat2) {
+        return Math.cos(Math.toRadians((lat1 + lat2) * 0.5));
+    }
+
+    /** Equirectangular mesafe; trigonometri yok, yalnızca bir karekök. */
+    public static double fastDistanceMeters(double lat1, double lon1, double lat2, double lon2, double cosLat) {
+        double x = (lon2 - lon1) * cosLat;
+        double y = lat2 - lat1;
+        return Math.sqrt(x * x + y * y) * METERS_PER_DEGREE;
+    }
+
+    /** Equirectangular yön (0-360); tek atan2 çağrısı. */
+    public static double fastBearingDegrees(double lat1, double lon1, double lat2, double lon2, double cosLat) {
+        double x = (lon2 - lon1) * cosLat;
+        double y = lat2 - lat1;
+        return normalizeBearing(Math.toDegrees(Math.atan2(x, y)));
+    }
+
+    public static double distanceMeters(Mode mode, double lat1, double lon1, double lat2, double lon2) {
+        if (mode == Mode.FAST) {
+            return fastDistanceMeters(lat1, lon1, lat2, lon2, cosLatitude(lat1, lat2));
+        }
+        return distanceMeters(lat1, lon1, lat2, lon2);
+    }
+
+    public static double bearingDegrees(Mode mode, double lat1, double lon1, double lat2, double lon2) {
+        if (mode == Mode.FAST) {
+            return fastBearingDegrees(lat1, lon1, lat2, lon2, cosLatitude(lat1, lat2));
+        }
+        return bearingDegrees(lat1, lon1, lat2, lon2);
+    }
+
+    /**
+     * Segment üzerinde verilen orandaki noktayı out[0]=lon, out[1]=lat olarak yazar.
+     * FAST modda segment {@link #FLAT_LERP_MAX_SEGMENT_M} altındaysa doğrusal, değilse büyük daire kullanılır.
+     */
+    public static void interpolate(Mode mode, double fromLon, double fromLat, double toLon, double toLat,
+                                   double segmentLengthMeters, double fraction, double[] out) {
+        if (mode == Mode.FAST && segmentLengthMeters < FLAT_LERP_MAX_SEGMENT_M) {
+            interpolateLinear(fromLon, fromLat, toLon, toLat, fraction, out);
+        } else {
+            interpolateGreatCircle(fromLon, fromLat, toLon, toLat, fraction, out);
+        }
+    }
+
+    // Düzlemde doğrusal ara nokta; sonucu out[0]=lon, out[1]=lat olarak yazar.
+    public static void interpolateLinear(double fromLon, double fromLat, double toLon, double toLat,
+                                         double fraction, double[] out) {
+        out[0] = fromLon + (toLon - fromLon) * fraction;
+        out[1] = fromLat + (toLat - fromLat) * fraction;
+    }
+
+    // Great-circle interpolasyonu ile ara nokta üretir; sonucu out[0]=lon, out[1]=lat olarak yazar.
+    public static void interpolateGreatCircle(double fromLon, double fromLat, double toLon, double toLat,
+                                              double fraction, double[] out) {
+        double phi1 = Math.toRadians(fromLat);
+        double lambda1 = Math.toRadians(fromLon);
+        double phi2 = Math.toRadians(toLat);
+        double lambda2 = Math.toRadians(toLon);
+
+        double sinPhi1 = Math.sin(phi1);
+        double cosPhi1 = Math.cos(phi1);
+        double sinPhi2 = Math.sin(phi2);
+        double cosPhi2 = Math.cos(phi2);
+
+        double sinHalfLat = Math.sin((phi2 - phi1) / 2);
+        double sinHalfLon = Math.sin((lambda2 - lambda1) / 2);
+        double delta = 2 * Math.asin(Math.sqrt(sinHalfLat * sinHalfLat + cosPhi1 * cosPhi2 * sinHalfLon * sinHalfLon));
+        if (delta == 0.0) {
+            out[0] = fromLon;
+            out[1] = fromLat;
+            return;
+        }
+
+        double sinDelta = Math.sin(delta);
+        double a = Math.sin((1 - fraction) * delta) / sinDelta;
+        double b = Math.sin(fraction * delta) / sinDelta;
+
+        double x = a * cosPhi1 * Math.cos(lambda1) + b * cosPhi2 * Math.cos(lambda2);
+        double y = a * cosPhi1 * Math.sin(lambda1) + b * cosPhi2 * Math.sin(lambda2);
+        double z = a * sinPhi1 + b * sinPhi2;
+
+        out[0] = Math.toDegrees(Math.atan2(y, x));
+        out[1] = Math.toDegrees(Math.atan2(z, Math.sqrt(x * x + y * y)));
+    }
+
+    /** out[i]: ilk noktadan i. noktaya kadar rota üzerindeki mesafe (metre); out[0] = 0. */
+    public static void cumulativeDistances(Mode mode, double[] lons, double[] lats, double[] out) {
+        if (lons.length == 0) {
+            return;
+        }
+        out[0] = 0;
+        if (mode == Mode.FAST) {
+            for (int i = 1; i < lons.length; i++) {
+                double cosLat = cosLatitude(lats[i - 1], lats[i]);
+                out[i] = out[i - 1] + fastDistanceMeters(lats[i - 1], lons[i - 1], lats[i], lons[i], cosLat);
+            }
+        } else {
+            for (int i = 1; i < lons.length; i++) {
+                out[i] = out[i - 1] + distanceMeters(lats[i - 1], lons[i - 1], lats[i], lons[i]);
+            }
+        }
+    }
+
+    /** out[i]: i. segmentin (i -> i+1) başlangıç yönü (derece, 0-360). */
+    public static void segmentBearings(Mode mode, double[] lons, double[] lats, double[] out) {
+        if (mode == Mode.FAST) {
+            for (int i = 0; i < lons.length - 1; i++) {
+                double cosLat = cosLatitude(lats[i], lats[i + 1]);
+                out[i] = fastBearingDegrees(lats[i], lons[i], lats[i + 1], lons[i + 1], cosLat);
+            }
+        } else {
+            for (int i = 0; i < lons.length - 1; i++) {
+                out[i] = bearingDegrees(lats[i], lons[i], lats[i + 1], lons[i + 1]);
+            }
+        }
+    }
+
+    private static double normalizeBearing(double degrees) {
+        return (degrees + 360.0) % 360.0;
+    }
+}
@@ -1,62 +1,81 @@
 package com.akylas.yolbiltest.utils;
 
-import android.annotation.SuppressLint;
 import android.content.Context;
 import android.location.Location;
-import android.os.Looper;
+import android.os.SystemClock;
 import android.util.Log;
 
-import com.akylas.yolbiltest.application.AppSession;
-import com.basarsoft.yolbil.core.MapPos;
-import com.google.android.gms.location.LocationCallback;
-import com.google.android.gms.location.LocationRequest;
-import com.google.android.gms.location.LocationResult;
-import com.google.android.gms.location.LocationServices;
-import com.google.android.gms.location.Priority;
-import com.google.android.gms.location.FusedLocationProviderClient;
+import com.akylas.yolbiltest.background.LocationMultiplexer;
+import com.akylas.yolbiltest.background.LocationRequestPolicy;
 
+/**
+ * Ekranın konum gereksinimini ortak {@link LocationMultiplexer}'a kira olarak verir; kendi platform isteği
+ * açmaz. Fix'ler AppSession ve SDK konum kaynağına çoklayıcı tarafından yazılır.
+ *
+ * <p>Kiranın gereksinimi {@link LocationRequestPolicy} ile seçilir: ön/arka plan ekrandan, navigasyon
+ * durumu ve sıradaki komuta mesafe navigasyondan, hız kiranın kendi fix'lerinden gelir.
+ */
 public class LocationUtils {
     private static final String TAG = "LocationUtils";
 
-    private final  FusedLocationProviderClient fusedLocationClient;
-    private final LocationRequest locationRequest;
-    private final LocationCallback locationCallback;
+    private final LocationMultiplexer<Location> multiplexer;
+    private final LocationRequestPolicy policy =
+            new LocationRequestPolicy(LocationMultiplexer.Requirement.DEFAULT);
+    private LocationMultiplexer<Location>.Lease lease;
+    private boolean foreground = true;
+    private boolean navigating;
+    private double distanceToCommandMeters = Double.NaN;
+    private double speedMps = Double.NaN;
 
     public LocationUtils(Context context) {
-        this.fusedLocationClient = LocationServices.getFusedLocationProviderClient(context.getApplicationContext());
-        this.locationRequest = new LocationRequest.Builder(Priority.PRIORITY_HIGH_ACCURACY, 2000)
-                .setMinUpdateIntervalMillis(1000)
-                .setWaitForAccurateLocation(false)
-                .build();
-        this.locationCallback = new LocationCallback() {
-            @Override
-            public void onLocationResult(LocationResult result) {
-                if (result == null) {
-                    return;
-                }
-                Location androidLocation = result.getLastLocation();
-                if (androidLocation == null) {
-                    return;
-                }
-                AppSession.setLastKnowLocation(new MapPos(androidLocation.getLongitude(), androidLocation.getLatitude()));
-            }
-        };
+        this.multiplexer = LocationMultiplexer.getInstance(context);
     }
 
-    @SuppressLint("MissingPermission")
-    public void startLocationUpdates() {
-        try {
-            fusedLocationClient.requestLocationUpdates(locationRequest, locationCallback, Looper.getMainLooper());
-        } catch (SecurityException e) {
-            Log.w(TAG, "startLocationUpdates: missing location permission", e);
+    public synchronized void startLocationUpdates() {
+        if (lease == null || lease.isReleased()) {
+            lease = multiplexer.acquire(policy.getCurrent(), this::onFix);
         }
     }
 
-    public void stopLocationUpdates() {
-        try {
-            fusedLocationClient.removeLocationUpdates(locationCallback);
-        } catch (Exception e) {
-            Log.w(TAG, "stopLocationUpdates failed", e);
+    public synchronized void stopLocationUpdates() {
+        if (lease != null) {
+            lease.release();
+            lease = null;
+        }
+    }
+
+    /** Ekran görünür oldu veya arka plana geçti. */
+    public synchronized void setForeground(boolean foreground) {
+        this.foreground = foreground;
+        applyPolicy();
+    }
+
+    /**
+     * Navigasyon durumu; herhangi bir thread'den çağrılabilir.
+     *
+     * @param distanceToCommandMeters sıradaki komuta mesafe; bilinmiyorsa NaN
+     */
+    public synchronized void setNavigationState(boolean navigating, double distanceToCommandMeters) {
+        this.navigating = navigating;
+        this.distanceToCommandMeters = distanceToCommandMeters;
+        applyPolicy();
+    }
+
+    private synchronized void onFix(Location location) {
+        speedMps = location.hasSpeed() ? location.getSpeed() : Double.NaN;
+        applyPolicy();
+    }
+
+    private void applyPolicy() {
+        LocationMultiplexer.Requirement previous = policy.getCurrent();
+        LocationMultiplexer.Requirement next = policy.update(navigating, distanceToCommandMeters, speedMps,
+                foreground, SystemClock.elapsedRealtime());
+        if (next.equals(previous)) {
+            return;
+        }
+        Log.d(TAG, "applyPolicy: " + next);
+        if (lease != null) {
+            lease.update(next);
         }
     }
 }
@@ -0,0 +1,191 @@
+package com.akylas.yolbiltest.background;
+
+import androidx.lifecycle.Lifecycle;
+import androidx.lifecycle.LifecycleEventObserver;
+import androidx.lifecycle.LifecycleObserver;
+import androidx.lifecycle.LifecycleOwner;
+
+import org.junit.Test;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+/** LocationBus teslim, birleştirme, yaşam döngüsü ve 50 aboneli sıra/birleştirme testi (Integer değerlerle, host üzerinde). */
+public class LocationBusTest {
+
+    /** Aldığı değerleri sıra bozulmasına karşı denetleyen abone. */
+    private static final class OrderedListener implements LocationBus.Listener<Integer> {
+        int last = -1;
+        final AtomicInteger received = new AtomicInteger();
+        final AtomicInteger outOfOrder = new AtomicInteger();
+
+        @Override
+        public void onLocation(Integer location) {
+            if (location <= last) {
+                outOfOrder.incrementAndGet();
+            }
+            last = location;
+            received.incrementAndGet();
+        }
+    }
+
+    /** Görevleri test elle boşaltana kadar bekleten yürütücü; teslim zamanlaması belirlenimli olur. */
+    private static final class SteppedExecutor implements Executor {
+        private final ArrayDeque<Runnable> tasks = new ArrayDeque<>();
+
+        @Override
+        public void execute(Runnable task) {
+            tasks.add(task);
+        }
+
+        void runAll() {
+            Runnable task;
+            while ((task = tasks.poll()) != null) {
+                task.run();
+            }
+        }
+    }
+
+    private static final class FakeLifecycle extends Lifecycle implements LifecycleOwner {
+        final List<LifecycleObserver> observers = new ArrayList<>();
+        State state = State.RESUMED;
+
+        @Override
+        public void addObserver(LifecycleObserver observer) {
+            observers.add(observer);
+        }
+
+        @Override
+        public void removeObserver(LifecycleObserver observer) {
+            observers.remove(observer);
+        }
+
+        @Override
+        public State getCurrentState() {
+            return state;
+        }
+
+        @Override
+        public Lifecycle getLifecycle() {
+            return this;
+        }
+
+        void destroy() {
+            state = State.DESTROYED;
+            for (LifecycleObserver observer : new ArrayList<>(observers)) {
+                ((LifecycleEventObserver) observer).onStateChanged(this, Event.ON_DESTROY);
+            }
+        }
+    }
+
+    @Test
+    public void lateSubscriberGetsLatestAndClosedSubscriptionGetsNothing() {
+        LocationBus<Integer> bus = new LocationBus<>();
+        bus.publish(1);
+        bus.publish(2);
+        OrderedListener late = new OrderedListener();
+        LocationBus.Subscription<Integer> subscription = bus.subscribe(Runnable::run, late);
+        assertEquals(2, late.last);
+
+        subscription.close();
+        bus.publish(3);
+        assertEquals(2, late.last);
+        assertEquals(1, late.received.get());
+        assertEquals(0, bus.getSubscriberCount());
+    }
+
+    @Test
+    public void lifecycleDestroyClosesSubscription() {
+        LocationBus<Integer> bus = new LocationBus<>();
+        FakeLifecycle lifecycle = new FakeLifecycle();
+        OrderedListener listener = new OrderedListener();
+        LocationBus.Subscription<Integer> subscription = bus.subscribe(lifecycle, Runnable::run, listener);
+        bus.publish(1);
+        lifecycle.destroy();
+        bus.publish(2);
+
+        assertFalse(subscription.isActive());
+        assertTrue(lifecycle.observers.isEmpty());
+        assertEquals(1, listener.last);
+
+        // Yok edilmiş sahibe abonelik hemen kapanır.
+        assertFalse(bus.subscribe(lifecycle, Runnable::run, listener).isActive());
+        assertEquals(0, bus.getSubscriberCount());
+    }
+
+    @Test
+    public void subscriberCountIsBounded() {
+        LocationBus<Integer> bus = new LocationBus<>();
+        OrderedListener listener = new OrderedListener();
+        for (int i = 0; i < LocationBus.MAX_SUBSCRIBERS; i++) {
+            assertTrue(bus.subscribe(Runnable::run, listener).isActive());
+        }
+        assertFalse(bus.subscribe(Runnable::run, listener).isActive());
+        assertEquals(LocationBus.MAX_SUBSCRIBERS, bus.getSubscriberCount());
+    }
+
+    @Test
+    public void fiftySubscribersKeepOrderAndSlowOnesConflate() {
+        LocationBus<Integer> bus = new LocationBus<>();
+        int subscribers = 50;
+        int fixes = 300;
+        // Yavaş abone her slowStep yayında bir teslim alabilir (ör. 10 ms'lik akışa 40 ms'lik abone).
+        final int slowStep = 4;
+        List<OrderedListener> listeners = new ArrayList<>();
+        List<LocationBus.Subscription<Integer>> subscriptions = new ArrayList<>();
+        SteppedExecutor shared = new SteppedExecutor();
+        List<SteppedExecutor> slowExecutors = new ArrayList<>();
+        for (int i = 0; i < subscribers; i++) {
+            // Üçte biri yayıncı thread'inde, üçte biri her yayından sonra boşaltılan ortak yürütücüde, kalanı
+            // kendi yürütücüsünde ve yavaş.
+            OrderedListener listener = new OrderedListener();
+            LocationBus.Subscription<Integer> subscription;
+            if (i % 3 == 0) {
+                subscription = bus.subscribe(Runnable::run, listener);
+            } else if (i % 3 == 1) {
+                subscription = bus.subscribe(shared, listener);
+            } else {
+                SteppedExecutor own = new SteppedExecutor();
+                slowExecutors.add(own);
+                subscription = bus.subscribe(own, listener);
+            }
+            listeners.add(listener);
+            subscriptions.add(subscription);
+        }
+
+        for (int fix = 0; fix < fixes; fix++) {
+            bus.publish(fix);
+            shared.runAll();
+            if ((fix + 1) % slowStep == 0) {
+                for (SteppedExecutor executor : slowExecutors) {
+                    executor.runAll();
+                }
+            }
+        }
+        for (SteppedExecutor executor : slowExecutors) {
+            executor.runAll();
+        }
+
+        for (int i = 0; i < subscribers; i++) {
+            OrderedListener listener = listeners.get(i);
+            LocationBus.Subscription<Integer> subscription = subscriptions.get(i);
+            assertEquals("subscriber " + i + " son değeri almalı", fixes - 1, listener.last);
+            assertEquals("subscriber " + i, 0, listener.outOfOrder.get());
+            assertEquals("subscriber " + i, fixes, subscription.getDeliveredCount() + subscription.getConflatedCount());
+            if (i % 3 == 2) {
+                // Her boşaltmada yalnızca en güncel değer teslim edilir, aradakiler birleştirilir.
+                assertEquals("subscriber " + i, fixes / slowStep, listener.received.get());
+                assertEquals("subscriber " + i, fixes - fixes / slowStep, subscription.getConflatedCount());
+            } else {
+                assertEquals("subscriber " + i, fixes, listener.received.get());
+                assertEquals("subscriber " + i, 0, subscription.getConflatedCount());
+            }
+        }
+        assertEquals(fixes, bus.getPublishedCount());
+    }
+}
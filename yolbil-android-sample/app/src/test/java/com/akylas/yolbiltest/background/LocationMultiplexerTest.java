@@ -0,0 +1,143 @@
+package com.akylas.yolbiltest.background;
+
+import com.google.android.gms.location.Priority;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * LocationMultiplexer gereksinim birleştirme, referans sayımı ve tek fix dağıtımı (sahte platformla, host üzerinde).
+ * Fix'ler android.location.Location yerine düz nesnelerdir.
+ */
+public class LocationMultiplexerTest {
+
+    /** Platforma verilen istekleri kaydeder. */
+    private static final class FakeProvider implements LocationMultiplexer.Provider<Object> {
+        final List<LocationMultiplexer.Requirement> requests = new ArrayList<>();
+        int removes;
+        boolean denied;
+
+        @Override
+        public void request(LocationMultiplexer.Requirement requirement, LocationMultiplexer<Object> target) {
+            if (denied) {
+                throw new SecurityException("denied");
+            }
+            requests.add(requirement);
+        }
+
+        @Override
+        public void remove() {
+            removes++;
+        }
+    }
+
+    @Test
+    public void leasesAreMergedIntoOnePlatformRequest() {
+        FakeProvider provider = new FakeProvider();
+        LocationMultiplexer<Object> multiplexer = new LocationMultiplexer<>(provider, location -> { });
+
+        LocationMultiplexer<Object>.Lease screen = multiplexer.acquire(LocationMultiplexer.Requirement.DEFAULT, null);
+        LocationMultiplexer<Object>.Lease service = multiplexer.acquire(LocationMultiplexer.Requirement.DEFAULT, null);
+        // Aynı gereksinimli ikinci istemci platforma yeni istek açmaz.
+        assertEquals(1, provider.requests.size());
+        assertEquals(2, multiplexer.getLeaseCount());
+
+        service.update(new LocationMultiplexer.Requirement(10_000, 5_000, Priority.PRIORITY_BALANCED_POWER_ACCURACY));
+        assertEquals(1, provider.requests.size());
+        LocationMultiplexer<Object>.Lease fast = multiplexer.acquire(
+                new LocationMultiplexer.Requirement(1000, 500, Priority.PRIORITY_LOW_POWER), null);
+        assertEquals(new LocationMultiplexer.Requirement(1000, 500, Priority.PRIORITY_HIGH_ACCURACY),
+                multiplexer.getActiveRequirement());
+
+        screen.release();
+        screen.release();
+        fast.release();
+        assertEquals(new LocationMultiplexer.Requirement(10_000, 5_000, Priority.PRIORITY_BALANCED_POWER_ACCURACY),
+                multiplexer.getActiveRequirement());
+        assertEquals(0, provider.removes);
+
+        service.release();
+        assertNull(multiplexer.getActiveRequirement());
+        assertEquals(1, provider.removes);
+        assertEquals(4, multiplexer.getPlatformRequestCount());
+    }
+
+    @Test
+    public void everyFixReachesSinkAndLeaseListenersOnce() {
+        FakeProvider provider = new FakeProvider();
+        List<Object> sunk = new ArrayList<>();
+        LocationMultiplexer<Object> multiplexer = new LocationMultiplexer<>(provider, sunk::add);
+        List<Object> notified = new ArrayList<>();
+        LocationMultiplexer<Object>.Lease service = multiplexer.acquire(LocationMultiplexer.Requirement.DEFAULT, notified::add);
+        LocationMultiplexer<Object>.Lease screen = multiplexer.acquire(LocationMultiplexer.Requirement.DEFAULT, null);
+
+        Object fix = new Object();
+        multiplexer.onFix(fix);
+        multiplexer.onFix(null);
+        assertEquals(1, sunk.size());
+        assertSame(fix, sunk.get(0));
+        assertEquals(1, notified.size());
+        assertSame(fix, notified.get(0));
+
+        service.release();
+        multiplexer.onFix(new Object());
+        assertEquals(2, sunk.size());
+        assertEquals(1, notified.size());
+
+        // İstek kaldırıldıktan sonra gelen fix yayınlanmaz.
+        screen.release();
+        multiplexer.onFix(new Object());
+        assertEquals(2, sunk.size());
+        assertEquals(2, multiplexer.getFixCount());
+    }
+
+    @Test
+    public void batchedResultIsDeliveredFixByFixInOrder() {
+        FakeProvider provider = new FakeProvider();
+        List<Object> sunk = new ArrayList<>();
+        List<String> order = new ArrayList<>();
+        LocationMultiplexer<Object> multiplexer = new LocationMultiplexer<>(provider, location -> {
+            sunk.add(location);
+            order.add("sink " + location);
+        });
+        multiplexer.acquire(LocationRequestPolicy.NAVIGATION_FAR_BACKGROUND, location -> order.add("lease " + location));
+
+        // Biriktirmeli istekte platform 15 saniyelik fix'leri tek sonuçta teslim eder.
+        List<Object> batch = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            batch.add(i);
+        }
+        batch.add(2, null);
+        multiplexer.onFixes(batch);
+        multiplexer.onFixes(new ArrayList<>());
+        multiplexer.onFixes(null);
+
+        assertEquals(Arrays.<Object>asList(0, 1, 2, 3, 4), sunk);
+        assertEquals(Arrays.asList("sink 0", "lease 0", "sink 1", "lease 1", "sink 2", "lease 2",
+                "sink 3", "lease 3", "sink 4", "lease 4"), order);
+        assertEquals(5, multiplexer.getFixCount());
+    }
+
+    @Test
+    public void deniedRequestIsRetriedOnNextChange() {
+        FakeProvider provider = new FakeProvider();
+        LocationMultiplexer<Object> multiplexer = new LocationMultiplexer<>(provider, location -> { });
+        provider.denied = true;
+        LocationMultiplexer<Object>.Lease lease = multiplexer.acquire(LocationMultiplexer.Requirement.DEFAULT, null);
+        assertNull(multiplexer.getActiveRequirement());
+
+        provider.denied = false;
+        LocationMultiplexer<Object>.Lease second = multiplexer.acquire(LocationMultiplexer.Requirement.DEFAULT, null);
+        assertEquals(LocationMultiplexer.Requirement.DEFAULT, multiplexer.getActiveRequirement());
+        assertEquals(1, provider.requests.size());
+
+        lease.release();
+        second.release();
+        assertEquals(1, provider.removes);
+    }
+}
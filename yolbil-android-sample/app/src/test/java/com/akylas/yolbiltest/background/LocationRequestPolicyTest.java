@@ -0,0 +1,66 @@
+package com.akylas.yolbiltest.background;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/** LocationRequestPolicy durum tablosu ve sıklaştırma/gevşetme histerezisi (host üzerinde). */
+public class LocationRequestPolicyTest {
+
+    private static final double NAN = Double.NaN;
+
+    @Test
+    public void requirementFollowsNavigationSpeedAndForeground() {
+        assertSame(LocationRequestPolicy.IDLE_BACKGROUND, LocationRequestPolicy.evaluate(false, NAN, 0, false));
+        assertSame(LocationRequestPolicy.BROWSING_STATIONARY, LocationRequestPolicy.evaluate(false, NAN, 0.2, true));
+        assertSame(LocationRequestPolicy.BROWSING, LocationRequestPolicy.evaluate(false, NAN, NAN, true));
+
+        // 120 km/h, manevra 200 m ileride.
+        assertSame(LocationRequestPolicy.MANEUVER, LocationRequestPolicy.evaluate(true, 200, 33.3, true));
+        // 120 km/h'de 600 m, 20 saniyeden kısa.
+        assertSame(LocationRequestPolicy.MANEUVER, LocationRequestPolicy.evaluate(true, 600, 33.3, false));
+        assertSame(LocationRequestPolicy.NAVIGATION_CRUISE, LocationRequestPolicy.evaluate(true, 1500, 15, true));
+        assertSame(LocationRequestPolicy.NAVIGATION_FAR, LocationRequestPolicy.evaluate(true, 8000, 30, true));
+        assertSame(LocationRequestPolicy.NAVIGATION_FAR_BACKGROUND,
+                LocationRequestPolicy.evaluate(true, 8000, 30, false));
+        assertSame(LocationRequestPolicy.NAVIGATION_STATIONARY, LocationRequestPolicy.evaluate(true, 1500, 0, true));
+        assertSame(LocationRequestPolicy.NAVIGATION_CRUISE, LocationRequestPolicy.evaluate(true, NAN, NAN, true));
+
+        assertTrue(LocationRequestPolicy.NAVIGATION_FAR_BACKGROUND.maxUpdateDelayMillis > 0);
+        assertEquals(0, LocationRequestPolicy.MANEUVER.maxUpdateDelayMillis);
+    }
+
+    @Test
+    public void tighteningIsImmediateAndLooseningWaits() {
+        LocationRequestPolicy policy = new LocationRequestPolicy(LocationRequestPolicy.NAVIGATION_CRUISE);
+
+        assertSame(LocationRequestPolicy.MANEUVER, policy.update(true, 150, 14, true, 0));
+        // Manevra geçildi, sıradaki uzak: gecikme dolana kadar sık istek korunur.
+        assertSame(LocationRequestPolicy.MANEUVER, policy.update(true, 4000, 14, true, 1_000));
+        assertSame(LocationRequestPolicy.MANEUVER,
+                policy.update(true, 3990, 14, true, LocationRequestPolicy.LOOSEN_AFTER_MS));
+        assertSame(LocationRequestPolicy.NAVIGATION_FAR,
+                policy.update(true, 3900, 14, true, 1_000 + LocationRequestPolicy.LOOSEN_AFTER_MS));
+        assertEquals(2, policy.getChangeCount());
+
+        // Eşik çevresinde dalgalanan hız isteği yenilemez.
+        long now = 20_000;
+        for (int i = 0; i < 20; i++, now += 1_000) {
+            double speed = i % 2 == 0 ? 0.5 : 3;
+            assertSame(LocationRequestPolicy.NAVIGATION_FAR, policy.update(true, 3000, speed, true, now));
+        }
+        assertEquals(2, policy.getChangeCount());
+    }
+
+    @Test
+    public void navigationEndDropsToIdleInBackground() {
+        LocationRequestPolicy policy = new LocationRequestPolicy(LocationRequestPolicy.BROWSING);
+        assertSame(LocationRequestPolicy.BROWSING, policy.update(false, NAN, 5, false, 0));
+        assertSame(LocationRequestPolicy.IDLE_BACKGROUND,
+                policy.update(false, NAN, 5, false, LocationRequestPolicy.LOOSEN_AFTER_MS));
+
+        // Navigasyon arka planda başlarsa istek hemen sıklaşır.
+        assertSame(LocationRequestPolicy.NAVIGATION_CRUISE,
+                policy.update(true, 1500, 15, false, LocationRequestPolicy.LOOSEN_AFTER_MS + 1));
+    }
+}
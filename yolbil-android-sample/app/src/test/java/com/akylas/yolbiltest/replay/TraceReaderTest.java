@@ -0,0 +1,150 @@
+package com.akylas.yolbiltest.replay;
+
+import org.junit.Test;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.Assert.*;
+
+/**
+ * GPX ve NMEA okuyucularının küçük örnek dosyalarla doğruluk kontrolleri.
+ */
+public class TraceReaderTest {
+
+    private static final String GPX = "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n"
+            + "<!-- saha kaydı > test -->\n"
+            + "<gpx version=\"1.1\" creator=\"test\" xmlns:gpxtpx=\"http://www.garmin.com/xmlschemas/TrackPointExtension/v2\">\n"
+            + " <trk><name>Ankara</name><trkseg>\n"
+            + "  <trkpt lat=\"39.920770\" lon=\"32.854110\">\n"
+            + "   <ele>890.5</ele><time>2024-05-01T09:00:00Z</time><hdop>1.2</hdop>\n"
+            + "   <extensions><gpxtpx:TrackPointExtension><gpxtpx:speed>13.5</gpxtpx:speed>"
+            + "<gpxtpx:course>87.0</gpxtpx:course></gpxtpx:TrackPointExtension></extensions>\n"
+            + "  </trkpt>\n"
+            + "  <trkpt lon=\"32.855000\" lat=\"39.921000\"><time>2024-05-01T12:00:01.500+03:00</time></trkpt>\n"
+            + "  <trkpt lat=\"39.9215\" lon=\"32.8555\"/>\n"
+            + " </trkseg></trk>\n"
+            + "</gpx>\n";
+
+    private static final String NMEA = "$GPGGA,090000.00,3955.2462,N,03251.2466,E,1,08,0.9,890.5,M,36.0,M,,*5B\n"
+            + "$GPRMC,090000.00,A,3955.2462,N,03251.2466,E,26.2,87.0,010524,,,A*51\n"
+            + "$GPRMC,090001.00,A,3955.2500,N,03251.3000,E,26.0,88.0,010524,,,A*00\n"
+            + "$GPRMC,090002.00,V,,,,,,,010524,,,N*7F\n"
+            + "$GPRMC,090003.00,A,3955.2600,N,03251.4000,E,25.0,89.0,010524,,,A*FF\n";
+
+    @Test
+    public void gpxTrackPointsWithExtensions() throws IOException {
+        File file = writeTemp(".gpx", GPX);
+        try (TraceReader reader = TraceReader.open(file)) {
+            TraceFix fix = new TraceFix();
+
+            assertTrue(reader.next(fix));
+            assertEquals(39.920770, fix.latitude, 1e-9);
+            assertEquals(32.854110, fix.longitude, 1e-9);
+            assertEquals(890.5, fix.altitude, 1e-9);
+            assertEquals(13.5, fix.speedMps, 1e-9);
+            assertEquals(87.0, fix.bearingDeg, 1e-9);
+            assertEquals(1.2 * GpxTraceReader.HDOP_TO_METERS, fix.horizontalAccuracyM, 1e-9);
+            assertEquals(1714554000000L, fix.timestampMs);
+
+            assertTrue(reader.next(fix));
+            assertEquals(39.921, fix.latitude, 1e-9);
+            assertEquals(32.855, fix.longitude, 1e-9);
+            // +03:00 ofseti UTC'ye çevrilir.
+            assertEquals(1714554001500L, fix.timestampMs);
+            assertFalse(fix.hasSpeed());
+
+            assertTrue(reader.next(fix));
+            assertEquals(39.9215, fix.latitude, 1e-9);
+            assertFalse(reader.next(fix));
+        } finally {
+            file.delete();
+        }
+    }
+
+    @Test
+    public void nmeaMergesSentencesAndSkipsInvalid() throws IOException {
+        File file = writeTemp(".nmea", withChecksums(NMEA));
+        try (TraceReader reader = TraceReader.open(file)) {
+            TraceFix fix = new TraceFix();
+
+            assertTrue(reader.next(fix));
+            assertEquals(39.92077, fix.latitude, 1e-6);
+            assertEquals(32.85411, fix.longitude, 1e-6);
+            assertEquals(890.5, fix.altitude, 1e-9);
+            assertEquals(26.2 * 0.514444, fix.speedMps, 1e-6);
+            assertEquals(87.0, fix.bearingDeg, 1e-9);
+            assertEquals(0.9 * GpxTraceReader.HDOP_TO_METERS, fix.horizontalAccuracyM, 1e-9);
+            assertEquals(1714554000000L, fix.timestampMs);
+
+            assertTrue(reader.next(fix));
+            assertEquals(1714554001000L, fix.timestampMs);
+            assertFalse(fix.hasAltitude());
+
+            // Geçersiz (V) satır atlanır; sonraki geçerli satırın checksum'ı bozuk olduğu için o da atlanır.
+            assertFalse(reader.next(fix));
+        } finally {
+            file.delete();
+        }
+    }
+
+    @Test
+    public void mappedInputCrossesWindowBoundaries() throws IOException {
+        StringBuilder content = new StringBuilder();
+        for (int i = 0; i < 1000; i++) {
+            content.append("line ").append(i).append('\n');
+        }
+        File file = writeTemp(".txt", content.toString());
+        try (MappedByteInput input = new MappedByteInput(file, 7)) {
+            StringBuilder read = new StringBuilder();
+            int b;
+            while ((b = input.read()) != -1) {
+                read.append((char) b);
+            }
+            assertEquals(content.toString(), read.toString());
+            assertEquals(input.size(), input.position());
+        } finally {
+            file.delete();
+        }
+    }
+
+    @Test
+    public void isoTimestampAndCivilDays() {
+        byte[] text = "1970-01-02T00:00:00.250Z".getBytes(StandardCharsets.US_ASCII);
+        assertEquals(86_400_250L, TraceParsing.parseIsoTimestamp(text, 0, text.length));
+        assertEquals(0, TraceParsing.daysFromCivil(1970, 1, 1));
+        assertEquals(19844, TraceParsing.daysFromCivil(2024, 5, 1));
+        byte[] invalid = "yesterday".getBytes(StandardCharsets.US_ASCII);
+        assertEquals(TraceParsing.INVALID_TIME, TraceParsing.parseIsoTimestamp(invalid, 0, invalid.length));
+    }
+
+    // Son satır hariç checksum'ları yeniden hesaplar; son satır bilerek bozuk bırakılır.
+    private static String withChecksums(String nmea) {
+        String[] lines = nmea.split("\n");
+        StringBuilder result = new StringBuilder();
+        for (int i = 0; i < lines.length; i++) {
+            String line = lines[i];
+            int star = line.indexOf('*');
+            if (i < lines.length - 1) {
+                int checksum = 0;
+                for (int j = 1; j < star; j++) {
+                    checksum ^= line.charAt(j);
+                }
+                line = line.substring(0, star + 1) + String.format("%02X", checksum);
+            }
+            result.append(line).append("\r\n");
+        }
+        return result.toString();
+    }
+
+    private static File writeTemp(String suffix, String content) throws IOException {
+        File file = File.createTempFile("trace", suffix);
+        try (OutputStream out = new FileOutputStream(file)) {
+            out.write(content.getBytes(StandardCharsets.UTF_8));
+        }
+        return file;
+    }
+}
@@ -0,0 +1,62 @@
+package com.akylas.yolbiltest.ui.main;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/** Simülasyon tik planının sabit oranı, kısa gecikmeyi telafisi ve uzun duraklamada yeniden hizalanması. */
+public class FixedRateScheduleTest {
+
+    private static final long INTERVAL = 1000;
+
+    @Test
+    public void ticksStayOnGridWhenWorkTakesTime() {
+        FixedRateSchedule schedule = new FixedRateSchedule();
+        schedule.start(10_000);
+
+        // Her tikin işi 120 ms sürse de plan kaymaz.
+        assertEquals(11_000, schedule.next(INTERVAL, 10_120));
+        assertEquals(12_000, schedule.next(INTERVAL, 11_120));
+        assertEquals(13_000, schedule.next(INTERVAL, 12_120));
+    }
+
+    @Test
+    public void shortStallIsCaughtUpWithoutDrift() {
+        FixedRateSchedule schedule = new FixedRateSchedule();
+        schedule.start(0);
+        assertEquals(1_000, schedule.next(INTERVAL, 50));
+
+        // Tik 1700 ms'de koştu: bir sonraki tik (2000) henüz geçmedi, plan korunur.
+        assertEquals(2_000, schedule.next(INTERVAL, 1_700));
+        // Tik 2900 ms'de koştu: 3000 planında kalır.
+        assertEquals(3_000, schedule.next(INTERVAL, 2_900));
+        // Bir aralıktan az geride: geçmiş zamana planlanır, yani hemen koşar ve saat yetişir.
+        assertEquals(4_000, schedule.next(INTERVAL, 4_800));
+        assertEquals(5_000, schedule.next(INTERVAL, 4_810));
+        assertEquals(6_000, schedule.next(INTERVAL, 5_010));
+    }
+
+    @Test
+    public void longStallRealignsInsteadOfBursting() {
+        FixedRateSchedule schedule = new FixedRateSchedule();
+        schedule.start(0);
+        assertEquals(1_000, schedule.next(INTERVAL, 10));
+
+        // 7 saniyelik duraklama: kaçan tikler art arda koşturulmaz, şimdiki zamana hizalanır.
+        long now = 8_000;
+        long due = schedule.next(INTERVAL, now);
+        assertEquals(now, due);
+        assertEquals(now + INTERVAL, schedule.next(INTERVAL, now + 5));
+        assertEquals(now + 2 * INTERVAL, schedule.next(INTERVAL, now + INTERVAL + 5));
+    }
+
+    @Test
+    public void restartResetsTheGrid() {
+        FixedRateSchedule schedule = new FixedRateSchedule();
+        schedule.start(0);
+        assertEquals(100, schedule.next(100, 0));
+        assertEquals(200, schedule.next(100, 100));
+        schedule.start(500);
+        assertEquals(550, schedule.next(50, 500));
+    }
+}
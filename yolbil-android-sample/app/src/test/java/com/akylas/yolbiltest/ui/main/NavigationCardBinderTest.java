@@ -0,0 +1,174 @@
+package com.akylas.yolbiltest.ui.main;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Kart bağlayıcısının yalnızca değişen alanları yazdığını, setter ve layout isteği sayarak doğrular.
+ */
+public class NavigationCardBinderTest {
+
+    /**
+     * Setter çağrılarını sayar. Metin, ikon ve görünürlük değişimi Android'de view'ın boyutunu etkileyebildiği
+     * için requestLayout tetikler; renk ve arka plan yalnızca yeniden çizim ister.
+     */
+    private static final class CountingViews implements NavigationCardBinder.Views {
+        int setterCalls;
+        int layoutRequests;
+        String manifestText;
+        String distanceText;
+        int currentSpeed;
+        boolean speeding;
+        boolean nextVisible;
+        boolean hasSpeedRow = true;
+
+        private void layoutChange() {
+            setterCalls++;
+            layoutRequests++;
+        }
+
+        @Override
+        public void setManifestText(String text) {
+            manifestText = text;
+            layoutChange();
+        }
+
+        @Override
+        public void setDirectionText(String text) {
+            layoutChange();
+        }
+
+        @Override
+        public void setDistanceText(String text) {
+            distanceText = text;
+            layoutChange();
+        }
+
+        @Override
+        public void setDirectionIcon(int iconRes) {
+            layoutChange();
+        }
+
+        @Override
+        public void setTotalDistanceText(String text) {
+            layoutChange();
+        }
+
+        @Override
+        public void setTotalTimeText(String text) {
+            layoutChange();
+        }
+
+        @Override
+        public boolean hasSpeedRow() {
+            return hasSpeedRow;
+        }
+
+        @Override
+        public void setCurrentSpeed(int speedKmh) {
+            currentSpeed = speedKmh;
+            layoutChange();
+        }
+
+        @Override
+        public void setSpeedLimit(int speedLimitKmh) {
+            layoutChange();
+        }
+
+        @Override
+        public void setSpeeding(boolean speeding) {
+            this.speeding = speeding;
+            setterCalls++;
+        }
+
+        @Override
+        public void setNextCommandVisible(boolean visible) {
+            nextVisible = visible;
+            layoutChange();
+        }
+
+        @Override
+        public void setNextCommandIcon(int iconRes) {
+            layoutChange();
+        }
+
+        @Override
+        public void setNextCommandLabel(CharSequence label) {
+            layoutChange();
+        }
+    }
+
+    @Test
+    public void firstBindWritesEveryFieldOnce() {
+        CountingViews views = new CountingViews();
+        NavigationCardBinder binder = new NavigationCardBinder(views);
+
+        binder.bind(state("800 m", 2, true), 60, "Ardından");
+        // 4 birincil + 2 özet + hız, limit, aşım rengi + görünürlük, ikon, etiket.
+        assertEquals(12, views.setterCalls);
+        assertEquals(11, views.layoutRequests);
+        assertEquals("Yol", views.manifestText);
+        assertTrue(views.nextVisible);
+        assertFalse(views.speeding);
+    }
+
+    @Test
+    public void identicalStateTouchesNoView() {
+        CountingViews views = new CountingViews();
+        NavigationCardBinder binder = new NavigationCardBinder(views);
+        binder.bind(state("800 m", 2, true), 60, "Ardından");
+        int setters = views.setterCalls;
+        int layouts = views.layoutRequests;
+
+        // Aynı içerikli yeni nesneler (ör. her fix'te yeniden üretilen durum) view'a dokunmaz.
+        for (int i = 0; i < 100; i++) {
+            binder.bind(state(new String("800 m"), 2, true), 60, new StringBuilder("Ardından").toString());
+        }
+        assertEquals(setters, views.setterCalls);
+        assertEquals(layouts, views.layoutRequests);
+    }
+
+    @Test
+    public void onlyChangedFieldsAreWritten() {
+        CountingViews views = new CountingViews();
+        NavigationCardBinder binder = new NavigationCardBinder(views);
+        binder.bind(state("800 m", 2, true), 60, "Ardından");
+
+        int before = views.setterCalls;
+        binder.bind(state("790 m", 2, true), 60, "Ardından");
+        assertEquals(before + 1, views.setterCalls);
+        assertEquals("790 m", views.distanceText);
+
+        // Hız limiti aşıldığında hız metni ve renk değişir; layout yalnızca metin için istenir.
+        before = views.setterCalls;
+        int layouts = views.layoutRequests;
+        binder.bind(state("790 m", 2, true), 75, "Ardından");
+        assertEquals(before + 2, views.setterCalls);
+        assertEquals(layouts + 1, views.layoutRequests);
+        assertEquals(75, views.currentSpeed);
+        assertTrue(views.speeding);
+
+        before = views.setterCalls;
+        binder.bind(state("790 m", 2, false), 75, "Ardından");
+        binder.bind(state("790 m", 2, false), 75, "Ardından");
+        assertEquals(before + 1, views.setterCalls);
+        assertFalse(views.nextVisible);
+    }
+
+    @Test
+    public void missingSpeedRowIsSkipped() {
+        CountingViews views = new CountingViews();
+        views.hasSpeedRow = false;
+        NavigationCardBinder binder = new NavigationCardBinder(views);
+
+        binder.bind(state("800 m", 2, false), 60, "Ardından");
+        assertEquals(0, views.currentSpeed);
+        assertEquals(7, views.setterCalls);
+    }
+
+    private static NavigationCardState state(String distanceText, int nextIconRes, boolean showNext) {
+        return new NavigationCardState("Yol", "Sağa dönün", distanceText, 1, nextIconRes, showNext,
+                "12 km", "14 dk", 0, 70);
+    }
+}
@@ -0,0 +1,191 @@
+package com.akylas.yolbiltest.ui.main;
+
+import android.view.Choreographer;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Kart zamanlayıcısının kare başına tek güncelleme yaptığını ve ara durumları attığını
+ * elle ilerletilen bir kare kaynağıyla doğrular.
+ */
+public class NavigationCardSchedulerTest {
+
+    /** postFrameCallback çağrılarını biriktirir; {@link #tick()} bir vsync'i taklit eder. */
+    private static final class ManualFrames implements NavigationCardScheduler.FrameSource {
+        final List<Choreographer.FrameCallback> callbacks = new ArrayList<>();
+        int posted;
+        long frameTimeNanos;
+
+        @Override
+        public synchronized void postFrameCallback(Choreographer.FrameCallback callback) {
+            posted++;
+            callbacks.add(callback);
+        }
+
+        @Override
+        public synchronized void removeFrameCallback(Choreographer.FrameCallback callback) {
+            callbacks.remove(callback);
+        }
+
+        void tick() {
+            List<Choreographer.FrameCallback> due;
+            synchronized (this) {
+                due = new ArrayList<>(callbacks);
+                callbacks.clear();
+            }
+            frameTimeNanos += 16_666_667L;
+            for (Choreographer.FrameCallback callback : due) {
+                callback.doFrame(frameTimeNanos);
+            }
+        }
+    }
+
+    private static final class RecordingBinder implements NavigationCardScheduler.Binder {
+        final List<NavigationCardState> states = new ArrayList<>();
+        final List<String> calls = new ArrayList<>();
+        int speedBinds;
+        int resets;
+
+        @Override
+        public void bindState(NavigationCardState state) {
+            states.add(state);
+            calls.add("state");
+        }
+
+        @Override
+        public void bindSpeed() {
+            speedBinds++;
+            calls.add("speed");
+        }
+
+        @Override
+        public void reset() {
+            resets++;
+            calls.add("reset");
+        }
+    }
+
+    @Test
+    public void burstBetweenFramesKeepsOnlyLatestState() {
+        ManualFrames frames = new ManualFrames();
+        RecordingBinder binder = new RecordingBinder();
+        NavigationCardScheduler scheduler = new NavigationCardScheduler(frames, binder);
+
+        NavigationCardState last = null;
+        for (int i = 0; i < 3; i++) {
+            last = state(i);
+            scheduler.submitState(last);
+            scheduler.markSpeedDirty();
+        }
+        assertEquals(1, frames.posted);
+
+        frames.tick();
+        assertEquals(1, binder.states.size());
+        assertSame(last, binder.states.get(0));
+        // Kart durumu hız kutusunu da çizdiği için ayrıca hız güncellemesi yapılmaz.
+        assertEquals(0, binder.speedBinds);
+        assertEquals(2, scheduler.getDroppedStateCount());
+
+        // Bekleyen iş yoksa kare istenmez.
+        frames.tick();
+        assertEquals(1, frames.posted);
+        assertEquals(1, scheduler.getDispatchedFrameCount());
+    }
+
+    @Test
+    public void speedOnlyChangeBindsSpeedRow() {
+        ManualFrames frames = new ManualFrames();
+        RecordingBinder binder = new RecordingBinder();
+        NavigationCardScheduler scheduler = new NavigationCardScheduler(frames, binder);
+
+        scheduler.markSpeedDirty();
+        scheduler.markSpeedDirty();
+        frames.tick();
+        assertEquals(1, binder.speedBinds);
+        assertTrue(binder.states.isEmpty());
+    }
+
+    @Test
+    public void cancelDropsPendingState() {
+        ManualFrames frames = new ManualFrames();
+        RecordingBinder binder = new RecordingBinder();
+        NavigationCardScheduler scheduler = new NavigationCardScheduler(frames, binder);
+
+        scheduler.submitState(state(1));
+        scheduler.cancel();
+        frames.tick();
+        assertTrue(binder.states.isEmpty());
+
+        // İptalden sonra yeni durum yeniden kare planlar.
+        scheduler.submitState(state(2));
+        frames.tick();
+        assertEquals(1, binder.states.size());
+    }
+
+    @Test
+    public void resetFromSdkThreadRunsOnTheNextFrame() throws InterruptedException {
+        ManualFrames frames = new ManualFrames();
+        RecordingBinder binder = new RecordingBinder();
+        final NavigationCardScheduler scheduler = new NavigationCardScheduler(frames, binder);
+
+        scheduler.submitState(state(1));
+        scheduler.markSpeedDirty();
+        // onNavigationStopped SDK thread'inde gelir; kart o thread'de değil karede sıfırlanır.
+        Thread sdk = new Thread(scheduler::submitReset);
+        sdk.start();
+        sdk.join();
+        assertEquals(0, binder.resets);
+        assertEquals(1, frames.posted);
+
+        frames.tick();
+        assertEquals(1, binder.resets);
+        assertTrue(binder.states.isEmpty());
+        assertEquals(0, binder.speedBinds);
+
+        // Sıfırlamadan sonra gelen durum aynı karede sıfırlamanın ardından çizilir.
+        scheduler.submitReset();
+        scheduler.submitState(state(2));
+        frames.tick();
+        assertEquals(2, binder.resets);
+        assertEquals(1, binder.states.size());
+        assertEquals("reset", binder.calls.get(binder.calls.size() - 2));
+        assertEquals("state", binder.calls.get(binder.calls.size() - 1));
+    }
+
+    @Test
+    public void mainThreadWorkIsBoundedByFrameRate() throws InterruptedException {
+        final ManualFrames frames = new ManualFrames();
+        RecordingBinder binder = new RecordingBinder();
+        final NavigationCardScheduler scheduler = new NavigationCardScheduler(frames, binder);
+        final int fixesPerFrame = 50;
+        final int frameCount = 120;
+
+        for (int frame = 0; frame < frameCount; frame++) {
+            // SDK thread'i iki kare arasında çok sayıda fix üretir (onCommandReady + onLocationChanged + hız).
+            Thread producer = new Thread(() -> {
+                for (int i = 0; i < fixesPerFrame; i++) {
+                    scheduler.submitState(state(i));
+                    scheduler.submitState(state(i));
+                    scheduler.markSpeedDirty();
+                }
+            });
+            producer.start();
+            producer.join();
+            frames.tick();
+        }
+
+        assertEquals(frameCount, frames.posted);
+        assertEquals(frameCount, binder.states.size());
+        assertEquals((long) frameCount * (fixesPerFrame * 2 - 1), scheduler.getDroppedStateCount());
+    }
+
+    private static NavigationCardState state(int index) {
+        return new NavigationCardState("Yol", "Sağa dönün", index + " m", 1, NavigationCardState.NO_ICON,
+                false, "", "0 dk", 50, 70);
+    }
+}
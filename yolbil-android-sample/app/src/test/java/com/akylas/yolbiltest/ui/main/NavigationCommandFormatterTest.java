@@ -0,0 +1,123 @@
+package com.akylas.yolbiltest.ui.main;
+
+import org.junit.Test;
+
+import java.text.DecimalFormat;
+import java.util.Locale;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * Önbellekli mesafe/süre biçimlendirmesinin eski DecimalFormat çıktısıyla birebir aynı olduğunu ve
+ * aynı aralıktaki değerler için önbellekteki metni döndürdüğünü doğrular.
+ */
+public class NavigationCommandFormatterTest {
+
+    @Test
+    public void matchesLegacyFormattingAcrossRanges() {
+        Locale originalLocale = Locale.getDefault();
+        try {
+            checkLocales();
+        } finally {
+            Locale.setDefault(originalLocale);
+        }
+    }
+
+    private static void checkLocales() {
+        for (Locale locale : new Locale[]{Locale.US, new Locale("tr", "TR"), Locale.GERMANY}) {
+            Locale.setDefault(locale);
+            Random random = new Random(42);
+            for (int i = 0; i < 100_000; i++) {
+                double meters = random.nextDouble() * 1_200_000;
+                assertSameDistance(meters);
+                assertSameDistance(random.nextDouble() * 12_000);
+                double seconds = random.nextDouble() * 200_000;
+                assertEquals(legacyTotalTime(seconds), NavigationCommandFormatter.formatTotalTime(seconds));
+            }
+            // Aralık sınırları ve ikili gösterimde tam ortaya düşen değerler.
+            double[] edges = {Double.NaN, -1, 0, 0.5, 9.99, 10, 999.99, 1000, 1049.999, 1050, 1150, 1250,
+                    2350, 9949.99, 9950, 9999.99, 10_000, 10_050, 999_950, 1_000_050, 5_000_999, 6_000_000};
+            for (double meters : edges) {
+                assertSameDistance(meters);
+            }
+            double[] times = {Double.NaN, -1, 0, 0.1, 59.9, 60, 60.1, 3540, 3599.9, 3600, 3600.1, 172_800, 180_000};
+            for (double seconds : times) {
+                assertEquals(legacyTotalTime(seconds), NavigationCommandFormatter.formatTotalTime(seconds));
+            }
+        }
+    }
+
+    @Test
+    public void tieValuesFollowHalfEven() {
+        // Her x.x5 km değeri; ikili gösterim nedeniyle bir kısmı tam ortanın altında veya üstünde kalır.
+        for (int tenths = 10_000; tenths < 200_000; tenths += 5) {
+            double meters = tenths * 10 + 50;
+            assertSameDistance(meters);
+            assertSameDistance(meters / 10);
+        }
+    }
+
+    @Test
+    public void repeatedValuesReturnTheCachedText() {
+        // Aynı aralığa düşen fix'ler her seferinde yeni metin üretmez; önbellekteki örnek döner.
+        for (double meters = 0; meters < 150_000; meters += 37.5) {
+            assertSame(NavigationCommandFormatter.formatDistance(meters),
+                    NavigationCommandFormatter.formatDistance(meters));
+            assertSame(NavigationCommandFormatter.formatTotalDistance(meters),
+                    NavigationCommandFormatter.formatTotalDistance(meters));
+        }
+        for (double seconds = 0; seconds < 20_000; seconds += 7.5) {
+            assertSame(NavigationCommandFormatter.formatTotalTime(seconds),
+                    NavigationCommandFormatter.formatTotalTime(seconds));
+        }
+        assertSame(NavigationCommandFormatter.formatDistance(412), NavigationCommandFormatter.formatDistance(418));
+    }
+
+    private static void assertSameDistance(double meters) {
+        assertEquals("formatDistance(" + meters + ")",
+                legacyDistance(meters), NavigationCommandFormatter.formatDistance(meters));
+        assertEquals("formatTotalDistance(" + meters + ")",
+                legacyTotalDistance(meters), NavigationCommandFormatter.formatTotalDistance(meters));
+    }
+
+    // Önbellek öncesi biçimlendirmenin birebir kopyası (referans).
+    private static String legacyDistance(double distanceInMeters) {
+        if (distanceInMeters <= 0) {
+            return "-";
+        }
+        if (distanceInMeters >= 1000) {
+            return new DecimalFormat("0.0").format(distanceInMeters / 1000d) + " km";
+        }
+        int rounded = (int) (distanceInMeters / 10) * 10;
+        if (rounded == 0) {
+            rounded = 10;
+        }
+        return rounded + " m";
+    }
+
+    private static String legacyTotalDistance(double meters) {
+        if (Double.isNaN(meters) || meters <= 0) {
+            return "";
+        }
+        if (meters < 1000) {
+            int rounded = (int) (meters / 10) * 10;
+            return rounded == 0 ? "" : rounded + " m";
+        }
+        if (meters < 10_000) {
+            return new DecimalFormat("#.#").format(meters / 1000d) + " km";
+        }
+        return (int) (meters / 1000d) + " km";
+    }
+
+    private static String legacyTotalTime(double seconds) {
+        if (Double.isNaN(seconds) || seconds <= 0) {
+            return "0 dk";
+        }
+        int totalMinutes = (int) Math.ceil(seconds / 60d);
+        if (seconds < 3600) {
+            return totalMinutes + " dk";
+        }
+        return (totalMinutes / 60) + " s " + (totalMinutes % 60) + " dk";
+    }
+}
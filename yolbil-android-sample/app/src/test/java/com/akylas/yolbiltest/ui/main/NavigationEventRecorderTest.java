@@ -0,0 +1,278 @@
+package com.akylas.yolbiltest.ui.main;
+
+import org.junit.Test;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Olay kaydının birebir geri okunduğunu ve kayıttan oynatmanın canlı sunumla aynı kart durumlarını ürettiğini doğrular.
+ */
+public class NavigationEventRecorderTest {
+
+    private static final NavigationCardPresenter.TextSource TEXTS = new NavigationCardPresenter.TextSource() {
+        @Override
+        public String defaultManifestText() {
+            return "Yol";
+        }
+
+        @Override
+        public String directionText(TurnCommandTable.Entry command) {
+            return command.isEmpty() ? "Düz devam edin" : command.name;
+        }
+
+        @Override
+        public String totalDistancePlaceholder() {
+            return "-- km";
+        }
+
+        @Override
+        public String totalTimePlaceholder() {
+            return "-- dk";
+        }
+
+        @Override
+        public String instructionStreetName(int index) {
+            return null;
+        }
+    };
+
+    @Test
+    public void roundTripsAllEventTypes() throws IOException {
+        File file = File.createTempFile("navigation", ".ynev");
+        file.delete();
+        try {
+            RouteGeometry geometry = RouteGeometry.fromCoordinates(
+                    new double[]{32.8541100, 32.8550000, 32.8561234},
+                    new double[]{39.9207700, 39.9210000, 39.9199999});
+            NavigationEventRecorder recorder = NavigationEventRecorder.open(file, 1_000_000L);
+            recorder.recordRoute(1_000_010L, new String[]{"Atatürk Bulvarı", null, "Atatürk Bulvarı"}, geometry);
+            recorder.recordFix(1_000_020L, 32.85411, 39.92077, 12.5, 87.0, 4.0, 45);
+            recorder.recordCommandReady(1_000_030L, new NavigationCommandSnapshot(
+                    0, "", "TURN_RIGHT", "TURN_LEFT", 50, 1250, 4200, 600));
+            recorder.recordLocationChanged(1_000_025L, new NavigationCommandSnapshot(
+                    0, "Atatürk Bulvarı", "TURN_RIGHT", null, 50, 1200, 4150, 590));
+            recorder.close();
+
+            // İkinci oturum aynı dosyanın sonuna eklenir.
+            NavigationEventRecorder second = NavigationEventRecorder.open(file, 2_000_000L);
+            second.recordLocationChanged(2_000_001L, new NavigationCommandSnapshot(
+                    1, "Atatürk Bulvarı", "GO_STRAIGHT", null, 70, 300, 300, 20));
+            second.close();
+
+            List<NavigationEvent> events = NavigationEventReader.readAll(file);
+            assertEquals(7, events.size());
+
+            assertEquals(NavigationEvent.TYPE_SESSION, events.get(0).type);
+            assertEquals(1_000_000L, events.get(0).timestampMs);
+
+            NavigationEvent route = events.get(1);
+            assertEquals(NavigationEvent.TYPE_ROUTE, route.type);
+            assertEquals(1_000_010L, route.timestampMs);
+            assertEquals("Atatürk Bulvarı", route.instructionStreetNames[0]);
+            assertNull(route.instructionStreetNames[1]);
+            assertEquals("Atatürk Bulvarı", route.instructionStreetNames[2]);
+            assertEquals(32.8561234, route.routeLons[2], 1e-7);
+            assertEquals(39.9199999, route.routeLats[2], 1e-7);
+
+            NavigationEvent fix = events.get(2);
+            assertEquals(NavigationEvent.TYPE_FIX, fix.type);
+            assertEquals(32.85411, fix.longitude, 1e-7);
+            assertEquals(39.92077, fix.latitude, 1e-7);
+            assertEquals(12.5, fix.speedMps, 1e-6);
+            assertEquals(45, fix.displayedSpeedKmh);
+
+            NavigationEvent ready = events.get(3);
+            assertEquals(NavigationEvent.TYPE_COMMAND_READY, ready.type);
+            assertEquals("TURN_RIGHT", ready.command.firstCommandName);
+            assertEquals("TURN_LEFT", ready.command.nextCommandName);
+            assertEquals(1250.0, ready.command.distanceToCommand, 0);
+
+            NavigationEvent changed = events.get(4);
+            assertEquals(1_000_025L, changed.timestampMs); // geriye giden zaman farkı korunur
+            assertNull(changed.command.nextCommandName);
+            assertEquals("Atatürk Bulvarı", changed.command.nextRoadName);
+
+            assertEquals(NavigationEvent.TYPE_SESSION, events.get(5).type);
+            assertEquals(2_000_000L, events.get(5).timestampMs);
+            assertEquals("GO_STRAIGHT", events.get(6).command.firstCommandName);
+        } finally {
+            file.delete();
+        }
+    }
+
+    @Test
+    public void truncatedTailIsIgnored() throws IOException {
+        File file = File.createTempFile("navigation", ".ynev");
+        file.delete();
+        try {
+            NavigationEventRecorder recorder = NavigationEventRecorder.open(file, 0L);
+            recorder.recordFix(10L, 32.0, 39.0, 1, 2, 3, 4);
+            recorder.close();
+            try (FileOutputStream out = new FileOutputStream(file, true)) {
+                out.write(new byte[]{NavigationEvent.TYPE_FIX, 2}); // yarım kalmış kayıt
+            }
+            List<NavigationEvent> events = NavigationEventReader.readAll(file);
+            assertEquals(2, events.size());
+        } finally {
+            file.delete();
+        }
+    }
+
+    @Test
+    public void truncatedSessionIsTrimmedBeforeNextSession() throws IOException {
+        File file = File.createTempFile("navigation", ".ynev");
+        file.delete();
+        try {
+            NavigationEventRecorder recorder = NavigationEventRecorder.open(file, 0L);
+            recorder.recordFix(10L, 32.0, 39.0, 1, 2, 3, 4);
+            recorder.close();
+            long complete = file.length();
+
+            // Uygulama ikinci oturumun çerçevesi yazılırken kapanmış: çerçevenin yalnızca başı diskte.
+            NavigationEventRecorder crashed = NavigationEventRecorder.open(file, 5_000L);
+            crashed.recordFix(5_010L, 33.0, 40.0, 1, 2, 3, 4);
+            crashed.close();
+            try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+                raf.setLength(raf.length() - 3);
+            }
+            assertTrue(file.length() > complete);
+
+            NavigationEventRecorder next = NavigationEventRecorder.open(file, 9_000L);
+            next.recordFix(9_010L, 34.0, 41.0, 1, 2, 3, 4);
+            next.close();
+
+            List<NavigationEvent> events = NavigationEventReader.readAll(file);
+            assertEquals(4, events.size());
+            assertEquals(0L, events.get(0).timestampMs);
+            assertEquals(32.0, events.get(1).longitude, 1e-7);
+            assertEquals(NavigationEvent.TYPE_SESSION, events.get(2).type);
+            assertEquals(9_000L, events.get(2).timestampMs);
+            assertEquals(9_010L, events.get(3).timestampMs);
+            assertEquals(34.0, events.get(3).longitude, 1e-7);
+            assertEquals(41.0, events.get(3).latitude, 1e-7);
+        } finally {
+            file.delete();
+        }
+    }
+
+    @Test
+    public void foreignFileIsNotOverwritten() throws IOException {
+        File file = File.createTempFile("navigation", ".ynev");
+        try {
+            try (FileOutputStream out = new FileOutputStream(file)) {
+                out.write(new byte[]{'G', 'P', 'X', '!', 0, 0});
+            }
+            try {
+                NavigationEventRecorder.open(file, 0L).close();
+                fail("foreign file accepted");
+            } catch (IOException expected) {
+                assertEquals(6, file.length());
+            }
+        } finally {
+            file.delete();
+        }
+    }
+
+    @Test
+    public void replayReproducesLiveCardStates() throws IOException {
+        double[] lons = new double[2_000];
+        double[] lats = new double[2_000];
+        for (int i = 0; i < lons.length; i++) {
+            lons[i] = 32.8 + i * 0.0002;
+            lats[i] = 39.9 + Math.sin(i * 0.02) * 0.002;
+        }
+        RouteGeometry geometry = RouteGeometry.fromCoordinates(lons, lats);
+        List<NavigationCommandSnapshot> stream = NavigationReplayRunner.simulateFixes(geometry, 72, 1.0, 700);
+        String[] streetNames = new String[stream.get(stream.size() - 1).staticIndex + 1];
+        for (int i = 0; i < streetNames.length; i++) {
+            streetNames[i] = i % 2 == 0 ? "Cadde " + i : null;
+        }
+
+        File file = File.createTempFile("navigation", ".ynev");
+        file.delete();
+        try {
+            // Canlı akış: YolbilNavigationUsage'daki sırayla presenter beslenir ve aynı anda kaydedilir.
+            NavigationEventRecorder recorder = NavigationEventRecorder.open(file, 0L);
+            NavigationCardPresenter live = new NavigationCardPresenter(new NavigationCardPresenter.TextSource() {
+                @Override
+                public String defaultManifestText() {
+                    return TEXTS.defaultManifestText();
+                }
+
+                @Override
+                public String directionText(TurnCommandTable.Entry command) {
+                    return TEXTS.directionText(command);
+                }
+
+                @Override
+                public String totalDistancePlaceholder() {
+                    return TEXTS.totalDistancePlaceholder();
+                }
+
+                @Override
+                public String totalTimePlaceholder() {
+                    return TEXTS.totalTimePlaceholder();
+                }
+
+                @Override
+                public String instructionStreetName(int index) {
+                    return streetNames[index];
+                }
+            });
+            live.setTotalInstructionCount(streetNames.length);
+            recorder.recordRoute(0L, streetNames, geometry);
+            List<NavigationCardState> liveStates = new ArrayList<>();
+            int lastIndex = Integer.MIN_VALUE;
+            for (int i = 0; i < stream.size(); i++) {
+                long now = i * 1000L;
+                int speed = 60 + i % 25;
+                if (live.onSpeedChanged(speed)) {
+                    recorder.recordFix(now, 32.8, 39.9, speed / 3.6, 90, 5, speed);
+                }
+                NavigationCommandSnapshot snapshot = stream.get(i);
+                if (snapshot.staticIndex != lastIndex) {
+                    lastIndex = snapshot.staticIndex;
+                    recorder.recordCommandReady(now, snapshot);
+                    liveStates.add(live.onCommandReady(snapshot));
+                } else {
+                    recorder.recordLocationChanged(now, snapshot);
+                    liveStates.add(live.onLocationChanged(snapshot));
+                }
+            }
+            recorder.close();
+
+            List<NavigationEvent> events = NavigationEventReader.readAll(file);
+            final List<NavigationCardState> replayed = new ArrayList<>();
+            NavigationReplayRunner.Report report = NavigationReplayRunner.forRecording(TEXTS)
+                    .replay(events, (event, state) -> replayed.add(state));
+
+            assertEquals(liveStates.size(), report.fixCount);
+            assertEquals(liveStates.size(), replayed.size());
+            for (int i = 0; i < liveStates.size(); i++) {
+                assertSameState(liveStates.get(i), replayed.get(i));
+            }
+        } finally {
+            file.delete();
+        }
+    }
+
+    private static void assertSameState(NavigationCardState expected, NavigationCardState actual) {
+        assertEquals(expected.manifestText, actual.manifestText);
+        assertEquals(expected.directionText, actual.directionText);
+        assertEquals(expected.distanceText, actual.distanceText);
+        assertEquals(expected.iconRes, actual.iconRes);
+        assertEquals(expected.nextIconRes, actual.nextIconRes);
+        assertEquals(expected.showNext, actual.showNext);
+        assertEquals(expected.totalDistanceText, actual.totalDistanceText);
+        assertEquals(expected.totalTimeText, actual.totalTimeText);
+        assertEquals(expected.speedKmh, actual.speedKmh);
+        assertEquals(expected.speedLimitKmh, actual.speedLimitKmh);
+    }
+}
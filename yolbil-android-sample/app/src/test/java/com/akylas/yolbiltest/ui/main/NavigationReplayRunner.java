@@ -0,0 +1,333 @@
+package com.akylas.yolbiltest.ui.main;
+
+import androidx.annotation.Nullable;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Kaydedilmiş veya simüle edilmiş komut akışını Looper, MapView ve gerçek zamanlı bekleme olmadan
+ * {@link NavigationCardPresenter} üzerinden olabildiğince hızlı geçirir.
+ * Sunum hot path'i için tekrarlanabilir bir ölçüm (fix/sn, gecikme yüzdelikleri, ayrılan bayt) üretir;
+ * yalnızca test kaynaklarında bulunur, uygulamaya girmez.
+ */
+final class NavigationReplayRunner {
+
+    // Simüle akışta kullanılan manevra sırası; ikon/metin eşleşmesinin farklı dallarını dolaşır.
+    private static final String[] SIMULATED_COMMANDS = {
+            "GO_STRAIGHT",
+            "TURN_RIGHT",
+            "TAKE_SECOND_EXIT_ON_ROUNDABOUT",
+            "TURN_LEFT",
+            "STAY_RIGHT",
+            "TURN_LEFT_SHARP",
+            "CONTINUE_MIDDLE",
+    };
+    private static final String FINAL_COMMAND = "WILL_REACH_YOUR_DESTINATION";
+
+    /** Tek bir koşunun ölçüm sonuçları. */
+    static final class Report {
+        final int fixCount;
+        final long elapsedNanos;
+        final long p50Nanos;
+        final long p90Nanos;
+        final long p99Nanos;
+        final long maxNanos;
+        // JVM iş parçacığı bazlı ayırma sayacı desteklenmiyorsa -1.
+        final long allocatedBytes;
+
+        Report(int fixCount, long elapsedNanos, long p50Nanos, long p90Nanos, long p99Nanos,
+               long maxNanos, long allocatedBytes) {
+            this.fixCount = fixCount;
+            this.elapsedNanos = elapsedNanos;
+            this.p50Nanos = p50Nanos;
+            this.p90Nanos = p90Nanos;
+            this.p99Nanos = p99Nanos;
+            this.maxNanos = maxNanos;
+            this.allocatedBytes = allocatedBytes;
+        }
+
+        double fixesPerSecond() {
+            return elapsedNanos <= 0 ? 0 : fixCount * 1e9 / elapsedNanos;
+        }
+
+        double allocatedBytesPerFix() {
+            return allocatedBytes < 0 || fixCount == 0 ? -1 : (double) allocatedBytes / fixCount;
+        }
+
+        @Override
+        public String toString() {
+            return String.format(Locale.US,
+                    "fixes=%d fixes/s=%.0f p50=%.2fus p90=%.2fus p99=%.2fus max=%.2fus allocated=%d B (%.1f B/fix)",
+                    fixCount, fixesPerSecond(), p50Nanos / 1e3, p90Nanos / 1e3, p99Nanos / 1e3,
+                    maxNanos / 1e3, allocatedBytes, allocatedBytesPerFix());
+        }
+    }
+
+    /** Kayıt tekrar oynatılırken her komut olayının ürettiği kart durumunu alır. */
+    interface StateListener {
+        void onState(NavigationEvent event, NavigationCardState state);
+    }
+
+    private final NavigationCardPresenter presenter;
+    // Yalnızca kayıttan oynatmada: sokak adlarını kaydedilen rotadan verir.
+    @Nullable
+    private final RecordedTextSource recordedTexts;
+    private final AllocationCounter allocationCounter = new AllocationCounter();
+    // Sonuçların JIT tarafından elenmemesi için tutulan özet değer.
+    private long sink;
+
+    NavigationReplayRunner(NavigationCardPresenter presenter) {
+        this(presenter, null);
+    }
+
+    private NavigationReplayRunner(NavigationCardPresenter presenter, @Nullable RecordedTextSource recordedTexts) {
+        this.presenter = presenter;
+        this.recordedTexts = recordedTexts;
+    }
+
+    /**
+     * {@link NavigationEventRecorder} kayıtlarını oynatmak için runner oluşturur. Manifest sokak adları
+     * kayıttaki rota olaylarından, diğer metinler verilen kaynaktan gelir.
+     */
+    static NavigationReplayRunner forRecording(NavigationCardPresenter.TextSource texts) {
+        RecordedTextSource recordedTexts = new RecordedTextSource(texts);
+        return new NavigationReplayRunner(new NavigationCardPresenter(recordedTexts), recordedTexts);
+    }
+
+    /**
+     * Kaydedilmiş olay akışını kayıttaki sırayla sunum mantığından geçirir. Hız, kayıt sırasında kartta
+     * gösterilen filtrelenmiş değerden alındığı için sonuç cihaz ve SDK olmadan tekrarlanabilir.
+     * Raporda yalnızca komut olayları (onCommandReady / onLocationChanged) fix olarak sayılır.
+     */
+    Report replay(List<NavigationEvent> events, @Nullable StateListener listener) {
+        long[] latencies = new long[events.size()];
+        int commandCount = 0;
+        presenter.reset();
+
+        long allocatedBefore = allocationCounter.currentThreadAllocatedBytes();
+        long start = System.nanoTime();
+        for (int i = 0, size = events.size(); i < size; i++) {
+            NavigationEvent event = events.get(i);
+            switch (event.type) {
+                case NavigationEvent.TYPE_SESSION:
+                    presenter.reset();
+                    presenter.onSpeedChanged(0);
+                    break;
+                case NavigationEvent.TYPE_ROUTE:
+                    String[] names = event.instructionStreetNames;
+                    if (recordedTexts != null) {
+                        recordedTexts.streetNames = names;
+                    }
+                    presenter.setTotalInstructionCount(names != null ? names.length : 0);
+                    break;
+                case NavigationEvent.TYPE_FIX:
+                    presenter.onSpeedChanged(event.displayedSpeedKmh);
+                    break;
+                case NavigationEvent.TYPE_COMMAND_READY:
+                case NavigationEvent.TYPE_LOCATION_CHANGED:
+                    long fixStart = System.nanoTime();
+                    NavigationCardState state = event.type == NavigationEvent.TYPE_COMMAND_READY
+                            ? presenter.onCommandReady(event.command)
+                            : presenter.onLocationChanged(event.command);
+                    latencies[commandCount++] = System.nanoTime() - fixStart;
+                    sink += state.iconRes + state.distanceText.length() + (state.showNext ? 1 : 0);
+                    if (listener != null) {
+                        listener.onState(event, state);
+                    }
+                    break;
+                default:
+                    break;
+            }
+        }
+        long elapsed = System.nanoTime() - start;
+        long allocatedAfter = allocationCounter.currentThreadAllocatedBytes();
+
+        long allocated = allocatedBefore < 0 || allocatedAfter < 0 ? -1 : allocatedAfter - allocatedBefore;
+        long[] measured = Arrays.copyOf(latencies, commandCount);
+        Arrays.sort(measured);
+        return new Report(commandCount, elapsed,
+                percentile(measured, 0.50),
+                percentile(measured, 0.90),
+                percentile(measured, 0.99),
+                commandCount == 0 ? 0 : measured[commandCount - 1],
+                allocated);
+    }
+
+    /**
+     * Komut akışını baştan sona oynatır. staticIndex değiştiğinde onCommandReady, diğer fix'lerde
+     * onLocationChanged çağrılır; SDK'nın CommandListener sırası budur.
+     */
+    Report run(List<NavigationCommandSnapshot> fixes, @Nullable int[] speedsKmh) {
+        int count = fixes.size();
+        long[] latencies = new long[count];
+        presenter.reset();
+
+        long allocatedBefore = allocationCounter.currentThreadAllocatedBytes();
+        long start = System.nanoTime();
+        int lastStaticIndex = Integer.MIN_VALUE;
+        for (int i = 0; i < count; i++) {
+            NavigationCommandSnapshot fix = fixes.get(i);
+            long fixStart = System.nanoTime();
+            if (speedsKmh != null) {
+                presenter.onSpeedChanged(speedsKmh[i]);
+            }
+            NavigationCardState state;
+            if (fix.staticIndex != lastStaticIndex) {
+                lastStaticIndex = fix.staticIndex;
+                state = presenter.onCommandReady(fix);
+            } else {
+                state = presenter.onLocationChanged(fix);
+            }
+            latencies[i] = System.nanoTime() - fixStart;
+            sink += state.iconRes + state.distanceText.length() + (state.showNext ? 1 : 0);
+        }
+        long elapsed = System.nanoTime() - start;
+        long allocatedAfter = allocationCounter.currentThreadAllocatedBytes();
+
+        long allocated = allocatedBefore < 0 || allocatedAfter < 0 ? -1 : allocatedAfter - allocatedBefore;
+        Arrays.sort(latencies);
+        return new Report(count, elapsed,
+                percentile(latencies, 0.50),
+                percentile(latencies, 0.90),
+                percentile(latencies, 0.99),
+                count == 0 ? 0 : latencies[count - 1],
+                allocated);
+    }
+
+    long getSink() {
+        return sink;
+    }
+
+    /**
+     * Rota geometrisi üzerinde sabit hızla ilerleyen bir araç için komut akışı üretir.
+     * Manevralar rota boyunca eşit aralıklarla yerleştirilir; son manevra varış komutudur.
+     */
+    static List<NavigationCommandSnapshot> simulateFixes(RouteGeometry geometry,
+                                                         double speedKmh,
+                                                         double fixIntervalSeconds,
+                                                         double maneuverSpacingMeters) {
+        double speedMps = speedKmh / 3.6;
+        double stepMeters = speedMps * fixIntervalSeconds;
+        if (stepMeters <= 0 || maneuverSpacingMeters <= 0) {
+            throw new IllegalArgumentException("speed, interval and maneuver spacing must be positive");
+        }
+        double totalLength = geometry.getTotalLengthMeters();
+        int maneuverCount = Math.max(1, (int) Math.ceil(totalLength / maneuverSpacingMeters));
+        List<NavigationCommandSnapshot> fixes = new ArrayList<>((int) (totalLength / stepMeters) + 2);
+
+        SimulationCursor cursor = new SimulationCursor(geometry);
+        while (true) {
+            double travelled = cursor.getDistanceMeters();
+            int maneuverIndex = Math.min(maneuverCount - 1, (int) (travelled / maneuverSpacingMeters));
+            double maneuverAt = Math.min(totalLength, (maneuverIndex + 1) * maneuverSpacingMeters);
+            double remaining = Math.max(0, totalLength - travelled);
+            boolean lastManeuver = maneuverIndex == maneuverCount - 1;
+            fixes.add(new NavigationCommandSnapshot(
+                    maneuverIndex,
+                    (maneuverIndex % 3 == 0) ? "" : "Sokak " + maneuverIndex,
+                    lastManeuver ? FINAL_COMMAND : SIMULATED_COMMANDS[maneuverIndex % SIMULATED_COMMANDS.length],
+                    lastManeuver ? null : SIMULATED_COMMANDS[(maneuverIndex + 1) % SIMULATED_COMMANDS.length],
+                    maneuverIndex % 2 == 0 ? 50 : 82,
+                    Math.max(0, maneuverAt - travelled),
+                    remaining,
+                    remaining / speedMps
+            ));
+            if (cursor.isAtEnd()) {
+                break;
+            }
+            cursor.advance(stepMeters);
+        }
+        return fixes;
+    }
+
+    private static long percentile(long[] sorted, double quantile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(quantile * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(sorted.length - 1, index))];
+    }
+
+    // Sokak adlarını kaydedilmiş rota olayından, diğer metinleri asıl kaynaktan veren sarmalayıcı.
+    private static final class RecordedTextSource implements NavigationCardPresenter.TextSource {
+        private final NavigationCardPresenter.TextSource delegate;
+        @Nullable
+        String[] streetNames;
+
+        RecordedTextSource(NavigationCardPresenter.TextSource delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public String defaultManifestText() {
+            return delegate.defaultManifestText();
+        }
+
+        @Override
+        public String directionText(TurnCommandTable.Entry command) {
+            return delegate.directionText(command);
+        }
+
+        @Override
+        public String totalDistancePlaceholder() {
+            return delegate.totalDistancePlaceholder();
+        }
+
+        @Override
+        public String totalTimePlaceholder() {
+            return delegate.totalTimePlaceholder();
+        }
+
+        @Nullable
+        @Override
+        public String instructionStreetName(int index) {
+            String[] names = streetNames;
+            return names != null && index >= 0 && index < names.length ? names[index] : null;
+        }
+    }
+
+    /**
+     * HotSpot'taki com.sun.management.ThreadMXBean sayacını yansıma ile okur;
+     * java.lang.management bulunmayan ortamlarda (ör. ART) -1 döner.
+     */
+    private static final class AllocationCounter {
+        @Nullable
+        private final Object threadBean;
+        @Nullable
+        private final Method allocatedBytesMethod;
+
+        AllocationCounter() {
+            Object bean = null;
+            Method method = null;
+            try {
+                Class<?> factory = Class.forName("java.lang.management.ManagementFactory");
+                bean = factory.getMethod("getThreadMXBean").invoke(null);
+                Class<?> sunBean = Class.forName("com.sun.management.ThreadMXBean");
+                if (sunBean.isInstance(bean)) {
+                    method = sunBean.getMethod("getThreadAllocatedBytes", long.class);
+                }
+            } catch (Exception | LinkageError ignored) {
+                bean = null;
+                method = null;
+            }
+            threadBean = bean;
+            allocatedBytesMethod = method;
+        }
+
+        long currentThreadAllocatedBytes() {
+            if (threadBean == null || allocatedBytesMethod == null) {
+                return -1;
+            }
+            try {
+                Object value = allocatedBytesMethod.invoke(threadBean, Thread.currentThread().getId());
+                return value instanceof Long ? (Long) value : -1;
+            } catch (Exception e) {
+                return -1;
+            }
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package com.akylas.yolbiltest.ui.main;
+
+import com.akylas.yolbiltest.R;
+
+import org.junit.Test;
+
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Komut işleme ve kart durumu mantığını cihaz olmadan çalıştırır.
+ */
+public class NavigationReplayRunnerTest {
+
+    private static final int ROUTE_VERTICES = 20_000;
+
+    private static final NavigationCardPresenter.TextSource TEXTS = new NavigationCardPresenter.TextSource() {
+        @Override
+        public String defaultManifestText() {
+            return "Yol";
+        }
+
+        @Override
+        public String directionText(TurnCommandTable.Entry command) {
+            return command.isEmpty() ? "Düz devam edin" : command.name;
+        }
+
+        @Override
+        public String totalDistancePlaceholder() {
+            return "-- km";
+        }
+
+        @Override
+        public String totalTimePlaceholder() {
+            return "-- dk";
+        }
+
+        @Override
+        public String instructionStreetName(int index) {
+            return index == 0 ? "" : "Cadde " + index;
+        }
+    };
+
+    @Test
+    public void presenterFollowsCommandStream() {
+        NavigationCardPresenter presenter = new NavigationCardPresenter(TEXTS);
+        presenter.setTotalInstructionCount(3);
+
+        NavigationCardState ready = presenter.onCommandReady(new NavigationCommandSnapshot(
+                0, "", "TURN_RIGHT", "TURN_LEFT", 50, 1250, 4200, 600));
+        assertEquals("Yol", ready.manifestText);
+        assertEquals(R.drawable.turn_right, ready.iconRes);
+        assertEquals(R.drawable.turn_left, ready.nextIconRes);
+        assertTrue(ready.showNext);
+        assertEquals("4.2 km", ready.totalDistanceText);
+        assertEquals("10 dk", ready.totalTimeText);
+        assertEquals(50, ready.speedLimitKmh);
+
+        // Komut adı boş ve manevraya uzaksa kart "düz devam" durumuna döner.
+        NavigationCardState moved = presenter.onLocationChanged(new NavigationCommandSnapshot(
+                1, "", null, null, 70, 800, 3000, 400));
+        assertEquals("Cadde 1", moved.manifestText);
+        assertEquals("Düz devam edin", moved.directionText);
+        assertEquals(R.drawable.go_straight, moved.iconRes);
+        assertFalse(moved.showNext);
+        assertEquals("800 m", moved.distanceText);
+
+        // Son manifest komutunda "Ardından" gösterilmez.
+        NavigationCardState last = presenter.onCommandReady(new NavigationCommandSnapshot(
+                2, "Bulvar", "TURN_LEFT", "GO_STRAIGHT", 70, 200, 200, 30));
+        assertEquals("Bulvar", last.manifestText);
+        assertFalse(last.showNext);
+
+        assertTrue(presenter.onSpeedChanged(90));
+        assertFalse(presenter.onSpeedChanged(90));
+        assertTrue(presenter.currentState().isSpeeding());
+    }
+
+    @Test
+    public void simulatedStreamCoversWholeRoute() {
+        RouteGeometry geometry = longRoute();
+        List<NavigationCommandSnapshot> fixes = NavigationReplayRunner.simulateFixes(geometry, 90, 1.0, 500);
+
+        NavigationCommandSnapshot first = fixes.get(0);
+        NavigationCommandSnapshot last = fixes.get(fixes.size() - 1);
+        assertEquals(geometry.getTotalLengthMeters(), first.totalDistanceToCommand, 1e-6);
+        assertEquals(0.0, last.totalDistanceToCommand, 1e-6);
+        assertEquals("WILL_REACH_YOUR_DESTINATION", last.firstCommandName);
+        assertNull(last.nextCommandName);
+    }
+
+    @Test
+    public void runReportsEveryFixAndOrderedPercentiles() {
+        List<NavigationCommandSnapshot> fixes =
+                NavigationReplayRunner.simulateFixes(longRoute(), 90, 1.0, 400);
+        int[] speeds = new int[fixes.size()];
+        for (int i = 0; i < speeds.length; i++) {
+            speeds[i] = 80 + (i % 20);
+        }
+        NavigationReplayRunner runner = new NavigationReplayRunner(new NavigationCardPresenter(TEXTS));
+        NavigationReplayRunner.Report report = runner.run(fixes, speeds);
+
+        assertEquals(fixes.size(), report.fixCount);
+        assertTrue(report.p50Nanos <= report.p90Nanos);
+        assertTrue(report.p90Nanos <= report.p99Nanos);
+        assertTrue(report.p99Nanos <= report.maxNanos);
+        assertTrue(runner.getSink() != 0);
+    }
+
+    private static RouteGeometry longRoute() {
+        double[] lons = new double[ROUTE_VERTICES];
+        double[] lats = new double[ROUTE_VERTICES];
+        for (int i = 0; i < ROUTE_VERTICES; i++) {
+            lons[i] = 29.0 + i * 0.0001;
+            lats[i] = 40.0 + Math.sin(i * 0.01) * 0.01;
+        }
+        return RouteGeometry.fromCoordinates(lons, lats);
+    }
+}
@@ -0,0 +1,258 @@
+package com.akylas.yolbiltest.ui.main;
+
+import com.basarsoft.yolbil.location.Location;
+
+import org.junit.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.*;
+
+/**
+ * Aktörün birden fazla üreticiden gelen mesajları tek thread'de sırayla işlediğini ve tutarlı
+ * snapshot yayımladığını doğrular. SDK Location nesneleri JVM'de oluşturulamadığından fix'ler
+ * koordinat ve hızla, Location'sız sürülür.
+ */
+public class NavigationStateActorTest {
+
+    private static final NavigationCardPresenter.TextSource TEXTS = new NavigationCardPresenter.TextSource() {
+        @Override
+        public String defaultManifestText() {
+            return "Yol";
+        }
+
+        @Override
+        public String directionText(TurnCommandTable.Entry command) {
+            return command.name;
+        }
+
+        @Override
+        public String totalDistancePlaceholder() {
+            return "-- km";
+        }
+
+        @Override
+        public String totalTimePlaceholder() {
+            return "-- dk";
+        }
+
+        @Override
+        public String instructionStreetName(int index) {
+            return null;
+        }
+    };
+
+    /**
+     * Yan etkileri sayar, hepsinin aktör thread'inde çalıştığını kontrol eder ve her yan etkide o an
+     * yayımlı snapshot'ın sırasını kaydeder; testler bu sıra üzerinden yan etkilerin bitmesini bekler.
+     */
+    private static final class RecordingEffects implements NavigationStateActor.Effects {
+        final AtomicReference<Thread> actorThread = new AtomicReference<>();
+        final AtomicInteger cardStates = new AtomicInteger();
+        final AtomicInteger limitChanges = new AtomicInteger();
+        final AtomicInteger wrongThread = new AtomicInteger();
+        final List<RouteProgressTracker.Progress> fixProgress = new CopyOnWriteArrayList<>();
+        final List<Integer> fixSpeeds = new CopyOnWriteArrayList<>();
+        volatile NavigationCardState lastCard;
+        volatile NavigationStateActor actor;
+        private long effectSequence;
+
+        private void record() {
+            Thread current = Thread.currentThread();
+            if (!actorThread.compareAndSet(null, current) && actorThread.get() != current) {
+                wrongThread.incrementAndGet();
+            }
+        }
+
+        private synchronized void signal() {
+            effectSequence = actor.snapshot().sequence;
+            notifyAll();
+        }
+
+        /** Yan etkiler en az expected sıralı snapshot'ı görene kadar bekler. */
+        synchronized void awaitSequence(long expected) throws InterruptedException {
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+            while (effectSequence < expected) {
+                long remainingMillis = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+                assertTrue("timed out at " + effectSequence, remainingMillis > 0);
+                wait(remainingMillis);
+            }
+        }
+
+        @Override
+        public void onCardState(NavigationCardState state) {
+            record();
+            cardStates.incrementAndGet();
+            lastCard = state;
+            signal();
+        }
+
+        @Override
+        public void onSpeedChanged() {
+            record();
+            signal();
+        }
+
+        @Override
+        public void onSpeedLimitChanged(int speedLimitKmh) {
+            record();
+            limitChanges.incrementAndGet();
+            signal();
+        }
+
+        @Override
+        public void onFixProcessed(Location location, int displayedSpeedKmh) {
+            record();
+            // Yan etki yayımlanan snapshot'ı görmeli; ilerleme bu fix'i içermeli.
+            fixProgress.add(actor.snapshot().routeProgress);
+            fixSpeeds.add(displayedSpeedKmh);
+            signal();
+        }
+    }
+
+    @Test
+    public void routeStreetNamesFeedTheManifest() throws Exception {
+        ExecutorService executor = newActorExecutor();
+        RecordingEffects effects = new RecordingEffects();
+        NavigationStateActor actor = newActor(executor, effects);
+
+        actor.postRoute(null, null);
+        actor.postRouteDigest(null, new RouteDigest(new String[]{"", "Atatürk Bulvarı", "Kızılay"},
+                new String[3], new String[3], new double[3]));
+        actor.postCommandReady(new NavigationCommandSnapshot(1, "", "TURN_RIGHT", "", 50, 120, 900, 60));
+        awaitSequence(executor, actor, effects, 3);
+
+        NavigationStateActor.Snapshot snapshot = actor.snapshot();
+        assertEquals(3, snapshot.sequence);
+        assertEquals(3, snapshot.routeDigest.size());
+        assertNotNull(snapshot.cardState);
+        // nextRoadName boş olduğundan manifest aktörün rota özetindeki sokak adından gelir.
+        assertEquals("Atatürk Bulvarı", snapshot.cardState.manifestText);
+        assertEquals(50, snapshot.speedLimitKmh);
+        assertEquals(1, effects.limitChanges.get());
+
+        actor.postReset();
+        awaitSequence(executor, actor, effects, 4);
+        assertNull(actor.snapshot().cardState);
+        assertEquals(0, actor.snapshot().speedLimitKmh);
+        executor.shutdown();
+    }
+
+    @Test
+    public void fixEffectsSeeTheSnapshotThatIncludesTheFix() throws Exception {
+        ExecutorService executor = newActorExecutor();
+        RecordingEffects effects = new RecordingEffects();
+        NavigationStateActor actor = newActor(executor, effects);
+        // Ekvator üzerinde doğuya ~333 m; manevra 200. metrede.
+        RouteGeometry geometry = RouteGeometry.fromCoordinates(
+                new double[]{32.000, 32.001, 32.002, 32.003}, new double[]{0.0, 0.0, 0.0, 0.0});
+        RouteDigest digest = new RouteDigest(new String[]{"", "Kızılay"}, new String[2], new String[2],
+                new double[]{0, 200});
+
+        actor.postRoute(null, geometry, digest);
+        actor.postFix(null, 32.0005, 0.0, 10.0);
+        actor.postFix(null, 32.0015, 0.0, 10.0);
+        awaitSequence(executor, actor, effects, 3);
+
+        assertEquals(0, effects.wrongThread.get());
+        assertEquals(2, effects.fixProgress.size());
+        // İki fix aynı turda işlense de yan etkiler rota değişiminden sonra null ilerleme görmez.
+        RouteProgressTracker.Progress last = actor.snapshot().routeProgress;
+        assertNotNull(last);
+        assertFalse(last.offRoute);
+        assertEquals(geometry.getDistanceAt(1) * 1.5, last.distanceAlongMeters, 1.0);
+        for (RouteProgressTracker.Progress progress : effects.fixProgress) {
+            assertNotNull(progress);
+        }
+        assertSame(last, effects.fixProgress.get(1));
+        assertTrue(effects.fixSpeeds.get(1) > 0);
+        assertEquals(actor.snapshot().speedKmh, (int) effects.fixSpeeds.get(1));
+
+        // Rota değişince ilerleme sıfırlanır; sonraki fix'in yan etkisi yeni rotadaki ilerlemeyi görür.
+        actor.postRoute(null, geometry, digest);
+        actor.postFix(null, 32.0025, 0.0, 10.0);
+        awaitSequence(executor, actor, effects, 5);
+        RouteProgressTracker.Progress afterRoute = effects.fixProgress.get(2);
+        assertNotNull(afterRoute);
+        assertEquals(geometry.getDistanceAt(2) * 1.25, afterRoute.distanceAlongMeters, 1.0);
+        executor.shutdown();
+    }
+
+    @Test
+    public void concurrentProducersAreSerialized() throws Exception {
+        ExecutorService executor = newActorExecutor();
+        RecordingEffects effects = new RecordingEffects();
+        final NavigationStateActor actor = newActor(executor, effects);
+        final int producers = 4;
+        final int messagesPerProducer = 2_000;
+        final CountDownLatch start = new CountDownLatch(1);
+        Thread[] threads = new Thread[producers];
+        for (int p = 0; p < producers; p++) {
+            final int producer = p;
+            threads[p] = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                for (int i = 0; i < messagesPerProducer; i++) {
+                    NavigationCommandSnapshot command = new NavigationCommandSnapshot(
+                            i % 5, "", producer % 2 == 0 ? "TURN_LEFT" : "TURN_RIGHT", "GO_STRAIGHT",
+                            30 + producer * 10, 500 - (i % 500), 10_000 - i % 10_000, 600);
+                    if (i % 2 == 0) {
+                        actor.postCommandReady(command);
+                    } else {
+                        actor.postLocationChanged(command);
+                    }
+                }
+            });
+            threads[p].start();
+        }
+        start.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        long total = (long) producers * messagesPerProducer;
+        awaitSequence(executor, actor, effects, total);
+
+        assertEquals(0, effects.wrongThread.get());
+        // Kart güncellemeleri tur başına birleştirilir; mesaj sayısından az olmalı.
+        assertTrue(effects.cardStates.get() > 0 && effects.cardStates.get() <= total);
+        assertSame(actor.snapshot().cardState, effects.lastCard);
+        executor.shutdown();
+    }
+
+    private static ExecutorService newActorExecutor() {
+        // Daemon thread: başarısız bir test koşucuyu açık bırakmaz.
+        return Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "NavigationState");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    private static NavigationStateActor newActor(ExecutorService executor, RecordingEffects effects) {
+        NavigationStateActor actor = new NavigationStateActor(executor, TEXTS, effects);
+        effects.actor = actor;
+        return actor;
+    }
+
+    /**
+     * Aktör verilen sayıda mesajı işleyip son turun yan etkileri çalışana kadar bekler. Testlerdeki her
+     * son tur en az bir yan etki (kart, hız sınırı veya fix) üretir; aynı turun kalan yan etkileri için
+     * aktör thread'inde arkadan gelen boş bir görevin bitmesi beklenir.
+     */
+    private static void awaitSequence(ExecutorService executor, NavigationStateActor actor,
+                                      RecordingEffects effects, long expected) throws Exception {
+        effects.awaitSequence(expected);
+        executor.submit(() -> { }).get(10, TimeUnit.SECONDS);
+        assertEquals(expected, actor.snapshot().sequence);
+    }
+}
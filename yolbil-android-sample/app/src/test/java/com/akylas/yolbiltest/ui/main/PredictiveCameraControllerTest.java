@@ -0,0 +1,196 @@
+package com.akylas.yolbiltest.ui.main;
+
+import android.view.Choreographer;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Kamera denetleyicisini 60 Hz'lik sahte kare kaynağıyla sürer: kısa yay dönüşü, fix'ler arası
+ * rota üzerinde kestirim ve SDK'ya yapılan çağrı sayısı kontrol edilir.
+ */
+public class PredictiveCameraControllerTest {
+
+    private static final long FRAME_NANOS = 16_666_667L;
+
+    private static final class ManualFrames implements NavigationCardScheduler.FrameSource {
+        Choreographer.FrameCallback pending;
+        long nowNanos = 1_000_000_000L;
+
+        @Override
+        public void postFrameCallback(Choreographer.FrameCallback callback) {
+            pending = callback;
+        }
+
+        @Override
+        public void removeFrameCallback(Choreographer.FrameCallback callback) {
+            pending = null;
+        }
+
+        /** Bir kare ilerletir; kare istenmişse çalıştırır ve true döner. */
+        boolean tick() {
+            nowNanos += FRAME_NANOS;
+            Choreographer.FrameCallback callback = pending;
+            pending = null;
+            if (callback == null) {
+                return false;
+            }
+            callback.doFrame(nowNanos);
+            return true;
+        }
+    }
+
+    private static final class RecordingCamera implements PredictiveCameraController.Camera {
+        final List<Float> rotations = new ArrayList<>();
+        double lon;
+        double lat;
+        int focusCalls;
+
+        @Override
+        public void setFocus(double lon, double lat) {
+            this.lon = lon;
+            this.lat = lat;
+            focusCalls++;
+        }
+
+        @Override
+        public void setRotation(float degrees) {
+            rotations.add(degrees);
+        }
+    }
+
+    @Test
+    public void shortestArcWrapsAroundNorth() {
+        assertEquals(20.0, PredictiveCameraController.shortestArc(350, 10), 1e-9);
+        assertEquals(-20.0, PredictiveCameraController.shortestArc(10, 350), 1e-9);
+        assertEquals(180.0, PredictiveCameraController.shortestArc(0, 180), 1e-9);
+        assertEquals(-90.0, PredictiveCameraController.shortestArc(45, -45), 1e-9);
+    }
+
+    @Test
+    public void rotationCrossesNorthTheShortWay() {
+        ManualFrames frames = new ManualFrames();
+        RecordingCamera camera = new RecordingCamera();
+        PredictiveCameraController controller = new PredictiveCameraController(frames, camera);
+
+        controller.onFix(fix(32.0, 39.9, 350, 0, frames.nowNanos), true);
+        frames.tick();
+        controller.onFix(fix(32.0, 39.9, 10, 0, frames.nowNanos), false);
+        for (int i = 0; i < 120; i++) {
+            frames.tick();
+        }
+        assertFalse(camera.rotations.isEmpty());
+        for (float rotation : camera.rotations) {
+            // 350 → 10 geçişi kuzeyden yapılmalı; 180 civarına hiç uğranmamalı.
+            assertTrue("rotation " + rotation, rotation >= 349.0f || rotation <= 11.0f);
+        }
+        assertEquals(10.0, camera.rotations.get(camera.rotations.size() - 1), 0.5);
+    }
+
+    @Test
+    public void predictsAlongRouteBetweenFixes() {
+        // Doğuya ~1.1 km düz giden, sonra kuzeye dönen rota.
+        RouteGeometry geometry = RouteGeometry.fromCoordinates(
+                new double[]{32.000, 32.010, 32.010},
+                new double[]{0.0, 0.0, 0.010});
+        ManualFrames frames = new ManualFrames();
+        RecordingCamera camera = new RecordingCamera();
+        PredictiveCameraController controller = new PredictiveCameraController(frames, camera);
+        controller.setRouteGeometry(geometry);
+
+        controller.onFix(fix(32.005, 0.0, 90, 20, frames.nowNanos), true);
+        frames.tick();
+        double startLon = camera.lon;
+        // Yeni fix gelmeden bir saniye: kamera rota üzerinde doğuya ilerlemeye devam eder.
+        for (int i = 0; i < 60; i++) {
+            frames.tick();
+        }
+        double movedMeters = (camera.lon - startLon) * 111_195;
+        assertTrue("moved " + movedMeters + " m", movedMeters > 10 && movedMeters < 22);
+        assertEquals(0.0, camera.lat, 1e-7);
+    }
+
+    @Test
+    public void stationaryFixesStopTheFrameLoop() {
+        ManualFrames frames = new ManualFrames();
+        RecordingCamera camera = new RecordingCamera();
+        PredictiveCameraController controller = new PredictiveCameraController(frames, camera);
+
+        int frameCount = 0;
+        int cameraCallsBefore;
+        controller.onFix(fix(32.0, 39.9, 45, 0, frames.nowNanos), true);
+        for (int second = 0; second < 10; second++) {
+            // Aynı noktada titreyen (GPS gürültüsü ~1 cm) fix'ler.
+            controller.onFix(fix(32.0 + second * 1e-7, 39.9, 45, 0, frames.nowNanos), false);
+            for (int i = 0; i < 60; i++) {
+                if (frames.tick()) {
+                    frameCount++;
+                }
+            }
+        }
+        cameraCallsBefore = camera.focusCalls + camera.rotations.size();
+        // Eşik altı değişiklikler SDK'ya gitmez ve döngü her fix'ten sonra kısa sürede durur.
+        assertTrue("frames " + frameCount, frameCount < 10 * 60);
+        assertTrue("camera calls " + cameraCallsBefore, cameraCallsBefore <= 4);
+        assertEquals(cameraCallsBefore, controller.getCameraWriteCount());
+        assertFalse(frames.tick());
+    }
+
+    @Test
+    public void movingVehicleWritesFocusPerFrameAndRotationOnlyOnChange() {
+        RouteGeometry geometry = RouteGeometry.fromCoordinates(
+                new double[]{32.000, 32.100}, new double[]{39.9, 39.9});
+        ManualFrames frames = new ManualFrames();
+        RecordingCamera camera = new RecordingCamera();
+        PredictiveCameraController controller = new PredictiveCameraController(frames, camera);
+        controller.setRouteGeometry(geometry);
+
+        double lon = 32.0;
+        for (int second = 0; second < 30; second++) {
+            controller.onFix(fix(lon, 39.9, 90, 14, frames.nowNanos), second == 0);
+            for (int i = 0; i < 60; i++) {
+                frames.tick();
+            }
+            lon += 14 / (111_195 * Math.cos(Math.toRadians(39.9)));
+        }
+        // Düz yolda yön sabit: dönüş yalnızca ilk karede yazılır, odak kare başına en fazla bir kez.
+        assertEquals(1, camera.rotations.size());
+        assertTrue(camera.focusCalls <= 30 * 60);
+        assertEquals(lon, camera.lon, 2e-4);
+    }
+
+    @Test
+    public void stopDefersStateResetToTheFrameThread() throws Exception {
+        ManualFrames frames = new ManualFrames();
+        RecordingCamera camera = new RecordingCamera();
+        PredictiveCameraController controller = new PredictiveCameraController(frames, camera);
+
+        controller.onFix(fix(32.0, 39.9, 90, 0, frames.nowNanos), true);
+        frames.tick();
+        controller.onFix(fix(32.001, 39.9, 90, 0, frames.nowNanos), false);
+
+        // SDK thread'inden durdurma: kameraya dokunmaz, yalnızca bir kare ister.
+        Thread sdkThread = new Thread(controller::stop);
+        sdkThread.start();
+        sdkThread.join();
+        long writes = controller.getCameraWriteCount();
+        assertNotNull(frames.pending);
+        assertTrue(frames.tick());
+        assertEquals(writes, controller.getCameraWriteCount());
+        assertFalse(frames.tick());
+
+        // Durdurmadan sonraki ilk fix yumuşatılmadan hedefe oturur.
+        controller.onFix(fix(32.01, 39.9, 90, 0, frames.nowNanos), false);
+        frames.tick();
+        assertEquals(32.01, camera.lon, 1e-9);
+    }
+
+    private static PredictiveCameraController.Fix fix(double lon, double lat, double heading, double speedMps,
+                                                      long nanos) {
+        return new PredictiveCameraController.Fix(lon, lat, heading, speedMps, lon, lat, nanos);
+    }
+}
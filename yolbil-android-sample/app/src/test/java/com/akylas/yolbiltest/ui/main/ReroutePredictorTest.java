@@ -0,0 +1,163 @@
+package com.akylas.yolbiltest.ui.main;
+
+import com.akylas.yolbiltest.utils.GeoMath;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
+
+import static org.junit.Assert.*;
+
+/** ReroutePredictor karar noktası seçimi, izin, eşleştirme ve ölçüler (sahte rota kaynağıyla, host üzerinde). */
+public class ReroutePredictorTest {
+
+    private static final double LAT = 39.93;
+    private static final double METERS_PER_LON = GeoMath.METERS_PER_DEGREE * Math.cos(Math.toRadians(LAT));
+
+    /** Başlangıç konumlarını kaydeder; kaçırılan noktadan kuzeye 500 m'lik rota döner. */
+    private static final class FakeRouter implements ReroutePredictor.Router<double[]> {
+        final List<double[]> requests = new ArrayList<>();
+        boolean fail;
+
+        @Override
+        public double[] route(double fromLon, double fromLat) throws Exception {
+            if (fail) {
+                throw new IllegalStateException("no route");
+            }
+            double[] start = {fromLon, fromLat};
+            requests.add(start);
+            return start;
+        }
+
+        @Override
+        public RouteGeometry decodeGeometry(double[] route) {
+            double[] lons = new double[51];
+            double[] lats = new double[51];
+            for (int i = 0; i < lons.length; i++) {
+                lons[i] = route[0];
+                lats[i] = route[1] + i * 10 / GeoMath.METERS_PER_DEGREE;
+            }
+            return RouteGeometry.fromCoordinates(lons, lats);
+        }
+
+        @Override
+        public RouteDigest digest(double[] route) {
+            return RouteDigest.EMPTY;
+        }
+    }
+
+    /** Doğuya 1000 m'lik rota; 200 m'de bir talimat. */
+    private static RouteGeometry eastRoute() {
+        double[] lons = new double[101];
+        double[] lats = new double[101];
+        for (int i = 0; i < lons.length; i++) {
+            lons[i] = 32.85 + i * 10 / METERS_PER_LON;
+            lats[i] = LAT;
+        }
+        return RouteGeometry.fromCoordinates(lons, lats);
+    }
+
+    private static RouteDigest digest() {
+        return new RouteDigest(
+                new String[]{"A", "B", "C", "D", "E", "F"},
+                new String[]{"GO_STRAIGHT", "TURN_RIGHT", "GO_STRAIGHT", "TURN_LEFT", "STAY_RIGHT",
+                        "REACHED_YOUR_DESTINATION"},
+                new String[6],
+                new double[]{200, 200, 200, 200, 200, 0},
+                new int[]{0, 20, 40, 60, 80, 100});
+    }
+
+    @Test
+    public void speculatesUpcomingDecisionPointsOnlyWhenAllowed() {
+        FakeRouter router = new FakeRouter();
+        boolean[] allowed = {false};
+        ReroutePredictor<double[]> predictor = new ReroutePredictor<>(router, () -> allowed[0], Runnable::run);
+        RouteGeometry geometry = eastRoute();
+        RouteDigest digest = digest();
+
+        predictor.onProgress(geometry, digest, 50);
+        assertEquals(0, router.requests.size());
+
+        allowed[0] = true;
+        for (int i = 0; i < 10; i++) {
+            predictor.onProgress(geometry, digest, 50);
+        }
+        // Düz devam ve varış karar noktası değildir: 200, 600 ve 800 m'deki manevralar.
+        assertEquals(3, router.requests.size());
+        assertEquals(3, predictor.getPredictionCount());
+        double[] firstMiss = router.requests.get(0);
+        assertEquals(200 + ReroutePredictor.MISS_DISTANCE_METERS,
+                (firstMiss[0] - 32.85) * METERS_PER_LON, 0.5);
+        assertEquals(LAT, firstMiss[1], 1e-9);
+
+        // Geçilen karar noktalarının tahminleri atılır; az önce geçilen tutulur.
+        predictor.onProgress(geometry, digest, 650);
+        assertEquals(2, predictor.getPredictionCount());
+        assertEquals(3, predictor.getStats().speculations);
+    }
+
+    @Test
+    public void deviationOntoPredictionIsAHitAndCountsSavedTime() {
+        FakeRouter router = new FakeRouter();
+        ReroutePredictor<double[]> predictor = new ReroutePredictor<>(router, () -> true, Runnable::run);
+        RouteGeometry geometry = eastRoute();
+        RouteDigest digest = digest();
+        for (int i = 0; i < 3; i++) {
+            predictor.onProgress(geometry, digest, 500);
+        }
+
+        // 600 m'deki dönüş kaçırıldı: düz devam edip tahmin rotasının 30 m ilerisindeyiz.
+        double lon = 32.85 + (600 + ReroutePredictor.MISS_DISTANCE_METERS) / METERS_PER_LON;
+        ReroutePredictor.Prediction<double[]> hit =
+                predictor.match(lon, LAT + 30 / GeoMath.METERS_PER_DEGREE, 1_000);
+        assertNotNull(hit);
+        assertEquals(3, hit.instructionIndex);
+        predictor.onRecalculated(1_850);
+
+        assertNull(predictor.match(32.85, LAT - 0.01, 2_000));
+        predictor.onRecalculated(2_600);
+
+        ReroutePredictor.Stats stats = predictor.getStats();
+        assertEquals(1, stats.hits);
+        assertEquals(1, stats.misses);
+        assertEquals(850, stats.savedMillis);
+        assertEquals(0.5, stats.hitRate(), 0);
+    }
+
+    @Test
+    public void routeChangeDropsPredictionsAndFailuresAreNotRetried() {
+        FakeRouter router = new FakeRouter();
+        ReroutePredictor<double[]> predictor = new ReroutePredictor<>(router, () -> true, Runnable::run);
+        RouteGeometry geometry = eastRoute();
+        RouteDigest digest = digest();
+        predictor.onProgress(geometry, digest, 50);
+        assertEquals(1, predictor.getPredictionCount());
+
+        router.fail = true;
+        RouteGeometry rerouted = eastRoute();
+        for (int i = 0; i < 5; i++) {
+            predictor.onProgress(rerouted, digest, 50);
+        }
+        assertEquals(0, predictor.getPredictionCount());
+        // Yeni rotadaki üç karar noktası birer kez denenir.
+        assertEquals(3, predictor.getStats().failures);
+        assertEquals(4, predictor.getStats().speculations);
+
+        predictor.reset();
+        assertNull(predictor.match(32.85, LAT, 0));
+    }
+
+    @Test
+    public void closedWorkerIsNotCountedAsSpeculation() {
+        FakeRouter router = new FakeRouter();
+        ReroutePredictor<double[]> predictor = new ReroutePredictor<>(router, () -> true, command -> {
+            throw new RejectedExecutionException("shut down");
+        });
+        predictor.onProgress(eastRoute(), digest(), 50);
+        assertEquals(0, predictor.getStats().speculations);
+        assertEquals(0, predictor.getStats().failures);
+        assertEquals(0, predictor.getPredictionCount());
+    }
+}
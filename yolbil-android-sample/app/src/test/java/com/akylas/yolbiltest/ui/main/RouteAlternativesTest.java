@@ -0,0 +1,133 @@
+package com.akylas.yolbiltest.ui.main;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+/** RouteAlternatives paralel ölçüm, fark hesabı ve tembel geometri çözümü (sahte rotalarla, host üzerinde). */
+public class RouteAlternativesTest {
+
+    /** Sahte rota: ölçü doğrudan tutulur, geometri istenince kurulur. */
+    private static final class FakeRoute {
+        final double meters;
+        final double seconds;
+        final boolean broken;
+
+        FakeRoute(double meters, double seconds, boolean broken) {
+            this.meters = meters;
+            this.seconds = seconds;
+            this.broken = broken;
+        }
+    }
+
+    private static final class CountingReader implements RouteAlternatives.RouteReader<FakeRoute> {
+        final Set<String> measureThreads = ConcurrentHashMap.newKeySet();
+        final AtomicInteger decodes = new AtomicInteger();
+
+        @Override
+        public RouteAlternatives.Measure measure(FakeRoute route) {
+            measureThreads.add(Thread.currentThread().getName());
+            if (route.broken) {
+                throw new IllegalStateException("instructions unavailable");
+            }
+            return new RouteAlternatives.Measure(route.meters, route.seconds);
+        }
+
+        @Override
+        public RouteGeometry decodeGeometry(FakeRoute route) {
+            decodes.incrementAndGet();
+            return RouteGeometry.fromCoordinates(new double[]{32.85, 32.81}, new double[]{39.93, 39.92});
+        }
+    }
+
+    private static List<FakeRoute> routes() {
+        return Arrays.asList(
+                new FakeRoute(5_200, 600, false),
+                new FakeRoute(4_800, 720, false),
+                new FakeRoute(6_100, 540, false));
+    }
+
+    private static ExecutorService workers() {
+        return Executors.newFixedThreadPool(2, runnable -> {
+            Thread thread = new Thread(runnable, "AlternativeWorker");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @Test
+    public void summariesAreMeasuredOnWorkersWithDeltasToPrimary() throws InterruptedException {
+        ExecutorService workers = workers();
+        try {
+            CountingReader reader = new CountingReader();
+            RouteAlternatives<FakeRoute> alternatives = RouteAlternatives.evaluate(routes(), reader, workers, null);
+
+            assertEquals(3, alternatives.size());
+            assertTrue(alternatives.summary(0).isPrimary());
+            assertEquals(0, alternatives.summary(0).lengthDeltaMeters, 1e-9);
+            assertEquals(-400, alternatives.summary(1).lengthDeltaMeters, 1e-9);
+            assertEquals(120, alternatives.summary(1).durationDeltaSec, 1e-9);
+            assertEquals(900, alternatives.summary(2).lengthDeltaMeters, 1e-9);
+            assertEquals(-60, alternatives.summary(2).durationDeltaSec, 1e-9);
+            // Birincil çağıran thread'de ölçülür; diğerleri (başlamışlarsa) işçilerde.
+            assertTrue(reader.measureThreads.contains(Thread.currentThread().getName()));
+            assertEquals(0, reader.decodes.get());
+        } finally {
+            workers.shutdownNow();
+            workers.awaitTermination(1, TimeUnit.SECONDS);
+        }
+    }
+
+    @Test
+    public void callerRunsTasksWhenWorkersNeverStart() {
+        CountingReader reader = new CountingReader();
+        // Dolu havuz: görevler kabul edilir ama hiç çalıştırılmaz; değerlendirme yine de bitmelidir.
+        RouteAlternatives<FakeRoute> alternatives = RouteAlternatives.evaluate(routes(), reader, command -> {
+        }, null);
+
+        assertEquals(3, alternatives.size());
+        assertEquals(Collections.singleton(Thread.currentThread().getName()), reader.measureThreads);
+    }
+
+    @Test
+    public void failedAlternativesAreDropped() {
+        List<FakeRoute> routes = Arrays.asList(
+                new FakeRoute(5_200, 600, false),
+                new FakeRoute(0, 0, true),
+                new FakeRoute(6_100, 540, false));
+        RouteAlternatives<FakeRoute> alternatives =
+                RouteAlternatives.evaluate(routes, new CountingReader(), Runnable::run, null);
+
+        assertEquals(2, alternatives.size());
+        assertEquals(1, alternatives.getDroppedCount());
+        assertEquals(2, alternatives.summary(1).routeIndex);
+        assertSame(routes.get(2), alternatives.route(1));
+    }
+
+    @Test
+    public void geometryIsDecodedLazilyAndOnce() {
+        CountingReader reader = new CountingReader();
+        RouteGeometry primary = RouteGeometry.fromCoordinates(new double[]{32.85, 32.80}, new double[]{39.93, 39.91});
+        RouteAlternatives<FakeRoute> alternatives = RouteAlternatives.evaluate(routes(), reader, Runnable::run, primary);
+
+        assertSame(primary, alternatives.geometry(0));
+        assertNull(alternatives.decodedGeometry(2));
+        RouteGeometry decoded = alternatives.geometry(2);
+        assertNotNull(decoded);
+        assertSame(decoded, alternatives.geometry(2));
+        assertSame(decoded, alternatives.decodedGeometry(2));
+        assertNull("önizlenmeyen alternatif çözülmemeli", alternatives.decodedGeometry(1));
+        assertEquals(1, reader.decodes.get());
+        assertEquals(1, alternatives.getDecodeCount());
+    }
+}
@@ -0,0 +1,186 @@
+package com.akylas.yolbiltest.ui.main;
+
+import org.junit.Test;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+
+import static org.junit.Assert.*;
+
+/** RouteCache anahtar yuvarlama, LRU, disk kalıcılığı ve kodlama (host üzerinde, geçici dizinle). */
+public class RouteCacheTest {
+
+    private static final long DAY_MS = 24L * 60 * 60 * 1000;
+    private static final String VERSION = "offline:123:456";
+
+    private static RouteCache.Key key(double endLon) {
+        return RouteCache.Key.of(32.8541, 39.9208, endLon, 39.9232, "Car", true, VERSION);
+    }
+
+    private static RouteGeometry geometry(int points) {
+        double[] lons = new double[points];
+        double[] lats = new double[points];
+        for (int i = 0; i < points; i++) {
+            lons[i] = 32.8541 + i * 0.00005;
+            lats[i] = 39.9208 + Math.sin(i * 0.05) * 0.001;
+        }
+        return RouteGeometry.fromCoordinates(lons, lats);
+    }
+
+    private static RouteDigest digest() {
+        return new RouteDigest(
+                new String[]{"Atatürk Bulvarı", null, "Kızılay"},
+                new String[]{"TURN_RIGHT", null, "TURN_LEFT"},
+                new String[]{"Sağa dönün", "Düz devam edin", null},
+                new double[]{120.5, 300.25, 80});
+    }
+
+    private static File tempDirectory() throws IOException {
+        File directory = Files.createTempDirectory("route-cache").toFile();
+        directory.deleteOnExit();
+        return directory;
+    }
+
+    private static void deleteRecursively(File directory) {
+        File[] files = directory.listFiles();
+        if (files != null) {
+            for (File file : files) {
+                file.delete();
+            }
+        }
+        directory.delete();
+    }
+
+    @Test
+    public void endpointsAreQuantizedIntoTheSameKey() {
+        // ~5 m uzaklıktaki iki varış noktası aynı ızgara hücresine düşer.
+        assertEquals(key(32.81478), key(32.81481));
+        assertEquals(key(32.81478).fileName(), key(32.81481).fileName());
+        assertNotEquals(key(32.81478), key(32.81520));
+        assertNotEquals(key(32.81478),
+                RouteCache.Key.of(32.8541, 39.9208, 32.81478, 39.9232, "Car", false, VERSION));
+        assertNotEquals(key(32.81478),
+                RouteCache.Key.of(32.8541, 39.9208, 32.81478, 39.9232, "Car", true, "offline:124:456"));
+    }
+
+    @Test
+    public void encodeDecodeRoundTrip() throws IOException {
+        RouteCache.Key key = key(32.8148);
+        RouteGeometry geometry = geometry(500);
+        byte[] bytes = RouteCache.encode(key, new RouteCache.Entry(geometry, digest(), 1_700_000_000_000L));
+        RouteCache.Entry decoded = RouteCache.decode(bytes, key);
+
+        assertNotNull(decoded);
+        assertEquals(1_700_000_000_000L, decoded.createdMs);
+        assertEquals(500, decoded.geometry.getPointCount());
+        for (int i = 0; i < 500; i++) {
+            assertEquals(geometry.getLon(i), decoded.geometry.getLon(i), 1e-7);
+            assertEquals(geometry.getLat(i), decoded.geometry.getLat(i), 1e-7);
+        }
+        assertEquals(geometry.getTotalLengthMeters(), decoded.geometry.getTotalLengthMeters(), 0.05);
+        assertEquals(3, decoded.digest.size());
+        assertEquals("Atatürk Bulvarı", decoded.digest.streetName(0));
+        assertNull(decoded.digest.streetName(1));
+        assertSame(TurnCommandTable.get().forName("TURN_LEFT"), decoded.digest.command(2));
+        assertSame(TurnCommandTable.get().none(), decoded.digest.command(1));
+        assertNull(decoded.digest.instructionText(2));
+        assertEquals(420.75, decoded.digest.distanceFromStart(2), 1e-3);
+        // Ad çakışmasında başka anahtarın kaydı kullanılmaz.
+        assertNull(RouteCache.decode(bytes, key(32.9)));
+        // 500 nokta için nokta başına birkaç bayt.
+        assertTrue("encoded size " + bytes.length, bytes.length < 500 * 8);
+    }
+
+    @Test
+    public void memoryTierHoldsADetachedCopyOfTheRoute() {
+        RouteCache cache = new RouteCache(null, 2, 0, DAY_MS);
+        RouteGeometry live = geometry(200);
+        double[] lons = new double[200];
+        double[] lats = new double[200];
+        for (int i = 0; i < 200; i++) {
+            lons[i] = live.getLon(i);
+            lats[i] = live.getLat(i);
+        }
+        RouteGeometry recalculated = RouteGeometry.splice(live, null, lons, lats);
+        cache.put(key(32.1), recalculated, digest(), 1_000L);
+
+        RouteGeometry cached = cache.get(key(32.1), 1_000L).geometry;
+        assertNotSame(recalculated, cached);
+        assertNull(cached.getSourcePoints());
+        assertNull("yeniden hesaplama zinciri önbellekte tutulmaz", cached.getSplicedFrom());
+        assertEquals(200, cached.getPointCount());
+        assertEquals(recalculated.getTotalLengthMeters(), cached.getTotalLengthMeters(), 0);
+    }
+
+    @Test
+    public void memoryLruEvictsLeastRecentlyUsed() {
+        RouteCache cache = new RouteCache(null, 2, 0, DAY_MS);
+        long now = 1_000L;
+        cache.put(key(32.1), geometry(10), digest(), now);
+        cache.put(key(32.2), geometry(10), digest(), now);
+        assertNotNull(cache.get(key(32.1), now));
+        cache.put(key(32.3), geometry(10), digest(), now);
+
+        assertNull("en uzun süre kullanılmayan atılmalı", cache.get(key(32.2), now));
+        assertNotNull(cache.get(key(32.1), now));
+        assertNotNull(cache.get(key(32.3), now));
+        assertEquals(3, cache.getHitCount());
+        assertEquals(1, cache.getMissCount());
+    }
+
+    @Test
+    public void entriesSurviveRestartThroughDisk() throws IOException {
+        File directory = tempDirectory();
+        try {
+            long now = 10 * DAY_MS;
+            new RouteCache(directory, 4, 8, DAY_MS).put(key(32.8148), geometry(5_000), digest(), now);
+
+            // Yeni süreç: bellek boş, kayıt diskten okunur.
+            RouteCache restarted = new RouteCache(directory, 4, 8, DAY_MS);
+            RouteCache.Entry entry = restarted.get(key(32.8148), now + 1_000);
+            assertNotNull(entry);
+            assertEquals(5_000, entry.geometry.getPointCount());
+            assertEquals(3, entry.digest.size());
+            assertEquals(1, restarted.getDiskHitCount());
+            assertNotNull(restarted.get(key(32.8148), now + 2_000));
+            assertEquals(1, restarted.getHitCount());
+
+            // Süresi dolan kayıt kullanılmaz ve silinir.
+            RouteCache later = new RouteCache(directory, 4, 8, DAY_MS);
+            assertNull(later.get(key(32.8148), now + 2 * DAY_MS));
+            assertFalse(new File(directory, key(32.8148).fileName()).exists());
+        } finally {
+            deleteRecursively(directory);
+        }
+    }
+
+    @Test
+    public void corruptFilesAreDroppedAndDiskIsBounded() throws IOException {
+        File directory = tempDirectory();
+        try {
+            long now = DAY_MS;
+            RouteCache cache = new RouteCache(directory, 1, 3, DAY_MS);
+            try (FileOutputStream output = new FileOutputStream(new File(directory, key(32.5).fileName()))) {
+                output.write(new byte[]{'Y', 'R', 'T', 'C', 1, 7});
+            }
+            assertNull(cache.get(key(32.5), now));
+            assertFalse(new File(directory, key(32.5).fileName()).exists());
+            assertEquals(1, cache.getDroppedCount());
+
+            for (int i = 0; i < 5; i++) {
+                File file = new File(directory, key(32.0 + i * 0.01).fileName());
+                cache.put(key(32.0 + i * 0.01), geometry(20), digest(), now);
+                // Dosya zamanları saniye çözünürlüklü olabilir; sıra açıkça verilir.
+                file.setLastModified(now + i * 1_000L);
+            }
+            String[] files = directory.list((dir, name) -> name.endsWith(".route"));
+            assertNotNull(files);
+            assertTrue("disk kapasitesi aşılmamalı: " + files.length, files.length <= 3);
+            assertTrue(new File(directory, key(32.04).fileName()).exists());
+        } finally {
+            deleteRecursively(directory);
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package com.akylas.yolbiltest.ui.main;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/** RouteDigest dizi erişimleri ve manifest indeks sınırları (host üzerinde çalışır). */
+public class RouteDigestTest {
+
+    private static RouteDigest sampleDigest() {
+        return new RouteDigest(
+                new String[]{"Eskişehir Yolu", null, "Atatürk Bulvarı"},
+                new String[]{"TURN_RIGHT", null, "TURN_LEFT"},
+                new String[]{"Sağa dönün", "Düz devam edin", "Sola dönün"},
+                new double[]{120, 300, 80});
+    }
+
+    @Test
+    public void lookupsAreIndexedByManifestIndex() {
+        RouteDigest digest = sampleDigest();
+        TurnCommandTable table = TurnCommandTable.get();
+
+        assertEquals(3, digest.size());
+        assertEquals("Eskişehir Yolu", digest.streetName(0));
+        assertNull(digest.streetName(1));
+        assertEquals("Sola dönün", digest.instructionText(2));
+        assertSame(table.forName("TURN_RIGHT"), digest.command(0));
+        assertSame(table.none(), digest.command(1));
+        assertEquals(table.forName("TURN_LEFT").iconRes, digest.iconRes(2));
+        assertEquals(table.forName("TURN_LEFT").directionTextRes, digest.directionTextRes(2));
+    }
+
+    @Test
+    public void distancesAccumulateFromRouteStart() {
+        RouteDigest digest = sampleDigest();
+
+        assertEquals(0, digest.distanceFromStart(0), 0);
+        assertEquals(120, digest.distanceFromStart(1), 0);
+        assertEquals(420, digest.distanceFromStart(2), 0);
+        assertEquals(500, digest.getTotalMeters(), 0);
+    }
+
+    @Test
+    public void firstInstructionAfterMatchesLinearScan() {
+        // Sıfır uzunluklu talimatlar aynı başlangıç mesafesini paylaşır.
+        RouteDigest digest = new RouteDigest(
+                new String[]{"a", "b", "c", "d", "e"},
+                new String[]{null, null, null, null, null},
+                new String[]{null, null, null, null, null},
+                new double[]{100, 0, 0, 250, 50});
+        for (double along = -10; along <= 420; along += 2.5) {
+            int expected = -1;
+            for (int i = 0; i < digest.size(); i++) {
+                if (digest.distanceFromStart(i) > along) {
+                    expected = i;
+                    break;
+                }
+            }
+            assertEquals("along " + along, expected, digest.firstInstructionAfter(along));
+        }
+        assertEquals(4, digest.firstInstructionAfter(100));
+        assertEquals(-1, digest.firstInstructionAfter(350));
+    }
+
+    @Test
+    public void outOfRangeIndicesFallBack() {
+        RouteDigest digest = sampleDigest();
+        TurnCommandTable table = TurnCommandTable.get();
+
+        assertNull(digest.streetName(-1));
+        assertNull(digest.streetName(3));
+        assertNull(digest.instructionText(7));
+        assertSame(table.none(), digest.command(-1));
+        assertEquals(table.none().iconRes, digest.iconRes(3));
+        assertEquals(0, digest.distanceFromStart(-1), 0);
+        assertEquals(500, digest.distanceFromStart(3), 0);
+
+        assertEquals(0, RouteDigest.EMPTY.size());
+        assertNull(RouteDigest.EMPTY.streetName(0));
+        assertEquals(0, RouteDigest.fromNavigationResult(null).size());
+    }
+}
@@ -0,0 +1,75 @@
+package com.akylas.yolbiltest.ui.main;
+
+import com.akylas.yolbiltest.utils.GeoMath;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/** RouteGeometry doğruluk kontrolleri ve GeoMath ile vertex başına eşdeğerlik (host üzerinde). */
+public class RouteGeometryTest {
+
+    private static final int ROUTE_VERTICES = 2_000;
+
+    @Test
+    public void cumulativeDistanceBearingAndBounds() {
+        // Ekvator üzerinde doğuya doğru 0.001 derecelik adımlar (~111 m).
+        double[] lons = {32.000, 32.001, 32.002, 32.003};
+        double[] lats = {0.0, 0.0, 0.0, 0.0};
+        RouteGeometry geometry = RouteGeometry.fromCoordinates(lons, lats);
+
+        assertEquals(4, geometry.getPointCount());
+        assertEquals(3, geometry.getSegmentCount());
+        assertEquals(333.6, geometry.getTotalLengthMeters(), 0.5);
+        for (int i = 0; i < geometry.getSegmentCount(); i++) {
+            assertEquals(90.0, geometry.getSegmentBearing(i), 1e-6);
+        }
+        assertEquals(32.000, geometry.getMinLon(), 0);
+        assertEquals(32.003, geometry.getMaxLon(), 0);
+        assertEquals(0.0, geometry.getMinLat(), 0);
+        assertEquals(0.0, geometry.getMaxLat(), 0);
+    }
+
+    @Test
+    public void findSegmentIndexUsesCumulativeDistance() {
+        RouteGeometry geometry = RouteGeometry.fromCoordinates(
+                new double[]{32.000, 32.001, 32.002, 32.003},
+                new double[]{0.0, 0.0, 0.0, 0.0});
+
+        assertEquals(0, geometry.findSegmentIndex(-5));
+        assertEquals(0, geometry.findSegmentIndex(50));
+        assertEquals(1, geometry.findSegmentIndex(150));
+        assertEquals(2, geometry.findSegmentIndex(300));
+        assertEquals(2, geometry.findSegmentIndex(10_000));
+        assertEquals(1, geometry.findSegmentIndex(geometry.getDistanceAt(1)));
+    }
+
+    @Test
+    public void singlePointRouteHasNoSegments() {
+        RouteGeometry geometry = RouteGeometry.fromCoordinates(new double[]{32.0}, new double[]{39.9});
+        assertEquals(0, geometry.getSegmentCount());
+        assertEquals(0.0, geometry.getTotalLengthMeters(), 0);
+        assertEquals(-1, geometry.findSegmentIndex(10));
+    }
+
+    @Test
+    public void primitiveStoreMatchesPerVertexComputation() {
+        double[] lons = new double[ROUTE_VERTICES];
+        double[] lats = new double[ROUTE_VERTICES];
+        for (int i = 0; i < ROUTE_VERTICES; i++) {
+            lons[i] = 29.0 + i * 0.0001;
+            lats[i] = 40.0 + Math.sin(i * 0.01) * 0.01;
+        }
+        RouteGeometry geometry = RouteGeometry.fromCoordinates(lons, lats);
+
+        assertEquals(0.0, geometry.getDistanceAt(0), 0);
+        double expectedDistance = 0;
+        for (int i = 1; i < ROUTE_VERTICES; i++) {
+            expectedDistance += GeoMath.distanceMeters(lats[i - 1], lons[i - 1], lats[i], lons[i]);
+            assertEquals("distance at " + i, expectedDistance, geometry.getDistanceAt(i), 1e-6);
+            assertEquals("bearing of segment " + (i - 1),
+                    GeoMath.bearingDegrees(lats[i - 1], lons[i - 1], lats[i], lons[i]),
+                    geometry.getSegmentBearing(i - 1), 1e-9);
+        }
+    }
+}
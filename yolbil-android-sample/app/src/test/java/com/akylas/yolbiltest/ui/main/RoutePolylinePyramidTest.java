@@ -0,0 +1,121 @@
+package com.akylas.yolbiltest.ui.main;
+
+import com.akylas.yolbiltest.utils.GeoMath;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/** RoutePolylinePyramid seviye iç içeliği, tolerans garantisi ve uzun rota maliyeti (host üzerinde). */
+public class RoutePolylinePyramidTest {
+
+    /** Ankara çevresinde kıvrımlı, yer yer düz giden uzun bir rota; rastgele sapmalar tohumla sabitlenir. */
+    private static RouteGeometry longRoute(int points) {
+        Random random = new Random(42);
+        double[] lons = new double[points];
+        double[] lats = new double[points];
+        double lon = 32.85;
+        double lat = 39.93;
+        double heading = 0;
+        for (int i = 0; i < points; i++) {
+            lons[i] = lon;
+            lats[i] = lat;
+            // Ara sıra dönüş, çoğunlukla doğrusal ilerleme (~8 m adım).
+            if (i % 200 == 0) {
+                heading += (random.nextDouble() - 0.5) * Math.PI;
+            }
+            double step = 8 / GeoMath.METERS_PER_DEGREE;
+            lon += Math.cos(heading) * step / Math.cos(Math.toRadians(lat)) + (random.nextDouble() - 0.5) * 1e-6;
+            lat += Math.sin(heading) * step + (random.nextDouble() - 0.5) * 1e-6;
+        }
+        return RouteGeometry.fromCoordinates(lons, lats);
+    }
+
+    @Test
+    public void levelsAreNestedAndKeepEndpoints() {
+        RouteGeometry geometry = longRoute(5_000);
+        RoutePolylinePyramid pyramid = RoutePolylinePyramid.build(geometry);
+
+        int previous = 0;
+        for (int level = 0; level < pyramid.getLevelCount(); level++) {
+            int count = pyramid.getPointCount(level);
+            assertTrue("seviyeler ayrıntıya doğru büyümeli", count >= previous);
+            assertEquals(0, pyramid.getSourceIndex(level, 0));
+            assertEquals(4_999, pyramid.getSourceIndex(level, count - 1));
+            if (level > 0) {
+                // Kaba seviyedeki her nokta ayrıntılı seviyede de bulunur.
+                int finer = 0;
+                for (int i = 0; i < pyramid.getPointCount(level - 1); i++) {
+                    int index = pyramid.getSourceIndex(level - 1, i);
+                    while (pyramid.getSourceIndex(level, finer) < index) {
+                        finer++;
+                    }
+                    assertEquals(index, pyramid.getSourceIndex(level, finer));
+                }
+            }
+            previous = count;
+        }
+        assertTrue("genel görünüm seviyesi çok daha seyrek olmalı: " + pyramid.getPointCount(0),
+                pyramid.getPointCount(0) < 5_000 / 20);
+    }
+
+    @Test
+    public void droppedVerticesStayWithinLevelTolerance() {
+        int count = 2_000;
+        Random random = new Random(7);
+        double[] xs = new double[count];
+        double[] ys = new double[count];
+        for (int i = 0; i < count; i++) {
+            xs[i] = i * 3.0;
+            ys[i] = Math.sin(i * 0.02) * 40 + random.nextGaussian() * 2;
+        }
+        double[] significance = RoutePolylinePyramid.computeSignificance(xs, ys);
+        double tolerance = 5.0;
+        int anchor = 0;
+        for (int i = 1; i < count; i++) {
+            if (significance[i] <= tolerance) {
+                continue;
+            }
+            for (int dropped = anchor + 1; dropped < i; dropped++) {
+                double distance = segmentDistance(xs[dropped], ys[dropped], xs[anchor], ys[anchor], xs[i], ys[i]);
+                assertTrue("vertex " + dropped + " sapması " + distance, distance <= tolerance + 1e-9);
+            }
+            anchor = i;
+        }
+        assertEquals(count - 1, anchor);
+        assertTrue(Double.isInfinite(significance[0]));
+    }
+
+    @Test
+    public void zoomBandsMapToLevels() {
+        assertEquals(0, RoutePolylinePyramid.levelForZoom(4f));
+        assertEquals(1, RoutePolylinePyramid.levelForZoom(8f));
+        assertEquals(2, RoutePolylinePyramid.levelForZoom(12.5f));
+        assertEquals(4, RoutePolylinePyramid.levelForZoom(19f));
+        // 40° enlemde zoom 17'de bir piksel ~0.9 m.
+        assertEquals(0.915, RoutePolylinePyramid.metersPerPixel(17f, 40), 0.01);
+    }
+
+    @Test
+    public void levelsOf50kVertexRouteGrowMonotonically() {
+        RouteGeometry geometry = longRoute(50_000);
+        RoutePolylinePyramid pyramid = RoutePolylinePyramid.build(geometry);
+
+        // Kaba seviye uzak zoom'da çizilir; ince seviyeye doğru nokta sayısı azalmadan artar.
+        assertTrue(pyramid.getPointCount(0) < 50_000 / 50);
+        for (int level = 1; level < pyramid.getLevelCount(); level++) {
+            assertTrue(pyramid.getPointCount(level) >= pyramid.getPointCount(level - 1));
+        }
+        assertTrue(pyramid.getPointCount(pyramid.getLevelCount() - 1) < 50_000);
+    }
+
+    private static double segmentDistance(double px, double py, double ax, double ay, double bx, double by) {
+        double dx = bx - ax;
+        double dy = by - ay;
+        double lengthSq = dx * dx + dy * dy;
+        double t = lengthSq > 0 ? Math.max(0, Math.min(1, ((px - ax) * dx + (py - ay) * dy) / lengthSq)) : 0;
+        return Math.hypot(ax + t * dx - px, ay + t * dy - py);
+    }
+}
@@ -0,0 +1,68 @@
+package com.akylas.yolbiltest.ui.main;
+
+import com.akylas.yolbiltest.utils.GeoMath;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/** RouteProgressTracker ilerleme ve rota dışı histerezisi (düz doğu yönlü rota üzerinde, host üzerinde). */
+public class RouteProgressTrackerTest {
+
+    private static final double LAT = 39.93;
+    private static final double METERS_PER_LON = GeoMath.METERS_PER_DEGREE * Math.cos(Math.toRadians(LAT));
+
+    private static RouteProgressTracker tracker() {
+        double[] lons = new double[101];
+        double[] lats = new double[101];
+        for (int i = 0; i < lons.length; i++) {
+            lons[i] = 32.85 + i * 10 / METERS_PER_LON;
+            lats[i] = LAT;
+        }
+        return new RouteProgressTracker(RouteGeometry.fromCoordinates(lons, lats).getSegmentIndex());
+    }
+
+    /** Rota başından eastMeters ilerideki ve northMeters kuzeydeki nokta. */
+    private static RouteProgressTracker.Progress at(RouteProgressTracker tracker, double eastMeters,
+                                                    double northMeters) {
+        return tracker.update(32.85 + eastMeters / METERS_PER_LON, LAT + northMeters / GeoMath.METERS_PER_DEGREE);
+    }
+
+    @Test
+    public void progressFollowsTheRoute() {
+        RouteProgressTracker tracker = tracker();
+        RouteProgressTracker.Progress progress = at(tracker, 255, 6);
+
+        assertFalse(progress.offRoute);
+        assertEquals(255, progress.distanceAlongMeters, 0.5);
+        assertEquals(745, progress.remainingMeters, 0.5);
+        assertEquals(6, progress.distanceToRouteMeters, 0.05);
+        assertEquals(25, progress.segmentIndex);
+    }
+
+    @Test
+    public void offRouteNeedsConsecutiveFarFixesAndClearsCloser() {
+        RouteProgressTracker tracker = tracker();
+        at(tracker, 100, 0);
+
+        // Tek bir sıçrama rota dışı sayılmaz ve ilerlemeyi bozmaz.
+        RouteProgressTracker.Progress jump = at(tracker, 110, 60);
+        assertFalse(jump.offRoute);
+        assertEquals(100, jump.distanceAlongMeters, 0.5);
+        assertFalse(at(tracker, 120, 0).offRoute);
+
+        for (int i = 0; i < RouteProgressTracker.OFF_ROUTE_CONFIRM_FIXES - 1; i++) {
+            assertFalse(at(tracker, 130 + i * 10, 55).offRoute);
+        }
+        RouteProgressTracker.Progress off = at(tracker, 160, 150);
+        assertTrue(off.offRoute);
+        assertTrue("arama yarıçapı dışında uzaklık bilinmez", Double.isNaN(off.distanceToRouteMeters));
+        assertEquals(120, off.distanceAlongMeters, 0.5);
+
+        // Giriş eşiğinin altında ama çıkış eşiğinin üstünde: hâlâ rota dışı.
+        assertTrue(at(tracker, 170, 30).offRoute);
+        RouteProgressTracker.Progress back = at(tracker, 180, 10);
+        assertFalse(back.offRoute);
+        assertEquals(180, back.distanceAlongMeters, 0.5);
+    }
+}
@@ -0,0 +1,179 @@
+package com.akylas.yolbiltest.ui.main;
+
+import org.junit.Test;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+/** RouteRequestExecutor birleştirme, iptal ve teslim sırası (elle sürülen yürütücülerle, host üzerinde). */
+public class RouteRequestExecutorTest {
+
+    private static final RouteRequestExecutor.RouteKey ANKARA =
+            new RouteRequestExecutor.RouteKey(32.85, 39.93, 32.81, 39.92, false);
+    private static final RouteRequestExecutor.RouteKey ANKARA_OFFLINE =
+            new RouteRequestExecutor.RouteKey(32.85, 39.93, 32.81, 39.92, true);
+
+    /** Görevleri sıraya alır; test hangi anda çalışacaklarını seçer. */
+    private static final class ManualExecutor implements Executor {
+        final ArrayDeque<Runnable> tasks = new ArrayDeque<>();
+
+        @Override
+        public void execute(Runnable command) {
+            tasks.add(command);
+        }
+
+        void runAll() {
+            Runnable task;
+            while ((task = tasks.poll()) != null) {
+                task.run();
+            }
+        }
+    }
+
+    private static final class RecordingCallback implements RouteRequestExecutor.Callback<String> {
+        final List<String> results = new ArrayList<>();
+        final List<Exception> errors = new ArrayList<>();
+
+        @Override
+        public void onRouteReady(String result) {
+            results.add(result);
+        }
+
+        @Override
+        public void onRouteFailed(Exception error) {
+            errors.add(error);
+        }
+    }
+
+    @Test
+    public void identicalInFlightRequestsShareOneSearch() {
+        ManualExecutor workers = new ManualExecutor();
+        ManualExecutor main = new ManualExecutor();
+        RouteRequestExecutor<String> executor = new RouteRequestExecutor<>(workers, main);
+        AtomicInteger searches = new AtomicInteger();
+        RecordingCallback first = new RecordingCallback();
+        RecordingCallback second = new RecordingCallback();
+
+        assertNull(executor.join(ANKARA, second));
+        executor.submit(ANKARA, () -> "route-" + searches.incrementAndGet(), first);
+        assertNotNull(executor.join(ANKARA, second));
+        // Offline bayrağı farklı istek birleştirilmez.
+        assertNull(executor.join(ANKARA_OFFLINE, new RecordingCallback()));
+
+        workers.runAll();
+        assertTrue("teslim callback yürütücüsünde yapılmalı", first.results.isEmpty());
+        main.runAll();
+
+        assertEquals(1, searches.get());
+        assertEquals(1, executor.getMergedCount());
+        assertEquals(0, executor.getInFlightCount());
+        assertEquals(1, first.results.size());
+        assertEquals("route-1", first.results.get(0));
+        assertEquals("route-1", second.results.get(0));
+    }
+
+    @Test
+    public void cancellingLastRequestCancelsTheSearch() {
+        ManualExecutor workers = new ManualExecutor();
+        ManualExecutor main = new ManualExecutor();
+        RouteRequestExecutor<String> executor = new RouteRequestExecutor<>(workers, main);
+        AtomicInteger searches = new AtomicInteger();
+        RecordingCallback callback = new RecordingCallback();
+
+        RouteRequestExecutor.Request<String> request =
+                executor.submit(ANKARA, () -> "route-" + searches.incrementAndGet(), callback);
+        assertTrue(request.cancel(true));
+        assertTrue(request.isCancelled());
+        assertFalse(request.cancel(true));
+        assertEquals(0, executor.getInFlightCount());
+
+        workers.runAll();
+        main.runAll();
+        assertEquals(0, searches.get());
+        assertTrue(callback.results.isEmpty());
+        assertTrue(callback.errors.isEmpty());
+    }
+
+    @Test
+    public void cancellingOneMergedRequestKeepsTheOther() {
+        ManualExecutor workers = new ManualExecutor();
+        ManualExecutor main = new ManualExecutor();
+        RouteRequestExecutor<String> executor = new RouteRequestExecutor<>(workers, main);
+        RecordingCallback stale = new RecordingCallback();
+        RecordingCallback current = new RecordingCallback();
+
+        RouteRequestExecutor.Request<String> staleRequest = executor.submit(ANKARA, () -> "route", stale);
+        executor.join(ANKARA, current);
+        staleRequest.cancel(true);
+        assertEquals(1, executor.getInFlightCount());
+
+        workers.runAll();
+        main.runAll();
+        assertTrue(stale.results.isEmpty());
+        assertEquals(1, current.results.size());
+    }
+
+    @Test
+    public void cancelBetweenCompletionAndDeliverySuppressesCallback() {
+        ManualExecutor workers = new ManualExecutor();
+        ManualExecutor main = new ManualExecutor();
+        RouteRequestExecutor<String> executor = new RouteRequestExecutor<>(workers, main);
+        RecordingCallback callback = new RecordingCallback();
+
+        RouteRequestExecutor.Request<String> request = executor.submit(ANKARA, () -> "route", callback);
+        workers.runAll();
+        // Arama bitti, teslim ana thread kuyruğunda bekliyor; kullanıcı bu arada mod değiştirdi.
+        assertTrue(request.cancel(true));
+        main.runAll();
+
+        assertTrue(callback.results.isEmpty());
+        assertFalse(request.cancel(true));
+    }
+
+    @Test
+    public void failuresAreDeliveredAndDeliveredRequestsCannotBeCancelled() {
+        ManualExecutor workers = new ManualExecutor();
+        ManualExecutor main = new ManualExecutor();
+        RouteRequestExecutor<String> executor = new RouteRequestExecutor<>(workers, main);
+        RecordingCallback failing = new RecordingCallback();
+        RecordingCallback succeeding = new RecordingCallback();
+
+        executor.submit(ANKARA, () -> {
+            throw new IllegalStateException("offline graph missing");
+        }, failing);
+        RouteRequestExecutor.Request<String> request = executor.submit(ANKARA_OFFLINE, () -> "route", succeeding);
+        workers.runAll();
+        main.runAll();
+
+        assertEquals(1, failing.errors.size());
+        assertEquals("offline graph missing", failing.errors.get(0).getMessage());
+        assertTrue(failing.results.isEmpty());
+        assertEquals(1, succeeding.results.size());
+        assertTrue(request.isDone());
+        assertFalse(request.cancel(true));
+    }
+
+    @Test
+    public void cancelAllDropsEveryPendingRequest() {
+        ManualExecutor workers = new ManualExecutor();
+        ManualExecutor main = new ManualExecutor();
+        RouteRequestExecutor<String> executor = new RouteRequestExecutor<>(workers, main);
+        RecordingCallback online = new RecordingCallback();
+        RecordingCallback offline = new RecordingCallback();
+
+        executor.submit(ANKARA, () -> "online", online);
+        executor.submit(ANKARA_OFFLINE, () -> "offline", offline);
+        executor.cancelAll();
+        assertEquals(0, executor.getInFlightCount());
+
+        workers.runAll();
+        main.runAll();
+        assertTrue(online.results.isEmpty());
+        assertTrue(offline.results.isEmpty());
+    }
+}
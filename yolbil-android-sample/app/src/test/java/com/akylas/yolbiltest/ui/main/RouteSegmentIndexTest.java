@@ -0,0 +1,150 @@
+package com.akylas.yolbiltest.ui.main;
+
+import com.akylas.yolbiltest.utils.GeoMath;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/** RouteSegmentIndex doğrusal taramayla eşdeğerlik, ipucu davranışı ve 50k vertex ölçümü (host üzerinde). */
+public class RouteSegmentIndexTest {
+
+    private static final double LAT = 39.93;
+    private static final double METERS_PER_LON = GeoMath.METERS_PER_DEGREE * Math.cos(Math.toRadians(LAT));
+
+    /** Kıvrımlı, seyrek ve sık vertex karışımı rota; tohumla sabittir. */
+    private static RouteGeometry windingRoute(int points, long seed) {
+        Random random = new Random(seed);
+        double[] lons = new double[points];
+        double[] lats = new double[points];
+        double lon = 32.85;
+        double lat = LAT;
+        double heading = 0;
+        for (int i = 0; i < points; i++) {
+            lons[i] = lon;
+            lats[i] = lat;
+            if (i % 150 == 0) {
+                heading += (random.nextDouble() - 0.5) * 2.5;
+            }
+            // Çoğunlukla ~8 m, ara sıra uzun düz segment.
+            double step = i % 997 == 0 ? 600 : 8;
+            lon += Math.cos(heading) * step / METERS_PER_LON;
+            lat += Math.sin(heading) * step / GeoMath.METERS_PER_DEGREE;
+        }
+        return RouteGeometry.fromCoordinates(lons, lats);
+    }
+
+    @Test
+    public void nearestMatchesLinearScan() {
+        RouteGeometry geometry = windingRoute(5_000, 3);
+        RouteSegmentIndex index = RouteSegmentIndex.build(geometry);
+        RouteSegmentIndex.Match fromIndex = new RouteSegmentIndex.Match();
+        RouteSegmentIndex.Match fromScan = new RouteSegmentIndex.Match();
+        Random random = new Random(11);
+        int matched = 0;
+        for (int q = 0; q < 3_000; q++) {
+            int vertex = random.nextInt(geometry.getPointCount());
+            double lon = geometry.getLon(vertex) + (random.nextDouble() - 0.5) * 200 / METERS_PER_LON;
+            double lat = geometry.getLat(vertex) + (random.nextDouble() - 0.5) * 200 / GeoMath.METERS_PER_DEGREE;
+            double radius = q % 3 == 0 ? 1_000 : 60;
+            boolean indexed = index.nearest(lon, lat, radius, -1, fromIndex);
+            boolean scanned = index.nearestLinear(lon, lat, radius, fromScan);
+            assertEquals("query " + q, scanned, indexed);
+            if (indexed) {
+                matched++;
+                assertEquals("query " + q, fromScan.distanceMeters, fromIndex.distanceMeters, 1e-9);
+                assertEquals("query " + q, fromScan.routeDistanceMeters, fromIndex.routeDistanceMeters, 1e-6);
+            }
+        }
+        assertTrue(matched > 1_000);
+    }
+
+    @Test
+    public void hintPrefersForwardSegmentOnOverlappingRoute() {
+        // Aynı yoldan 500 m gidip dönen rota: dönüşteki her nokta gidişteki bir noktayla çakışır.
+        int half = 51;
+        double[] lons = new double[half * 2 - 1];
+        double[] lats = new double[half * 2 - 1];
+        for (int i = 0; i < half; i++) {
+            lons[i] = 32.85 + i * 10 / METERS_PER_LON;
+            lats[i] = LAT;
+            lons[lons.length - 1 - i] = lons[i];
+            lats[lats.length - 1 - i] = LAT + 1e-6;
+        }
+        RouteGeometry geometry = RouteGeometry.fromCoordinates(lons, lats);
+        RouteSegmentIndex index = RouteSegmentIndex.build(geometry);
+        RouteSegmentIndex.Match match = new RouteSegmentIndex.Match();
+        double lon = 32.85 + 205 / METERS_PER_LON;
+
+        assertTrue(index.nearest(lon, LAT, 30, 10, match));
+        assertEquals("gidişteyken gidiş segmenti", 20, match.segment);
+        assertEquals(205, match.routeDistanceMeters, 0.5);
+
+        assertTrue(index.nearest(lon, LAT, 30, 75, match));
+        assertEquals("dönüşteyken dönüş segmenti", 79, match.segment);
+        assertEquals(795, match.routeDistanceMeters, 0.5);
+    }
+
+    @Test
+    public void farPointsAndDegenerateRoutesDoNotMatch() {
+        RouteGeometry geometry = windingRoute(500, 5);
+        RouteSegmentIndex index = RouteSegmentIndex.build(geometry);
+        RouteSegmentIndex.Match match = new RouteSegmentIndex.Match();
+        assertFalse(index.nearest(geometry.getLon(0) + 0.5, geometry.getLat(0), 100, -1, match));
+        assertEquals(-1, match.segment);
+        assertTrue(Double.isNaN(match.distanceMeters));
+
+        RouteSegmentIndex single = RouteSegmentIndex.build(
+                RouteGeometry.fromCoordinates(new double[]{32.85}, new double[]{LAT}));
+        assertFalse(single.nearest(32.85, LAT, 100, -1, match));
+        assertEquals(0, single.getCellCount());
+    }
+
+    @Test
+    public void indexMatchesLinearScanOn50kVerticesWithFewSegmentsExamined() {
+        RouteGeometry geometry = windingRoute(50_000, 42);
+        RouteSegmentIndex index = RouteSegmentIndex.build(geometry);
+
+        // 10 Hz, 15 m/s sürüş: fix başına ~1.5 m ilerleme ve ±5 m GPS gürültüsü, 10 dakikalık iz.
+        int fixes = 6_000;
+        double[] lons = new double[fixes];
+        double[] lats = new double[fixes];
+        Random random = new Random(9);
+        double along = 0;
+        for (int i = 0; i < fixes; i++) {
+            along += 1.5;
+            int segment = Math.max(0, geometry.findSegmentIndex(along));
+            double start = geometry.getDistanceAt(segment);
+            double length = geometry.getDistanceAt(segment + 1) - start;
+            double t = length > 0 ? (along - start) / length : 0;
+            lons[i] = geometry.getLon(segment) + (geometry.getLon(segment + 1) - geometry.getLon(segment)) * t
+                    + random.nextGaussian() * 5 / METERS_PER_LON;
+            lats[i] = geometry.getLat(segment) + (geometry.getLat(segment + 1) - geometry.getLat(segment)) * t
+                    + random.nextGaussian() * 5 / GeoMath.METERS_PER_DEGREE;
+        }
+
+        RouteSegmentIndex.Match match = new RouteSegmentIndex.Match();
+        RouteSegmentIndex.Match linear = new RouteSegmentIndex.Match();
+        int hint = -1;
+        long examined = 0;
+        for (int i = 0; i < fixes; i++) {
+            boolean found = index.nearest(lons[i], lats[i], 50, hint, match);
+            examined += match.examinedSegments;
+            if (found) {
+                hint = match.segment;
+            }
+            // Doğrusal tarama her fix'te 50k segmentin tamamını gezer; her 10. fix'te ipucusuz sorguyla karşılaştırılır.
+            if (i % 10 == 0) {
+                RouteSegmentIndex.Match unhinted = new RouteSegmentIndex.Match();
+                assertEquals(index.nearestLinear(lons[i], lats[i], 50, linear), found);
+                if (index.nearest(lons[i], lats[i], 50, -1, unhinted)) {
+                    assertEquals("fix " + i, linear.distanceMeters, unhinted.distanceMeters, 1e-9);
+                }
+            }
+        }
+        // Dizin, fix başına 50k segmentin yalnızca küçük bir kısmına bakar.
+        assertTrue("segments per fix " + examined / (double) fixes, examined < (long) fixes * 500);
+    }
+}
@@ -0,0 +1,165 @@
+package com.akylas.yolbiltest.ui.main;
+
+import com.akylas.yolbiltest.utils.GeoMath;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/** Yeniden hesaplanan rotanın önceki geometri ve dizinden yamanması; sonuçlar tam kurulumla aynıdır. */
+public class RouteSpliceTest {
+
+    private static final double LAT = 39.93;
+    private static final double METERS_PER_LON = GeoMath.METERS_PER_DEGREE * Math.cos(Math.toRadians(LAT));
+
+    /** Doğu yönlü, hafif kıvrımlı ~10 m aralıklı nokta dizisi: {lons, lats}. */
+    private static double[][] route(int points, long seed) {
+        Random random = new Random(seed);
+        double[] lons = new double[points];
+        double[] lats = new double[points];
+        double north = 0;
+        for (int i = 0; i < points; i++) {
+            north += (random.nextDouble() - 0.5) * 4;
+            lons[i] = 32.85 + i * 10 / METERS_PER_LON;
+            lats[i] = LAT + north / GeoMath.METERS_PER_DEGREE;
+        }
+        return new double[][]{lons, lats};
+    }
+
+    /** [from, to) noktalarını kuzeye doğru kavis yapan detourPoints noktayla değiştirir. */
+    private static double[][] detour(double[][] base, int from, int to, int detourPoints) {
+        int count = base[0].length - (to - from) + detourPoints;
+        double[] lons = new double[count];
+        double[] lats = new double[count];
+        System.arraycopy(base[0], 0, lons, 0, from);
+        System.arraycopy(base[1], 0, lats, 0, from);
+        double startLon = base[0][from - 1];
+        double endLon = base[0][to];
+        for (int k = 0; k < detourPoints; k++) {
+            double t = (k + 1) / (double) (detourPoints + 1);
+            lons[from + k] = startLon + (endLon - startLon) * t;
+            lats[from + k] = LAT + Math.sin(Math.PI * t) * 150 / GeoMath.METERS_PER_DEGREE;
+        }
+        System.arraycopy(base[0], to, lons, from + detourPoints, base[0].length - to);
+        System.arraycopy(base[1], to, lats, from + detourPoints, base[1].length - to);
+        return new double[][]{lons, lats};
+    }
+
+    @Test
+    public void diffFindsSharedPrefixAndSuffix() {
+        double[][] base = route(200, 1);
+        double[][] next = detour(base, 50, 80, 45);
+        RouteSplice splice = RouteSplice.diff(RouteGeometry.fromCoordinates(base[0], base[1]), next[0], next[1]);
+
+        assertEquals(50, splice.prefixPoints);
+        assertEquals(80, splice.oldSuffixStart);
+        assertEquals(95, splice.newSuffixStart);
+        assertEquals(45, splice.getChangedPoints());
+        assertEquals(170, splice.getSharedPoints());
+
+        assertEquals(49, splice.mapPoint(49));
+        assertEquals(-1, splice.mapPoint(60));
+        assertEquals(95, splice.mapPoint(80));
+        assertEquals(80, splice.unmapPoint(95));
+        assertEquals(-1, splice.unmapPoint(94));
+        // Değişen kısma değen segmentler eşlenmez.
+        assertEquals(48, splice.mapSegment(48));
+        assertEquals(-1, splice.mapSegment(49));
+        assertEquals(-1, splice.mapSegment(79));
+        assertEquals(95, splice.mapSegment(80));
+        assertEquals(-1, splice.mapSegment(199));
+        assertEquals(-1, splice.unmapSegment(94));
+    }
+
+    @Test
+    public void diffDoesNotOverlapOnRepeatedPoints() {
+        double[] lons = {1, 2, 2, 2, 3};
+        double[] lats = {0, 0, 0, 0, 0};
+        RouteSplice splice = RouteSplice.diff(RouteGeometry.fromCoordinates(lons, lats),
+                new double[]{1, 2, 2, 3}, new double[]{0, 0, 0, 0});
+
+        assertEquals(3, splice.prefixPoints);
+        assertEquals(3, splice.newSuffixStart);
+        assertEquals(4, splice.oldSuffixStart);
+        assertEquals(0, splice.getChangedPoints());
+    }
+
+    @Test
+    public void splicedGeometryMatchesFreshBuild() {
+        double[][] base = route(400, 2);
+        RouteGeometry previous = RouteGeometry.fromCoordinates(base[0], base[1]);
+        double[][] next = detour(base, 120, 160, 70);
+        RouteGeometry spliced = RouteGeometry.splice(previous, null, next[0], next[1]);
+        RouteGeometry fresh = RouteGeometry.fromCoordinates(next[0], next[1]);
+
+        assertSame(previous, spliced.getSplicedFrom());
+        assertNotNull(spliced.getSplice());
+        assertEquals(fresh.getPointCount(), spliced.getPointCount());
+        for (int i = 0; i < fresh.getPointCount(); i++) {
+            assertEquals("point " + i, fresh.getDistanceAt(i), spliced.getDistanceAt(i), 1e-6);
+        }
+        for (int s = 0; s < fresh.getSegmentCount(); s++) {
+            assertEquals("segment " + s, fresh.getSegmentBearing(s), spliced.getSegmentBearing(s), 1e-9);
+        }
+        assertEquals(fresh.getTotalLengthMeters(), spliced.getTotalLengthMeters(), 1e-6);
+        assertEquals(fresh.getMaxLat(), spliced.getMaxLat(), 0);
+    }
+
+    @Test
+    public void splicedIndexMatchesLinearScanAcrossChainedReroutes() {
+        double[][] points = route(600, 3);
+        RouteGeometry geometry = RouteGeometry.fromCoordinates(points[0], points[1]);
+        geometry.getSegmentIndex();
+        int[][] detours = {{100, 140, 60}, {300, 310, 30}, {450, 500, 20}, {50, 60, 12}};
+        Random random = new Random(7);
+        RouteSegmentIndex.Match fromIndex = new RouteSegmentIndex.Match();
+        RouteSegmentIndex.Match fromScan = new RouteSegmentIndex.Match();
+        for (int round = 0; round < detours.length; round++) {
+            points = detour(points, detours[round][0], detours[round][1], detours[round][2]);
+            RouteGeometry next = RouteGeometry.splice(geometry, null, points[0], points[1]);
+            assertNull("taban olan geometri eşlemesini bırakır", geometry.getSplice());
+            geometry = next;
+            RouteSegmentIndex index = geometry.getSegmentIndex();
+            assertTrue(index.getTableCount() <= RouteSegmentIndex.MAX_TABLES);
+            assertSame(geometry, index.getGeometry());
+            for (int q = 0; q < 500; q++) {
+                int vertex = random.nextInt(geometry.getPointCount());
+                double lon = geometry.getLon(vertex) + (random.nextDouble() - 0.5) * 120 / METERS_PER_LON;
+                double lat = geometry.getLat(vertex) + (random.nextDouble() - 0.5) * 120 / GeoMath.METERS_PER_DEGREE;
+                boolean indexed = index.nearest(lon, lat, 50, -1, fromIndex);
+                boolean scanned = index.nearestLinear(lon, lat, 50, fromScan);
+                assertEquals("round " + round + " query " + q, scanned, indexed);
+                if (indexed) {
+                    assertEquals(fromScan.distanceMeters, fromIndex.distanceMeters, 1e-9);
+                    assertEquals(fromScan.routeDistanceMeters, fromIndex.routeDistanceMeters, 1e-6);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void progressCarriesOverSharedPrefix() {
+        double[][] base = route(200, 4);
+        RouteGeometry previous = RouteGeometry.fromCoordinates(base[0], base[1]);
+        RouteProgressTracker tracker = new RouteProgressTracker(previous.getSegmentIndex());
+        double lon = (base[0][30] + base[0][31]) * 0.5;
+        double lat = (base[1][30] + base[1][31]) * 0.5;
+        RouteProgressTracker.Progress before = tracker.update(lon, lat);
+
+        double[][] next = detour(base, 100, 120, 40);
+        RouteGeometry spliced = RouteGeometry.splice(previous, null, next[0], next[1]);
+        RouteProgressTracker carried = tracker.continueOn(spliced.getSegmentIndex(), spliced.getSplice());
+        RouteProgressTracker.Progress after = carried.update(lon, lat);
+
+        assertEquals(before.segmentIndex, after.segmentIndex);
+        assertEquals(before.distanceAlongMeters, after.distanceAlongMeters, 1e-6);
+        assertEquals(spliced.getTotalLengthMeters() - after.distanceAlongMeters, after.remainingMeters, 1e-6);
+
+        // İpucu değişen kısımdaysa izleme baştan başlar.
+        double[][] early = detour(base, 20, 40, 25);
+        RouteGeometry rerouted = RouteGeometry.splice(spliced, null, early[0], early[1]);
+        assertEquals(-1, rerouted.getSplice().mapSegment(after.segmentIndex));
+    }
+}
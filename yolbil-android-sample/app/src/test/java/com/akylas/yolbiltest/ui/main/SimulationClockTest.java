@@ -0,0 +1,96 @@
+package com.akylas.yolbiltest.ui.main;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/** SimulationClock zaman hızlandırma hesabı ve SimulationSpeedProfile hız eğrileri (host üzerinde). */
+public class SimulationClockTest {
+
+    @Test
+    public void timeWarpShortensRealIntervalAndKeepsSimulatedTimeMonotonic() {
+        SimulationClock realTime = new SimulationClock(1000, 1.0);
+        assertEquals(1000, realTime.getRealIntervalMs());
+
+        SimulationClock warped = new SimulationClock(1000, 10.0);
+        assertEquals(100, warped.getRealIntervalMs());
+        warped.start(5_000);
+        assertEquals(1.0, warped.tick(), 1e-9);
+        assertEquals(6_000, warped.getTimestampMs());
+        warped.tick();
+        assertEquals(7_000, warped.getTimestampMs());
+
+        // Alt sınıra takılan aralıkta her tik daha uzun simüle süre taşır.
+        SimulationClock fastest = new SimulationClock(1000, 100.0);
+        assertEquals(50, fastest.getRealIntervalMs());
+        fastest.start(0);
+        assertEquals(5.0, fastest.tick(), 1e-9);
+        assertEquals(5_000, fastest.getTimestampMs());
+    }
+
+    @Test
+    public void timeWarpIsClamped() {
+        assertEquals(SimulationClock.MIN_TIME_WARP, SimulationClock.clampTimeWarp(0.1), 0);
+        assertEquals(SimulationClock.MIN_TIME_WARP, SimulationClock.clampTimeWarp(Double.NaN), 0);
+        assertEquals(SimulationClock.MAX_TIME_WARP, SimulationClock.clampTimeWarp(1_000), 0);
+        assertEquals(25.0, SimulationClock.clampTimeWarp(25), 0);
+        assertEquals(1000, new SimulationClock(1000, -3).getRealIntervalMs());
+    }
+
+    @Test
+    public void curveRampsLinearlyBetweenPointsAndHoldsAtEnds() {
+        // Kalkışta 0'dan 50 km/s'e, 1 km sonra 90 km/s'e çıkan, 2 km'de 30 km/s'e inen eğri.
+        SimulationSpeedProfile profile = SimulationSpeedProfile.curve(
+                new double[]{0, 200, 1_000, 2_000},
+                new double[]{0, 50, 90, 30});
+
+        assertEquals(0.0, profile.speedKmhAt(-10), 1e-9);
+        assertEquals(25.0, profile.speedKmhAt(100), 1e-9);
+        assertEquals(50.0, profile.speedKmhAt(200), 1e-9);
+        assertEquals(70.0, profile.speedKmhAt(600), 1e-9);
+        assertEquals(60.0, profile.speedKmhAt(1_500), 1e-9);
+        assertEquals(30.0, profile.speedKmhAt(2_000), 1e-9);
+        assertEquals(30.0, profile.speedKmhAt(5_000), 1e-9);
+
+        // Rampa boyunca hız adım adım artar.
+        double previous = -1;
+        for (int distance = 0; distance <= 1_000; distance += 50) {
+            double speed = profile.speedKmhAt(distance);
+            assertTrue(speed > previous);
+            previous = speed;
+        }
+    }
+
+    @Test
+    public void curveWithRepeatedDistanceStepsImmediately() {
+        SimulationSpeedProfile profile = SimulationSpeedProfile.curve(
+                new double[]{0, 500, 500, 1_000},
+                new double[]{30, 30, 80, 80});
+        assertEquals(30.0, profile.speedKmhAt(499), 1e-9);
+        assertEquals(80.0, profile.speedKmhAt(501), 1e-9);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void curveRejectsDescendingDistances() {
+        SimulationSpeedProfile.curve(new double[]{0, 500, 100}, new double[]{10, 20, 30});
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void curveRejectsMismatchedArrays() {
+        SimulationSpeedProfile.curve(new double[]{0, 500}, new double[]{10});
+    }
+
+    @Test
+    public void speedLimitProfileFallsBackWhenLimitUnknown() {
+        SimulationSpeedProfile profile = SimulationSpeedProfile.speedLimits(70);
+        assertEquals(70.0, profile.speedKmhAt(0), 0);
+        profile.onSpeedLimitChanged(50);
+        assertEquals(50.0, profile.speedKmhAt(100), 0);
+        profile.onSpeedLimitChanged(0);
+        assertEquals(70.0, profile.speedKmhAt(200), 0);
+
+        SimulationSpeedProfile constant = SimulationSpeedProfile.constant(40);
+        constant.onSpeedLimitChanged(90);
+        assertEquals(40.0, constant.speedKmhAt(0), 0);
+    }
+}
@@ -0,0 +1,98 @@
+package com.akylas.yolbiltest.ui.main;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/** SimulationCursor'ın segment sınırlarında ilerlemesi ve rota sonunda durması (host üzerinde). */
+public class SimulationCursorTest {
+
+    // Ekvatorda doğuya ~111 m, ardından kuzeye ~111 m giden iki segmentli rota.
+    private static RouteGeometry lShapedRoute() {
+        return RouteGeometry.fromCoordinates(
+                new double[]{32.000, 32.001, 32.001},
+                new double[]{0.000, 0.000, 0.001});
+    }
+
+    @Test
+    public void advanceCrossesSegmentBoundaries() {
+        RouteGeometry geometry = lShapedRoute();
+        SimulationCursor cursor = new SimulationCursor(geometry);
+        double firstSegment = geometry.getDistanceAt(1);
+
+        assertEquals(32.000, cursor.getLon(), 1e-9);
+        assertEquals(90.0, cursor.getBearing(), 1e-6);
+
+        cursor.advance(firstSegment / 2);
+        assertEquals(32.0005, cursor.getLon(), 1e-7);
+        assertEquals(0.0, cursor.getLat(), 1e-9);
+        assertEquals(90.0, cursor.getBearing(), 1e-6);
+
+        // Segment sonunu tam olarak geçmek bir sonraki segmente taşır.
+        cursor.advance(firstSegment / 2);
+        assertEquals(firstSegment, cursor.getDistanceMeters(), 1e-9);
+        assertEquals(32.001, cursor.getLon(), 1e-9);
+        assertEquals(0.0, cursor.getLat(), 1e-9);
+        assertEquals(0.0, cursor.getBearing(), 1e-6);
+
+        cursor.advance(geometry.getTotalLengthMeters() - firstSegment - 10);
+        assertEquals(32.001, cursor.getLon(), 1e-9);
+        assertTrue(cursor.getLat() > 0.0008 && cursor.getLat() < 0.001);
+        assertFalse(cursor.isAtEnd());
+    }
+
+    @Test
+    public void singleAdvanceSkipsSeveralSegments() {
+        RouteGeometry geometry = RouteGeometry.fromCoordinates(
+                new double[]{32.000, 32.001, 32.002, 32.003, 32.004},
+                new double[]{0.0, 0.0, 0.0, 0.0, 0.0});
+        SimulationCursor cursor = new SimulationCursor(geometry);
+
+        // Tek tikte üç segmentten fazla ilerleme.
+        double target = geometry.getDistanceAt(3) + 20;
+        cursor.advance(target);
+        assertEquals(target, cursor.getDistanceMeters(), 1e-9);
+        assertEquals(3, geometry.findSegmentIndex(target));
+        assertTrue(cursor.getLon() > 32.003 && cursor.getLon() < 32.004);
+    }
+
+    @Test
+    public void advanceStopsAtRouteEndAndIgnoresNegativeSteps() {
+        RouteGeometry geometry = lShapedRoute();
+        SimulationCursor cursor = new SimulationCursor(geometry);
+
+        cursor.advance(-50);
+        assertEquals(0.0, cursor.getDistanceMeters(), 0);
+
+        cursor.advance(geometry.getTotalLengthMeters() * 3);
+        assertTrue(cursor.isAtEnd());
+        assertEquals(geometry.getTotalLengthMeters(), cursor.getDistanceMeters(), 0);
+        assertEquals(32.001, cursor.getLon(), 1e-9);
+        assertEquals(0.001, cursor.getLat(), 1e-9);
+
+        // Rota sonunda ilerleme konumu değiştirmez.
+        cursor.advance(100);
+        assertEquals(0.001, cursor.getLat(), 1e-9);
+    }
+
+    @Test
+    public void seekMovesBackwardsAndAdvanceContinuesFromThere() {
+        RouteGeometry geometry = lShapedRoute();
+        SimulationCursor cursor = new SimulationCursor(geometry);
+        cursor.advance(geometry.getTotalLengthMeters());
+
+        cursor.seekFraction(0.25);
+        assertEquals(geometry.getTotalLengthMeters() / 4, cursor.getDistanceMeters(), 1e-9);
+        assertEquals(90.0, cursor.getBearing(), 1e-6);
+
+        // Geri sarıldıktan sonra ileri gitmek segment sınırını yeniden geçer.
+        cursor.advance(geometry.getTotalLengthMeters() / 2);
+        assertEquals(0.0, cursor.getBearing(), 1e-6);
+        assertEquals(32.001, cursor.getLon(), 1e-9);
+
+        cursor.seekFraction(-1);
+        assertEquals(0.0, cursor.getDistanceMeters(), 0);
+        cursor.seekFraction(2);
+        assertTrue(cursor.isAtEnd());
+    }
+}
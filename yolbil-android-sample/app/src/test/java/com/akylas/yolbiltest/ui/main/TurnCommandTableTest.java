@@ -0,0 +1,82 @@
+package com.akylas.yolbiltest.ui.main;
+
+import com.akylas.yolbiltest.R;
+
+import org.junit.Test;
+
+import java.util.Locale;
+
+import static org.junit.Assert.*;
+
+/**
+ * Önceden hesaplanan komut tablosunun NavigationCommandFormatter'daki contains() sırasıyla birebir aynı
+ * sonucu verdiğini doğrular.
+ */
+public class TurnCommandTableTest {
+
+    // Eşleşme zincirindeki tüm anahtarlar; iç içe geçen adlar (TURN_RIGHT / TURN_RIGHT_SHARP) sıranın önemini gösterir.
+    private static final String[] CASCADE_NAMES = {
+            "", "UNKNOWN_COMMAND", "turn_right", "TURN_RIGHT_SHARP", "TURN_FAR_RIGHT", "TURN_SECOND_RIGHT",
+            "TURN_THIRD_RIGHT", "TURN_RIGHT_AT_THE_END_OF_ROAD", "TURN_RIGHT_ONTO_ACCOMODATION", "TURN_RIGHT",
+            "TURN_LEFT_SHARP", "TURN_FAR_LEFT", "TURN_SECOND_LEFT", "TURN_THIRD_LEFT",
+            "TURN_LEFT_AT_THE_END_OF_ROAD", "TURN_LEFT_ONTO_ACCOMODATION", "TURN_LEFT",
+            "TAKE_FIRST_EXIT_ON_ROUNDABOUT", "TAKE_SECOND_EXIT_ON_ROUNDABOUT", "TAKE_THIRD_EXIT_ON_ROUNDABOUT",
+            "TAKE_FOURTH_EXIT_ON_ROUNDABOUT", "TAKE_FIFTH_EXIT_ON_ROUNDABOUT", "TAKE_SIXTH_EXIT_ON_ROUNDABOUT",
+            "STAY_RIGHT", "STAY_LEFT", "CONTINUE_RIGHT", "CONTINUE_LEFT", "CONTINUE_MIDDLE", "GO_STRAIGHT",
+            "IN_TUNNEL", "ABOUT_THE_ENTER_TUNNEL", "AFTER_TUNNEL", "UTURN", "REACHED_YOUR_DESTINATION",
+            "WILL_REACH_YOUR_DESTINATION", "PEDESTRIAN_ROAD", "OVERPASS", "UNDERPASS",
+            "EXCEEDED_THE_SPEED_LIMIT", "SERVICE_ROAD"
+    };
+
+    // SDK enum'undaki adların örneği; enum sınıfı JNI ile yüklendiği için tablo adlardan kurulur.
+    private static final String[] SDK_NAMES = {
+            "TURN_RIGHT", "TURN_LEFT", "TURN_RIGHT_SHARP", "TURN_LEFT_SHARP", "GO_STRAIGHT", "UTURN",
+            "REACHED_YOUR_DESTINATION", "WILL_REACH_YOUR_DESTINATION", "STAY_RIGHT", "STAY_LEFT", "IN_TUNNEL",
+            "TAKE_FIRST_EXIT_ON_ROUNDABOUT"
+    };
+
+    @Test
+    public void everyOrdinalMatchesCascade() {
+        TurnCommandTable table = new TurnCommandTable(SDK_NAMES);
+        assertEquals(SDK_NAMES.length + 1, table.size());
+        for (int ordinal = 0; ordinal < SDK_NAMES.length; ordinal++) {
+            TurnCommandTable.Entry entry = table.entryAt(ordinal + 1);
+            assertEquals(ordinal + 1, entry.index);
+            assertSame(entry, table.forName(SDK_NAMES[ordinal]));
+            assertMatchesCascade(SDK_NAMES[ordinal], entry);
+        }
+    }
+
+    @Test
+    public void namesOutsideTheEnumMatchCascade() {
+        TurnCommandTable table = new TurnCommandTable(SDK_NAMES);
+        for (String name : CASCADE_NAMES) {
+            TurnCommandTable.Entry entry = table.forName(name);
+            assertSame(entry, table.forName(name));
+            assertMatchesCascade(name, entry);
+        }
+        assertEquals(-1, table.forName("SERVICE_ROAD").index);
+    }
+
+    @Test
+    public void emptyCommandKeepsGoingStraight() {
+        TurnCommandTable table = new TurnCommandTable(SDK_NAMES);
+        assertSame(table.none(), table.forName(null));
+        assertSame(table.none(), table.forCommand(null));
+        assertSame(table.none(), table.entryAt(0));
+        assertTrue(table.none().isEmpty());
+        assertEquals(R.drawable.go_straight, table.none().iconRes);
+        assertEquals(R.string.keep_going_straight, table.none().directionTextRes);
+    }
+
+    private static void assertMatchesCascade(String name, TurnCommandTable.Entry entry) {
+        assertEquals(name, entry.name);
+        assertEquals(name, NavigationCommandFormatter.getIconForCommand(name), entry.iconRes);
+        assertEquals(name, NavigationCommandFormatter.getDirectionTextRes(name), entry.directionTextRes);
+        String normalized = name.toUpperCase(Locale.US);
+        boolean legacyFinal = normalized.contains("WILL_REACH_YOUR_DESTINATION")
+                || normalized.contains("REACHED_YOUR_DESTINATION")
+                || normalized.contains("DESTINATION");
+        assertEquals(legacyFinal, entry.isFinal);
+    }
+}
@@ -0,0 +1,61 @@
+package com.akylas.yolbiltest.ui.main;
+
+import org.junit.Test;
+
+import java.io.EOFException;
+import java.io.IOException;
+
+import static org.junit.Assert.*;
+
+/** Ortak varint kodlamasının sınır değerlerde gidiş-dönüşü ve kesik veride davranışı. */
+public class VarintCodecTest {
+
+    private static final long[] VALUES = {
+            0, 1, -1, 63, -64, 64, 127, 128, 300, -300, Integer.MAX_VALUE, Integer.MIN_VALUE,
+            Long.MAX_VALUE, Long.MIN_VALUE
+    };
+
+    @Test
+    public void signedAndUnsignedValuesRoundTrip() throws IOException {
+        VarintCodec.Encoder out = new VarintCodec.Encoder(0);
+        for (long value : VALUES) {
+            out.writeSignedVarint(value);
+            out.writeVarint(value);
+        }
+        out.writeLong(-2L);
+        out.writeFloat(12.5);
+        out.writeString(null);
+        out.writeString("Çankaya");
+
+        VarintCodec.Decoder in = new VarintCodec.Decoder(out.toByteArray());
+        for (long value : VALUES) {
+            assertEquals(value, in.readSignedVarint());
+            assertEquals(value, in.readVarint());
+        }
+        assertEquals(-2L, in.readLong());
+        assertEquals(12.5f, in.readFloat(), 0f);
+        assertNull(in.readString());
+        assertEquals("Çankaya", in.readString());
+        assertEquals(0, in.remaining());
+    }
+
+    @Test
+    public void smallSignedValuesTakeOneByte() {
+        VarintCodec.Encoder out = new VarintCodec.Encoder(0);
+        out.writeSignedVarint(-64);
+        out.writeSignedVarint(63);
+        assertEquals(2, out.length());
+        assertEquals(1, VarintCodec.zigzag(-1));
+        assertEquals(-1, VarintCodec.unzigzag(1));
+    }
+
+    @Test(expected = EOFException.class)
+    public void truncatedVarintThrowsEof() throws IOException {
+        new VarintCodec.Decoder(new byte[]{(byte) 0x80, (byte) 0x80}).readVarint();
+    }
+
+    @Test(expected = EOFException.class)
+    public void stringLongerThanBufferThrowsEof() throws IOException {
+        new VarintCodec.Decoder(new byte[]{10, 'a'}).readString();
+    }
+}
@@ -0,0 +1,85 @@
+package com.akylas.yolbiltest.utils;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/** GeoMath FAST modunun belgelenen hata sınırlarını ve toplu fonksiyonların tekil fonksiyonlarla eşdeğerliğini doğrular. */
+public class GeoMathTest {
+
+    private static final int SAMPLES = 20_000;
+
+    @Test
+    public void exactModeMatchesKnownValues() {
+        // Ankara - İstanbul kuş uçuşu ~351 km.
+        assertEquals(351_000, GeoMath.distanceMeters(39.9334, 32.8597, 41.0082, 28.9784), 2_000);
+        assertEquals(90.0, GeoMath.bearingDegrees(0, 0, 0, 1), 1e-9);
+        assertEquals(0.0, GeoMath.bearingDegrees(0, 0, 1, 0), 1e-9);
+        assertEquals(270.0, GeoMath.bearingDegrees(0, 1, 0, 0), 1e-9);
+
+        double[] out = new double[2];
+        GeoMath.interpolateGreatCircle(32.0, 0.0, 34.0, 0.0, 0.5, out);
+        assertEquals(33.0, out[0], 1e-9);
+        assertEquals(0.0, out[1], 1e-9);
+    }
+
+    @Test
+    public void fastModeStaysWithinDocumentedBounds() {
+        Random random = new Random(42);
+        double[] exact = new double[2];
+        double[] fast = new double[2];
+        double worstDistance = 0;
+        double worstBearing = 0;
+        double worstLerp = 0;
+        for (int i = 0; i < SAMPLES; i++) {
+            double lat1 = -70 + random.nextDouble() * 140;
+            double lon1 = -180 + random.nextDouble() * 360;
+            double length = 1 + random.nextDouble() * (GeoMath.FAST_MAX_SEGMENT_M - 1);
+            double heading = random.nextDouble() * 360;
+            double lat2 = lat1 + Math.cos(Math.toRadians(heading)) * length / 111_195.0;
+            double lon2 = lon1 + Math.sin(Math.toRadians(heading)) * length / (111_195.0 * Math.cos(Math.toRadians(lat1)));
+            if (Math.abs(lat2) > 70) {
+                continue;
+            }
+            double cosLat = GeoMath.cosLatitude(lat1, lat2);
+
+            double exactDistance = GeoMath.distanceMeters(lat1, lon1, lat2, lon2);
+            double fastDistance = GeoMath.fastDistanceMeters(lat1, lon1, lat2, lon2, cosLat);
+            worstDistance = Math.max(worstDistance, Math.abs(fastDistance - exactDistance) / exactDistance);
+
+            double bearingError = Math.abs(GeoMath.fastBearingDegrees(lat1, lon1, lat2, lon2, cosLat)
+                    - GeoMath.bearingDegrees(lat1, lon1, lat2, lon2));
+            worstBearing = Math.max(worstBearing, Math.min(bearingError, 360 - bearingError));
+
+            if (exactDistance < GeoMath.FLAT_LERP_MAX_SEGMENT_M) {
+                double fraction = random.nextDouble();
+                GeoMath.interpolateGreatCircle(lon1, lat1, lon2, lat2, fraction, exact);
+                GeoMath.interpolate(GeoMath.Mode.FAST, lon1, lat1, lon2, lat2, exactDistance, fraction, fast);
+                worstLerp = Math.max(worstLerp, GeoMath.distanceMeters(exact[1], exact[0], fast[1], fast[0]));
+            }
+        }
+        assertTrue(worstDistance < 0.001);
+        assertTrue(worstBearing < 0.25);
+        assertTrue(worstLerp < 0.1);
+    }
+
+    @Test
+    public void batchVariantsMatchScalarFunctions() {
+        double[] lons = {32.80, 32.81, 32.83, 32.83};
+        double[] lats = {39.90, 39.91, 39.91, 39.93};
+        double[] cumulative = new double[4];
+        double[] bearings = new double[3];
+        GeoMath.cumulativeDistances(GeoMath.Mode.EXACT, lons, lats, cumulative);
+        GeoMath.segmentBearings(GeoMath.Mode.FAST, lons, lats, bearings);
+
+        double expected = 0;
+        for (int i = 1; i < lons.length; i++) {
+            expected += GeoMath.distanceMeters(lats[i - 1], lons[i - 1], lats[i], lons[i]);
+            assertEquals(expected, cumulative[i], 1e-9);
+            assertEquals(GeoMath.bearingDegrees(GeoMath.Mode.FAST, lats[i - 1], lons[i - 1], lats[i], lons[i]),
+                    bearings[i - 1], 1e-12);
+        }
+    }
+}